@@ -24,6 +24,7 @@ package com.kenyajug.regression;
  */
 import com.kenyajug.regression.entities.User;
 import com.kenyajug.regression.repository.UserRepository;
+import com.kenyajug.regression.services.IWriterService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
@@ -35,13 +36,13 @@ import java.util.UUID;
 @Configuration
 public class InitialUserSetup {
     @Bean
-    public CommandLineRunner createDefaultUser(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public CommandLineRunner createDefaultUser(UserRepository userRepository, PasswordEncoder passwordEncoder, IWriterService writerService) {
         return args -> {
             if (!userRepository.existsByUsername("admin@regression.com")) {
                 var password = passwordEncoder.encode("admin123");
                 var roles = "{ROLE_ADMIN,ROLE_USER}";
                 var user = new User(UUID.randomUUID().toString(),"admin@regression.com",password,roles, LocalDateTime.now());
-                userRepository.save(user);
+                writerService.run(() -> userRepository.save(user));
                 log.info("Default admin user created.");
             } else {
                 log.info("Regression has identified an existing admin user...skipping initial setup");
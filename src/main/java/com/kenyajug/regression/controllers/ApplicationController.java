@@ -28,24 +28,43 @@ import com.kenyajug.regression.repository.ApplicationsRepository;
 import com.kenyajug.regression.repository.UserRepository;
 import com.kenyajug.regression.resources.ApplicationResource;
 import com.kenyajug.regression.security.SecurityHelper;
+import com.kenyajug.regression.services.IColumnarService;
+import com.kenyajug.regression.services.IPurgeService;
+import com.kenyajug.regression.services.IViewCacheService;
+import com.kenyajug.regression.services.IWriterService;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.server.ResponseStatusException;
 import jakarta.validation.Valid;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 @Controller
 public class ApplicationController {
+    private static final int SEVERITY_TOTALS_DAYS = 30;
     private final ApplicationsRepository applicationsRepository;
     private final UserRepository userRepository;
     private final SecurityHelper securityHelper;
-    public ApplicationController(ApplicationsRepository applicationsRepository, UserRepository userRepository, SecurityHelper securityHelper) {
+    private final IColumnarService columnarService;
+    private final IPurgeService purgeService;
+    private final IWriterService writerService;
+    private final IViewCacheService viewCacheService;
+    public ApplicationController(ApplicationsRepository applicationsRepository, UserRepository userRepository, SecurityHelper securityHelper, IColumnarService columnarService, IPurgeService purgeService, IWriterService writerService, IViewCacheService viewCacheService) {
         this.applicationsRepository = applicationsRepository;
         this.userRepository = userRepository;
         this.securityHelper = securityHelper;
+        this.columnarService = columnarService;
+        this.purgeService = purgeService;
+        this.writerService = writerService;
+        this.viewCacheService = viewCacheService;
     }
     @GetMapping("/add/application")
     public String loadApplicationForm(Model model){
@@ -67,7 +86,8 @@ public class ApplicationController {
                 applicationResource.runtimeEnvironment(),
                 user.uuid(),
                 LocalDateTime.now());
-        applicationsRepository.save(entity);
+        writerService.run(() -> applicationsRepository.save(entity));
+        viewCacheService.invalidateAll();
         return "redirect:/applications";
     }
     @GetMapping("/applications")
@@ -75,7 +95,25 @@ public class ApplicationController {
         var principal = securityHelper.findAuthenticatedUser();
         var user = userRepository.findByUsername(principal.getUsername()).orElseThrow(() -> new SecurityException("Invalid session, current user is not authenticated"));
         var apps = applicationsRepository.findByOwner(user);
+        var today = LocalDate.now();
+        Map<String, Map<String, Long>> severityTotals = new HashMap<>();
+        for (Application app : apps) {
+            severityTotals.put(app.uuid(), columnarService.countBySeverity(app.uuid(), today.minusDays(SEVERITY_TOTALS_DAYS - 1), today.plusDays(1)));
+        }
         model.addAttribute("apps",apps);
+        model.addAttribute("severityTotals",severityTotals);
         return "applications-list";
     }
+    @PostMapping("/applications/{id}/delete")
+    public String deleteApplication(@PathVariable("id") String applicationId){
+        var principal = securityHelper.findAuthenticatedUser();
+        var user = userRepository.findByUsername(principal.getUsername()).orElseThrow(() -> new SecurityException("Invalid session, current user is not authenticated"));
+        var isOwner = applicationsRepository.findByOwner(user).stream()
+                .anyMatch(application -> application.uuid().equals(applicationId));
+        if (!isOwner)
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Application not found");
+        purgeService.purgeApplication(applicationId).orElseThrow(() -> new RuntimeException("Invalid application id " + applicationId));
+        viewCacheService.invalidateAll();
+        return "redirect:/applications";
+    }
 }
@@ -0,0 +1,52 @@
+package com.kenyajug.regression.controllers;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.services.IBackupService;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+@Controller
+public class BackupController {
+    private final IBackupService backupService;
+    public BackupController(IBackupService backupService) {
+        this.backupService = backupService;
+    }
+    @GetMapping("/admin/backups")
+    public String listBackups(Model model){
+        model.addAttribute("snapshots",backupService.listSnapshots());
+        return "backups-list";
+    }
+    @PostMapping("/admin/backups")
+    public String createBackup(){
+        backupService.createSnapshot().orElseThrow(() -> new RuntimeException("Database snapshot failed, see the server logs"));
+        return "redirect:/admin/backups";
+    }
+    @PostMapping("/admin/backups/{name}/restore")
+    public String restoreBackup(@PathVariable("name") String fileName){
+        if (!backupService.restoreSnapshot(fileName)) throw new RuntimeException("Failed to restore snapshot " + fileName);
+        return "redirect:/";
+    }
+}
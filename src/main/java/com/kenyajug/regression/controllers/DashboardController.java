@@ -22,52 +22,78 @@ package com.kenyajug.regression.controllers;
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
  * SOFTWARE.
  */
+import com.kenyajug.regression.entities.Application;
+import com.kenyajug.regression.models.DashboardView;
+import com.kenyajug.regression.models.RecurringItem;
 import com.kenyajug.regression.repository.ApplicationsRepository;
 import com.kenyajug.regression.repository.LogsDataSourceRepository;
 import com.kenyajug.regression.repository.UserRepository;
 import com.kenyajug.regression.security.SecurityHelper;
-import com.kenyajug.regression.services.HourlyLogStats;
+import com.kenyajug.regression.services.IHeavyHitterService;
+import com.kenyajug.regression.services.IViewCacheService;
 import com.kenyajug.regression.services.LogChartData;
 import com.kenyajug.regression.services.RetrievalService;
+import com.kenyajug.regression.utils.QueryScope;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 @Controller
 public class DashboardController {
+    private static final int RECURRING_ERRORS_PER_APP = 5;
     private final UserRepository userRepository;
     private final SecurityHelper securityHelper;
     private final ApplicationsRepository applicationsRepository;
     private final LogsDataSourceRepository logsDataSourceRepository;
     private final RetrievalService retrievalService;
-    public DashboardController(UserRepository userRepository, SecurityHelper securityHelper, ApplicationsRepository applicationsRepository, LogsDataSourceRepository logsDataSourceRepository, RetrievalService retrievalService) {
+    private final IViewCacheService viewCacheService;
+    private final IHeavyHitterService heavyHitterService;
+    private final Duration queryDeadline;
+    public DashboardController(UserRepository userRepository, SecurityHelper securityHelper, ApplicationsRepository applicationsRepository, LogsDataSourceRepository logsDataSourceRepository, RetrievalService retrievalService, IViewCacheService viewCacheService, IHeavyHitterService heavyHitterService, @Value("${regression.view.query-deadline-millis:5000}") long queryDeadlineMillis) {
         this.userRepository = userRepository;
         this.securityHelper = securityHelper;
         this.applicationsRepository = applicationsRepository;
         this.logsDataSourceRepository = logsDataSourceRepository;
         this.retrievalService = retrievalService;
+        this.viewCacheService = viewCacheService;
+        this.heavyHitterService = heavyHitterService;
+        this.queryDeadline = Duration.ofMillis(queryDeadlineMillis);
     }
     @GetMapping("/")
     public String dashboard(Model model){
         var principal = securityHelper.findAuthenticatedUser();
-        var user = userRepository.findByUsername(principal.getUsername()).orElseThrow(() -> new SecurityException("Invalid session, current user is not authenticated"));
-        var apps = applicationsRepository.findByOwner(user);
-        var logs = retrievalService.listAllTodayLogs();
-        var datasourceList = logsDataSourceRepository.findAll();
         var filterDate = LocalDate.now();
-        List<Long> infoCounts = retrievalService.composeChartDataBySeverity(filterDate,"INFO");
-        List<Long> warnCounts = retrievalService.composeChartDataBySeverity(filterDate,"WARN");
-        List<Long> errorCounts = retrievalService.composeChartDataBySeverity(filterDate,"ERROR");
-        List<HourlyLogStats> stats = List.of(
-                new HourlyLogStats("INFO", infoCounts),
-                new HourlyLogStats("WARN", warnCounts),
-                new HourlyLogStats("ERROR", errorCounts)
-        );
-        model.addAttribute("apps",apps);
-        model.addAttribute("logs",logs);
-        model.addAttribute("logsDatasourceList",datasourceList);
-        model.addAttribute("logChartData", new LogChartData(stats));
+        var view = viewCacheService.get("dashboard", List.of(principal.getUsername(), filterDate), () -> {
+            try (var scope = new QueryScope(queryDeadline)) {
+                var apps = scope.fork(() -> {
+                    var user = userRepository.findByUsername(principal.getUsername()).orElseThrow(() -> new SecurityException("Invalid session, current user is not authenticated"));
+                    return applicationsRepository.findByOwner(user);
+                });
+                var logs = scope.fork(retrievalService::listAllTodayLogs);
+                var datasourceList = scope.fork(logsDataSourceRepository::findAll);
+                var stats = scope.fork(() -> retrievalService.composeChartData(filterDate, null, null));
+                scope.join();
+                return new DashboardView(apps.get(), logs.get(), datasourceList.get(), new LogChartData(stats.get()), recurringErrors(apps.get()));
+            }
+        });
+        model.addAttribute("apps",view.apps());
+        model.addAttribute("logs",view.logs());
+        model.addAttribute("logsDatasourceList",view.logsDatasourceList());
+        model.addAttribute("logChartData", view.logChartData());
+        model.addAttribute("recurringErrors", view.recurringErrors());
         return "dashboard";
     }
+    private Map<String, List<RecurringItem>> recurringErrors(List<Application> apps) {
+        Map<String, List<RecurringItem>> recurringErrors = new LinkedHashMap<>();
+        for (Application app : apps) {
+            var items = heavyHitterService.top(app.uuid(), IHeavyHitterService.MESSAGE_DIMENSION, "ERROR", RECURRING_ERRORS_PER_APP);
+            if (!items.isEmpty()) recurringErrors.put(app.name(), items);
+        }
+        return recurringErrors;
+    }
 }
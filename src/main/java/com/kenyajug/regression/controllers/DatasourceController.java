@@ -27,13 +27,19 @@ import com.kenyajug.regression.repository.ApplicationsRepository;
 import com.kenyajug.regression.repository.LogsDataSourceRepository;
 import com.kenyajug.regression.repository.UserRepository;
 import com.kenyajug.regression.security.SecurityHelper;
+import com.kenyajug.regression.services.IPurgeService;
+import com.kenyajug.regression.services.IViewCacheService;
+import com.kenyajug.regression.services.IWriterService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.server.ResponseStatusException;
 import java.time.LocalDateTime;
 import java.util.UUID;
 @Controller
@@ -42,11 +48,17 @@ public class DatasourceController {
     private final UserRepository userRepository;
     private final SecurityHelper securityHelper;
     private final LogsDataSourceRepository logsDataSourceRepository;
-    public DatasourceController(ApplicationsRepository applicationsRepository, UserRepository userRepository, SecurityHelper securityHelper, LogsDataSourceRepository logsDataSourceRepository) {
+    private final IPurgeService purgeService;
+    private final IWriterService writerService;
+    private final IViewCacheService viewCacheService;
+    public DatasourceController(ApplicationsRepository applicationsRepository, UserRepository userRepository, SecurityHelper securityHelper, LogsDataSourceRepository logsDataSourceRepository, IPurgeService purgeService, IWriterService writerService, IViewCacheService viewCacheService) {
         this.applicationsRepository = applicationsRepository;
         this.userRepository = userRepository;
         this.securityHelper = securityHelper;
         this.logsDataSourceRepository = logsDataSourceRepository;
+        this.purgeService = purgeService;
+        this.writerService = writerService;
+        this.viewCacheService = viewCacheService;
     }
     @GetMapping("/add/data/source")
     public String datasourceForm(Model model) {
@@ -63,13 +75,29 @@ public class DatasourceController {
                                     BindingResult bindingResult) {
         if (bindingResult.hasErrors())
             return "data-source-form";
-        logsDataSourceRepository.save(logsDataSource);
+        writerService.run(() -> logsDataSourceRepository.save(logsDataSource));
+        viewCacheService.invalidateAll();
         return "redirect:/";
     }
     @GetMapping("/data/sources")
     public String listDataSources(Model model){
         var datasourceList = logsDataSourceRepository.findAll();
         model.addAttribute("logsDatasourceList",datasourceList);
+        model.addAttribute("purgeJobs",purgeService.findRecentJobs());
         return "datasource-list";
     }
+    @PostMapping("/data/sources/{id}/delete")
+    public String deleteDataSource(@PathVariable("id") String datasourceId){
+        var principal = securityHelper.findAuthenticatedUser();
+        var user = userRepository.findByUsername(principal.getUsername()).orElseThrow(() -> new SecurityException("Invalid session, current user is not authenticated"));
+        var datasource = logsDataSourceRepository.findById(datasourceId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Data source not found"));
+        var isOwner = applicationsRepository.findByOwner(user).stream()
+                .anyMatch(application -> application.uuid().equals(datasource.applicationId()));
+        if (!isOwner)
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Data source not found");
+        purgeService.purgeDataSource(datasourceId).orElseThrow(() -> new RuntimeException("Invalid data source id " + datasourceId));
+        viewCacheService.invalidateAll();
+        return "redirect:/data/sources";
+    }
 }
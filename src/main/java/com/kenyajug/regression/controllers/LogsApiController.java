@@ -0,0 +1,175 @@
+package com.kenyajug.regression.controllers;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kenyajug.regression.models.LogCursor;
+import com.kenyajug.regression.models.LogHistogram;
+import com.kenyajug.regression.models.LogQuery;
+import com.kenyajug.regression.resources.LogResource;
+import com.kenyajug.regression.services.HourlyLogStats;
+import com.kenyajug.regression.services.IRetrievalService;
+import com.kenyajug.regression.utils.DateTimeUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+/*
+ * JSON log query endpoint for tooling. Rows are written to the response as they are read from the database
+ * cursor, so a page of any size is served in constant memory.
+ */
+@RestController
+public class LogsApiController {
+    private static final Set<String> SEVERITIES = Set.of("INFO", "WARN", "ERROR");
+    private final IRetrievalService retrievalService;
+    private final ObjectMapper objectMapper;
+    private final int maxLimit;
+    private final int maxHistogramBuckets;
+    public LogsApiController(IRetrievalService retrievalService, ObjectMapper objectMapper,
+                             @Value("${regression.api.max-limit:100000}") int maxLimit,
+                             @Value("${regression.histogram.max-buckets:1440}") int maxHistogramBuckets) {
+        this.retrievalService = retrievalService;
+        this.objectMapper = objectMapper;
+        this.maxLimit = maxLimit;
+        this.maxHistogramBuckets = maxHistogramBuckets;
+    }
+    @GetMapping(value = "/api/logs", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> queryLogs(@RequestParam(value = "startTime", required = false) String startTime,
+                                                           @RequestParam(value = "endTime", required = false) String endTime,
+                                                           @RequestParam(value = "severity", required = false) String severity,
+                                                           @RequestParam(value = "applicationId", required = false) String applicationId,
+                                                           @RequestParam(value = "keyword", required = false) String keyword,
+                                                           @RequestParam(value = "cursor", required = false) String cursor,
+                                                           @RequestParam(value = "offset", defaultValue = "0") int offset,
+                                                           @RequestParam(value = "limit", defaultValue = "100") int limit){
+        if (severity != null && !severity.isEmpty() && !SEVERITIES.contains(severity))
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Severity must be INFO, WARN, or ERROR");
+        if (limit < 1 || limit > maxLimit)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + maxLimit);
+        if (offset < 0)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Offset must not be negative");
+        var query = new LogQuery(
+                parseTime("startTime", startTime),
+                parseTime("endTime", endTime),
+                severity,
+                applicationId,
+                null,
+                keyword,
+                parseCursor(cursor),
+                offset,
+                limit);
+        StreamingResponseBody body = outputStream -> {
+            try (var logs = retrievalService.streamLogs(query);
+                 var generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartObject();
+                generator.writeArrayFieldStart("logs");
+                LogResource last = null;
+                int written = 0;
+                for (var iterator = logs.iterator(); iterator.hasNext(); ) {
+                    last = iterator.next();
+                    writeLog(generator, last);
+                    written++;
+                }
+                generator.writeEndArray();
+                if (written == limit) {
+                    var nextCursor = new LogCursor(DateTimeUtils.fromIsoUTCString(last.timestamp()), last.logId());
+                    generator.writeStringField("nextCursor", nextCursor.encode());
+                } else {
+                    generator.writeNullField("nextCursor");
+                }
+                generator.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+    @GetMapping(value = "/api/logs/histogram", produces = MediaType.APPLICATION_JSON_VALUE)
+    public LogHistogram logHistogram(@RequestParam("startTime") String startTime,
+                                     @RequestParam("endTime") String endTime,
+                                     @RequestParam(value = "buckets", defaultValue = "60") int buckets,
+                                     @RequestParam(value = "applicationId", required = false) String applicationId,
+                                     @RequestParam(value = "sourceId", required = false) String sourceId){
+        if (buckets < 1 || buckets > maxHistogramBuckets)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Buckets must be between 1 and " + maxHistogramBuckets);
+        var start = parseTime("startTime", startTime);
+        var end = parseTime("endTime", endTime);
+        if (start == null || end == null || !start.isBefore(end))
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "endTime must be after startTime");
+        return retrievalService.composeHistogram(start, end, buckets, applicationId, sourceId);
+    }
+    @GetMapping(value = "/api/logs/chart", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, List<HourlyLogStats>> chartByGroup(@RequestParam("date") String date,
+                                                          @RequestParam("groupBy") String groupBy){
+        if (!IRetrievalService.CHART_GROUP_APPLICATION.equals(groupBy) && !IRetrievalService.CHART_GROUP_SOURCE.equals(groupBy))
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "groupBy must be application or source");
+        LocalDate logsDate;
+        try {
+            logsDate = LocalDate.parse(date);
+        } catch (DateTimeParseException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "date must be an ISO-8601 date, e.g. 2025-05-01");
+        }
+        return retrievalService.composeChartDataByGroup(logsDate, groupBy);
+    }
+    private void writeLog(JsonGenerator generator, LogResource log) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("id", log.logId());
+        generator.writeStringField("timestamp", log.timestamp());
+        generator.writeStringField("severity", log.severity());
+        generator.writeStringField("applicationId", log.application().uuid());
+        generator.writeStringField("applicationName", log.application().name());
+        generator.writeStringField("source", log.source().uuid());
+        generator.writeStringField("sourceName", log.source().name());
+        generator.writeStringField("message", log.message());
+        generator.writeEndObject();
+    }
+    private LocalDateTime parseTime(String name, String value) {
+        if (value == null || value.isBlank()) return null;
+        try {
+            return DateTimeUtils.fromIsoUTCString(value);
+        } catch (DateTimeParseException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, name + " must be an ISO-8601 instant, e.g. 2025-05-01T00:00:00Z");
+        }
+    }
+    private LogCursor parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            return LogCursor.decode(cursor);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
@@ -23,50 +23,55 @@ package com.kenyajug.regression.controllers;
  * SOFTWARE.
  */
 
+import com.kenyajug.regression.models.LogsListView;
 import com.kenyajug.regression.resources.LogsFilterResource;
-import com.kenyajug.regression.services.HourlyLogStats;
+import com.kenyajug.regression.services.ILiveTailService;
+import com.kenyajug.regression.services.IViewCacheService;
 import com.kenyajug.regression.services.LogChartData;
 import com.kenyajug.regression.services.RetrievalService;
+import com.kenyajug.regression.utils.QueryScope;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.time.Duration;
 import java.time.LocalDate;
-import java.util.List;
 @Controller
 public class LogsController {
     private final RetrievalService retrievalService;
-    public LogsController(RetrievalService retrievalService) {
+    private final IViewCacheService viewCacheService;
+    private final ILiveTailService liveTailService;
+    private final Duration queryDeadline;
+    public LogsController(RetrievalService retrievalService, IViewCacheService viewCacheService, ILiveTailService liveTailService, @Value("${regression.view.query-deadline-millis:5000}") long queryDeadlineMillis) {
         this.retrievalService = retrievalService;
+        this.viewCacheService = viewCacheService;
+        this.liveTailService = liveTailService;
+        this.queryDeadline = Duration.ofMillis(queryDeadlineMillis);
     }
     @GetMapping("/logs")
     public String listLogs(Model model){
         var filterDate = LocalDate.now();
-        List<Long> infoCounts = retrievalService.composeChartDataBySeverity(filterDate,"INFO");
-        List<Long> warnCounts = retrievalService.composeChartDataBySeverity(filterDate,"WARN");
-        List<Long> errorCounts = retrievalService.composeChartDataBySeverity(filterDate,"ERROR");
-        List<HourlyLogStats> stats = List.of(
-                new HourlyLogStats("INFO", infoCounts),
-                new HourlyLogStats("WARN", warnCounts),
-                new HourlyLogStats("ERROR", errorCounts)
-        );
-        model.addAttribute("logChartData", new LogChartData(stats));
-
-        var allApps = retrievalService.listAllApplications();
-        var logs = retrievalService.listAllTodayLogs();
-        var dataSourceList = retrievalService.listAllDataSources();
-        var filter = new LogsFilterResource(filterDate,"All","","");
+        var view = todayView(filterDate);
+        var filter = new LogsFilterResource(filterDate,"All","","","");
         model.addAttribute("selectedSeverity", "INFO");
-        model.addAttribute("logs",logs);
-        model.addAttribute("applications",allApps);
+        model.addAttribute("logs",view.logs());
         model.addAttribute("selectedDate", filterDate);
         model.addAttribute("selectedAppId", "");
         model.addAttribute("selectedSource", "");
         model.addAttribute("logsFilter", filter);
-        model.addAttribute("dataSources", dataSourceList);
+        model.addAttribute("liveTail", true);
+        addView(view, model);
+        addMetadataLookup("", "", model);
         return "logs-list";
     }
     @GetMapping("/logs/filtered")
@@ -74,58 +79,78 @@ public class LogsController {
             @Valid @ModelAttribute("logsFilter") LogsFilterResource filterResource,
             BindingResult bindingResult,
             Model model) {
-        var filterDate = filterResource.selectedDate();
-        switch (filterResource.selectedSeverity()){
-            case "INFO" -> {
-                List<Long> infoCounts = retrievalService.composeChartDataBySeverity(filterDate,"INFO");
-                List<HourlyLogStats> stats = List.of(
-                        new HourlyLogStats("INFO", infoCounts)
-                );
-                model.addAttribute("logChartData", new LogChartData(stats));
-            }
-            case "WARN" -> {
-                List<Long> infoCounts = retrievalService.composeChartDataBySeverity(filterDate,"WARN");
-                List<HourlyLogStats> stats = List.of(
-                        new HourlyLogStats("WARN", infoCounts)
-                );
-                model.addAttribute("logChartData", new LogChartData(stats));
-            }
-            case "ERROR" -> {
-                List<Long> infoCounts = retrievalService.composeChartDataBySeverity(filterDate,"ERROR");
-                List<HourlyLogStats> stats = List.of(
-                        new HourlyLogStats("ERROR", infoCounts)
-                );
-                model.addAttribute("logChartData", new LogChartData(stats));
-            }
-            default -> {
-                List<Long> infoCounts = retrievalService.composeChartDataBySeverity(filterDate,"INFO");
-                List<Long> warnCounts = retrievalService.composeChartDataBySeverity(filterDate,"WARN");
-                List<Long> errorCounts = retrievalService.composeChartDataBySeverity(filterDate,"ERROR");
-                List<HourlyLogStats> stats = List.of(
-                        new HourlyLogStats("INFO", infoCounts),
-                        new HourlyLogStats("WARN", warnCounts),
-                        new HourlyLogStats("ERROR", errorCounts)
-                );
-                model.addAttribute("logChartData", new LogChartData(stats));
+        var filter = filterResource.normalized();
+        var view = viewCacheService.get("logs-filtered", filter, () -> {
+            var filterDate = filter.selectedDate();
+            var severity = filter.selectedSeverity();
+            var keyword = filter.keyword();
+            try (var scope = new QueryScope(queryDeadline)) {
+                var logs = scope.fork(() -> !keyword.isEmpty() ?
+                        retrievalService.searchLogs(
+                                filter.selectedDate(),
+                                keyword,
+                                filter.selectedSeverity(),
+                                filter.selectedAppId(),
+                                filter.selectedSourceId()) :
+                        retrievalService.listLogs(
+                                filter.selectedDate(),
+                                filter.selectedSeverity(),
+                                filter.selectedAppId(),
+                                filter.selectedSourceId()));
+                var stats = scope.fork(() -> retrievalService.composeChartData(filterDate, null, null)
+                        .stream()
+                        .filter(e -> severity.equals("All") || e.severity().equals(severity))
+                        .toList());
+                var applications = scope.fork(retrievalService::listAllApplications);
+                var dataSources = scope.fork(retrievalService::listAllDataSources);
+                scope.join();
+                return new LogsListView(
+                        logs.get(),
+                        applications.get(),
+                        dataSources.get(),
+                        new LogChartData(stats.get()),
+                        retrievalService.listIndexedMetadataTypes());
             }
-        }
-        var allApps = retrievalService.listAllApplications();
-        var dataSourceList = retrievalService.listAllDataSources();
-        model.addAttribute("applications",allApps);
-        model.addAttribute("dataSources", dataSourceList);
+        });
         model.addAttribute("selectedAppId", filterResource.selectedAppId());
         model.addAttribute("selectedSource", filterResource.selectedSourceId());
         model.addAttribute("selectedSeverity", filterResource.selectedSeverity());
         model.addAttribute("logsFilter", filterResource);
-        var logs = retrievalService.listLogs(
-                filterResource.selectedDate(),
-                filterResource.selectedSeverity(),
-                filterResource.selectedAppId(),
-                filterResource.selectedSourceId());
-        model.addAttribute("logs",logs);
+        model.addAttribute("logs",view.logs());
         model.addAttribute("selectedDate", filterResource.selectedDate());
+        var keyword = filterResource.keyword();
+        model.addAttribute("liveTail", LocalDate.now().equals(filterResource.selectedDate()) && (keyword == null || keyword.isBlank()));
+        addView(view, model);
+        addMetadataLookup("", "", model);
         return "logs-list";
     }
+    @GetMapping("/logs/lookup")
+    public String lookupLogs(@RequestParam("metadataType") String metadataType,
+                             @RequestParam("metadataValue") String metadataValue,
+                             Model model){
+        var metadataTypes = retrievalService.listIndexedMetadataTypes();
+        if (!metadataTypes.contains(metadataType))
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Metadata type must be one of " + metadataTypes);
+        var filterDate = LocalDate.now();
+        var view = todayView(filterDate);
+        model.addAttribute("selectedAppId", "");
+        model.addAttribute("selectedSource", "");
+        model.addAttribute("selectedSeverity", "All");
+        model.addAttribute("logsFilter", new LogsFilterResource(filterDate,"All","","",""));
+        model.addAttribute("logs",retrievalService.findLogsByMetadata(metadataType, metadataValue));
+        model.addAttribute("selectedDate", filterDate);
+        model.addAttribute("liveTail", false);
+        addView(view, model);
+        addMetadataLookup(metadataType, metadataValue, model);
+        return "logs-list";
+    }
+    @GetMapping(value = "/logs/tail", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter tailLogs(@RequestParam(value = "applicationId", required = false) String applicationId,
+                               @RequestParam(value = "sourceId", required = false) String sourceId,
+                               @RequestParam(value = "severity", required = false) String severity){
+        return liveTailService.subscribe(applicationId, sourceId, severity);
+    }
     @GetMapping("/logs/{id}")
     public String logsDetailed(@PathVariable("id") String logId, Model model){
         var optionalLog = retrievalService.findLogsById(logId);
@@ -135,4 +160,31 @@ public class LogsController {
         model.addAttribute("metadata",metadata);
         return "logs-detailed";
     }
+    private LogsListView todayView(LocalDate filterDate){
+        return viewCacheService.get("logs-today", filterDate, () -> {
+            try (var scope = new QueryScope(queryDeadline)) {
+                var logs = scope.fork(retrievalService::listAllTodayLogs);
+                var applications = scope.fork(retrievalService::listAllApplications);
+                var dataSources = scope.fork(retrievalService::listAllDataSources);
+                var stats = scope.fork(() -> retrievalService.composeChartData(filterDate, null, null));
+                scope.join();
+                return new LogsListView(
+                        logs.get(),
+                        applications.get(),
+                        dataSources.get(),
+                        new LogChartData(stats.get()),
+                        retrievalService.listIndexedMetadataTypes());
+            }
+        });
+    }
+    private void addView(LogsListView view, Model model){
+        model.addAttribute("applications",view.applications());
+        model.addAttribute("dataSources", view.dataSources());
+        model.addAttribute("logChartData", view.logChartData());
+        model.addAttribute("metadataTypes", view.metadataTypes());
+    }
+    private void addMetadataLookup(String metadataType, String metadataValue, Model model){
+        model.addAttribute("selectedMetadataType", metadataType);
+        model.addAttribute("metadataValue", metadataValue);
+    }
 }
@@ -0,0 +1,228 @@
+package com.kenyajug.regression.controllers;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kenyajug.regression.entities.LogsMetadata;
+import com.kenyajug.regression.models.LogQuery;
+import com.kenyajug.regression.resources.LogResource;
+import com.kenyajug.regression.resources.LogsFilterResource;
+import com.kenyajug.regression.services.IRetrievalService;
+import com.kenyajug.regression.utils.DateTimeUtils;
+import jakarta.validation.Valid;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+/*
+ * File export of the logs shown by the logs page, as CSV or newline-delimited JSON. Rows are written as they
+ * are read from the database cursor, and metadata is looked up a chunk of rows at a time, so exports of any
+ * size are served in constant memory.
+ */
+@RestController
+public class LogsExportController {
+    private static final int METADATA_CHUNK_SIZE = 500;
+    private static final List<String> CSV_COLUMNS = List.of("timestamp", "severity", "application_id", "application",
+            "source_id", "source", "log_id", "message");
+    private final IRetrievalService retrievalService;
+    private final ObjectMapper objectMapper;
+    public LogsExportController(IRetrievalService retrievalService, ObjectMapper objectMapper) {
+        this.retrievalService = retrievalService;
+        this.objectMapper = objectMapper;
+    }
+    @GetMapping("/logs/export")
+    public ResponseEntity<StreamingResponseBody> exportLogs(@Valid @ModelAttribute("logsFilter") LogsFilterResource filterResource,
+                                                            BindingResult bindingResult,
+                                                            @RequestParam(value = "startTime", required = false) String startTime,
+                                                            @RequestParam(value = "endTime", required = false) String endTime,
+                                                            @RequestParam(value = "format", defaultValue = "csv") String format,
+                                                            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+                                                            @RequestParam(value = "metadata", defaultValue = "false") boolean metadata){
+        var invalidField = bindingResult.getFieldErrors()
+                .stream()
+                .filter(error -> !"".equals(error.getRejectedValue()))
+                .findFirst();
+        if (invalidField.isPresent())
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, invalidField.get().getDefaultMessage());
+        if (!format.equals("csv") && !format.equals("ndjson"))
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Format must be csv or ndjson");
+        var filterDate = filterResource.selectedDate();
+        var start = parseTime("startTime", startTime);
+        var end = parseTime("endTime", endTime);
+        var severity = filterResource.selectedSeverity();
+        var query = new LogQuery(
+                start == null ? filterDate.atStartOfDay() : start,
+                end == null ? filterDate.plusDays(1).atStartOfDay() : end,
+                (severity == null || severity.equals("All")) ? null : severity,
+                filterResource.selectedAppId(),
+                filterResource.selectedSourceId(),
+                filterResource.keyword(),
+                null,
+                0,
+                Integer.MAX_VALUE);
+        var metadataTypes = metadata ? retrievalService.listIndexedMetadataTypes() : List.<String>of();
+        StreamingResponseBody body = outputStream -> {
+            try (var logs = retrievalService.streamLogs(query);
+                 var writer = openWriter(outputStream, gzip)) {
+                if (format.equals("csv")) {
+                    writeCsvRow(writer, header(metadataTypes));
+                    writeRows(logs, metadata, (log, logMetadata) -> writeCsvRow(writer, csvRow(log, metadataTypes, logMetadata)));
+                } else {
+                    try (var generator = objectMapper.getFactory().createGenerator(writer)
+                            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                        writeRows(logs, metadata, (log, logMetadata) -> writeJsonLine(generator, log, metadata ? logMetadata : null));
+                    }
+                }
+            }
+        };
+        var extension = format + (gzip ? ".gz" : "");
+        var contentType = gzip ? MediaType.parseMediaType("application/gzip") :
+                format.equals("csv") ? MediaType.parseMediaType("text/csv;charset=UTF-8") : MediaType.parseMediaType("application/x-ndjson");
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("logs-" + filterDate + "." + extension)
+                        .build()
+                        .toString())
+                .body(body);
+    }
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(LogResource log, Map<String, String> metadata) throws IOException;
+    }
+    /*
+     * Hands each log to the row writer, reading metadata for METADATA_CHUNK_SIZE logs at a time when requested.
+     */
+    private void writeRows(Stream<LogResource> logs, boolean metadata, RowWriter rowWriter) throws IOException {
+        List<LogResource> chunk = new ArrayList<>(METADATA_CHUNK_SIZE);
+        for (var iterator = logs.iterator(); iterator.hasNext(); ) {
+            chunk.add(iterator.next());
+            if (chunk.size() < METADATA_CHUNK_SIZE && iterator.hasNext()) continue;
+            var metadataByLog = metadata ? findMetadata(chunk) : Map.<String, Map<String, String>>of();
+            for (LogResource log : chunk) rowWriter.write(log, metadataByLog.getOrDefault(log.logId(), Map.of()));
+            chunk.clear();
+        }
+    }
+    private Writer openWriter(OutputStream outputStream, boolean gzip) throws IOException {
+        var target = gzip ? new GZIPOutputStream(outputStream, 65536) : outputStream;
+        return new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 65536);
+    }
+    /*
+     * Metadata of a chunk of logs, with the values of a type joined when a log carries it more than once.
+     */
+    private Map<String, Map<String, String>> findMetadata(List<LogResource> chunk) {
+        var logIds = chunk.stream().map(LogResource::logId).toList();
+        Map<String, Map<String, String>> metadataByLog = new LinkedHashMap<>();
+        retrievalService.findMetadataByLogIds(logIds).forEach((logId, entries) ->
+                metadataByLog.put(logId, entries.stream().collect(Collectors.groupingBy(
+                        LogsMetadata::metadataType,
+                        LinkedHashMap::new,
+                        Collectors.mapping(LogsMetadata::metadataValue, Collectors.joining("; "))))));
+        return metadataByLog;
+    }
+    private List<String> header(List<String> metadataTypes) {
+        List<String> columns = new ArrayList<>(CSV_COLUMNS);
+        columns.addAll(metadataTypes);
+        return columns;
+    }
+    private List<String> csvRow(LogResource log, List<String> metadataTypes, Map<String, String> metadata) {
+        List<String> values = new ArrayList<>(List.of(
+                log.timestamp(),
+                log.severity(),
+                log.application().uuid(),
+                log.application().name(),
+                log.source().uuid(),
+                log.source().name(),
+                log.logId(),
+                log.message() == null ? "" : log.message()));
+        for (String type : metadataTypes) values.add(metadata.getOrDefault(type, ""));
+        return values;
+    }
+    /*
+     * Writes one RFC 4180 record: fields holding a separator, quote or line break are quoted, with quotes doubled.
+     */
+    private void writeCsvRow(Writer writer, List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) writer.write(',');
+            var value = values.get(i) == null ? "" : values.get(i);
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+    private void writeJsonLine(JsonGenerator generator, LogResource log, Map<String, String> metadata) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("id", log.logId());
+        generator.writeStringField("timestamp", log.timestamp());
+        generator.writeStringField("severity", log.severity());
+        generator.writeStringField("applicationId", log.application().uuid());
+        generator.writeStringField("applicationName", log.application().name());
+        generator.writeStringField("source", log.source().uuid());
+        generator.writeStringField("sourceName", log.source().name());
+        generator.writeStringField("message", log.message());
+        if (metadata != null) {
+            generator.writeObjectFieldStart("metadata");
+            for (var entry : metadata.entrySet()) generator.writeStringField(entry.getKey(), entry.getValue());
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+    private LocalDateTime parseTime(String name, String value) {
+        if (value == null || value.isBlank()) return null;
+        try {
+            return DateTimeUtils.fromIsoUTCString(value);
+        } catch (DateTimeParseException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, name + " must be an ISO-8601 instant, e.g. 2025-05-01T00:00:00Z");
+        }
+    }
+}
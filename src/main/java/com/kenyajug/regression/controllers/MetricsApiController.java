@@ -0,0 +1,77 @@
+package com.kenyajug.regression.controllers;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.models.ApplicationMetrics;
+import com.kenyajug.regression.models.RecurringItem;
+import com.kenyajug.regression.repository.ApplicationsRepository;
+import com.kenyajug.regression.services.IHeavyHitterService;
+import com.kenyajug.regression.services.IMetricsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import java.util.List;
+import java.util.Locale;
+/*
+ * JSON metrics endpoints of an application, answered from aggregates maintained during ingestion.
+ */
+@RestController
+public class MetricsApiController {
+    private final ApplicationsRepository applicationsRepository;
+    private final IHeavyHitterService heavyHitterService;
+    private final IMetricsService metricsService;
+    private final int maxRecurringItems;
+    public MetricsApiController(ApplicationsRepository applicationsRepository,
+                                IHeavyHitterService heavyHitterService,
+                                IMetricsService metricsService,
+                                @Value("${regression.heavy-hitters.capacity:100}") int maxRecurringItems) {
+        this.applicationsRepository = applicationsRepository;
+        this.heavyHitterService = heavyHitterService;
+        this.metricsService = metricsService;
+        this.maxRecurringItems = maxRecurringItems;
+    }
+    @GetMapping(value = "/api/metrics/{appId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ApplicationMetrics applicationMetrics(@PathVariable("appId") String appId){
+        if (applicationsRepository.findById(appId).isEmpty())
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Application not found");
+        return metricsService.composeMetrics(appId);
+    }
+    @GetMapping(value = "/api/metrics/{appId}/recurring", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<RecurringItem> recurringItems(@PathVariable("appId") String appId,
+                                              @RequestParam(value = "dimension", defaultValue = IHeavyHitterService.MESSAGE_DIMENSION) String dimension,
+                                              @RequestParam(value = "severity", defaultValue = "ERROR") String severity,
+                                              @RequestParam(value = "limit", defaultValue = "10") int limit){
+        if (!heavyHitterService.dimensions().contains(dimension))
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Dimension must be one of " + heavyHitterService.dimensions());
+        if (limit < 1 || limit > maxRecurringItems)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + maxRecurringItems);
+        if (applicationsRepository.findById(appId).isEmpty())
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Application not found");
+        return heavyHitterService.top(appId, dimension, severity.toUpperCase(Locale.ROOT), limit);
+    }
+}
@@ -0,0 +1,77 @@
+package com.kenyajug.regression.controllers;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.RetentionPolicy;
+import com.kenyajug.regression.repository.ApplicationsRepository;
+import com.kenyajug.regression.repository.RetentionPolicyRepository;
+import com.kenyajug.regression.resources.RetentionPolicyResource;
+import com.kenyajug.regression.services.IWriterService;
+import com.kenyajug.regression.services.RetentionService;
+import jakarta.validation.Valid;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+@Controller
+public class RetentionController {
+    private final ApplicationsRepository applicationsRepository;
+    private final RetentionPolicyRepository retentionPolicyRepository;
+    private final RetentionService retentionService;
+    private final IWriterService writerService;
+    public RetentionController(ApplicationsRepository applicationsRepository, RetentionPolicyRepository retentionPolicyRepository, RetentionService retentionService, IWriterService writerService) {
+        this.applicationsRepository = applicationsRepository;
+        this.retentionPolicyRepository = retentionPolicyRepository;
+        this.retentionService = retentionService;
+        this.writerService = writerService;
+    }
+    @GetMapping("/applications/{id}/retention")
+    public String retentionForm(@PathVariable("id") String applicationId, Model model){
+        var application = applicationsRepository.findById(applicationId).orElseThrow(() -> new RuntimeException("Invalid application id " + applicationId));
+        var policy = retentionService.findEffectivePolicy(applicationId);
+        model.addAttribute("application",application);
+        model.addAttribute("retention",new RetentionPolicyResource(policy.retentionDays(),policy.maxRows(),policy.maxBytes()));
+        return "retention-form";
+    }
+    @PostMapping("/applications/{id}/retention")
+    public String saveRetentionPolicy(@PathVariable("id") String applicationId,
+                                      @Valid @ModelAttribute("retention") RetentionPolicyResource retentionResource,
+                                      BindingResult bindingResult,
+                                      Model model){
+        var application = applicationsRepository.findById(applicationId).orElseThrow(() -> new RuntimeException("Invalid application id " + applicationId));
+        if (bindingResult.hasErrors()) {
+            model.addAttribute("application",application);
+            return "retention-form";
+        }
+        var policy = new RetentionPolicy(
+                application.uuid(),
+                retentionResource.retentionDays(),
+                retentionResource.maxRows(),
+                retentionResource.maxBytes());
+        writerService.run(() -> retentionPolicyRepository.save(policy));
+        return "redirect:/applications";
+    }
+}
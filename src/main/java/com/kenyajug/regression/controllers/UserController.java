@@ -25,6 +25,7 @@ package com.kenyajug.regression.controllers;
 import com.kenyajug.regression.entities.User;
 import com.kenyajug.regression.repository.UserRepository;
 import com.kenyajug.regression.resources.PasswordUpdateResource;
+import com.kenyajug.regression.services.IWriterService;
 import jakarta.validation.Valid;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Controller;
@@ -37,9 +38,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 public class UserController {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    public UserController(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    private final IWriterService writerService;
+    public UserController(UserRepository userRepository, PasswordEncoder passwordEncoder, IWriterService writerService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.writerService = writerService;
     }
     @GetMapping("/user/form")
     public String launchUserUpdateForm(Model model){
@@ -66,7 +69,7 @@ public class UserController {
                 passwordEncoder.encode(passwordUpdateResource.newPassword()),
                 admin.roles_list_json(),
                 admin.created_at());
-        userRepository.updateById(admin.uuid(), user);
+        writerService.run(() -> userRepository.updateById(admin.uuid(), user));
         return "redirect:/";
     }
 }
@@ -0,0 +1,36 @@
+package com.kenyajug.regression.entities;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+public record AppMetricCount(
+        String applicationId,
+        String metric,//SEVERITY, ERROR_HOUR, ERROR_WEEKDAY or ERROR_VERSION
+        String metricKey,//Severity, hour of day (00 to 23), day of week (e.g. TUESDAY) or application version
+        long metricCount
+) {
+    public static final String INCIDENT_SEVERITY = "ERROR";
+    public static final String METRIC_SEVERITY = "SEVERITY";
+    public static final String METRIC_ERROR_HOUR = "ERROR_HOUR";
+    public static final String METRIC_ERROR_WEEKDAY = "ERROR_WEEKDAY";
+    public static final String METRIC_ERROR_VERSION = "ERROR_VERSION";
+}
@@ -0,0 +1,52 @@
+package com.kenyajug.regression.entities;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import java.time.LocalDateTime;
+public record PurgeJob(
+        String uuid,
+        String targetType,//APPLICATION or DATASOURCE
+        String targetId,
+        String targetName,
+        String status,//PENDING, RUNNING or COMPLETED
+        long totalLogs,
+        long deletedLogs,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+    public static final String TARGET_APPLICATION = "APPLICATION";
+    public static final String TARGET_DATASOURCE = "DATASOURCE";
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    /**
+     * Computes how far the purge has progressed.
+     *
+     * @return the percentage of logs deleted, between 0 and 100.
+     */
+    public int progressPercent() {
+        if (STATUS_COMPLETED.equals(status)) return 100;
+        if (totalLogs <= 0) return 0;
+        return (int) Math.min(100, deletedLogs * 100 / totalLogs);
+    }
+}
@@ -0,0 +1,50 @@
+package com.kenyajug.regression.models;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+public record ColumnarSegment(
+        Path file,
+        String applicationId,
+        LocalDate day,
+        int rowCount,
+        LocalDateTime minTimestamp,//Zone map: segments outside a queried time range are never opened
+        LocalDateTime maxTimestamp,
+        List<String> severities,//Severity dictionary, doubles as the zone map for severity filters
+        List<String> sources,
+        long dataOffset,//Start of the column blocks, right after the header
+        long[] columnOffsets//Offsets of each column block relative to dataOffset, plus the end of the last block
+) {
+    public enum Column {
+        TIMESTAMP,
+        SEVERITY,
+        SOURCE,
+        MESSAGE_BYTES
+    }
+    public boolean overlaps(LocalDateTime from, LocalDateTime to) {
+        return !maxTimestamp.isBefore(from) && minTimestamp.isBefore(to);
+    }
+}
@@ -0,0 +1,57 @@
+package com.kenyajug.regression.models;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+/*
+ * Position after the last log of a page in (timestamp, uuid) order. Passed to clients as an opaque URL-safe
+ * token so the next page is read with an index seek rather than by skipping rows.
+ */
+public record LogCursor(LocalDateTime timestamp, String logId) {
+    private static final String SEPARATOR = "|";
+    public String encode() {
+        var raw = timestamp + SEPARATOR + logId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    /**
+     * Decodes a cursor token produced by {@link #encode()}.
+     *
+     * @param token the token sent back by the client.
+     * @return the decoded cursor.
+     * @throws IllegalArgumentException if the token is not a valid cursor.
+     */
+    public static LogCursor decode(String token) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            var separator = raw.indexOf(SEPARATOR);
+            if (separator < 0 || separator == raw.length() - 1)
+                throw new IllegalArgumentException("Invalid cursor " + token);
+            return new LogCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor " + token, ex);
+        }
+    }
+}
@@ -23,24 +23,41 @@ package com.kenyajug.regression.repository;
  * SOFTWARE.
  */
 import com.kenyajug.regression.entities.AppLog;
+import com.kenyajug.regression.repository.dialect.SqlDialect;
 import com.kenyajug.regression.utils.DateTimeUtils;
+import com.kenyajug.regression.utils.FullTextUtils;
 import jakarta.validation.constraints.Pattern;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.simple.JdbcClient;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.stream.Stream;
 @Repository
 public non-sealed class AppLogRepository implements CrudRepository<AppLog>{
+    public static final int STREAM_FETCH_SIZE = 500;
     private final JdbcClient jdbcClient;
+    private final JdbcClient streamingClient;
     private final TransactionTemplate transactionTemplate;
-    public AppLogRepository(JdbcClient jdbcClient, TransactionTemplate transactionTemplate) {
+    private final SqlDialect sqlDialect;
+    public AppLogRepository(JdbcClient jdbcClient, TransactionTemplate transactionTemplate, DataSource dataSource, SqlDialect sqlDialect) {
         this.jdbcClient = jdbcClient;
         this.transactionTemplate = transactionTemplate;
+        this.sqlDialect = sqlDialect;
+        var streamingTemplate = new JdbcTemplate(dataSource);
+        streamingTemplate.setFetchSize(STREAM_FETCH_SIZE);
+        this.streamingClient = JdbcClient.create(streamingTemplate);
     }
     /**
      * Saves the given entity to the database.
@@ -51,6 +68,7 @@ public non-sealed class AppLogRepository implements CrudRepository<AppLog>{
     @Override
     public void save(AppLog entity) {
         transactionTemplate.executeWithoutResult(status -> {
+            ensurePartitions(List.of(entity));
             var insertSql = """
                          INSERT INTO app_logs (
                              uuid,
@@ -79,6 +97,52 @@ public non-sealed class AppLogRepository implements CrudRepository<AppLog>{
                     .update();
         });
     }
+    /**
+     * Saves a batch of logs using multi-row {@code INSERT} statements.
+     * <p>
+     * Rows are sent in as few statements as the backend's bind variable limit allows, which avoids a
+     * round trip per log during ingestion. All statements run in a single transaction.
+     * </p>
+     *
+     * @param entities the logs to save.
+     */
+    public void saveAll(List<AppLog> entities) {
+        if (entities.isEmpty()) return;
+        var rowsPerInsert = sqlDialect.maxRowsPerInsert(6);
+        transactionTemplate.executeWithoutResult(status -> {
+            ensurePartitions(entities);
+            for (int start = 0; start < entities.size(); start += rowsPerInsert) {
+                var chunk = entities.subList(start, Math.min(start + rowsPerInsert, entities.size()));
+                var values = new StringJoiner(",\n");
+                var params = new HashMap<String, Object>();
+                for (int index = 0; index < chunk.size(); index++) {
+                    var entity = chunk.get(index);
+                    values.add("(:uuid%1$d, :timestamp%1$d, :severity%1$d, :application_uuid%1$d, :log_source%1$d, :message%1$d)".formatted(index));
+                    params.put("uuid" + index, entity.uuid());
+                    params.put("timestamp" + index, DateTimeUtils.localDateTimeToUTCTime(entity.timestamp()));
+                    params.put("severity" + index, entity.severity());
+                    params.put("application_uuid" + index, entity.applicationId());
+                    params.put("log_source" + index, entity.logSource());
+                    params.put("message" + index, entity.message());
+                }
+                var insertSql = """
+                        INSERT INTO app_logs (
+                            uuid,
+                            timestamp,
+                            severity,
+                            application_uuid,
+                            log_source,
+                            message
+                        ) VALUES
+                        %s
+                        ;
+                        """.formatted(values);
+                jdbcClient.sql(insertSql)
+                        .params(params)
+                        .update();
+            }
+        });
+    }
     /**
      * Finds an entity by its unique identifier.
      *
@@ -94,14 +158,7 @@ public non-sealed class AppLogRepository implements CrudRepository<AppLog>{
                 """;
         return jdbcClient.sql(selectSql)
                 .param("uuid",uuid)
-                .query((resultSet, row) -> new AppLog(
-                        resultSet.getString("uuid"),
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime(resultSet.getString("timestamp")),
-                        resultSet.getString("severity"),
-                        resultSet.getString("application_uuid"),
-                        resultSet.getString("log_source"),
-                        resultSet.getString("message")
-                ))
+                .query((resultSet, row) -> mapRow(resultSet))
                 .optional();
     }
     /**
@@ -116,14 +173,7 @@ public non-sealed class AppLogRepository implements CrudRepository<AppLog>{
                 ;
                 """;
         return jdbcClient.sql(selectSql)
-                .query((resultSet, row) -> new AppLog(
-                        resultSet.getString("uuid"),
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime(resultSet.getString("timestamp")),
-                        resultSet.getString("severity"),
-                        resultSet.getString("application_uuid"),
-                        resultSet.getString("log_source"),
-                        resultSet.getString("message")
-                ))
+                .query((resultSet, row) -> mapRow(resultSet))
                 .list();
     }
     /**
@@ -251,14 +301,7 @@ public non-sealed class AppLogRepository implements CrudRepository<AppLog>{
         return jdbcClient.sql(selectSql)
                 .param("application_uuid",applicationId)
                 .param("log_source",datasourceId)
-                .query((resultSet, row) -> new AppLog(
-                        resultSet.getString("uuid"),
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime(resultSet.getString("timestamp")),
-                        resultSet.getString("severity"),
-                        resultSet.getString("application_uuid"),
-                        resultSet.getString("log_source"),
-                        resultSet.getString("message")
-                ))
+                .query((resultSet, row) -> mapRow(resultSet))
                 .list();
     }
     public List<AppLog> findBySeverityAndDate(String severity, LocalDate logsDate) {
@@ -270,17 +313,442 @@ public non-sealed class AppLogRepository implements CrudRepository<AppLog>{
                 """;
         return jdbcClient.sql(selectSql)
                 .param("severity",severity)
-                .query((resultSet, row) -> new AppLog(
-                        resultSet.getString("uuid"),
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime(resultSet.getString("timestamp")),
-                        resultSet.getString("severity"),
-                        resultSet.getString("application_uuid"),
-                        resultSet.getString("log_source"),
-                        resultSet.getString("message")
-                ))
+                .query((resultSet, row) -> mapRow(resultSet))
                 .list()
                 .stream()
                 .filter(e -> DateTimeUtils.isSameDay(e.timestamp().toLocalDate(),logsDate))
                 .toList();
     }
+    /**
+     * Searches log messages using the backend's full-text index.
+     * <p>
+     * The keyword supports phrase queries ({@code "connection refused"}) and prefix queries ({@code Null*});
+     * see {@link FullTextUtils#toMatchExpression(String)}. On SQLite the {@code app_logs_fts} index is kept in
+     * sync with {@code app_logs} by triggers, on PostgreSQL the generated {@code message_tsv} column is, so
+     * every ingested log is searchable as soon as its transaction commits.
+     * </p>
+     *
+     * @param keyword       the keyword typed by the user.
+     * @param logsDate      the day to search within.
+     * @param severity      optional severity filter; {@code null}, empty or {@code All} matches every severity.
+     * @param applicationId optional application filter; {@code null} or empty matches every application.
+     * @param datasourceId  optional data source filter; {@code null} or empty matches every data source.
+     * @param limit         the maximum number of logs to return.
+     * @return the matching {@link AppLog} entries, most recent first; empty if the keyword has no searchable terms.
+     */
+    public List<AppLog> searchByKeyword(String keyword, LocalDate logsDate, String severity, String applicationId, String datasourceId, int limit) {
+        var fullTextQuery = sqlDialect.toFullTextQuery(keyword);
+        if (fullTextQuery.isEmpty()) return List.of();
+        var filterSeverity = (severity == null || severity.isEmpty() || severity.equals("All")) ? null : severity;
+        var filterApplication = (applicationId == null || applicationId.isEmpty()) ? null : applicationId;
+        var filterSource = (datasourceId == null || datasourceId.isEmpty()) ? null : datasourceId;
+        return jdbcClient.sql(sqlDialect.fullTextSearchSql())
+                .param("full_text_query",fullTextQuery.get())
+                .param("day_start",DateTimeUtils.localDateTimeToUTCTime(logsDate.atStartOfDay()))
+                .param("day_end",DateTimeUtils.localDateTimeToUTCTime(logsDate.plusDays(1).atStartOfDay()))
+                .param("severity",filterSeverity)
+                .param("application_uuid",filterApplication)
+                .param("log_source",filterSource)
+                .param("limit",limit)
+                .query((resultSet, row) -> mapRow(resultSet))
+                .list();
+    }
+    /**
+     * Streams every log in the table.
+     * <p>
+     * Rows are fetched from the cursor in batches of {@link #STREAM_FETCH_SIZE} as the stream is consumed, so
+     * full-table operations run in constant memory. The stream holds a database connection until it is closed
+     * and must be consumed in a try-with-resources block.
+     * </p>
+     *
+     * @return a lazily populated stream of all logs.
+     */
+    public Stream<AppLog> streamAll() {
+        var selectSql = """
+                SELECT * FROM app_logs
+                ;
+                """;
+        return streamingClient.sql(selectSql)
+                .query((resultSet, row) -> mapRow(resultSet))
+                .stream();
+    }
+    /**
+     * Streams the logs recorded on a given day, across all applications, oldest first.
+     * The stream must be closed after use, see {@link #streamAll()}.
+     *
+     * @param logsDate the day to read.
+     * @return a lazily populated stream of the day's logs.
+     */
+    public Stream<AppLog> streamByDay(LocalDate logsDate) {
+        var selectSql = """
+                SELECT * FROM app_logs
+                WHERE
+                timestamp >= :day_start
+                AND timestamp < :day_end
+                ORDER BY timestamp
+                ;
+                """;
+        return streamingClient.sql(selectSql)
+                .param("day_start",DateTimeUtils.localDateTimeToUTCTime(logsDate.atStartOfDay()))
+                .param("day_end",DateTimeUtils.localDateTimeToUTCTime(logsDate.plusDays(1).atStartOfDay()))
+                .query((resultSet, row) -> mapRow(resultSet))
+                .stream();
+    }
+    /**
+     * Streams the logs of an application and data source.
+     * The stream must be closed after use, see {@link #streamAll()}.
+     *
+     * @param applicationId the ID of the application whose logs are to be retrieved.
+     * @param datasourceId  the ID of the data source associated with the logs.
+     * @return a lazily populated stream of the matching logs.
+     */
+    public Stream<AppLog> streamByApplicationAndDatasource(String applicationId, String datasourceId) {
+        var selectSql = """
+                SELECT * FROM app_logs
+                WHERE
+                application_uuid = :application_uuid
+                AND
+                log_source = :log_source
+                ;
+                """;
+        return streamingClient.sql(selectSql)
+                .param("application_uuid",applicationId)
+                .param("log_source",datasourceId)
+                .query((resultSet, row) -> mapRow(resultSet))
+                .stream();
+    }
+    /**
+     * Streams the logs an application recorded on a given day, oldest first.
+     * The stream must be closed after use, see {@link #streamAll()}.
+     *
+     * @param applicationId the ID of the application.
+     * @param logsDate      the day to read.
+     * @return a lazily populated stream of the day's logs.
+     */
+    public Stream<AppLog> streamByApplicationAndDay(String applicationId, LocalDate logsDate) {
+        var selectSql = """
+                SELECT * FROM app_logs
+                WHERE
+                application_uuid = :application_uuid
+                AND timestamp >= :day_start
+                AND timestamp < :day_end
+                ORDER BY timestamp
+                ;
+                """;
+        return streamingClient.sql(selectSql)
+                .param("application_uuid",applicationId)
+                .param("day_start",DateTimeUtils.localDateTimeToUTCTime(logsDate.atStartOfDay()))
+                .param("day_end",DateTimeUtils.localDateTimeToUTCTime(logsDate.plusDays(1).atStartOfDay()))
+                .query((resultSet, row) -> mapRow(resultSet))
+                .stream();
+    }
+    /**
+     * Finds the day of the oldest log recorded for an application.
+     * <p>
+     * Logs are routed by day through the {@code (application_uuid, timestamp)} index, so this is a single
+     * index seek regardless of how many logs the application has.
+     * </p>
+     *
+     * @param applicationId the ID of the application.
+     * @return an {@link Optional} containing the oldest log day, or empty if the application has no logs.
+     */
+    public Optional<LocalDate> findOldestLogDay(String applicationId) {
+        var selectSql = """
+                SELECT MIN(timestamp) AS oldest FROM app_logs
+                WHERE
+                application_uuid = :application_uuid
+                ;
+                """;
+        var oldest = jdbcClient.sql(selectSql)
+                .param("application_uuid",applicationId)
+                .query((resultSet, row) -> Optional.ofNullable(sqlDialect.readTimestamp(resultSet, "oldest")))
+                .single();
+        return oldest.map(LocalDateTime::toLocalDate);
+    }
+    /**
+     * Deletes up to {@code chunkSize} of the oldest logs of an application recorded before the given instant,
+     * together with their metadata, in a single short transaction.
+     * <p>
+     * Callers expire a day or trim a quota by calling this repeatedly until it returns {@code 0}, which keeps
+     * each write transaction small so that ingestion is never locked out for long.
+     * </p>
+     *
+     * @param applicationId the ID of the application whose logs are deleted.
+     * @param before        logs with a timestamp strictly before this instant are deleted.
+     * @param chunkSize     the maximum number of logs to delete.
+     * @return the number of logs deleted.
+     */
+    public int deleteChunkBefore(String applicationId, LocalDateTime before, int chunkSize) {
+        var result = transactionTemplate.execute(status -> {
+            var selectSql = """
+                    SELECT uuid FROM app_logs
+                    WHERE
+                    application_uuid = :application_uuid
+                    AND timestamp < :before
+                    ORDER BY timestamp
+                    LIMIT :limit
+                    ;
+                    """;
+            List<String> logIds = jdbcClient.sql(selectSql)
+                    .param("application_uuid",applicationId)
+                    .param("before",DateTimeUtils.localDateTimeToUTCTime(before))
+                    .param("limit",chunkSize)
+                    .query((resultSet, row) -> resultSet.getString("uuid"))
+                    .list();
+            return deleteWithMetadata(logIds);
+        });
+        return result == null ? 0 : result;
+    }
+    /**
+     * Reads up to {@code chunkSize} of the oldest logs of an application recorded before the given instant.
+     * Quota trimming reads a chunk this way so it can subtract the logs from the chart rollups in the same
+     * transaction that deletes them.
+     *
+     * @param applicationId the ID of the application.
+     * @param before        logs with a timestamp strictly before this instant are read.
+     * @param chunkSize     the maximum number of logs to read.
+     * @return the logs, oldest first.
+     */
+    public List<AppLog> findChunkBefore(String applicationId, LocalDateTime before, int chunkSize) {
+        var selectSql = """
+                SELECT * FROM app_logs
+                WHERE
+                application_uuid = :application_uuid
+                AND timestamp < :before
+                ORDER BY timestamp
+                LIMIT :limit
+                ;
+                """;
+        return jdbcClient.sql(selectSql)
+                .param("application_uuid",applicationId)
+                .param("before",DateTimeUtils.localDateTimeToUTCTime(before))
+                .param("limit",chunkSize)
+                .query((resultSet, row) -> mapRow(resultSet))
+                .list();
+    }
+    /**
+     * Deletes up to {@code chunkSize} logs of a data source, together with their metadata, in a single short
+     * transaction.
+     * <p>
+     * Logs are picked through the {@code log_source} index, so each chunk costs the same however many logs the
+     * data source has left. Callers purge a data source by calling this repeatedly until it returns {@code 0}.
+     * </p>
+     *
+     * @param datasourceId the ID of the data source whose logs are deleted.
+     * @param chunkSize    the maximum number of logs to delete.
+     * @return the number of logs deleted.
+     */
+    public int deleteChunkBySource(String datasourceId, int chunkSize) {
+        var result = transactionTemplate.execute(status -> {
+            var selectSql = """
+                    SELECT uuid FROM app_logs
+                    WHERE
+                    log_source = :log_source
+                    LIMIT :limit
+                    ;
+                    """;
+            List<String> logIds = jdbcClient.sql(selectSql)
+                    .param("log_source",datasourceId)
+                    .param("limit",chunkSize)
+                    .query((resultSet, row) -> resultSet.getString("uuid"))
+                    .list();
+            return deleteWithMetadata(logIds);
+        });
+        return result == null ? 0 : result;
+    }
+    /**
+     * Deletes the given logs together with their metadata in a single transaction.
+     *
+     * @param logIds the unique identifiers of the logs to delete.
+     * @return the number of logs deleted.
+     */
+    public int deleteByIds(List<String> logIds) {
+        var result = transactionTemplate.execute(status -> deleteWithMetadata(logIds));
+        return result == null ? 0 : result;
+    }
+    private int deleteWithMetadata(List<String> logIds) {
+        if (logIds.isEmpty()) return 0;
+        var deleteMetadataSql = """
+                DELETE FROM logs_metadata
+                WHERE
+                log_uuid IN (:log_uuids)
+                """;
+        jdbcClient.sql(deleteMetadataSql)
+                .param("log_uuids",logIds)
+                .update();
+        var deletePackedMetadataSql = """
+                DELETE FROM logs_metadata_packed
+                WHERE
+                log_uuid IN (:log_uuids)
+                """;
+        jdbcClient.sql(deletePackedMetadataSql)
+                .param("log_uuids",logIds)
+                .update();
+        var deleteMetadataIndexSql = """
+                DELETE FROM logs_metadata_index
+                WHERE
+                log_uuid IN (:log_uuids)
+                """;
+        jdbcClient.sql(deleteMetadataIndexSql)
+                .param("log_uuids",logIds)
+                .update();
+        var deleteLogsSql = """
+                DELETE FROM app_logs
+                WHERE
+                uuid IN (:log_uuids)
+                """;
+        return jdbcClient.sql(deleteLogsSql)
+                .param("log_uuids",logIds)
+                .update();
+    }
+    /**
+     * Counts the logs recorded for an application.
+     *
+     * @param applicationId the ID of the application.
+     * @return the number of logs of the application.
+     */
+    public long countByApplication(String applicationId) {
+        var countSql = """
+                SELECT COUNT(*) FROM app_logs
+                WHERE
+                application_uuid = :application_uuid
+                """;
+        return jdbcClient.sql(countSql)
+                .param("application_uuid",applicationId)
+                .query((resultSet,row) -> resultSet.getLong(1))
+                .single();
+    }
+    /**
+     * Counts the logs recorded through a data source.
+     *
+     * @param datasourceId the ID of the data source.
+     * @return the number of logs of the data source.
+     */
+    public long countBySource(String datasourceId) {
+        var countSql = """
+                SELECT COUNT(*) FROM app_logs
+                WHERE
+                log_source = :log_source
+                """;
+        return jdbcClient.sql(countSql)
+                .param("log_source",datasourceId)
+                .query((resultSet,row) -> resultSet.getLong(1))
+                .single();
+    }
+    /**
+     * Counts the logs recorded for an application on a given day, per severity.
+     *
+     * @param applicationId the ID of the application.
+     * @param logsDate      the day to count.
+     * @return a map from severity to the number of logs of the application on that day; severities without logs are absent.
+     */
+    public Map<String, Long> countBySeverityForApplicationAndDay(String applicationId, LocalDate logsDate) {
+        var countSql = """
+                SELECT COALESCE(severity, '') AS severity, COUNT(*) AS log_count FROM app_logs
+                WHERE
+                application_uuid = :application_uuid
+                AND timestamp >= :day_start
+                AND timestamp < :day_end
+                GROUP BY COALESCE(severity, '')
+                """;
+        Map<String, Long> counts = new HashMap<>();
+        jdbcClient.sql(countSql)
+                .param("application_uuid",applicationId)
+                .param("day_start",DateTimeUtils.localDateTimeToUTCTime(logsDate.atStartOfDay()))
+                .param("day_end",DateTimeUtils.localDateTimeToUTCTime(logsDate.plusDays(1).atStartOfDay()))
+                .query(resultSet -> {
+                    counts.put(resultSet.getString("severity"), resultSet.getLong("log_count"));
+                });
+        return counts;
+    }
+    /**
+     * Sums the size in bytes of the messages logged by an application.
+     *
+     * @param applicationId the ID of the application.
+     * @return the total message size in bytes, {@code 0} if the application has no logs.
+     */
+    public long sumMessageBytesByApplication(String applicationId) {
+        var sumSql = """
+                SELECT COALESCE(SUM(%s), 0) FROM app_logs
+                WHERE
+                application_uuid = :application_uuid
+                """;
+        return jdbcClient.sql(sumSql.formatted(sqlDialect.messageBytesExpression()))
+                .param("application_uuid",applicationId)
+                .query((resultSet,row) -> resultSet.getLong(1))
+                .single();
+    }
+    /**
+     * Finds the timestamp of the first log to keep when the oldest {@code excessRows} logs of an application
+     * have to be dropped to respect a row quota.
+     *
+     * @param applicationId the ID of the application.
+     * @param excessRows    the number of logs above the quota.
+     * @return the timestamp before which logs should be deleted, or empty if the application has no more logs.
+     */
+    public Optional<LocalDateTime> findRowsQuotaCutoff(String applicationId, long excessRows) {
+        var selectSql = """
+                SELECT timestamp FROM app_logs
+                WHERE
+                application_uuid = :application_uuid
+                ORDER BY timestamp
+                LIMIT 1 OFFSET :excess_rows
+                ;
+                """;
+        return jdbcClient.sql(selectSql)
+                .param("application_uuid",applicationId)
+                .param("excess_rows",excessRows)
+                .query((resultSet, row) -> sqlDialect.readTimestamp(resultSet, "timestamp"))
+                .optional();
+    }
+    /**
+     * Finds the timestamp of the first log to keep when the oldest logs of an application, totalling at least
+     * {@code excessBytes} of messages, have to be dropped to respect a byte quota.
+     *
+     * @param applicationId the ID of the application.
+     * @param excessBytes   the number of message bytes above the quota.
+     * @return the timestamp before which logs should be deleted, or empty if every log has to be deleted.
+     */
+    public Optional<LocalDateTime> findBytesQuotaCutoff(String applicationId, long excessBytes) {
+        var selectSql = """
+                SELECT timestamp FROM (
+                    SELECT timestamp,
+                    COALESCE(SUM(%s) OVER (
+                        ORDER BY timestamp ROWS BETWEEN UNBOUNDED PRECEDING AND 1 PRECEDING
+                    ), 0) AS preceding_bytes
+                    FROM app_logs
+                    WHERE
+                    application_uuid = :application_uuid
+                ) AS running_totals
+                WHERE preceding_bytes >= :excess_bytes
+                LIMIT 1
+                ;
+                """;
+        return jdbcClient.sql(selectSql.formatted(sqlDialect.messageBytesExpression()))
+                .param("application_uuid",applicationId)
+                .param("excess_bytes",excessBytes)
+                .query((resultSet, row) -> sqlDialect.readTimestamp(resultSet, "timestamp"))
+                .optional();
+    }
+    private void ensurePartitions(List<AppLog> entities) {
+        var partitionSql = sqlDialect.logPartitionSql();
+        if (partitionSql.isEmpty()) return;
+        entities.stream()
+                .map(entity -> entity.timestamp().toLocalDate().withDayOfMonth(1))
+                .distinct()
+                .forEach(monthStart -> jdbcClient.sql(partitionSql.get())
+                        .param("month_start", DateTimeUtils.convertDateToString(monthStart))
+                        .query((resultSet, row) -> row)
+                        .list());
+    }
+    private AppLog mapRow(ResultSet resultSet) throws SQLException {
+        return new AppLog(
+                resultSet.getString("uuid"),
+                sqlDialect.readTimestamp(resultSet, "timestamp"),
+                resultSet.getString("severity"),
+                resultSet.getString("application_uuid"),
+                resultSet.getString("log_source"),
+                resultSet.getString("message")
+        );
+    }
 }
@@ -0,0 +1,130 @@
+package com.kenyajug.regression.repository;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.AppMetricCount;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
+import java.util.Objects;
+/*
+ * Lifetime counters per application, maintained incrementally by ingestion: logs per severity, and errors per hour
+ * of day, day of week and application version. An application has a few dozen rows however long its history, so
+ * its metrics are read in constant time. Retention, archiving and data source purges intentionally leave them as
+ * they are, since the counts are not kept per day or data source; they are dropped when the application is purged.
+ */
+@Repository
+public class AppMetricCountRepository {
+    private final JdbcClient jdbcClient;
+    private final TransactionTemplate transactionTemplate;
+    public AppMetricCountRepository(JdbcClient jdbcClient, TransactionTemplate transactionTemplate) {
+        this.jdbcClient = jdbcClient;
+        this.transactionTemplate = transactionTemplate;
+    }
+    /**
+     * Adds the given counts to the counters, creating the counters that do not exist yet.
+     * <p>
+     * Runs in the caller's transaction when there is one, so the counts commit or roll back together
+     * with the ingested logs.
+     * </p>
+     *
+     * @param counts the counts to add.
+     */
+    public void incrementAll(List<AppMetricCount> counts) {
+        if (counts.isEmpty()) return;
+        transactionTemplate.executeWithoutResult(status -> {
+            var upsertSql = """
+                    INSERT INTO app_metric_counts (
+                        application_uuid,
+                        metric,
+                        metric_key,
+                        metric_count
+                    ) VALUES (
+                        :application_uuid,
+                        :metric,
+                        :metric_key,
+                        :metric_count
+                    )
+                    ON CONFLICT (application_uuid, metric, metric_key) DO UPDATE SET
+                        metric_count = app_metric_counts.metric_count + excluded.metric_count
+                    ;
+                    """;
+            for (AppMetricCount count : counts) {
+                jdbcClient.sql(upsertSql)
+                        .param("application_uuid", Objects.requireNonNullElse(count.applicationId(), ""))
+                        .param("metric", count.metric())
+                        .param("metric_key", Objects.requireNonNullElse(count.metricKey(), ""))
+                        .param("metric_count", count.metricCount())
+                        .update();
+            }
+        });
+    }
+    /**
+     * Reads every counter of an application.
+     *
+     * @param applicationId the ID of the application.
+     * @return the counters of the application.
+     */
+    public List<AppMetricCount> findByApplication(String applicationId) {
+        var selectSql = """
+                SELECT * FROM app_metric_counts
+                WHERE
+                application_uuid = :application_uuid
+                """;
+        return jdbcClient.sql(selectSql)
+                .param("application_uuid", applicationId)
+                .query((resultSet, row) -> new AppMetricCount(
+                        resultSet.getString("application_uuid"),
+                        resultSet.getString("metric"),
+                        resultSet.getString("metric_key"),
+                        resultSet.getLong("metric_count")))
+                .list();
+    }
+    /**
+     * Deletes every counter of an application.
+     *
+     * @param applicationId the ID of the application.
+     * @return the number of counters deleted.
+     */
+    public int deleteByApplication(String applicationId) {
+        var deleteSql = """
+                DELETE FROM app_metric_counts
+                WHERE
+                application_uuid = :application_uuid
+                """;
+        return jdbcClient.sql(deleteSql)
+                .param("application_uuid", applicationId)
+                .update();
+    }
+    /**
+     * Deletes all counters.
+     * Use with caution in production environments.
+     */
+    public void deleteAll() {
+        var deleteSql = """
+                DELETE FROM app_metric_counts;
+                """;
+        jdbcClient.sql(deleteSql).update();
+    }
+}
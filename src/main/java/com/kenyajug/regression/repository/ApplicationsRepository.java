@@ -24,10 +24,14 @@ package com.kenyajug.regression.repository;
  */
 import com.kenyajug.regression.entities.Application;
 import com.kenyajug.regression.entities.User;
+import com.kenyajug.regression.models.CacheStats;
 import com.kenyajug.regression.utils.DateTimeUtils;
+import com.kenyajug.regression.utils.LookupCache;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.simple.JdbcClient;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
@@ -35,9 +39,14 @@ import java.util.Optional;
 public non-sealed class ApplicationsRepository implements CrudRepository<Application>{
     private final JdbcClient jdbcClient;
     private final TransactionTemplate transactionTemplate;
-    public ApplicationsRepository(JdbcClient jdbcClient, TransactionTemplate transactionTemplate) {
+    private final LookupCache<String, Optional<Application>> cache;
+    public ApplicationsRepository(JdbcClient jdbcClient,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${regression.cache.max-size:1000}") int cacheMaxSize,
+                                  @Value("${regression.cache.ttl-seconds:300}") long cacheTtlSeconds) {
         this.jdbcClient = jdbcClient;
         this.transactionTemplate = transactionTemplate;
+        this.cache = new LookupCache<>("applications", cacheMaxSize, Duration.ofSeconds(cacheTtlSeconds));
     }
     /**
      * Saves the given entity to the database.
@@ -76,32 +85,21 @@ public non-sealed class ApplicationsRepository implements CrudRepository<Applica
                     .param("created_at", DateTimeUtils.localDateTimeToUTCTime(entity.createdAt()))
                     .update();
         });
+        cache.invalidate(entity.uuid());
     }
 
     /**
      * Finds an entity by its unique identifier.
+     * <p>
+     * Served from the read-through lookup cache; writes through this repository invalidate it.
+     * </p>
      *
      * @param uuid the unique identifier of the entity
      * @return an {@link Optional} containing the found entity, or empty if not found
      */
     @Override
     public Optional<Application> findById(String uuid) {
-        var selectSql = """
-                SELECT * FROM applications
-                WHERE uuid = :uuid
-                ;
-                """;
-        return jdbcClient.sql(selectSql)
-                .param("uuid",uuid)
-                .query((resultSet, row) -> new Application(
-                        resultSet.getString("uuid"),
-                        resultSet.getString("name"),
-                        resultSet.getString("app_version"),
-                        resultSet.getString("runtime_environment"),
-                        resultSet.getString("owner_uuid"),
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime(resultSet.getString("created_at"))
-                ))
-                .optional();
+        return cache.get(uuid, this::loadById);
     }
     /**
      * Retrieves all entities of type {@code T} from the database.
@@ -142,6 +140,7 @@ public non-sealed class ApplicationsRepository implements CrudRepository<Applica
         jdbcClient.sql(deleteSql)
                 .param("uuid",uuid)
                 .update();
+        cache.invalidate(uuid);
     }
     /**
      * Deletes all entities of type {@code T} from the database.
@@ -154,6 +153,7 @@ public non-sealed class ApplicationsRepository implements CrudRepository<Applica
                 """;
         jdbcClient.sql(deleteSql)
                 .update();
+        cache.invalidateAll();
     }
 
     /**
@@ -205,6 +205,7 @@ public non-sealed class ApplicationsRepository implements CrudRepository<Applica
                 .param("created_at",DateTimeUtils.localDateTimeToUTCTime(entity.createdAt()))
                 .param("uuid",uuid)
                 .update();
+        cache.invalidate(uuid);
     }
     public List<Application> findByOwner(User owner) {
         var selectSql = """
@@ -224,4 +225,36 @@ public non-sealed class ApplicationsRepository implements CrudRepository<Applica
                 ))
                 .list();
     }
+    private Optional<Application> loadById(String uuid) {
+        var selectSql = """
+                SELECT * FROM applications
+                WHERE uuid = :uuid
+                ;
+                """;
+        return jdbcClient.sql(selectSql)
+                .param("uuid",uuid)
+                .query((resultSet, row) -> new Application(
+                        resultSet.getString("uuid"),
+                        resultSet.getString("name"),
+                        resultSet.getString("app_version"),
+                        resultSet.getString("runtime_environment"),
+                        resultSet.getString("owner_uuid"),
+                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime(resultSet.getString("created_at"))
+                ))
+                .optional();
+    }
+    /**
+     * Drops every entry of the application lookup cache, for when the table was changed behind this repository's back.
+     */
+    public void invalidateCache() {
+        cache.invalidateAll();
+    }
+    /**
+     * Returns the hit, miss and eviction counters of the application lookup cache.
+     *
+     * @return a snapshot of the cache statistics.
+     */
+    public CacheStats cacheStats() {
+        return cache.stats();
+    }
 }
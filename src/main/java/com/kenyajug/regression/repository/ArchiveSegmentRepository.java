@@ -0,0 +1,247 @@
+package com.kenyajug.regression.repository;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.ArchiveSegment;
+import com.kenyajug.regression.utils.DateTimeUtils;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+@Repository
+public non-sealed class ArchiveSegmentRepository implements CrudRepository<ArchiveSegment> {
+    private final JdbcClient jdbcClient;
+    private final TransactionTemplate transactionTemplate;
+    public ArchiveSegmentRepository(JdbcClient jdbcClient, TransactionTemplate transactionTemplate) {
+        this.jdbcClient = jdbcClient;
+        this.transactionTemplate = transactionTemplate;
+    }
+    /**
+     * Saves the given entity to the database.
+     * If the entity already exists (e.g., same ID), it may update the record depending on implementation.
+     *
+     * @param entity the entity to save (must not be {@code null})
+     */
+    @Override
+    public void save(ArchiveSegment entity) {
+        transactionTemplate.executeWithoutResult(status -> {
+            var insertSql = """
+                    INSERT INTO archive_segments (
+                        uuid,
+                        application_uuid,
+                        segment_day,
+                        first_timestamp,
+                        last_timestamp,
+                        row_count,
+                        severities,
+                        file_path,
+                        size_bytes,
+                        created_at
+                    ) VALUES (
+                        :uuid,
+                        :application_uuid,
+                        :segment_day,
+                        :first_timestamp,
+                        :last_timestamp,
+                        :row_count,
+                        :severities,
+                        :file_path,
+                        :size_bytes,
+                        :created_at
+                    );
+                    """;
+            jdbcClient.sql(insertSql)
+                    .param("uuid", entity.uuid())
+                    .param("application_uuid", entity.applicationId())
+                    .param("segment_day", DateTimeUtils.convertDateToString(entity.segmentDay()))
+                    .param("first_timestamp", DateTimeUtils.localDateTimeToUTCTime(entity.firstTimestamp()))
+                    .param("last_timestamp", DateTimeUtils.localDateTimeToUTCTime(entity.lastTimestamp()))
+                    .param("row_count", entity.rowCount())
+                    .param("severities", String.join(",", entity.severities()))
+                    .param("file_path", entity.filePath())
+                    .param("size_bytes", entity.sizeBytes())
+                    .param("created_at", DateTimeUtils.localDateTimeToUTCTime(entity.createdAt()))
+                    .update();
+        });
+    }
+    /**
+     * Finds an entity by its unique identifier.
+     *
+     * @param uuid the unique identifier of the entity
+     * @return an {@link Optional} containing the found entity, or empty if not found
+     */
+    @Override
+    public Optional<ArchiveSegment> findById(String uuid) {
+        var selectSql = """
+                SELECT * FROM archive_segments
+                WHERE uuid = :uuid
+                ;
+                """;
+        return jdbcClient.sql(selectSql)
+                .param("uuid", uuid)
+                .query((resultSet, row) -> mapRow(resultSet))
+                .optional();
+    }
+    /**
+     * Retrieves all entities of type {@code T} from the database.
+     *
+     * @return a list of all entities; never {@code null}, but may be empty
+     */
+    @Override
+    public List<ArchiveSegment> findAll() {
+        var selectSql = """
+                SELECT * FROM archive_segments
+                ;
+                """;
+        return jdbcClient.sql(selectSql)
+                .query((resultSet, row) -> mapRow(resultSet))
+                .list();
+    }
+    /**
+     * Deletes the entity with the specified identifier from the database.
+     * If no such entity exists, the operation is silently ignored.
+     *
+     * @param uuid the unique identifier of the entity to delete
+     */
+    @Override
+    public void deleteById(String uuid) {
+        var deleteSql = """
+                DELETE FROM archive_segments
+                WHERE
+                uuid = :uuid
+                """;
+        jdbcClient.sql(deleteSql)
+                .param("uuid", uuid)
+                .update();
+    }
+    /**
+     * Deletes all entities of type {@code T} from the database.
+     * Use with caution in production environments.
+     */
+    @Override
+    public void deleteAll() {
+        var deleteSql = """
+                DELETE FROM archive_segments;
+                """;
+        jdbcClient.sql(deleteSql)
+                .update();
+    }
+    /**
+     * Checks whether an entity with the given unique identifier exists in the data source.
+     *
+     * @param uuid the unique identifier of the entity to check (must not be {@code null})
+     * @return {@code true} if an entity with the specified UUID exists, {@code false} otherwise
+     */
+    @Override
+    public boolean existsById(String uuid) {
+        var countSql = """
+                SELECT COUNT(*) FROM archive_segments
+                WHERE
+                uuid = :uuid
+                """;
+        var count = jdbcClient.sql(countSql)
+                .param("uuid", uuid)
+                .query((resultSet, row) -> resultSet.getLong(1))
+                .single();
+        return count > 0;
+    }
+    /**
+     * Segments are immutable once written, so updating one is not supported.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void updateById(String uuid, ArchiveSegment entity) throws NoSuchElementException {
+        throw new UnsupportedOperationException("Archive segments are immutable");
+    }
+    /**
+     * Finds the segments holding the logs of a given day.
+     *
+     * @param segmentDay    the day to look up.
+     * @param applicationId optional application filter; {@code null} or empty matches every application.
+     * @return the matching segments, oldest first.
+     */
+    public List<ArchiveSegment> findByDay(LocalDate segmentDay, String applicationId) {
+        var selectSql = """
+                SELECT * FROM archive_segments
+                WHERE
+                segment_day = :segment_day
+                AND (CAST(:application_uuid AS VARCHAR) IS NULL OR application_uuid = :application_uuid)
+                ORDER BY first_timestamp
+                ;
+                """;
+        var filterApplication = (applicationId == null || applicationId.isEmpty()) ? null : applicationId;
+        return jdbcClient.sql(selectSql)
+                .param("segment_day", DateTimeUtils.convertDateToString(segmentDay))
+                .param("application_uuid", filterApplication)
+                .query((resultSet, row) -> mapRow(resultSet))
+                .list();
+    }
+    /**
+     * Finds the segments of an application holding logs of days strictly before the given day.
+     *
+     * @param applicationId the ID of the application.
+     * @param before        the first day that is not returned.
+     * @return the matching segments, oldest first.
+     */
+    public List<ArchiveSegment> findByApplicationBefore(String applicationId, LocalDate before) {
+        var selectSql = """
+                SELECT * FROM archive_segments
+                WHERE
+                application_uuid = :application_uuid
+                AND segment_day < :before
+                ORDER BY segment_day
+                ;
+                """;
+        return jdbcClient.sql(selectSql)
+                .param("application_uuid", applicationId)
+                .param("before", DateTimeUtils.convertDateToString(before))
+                .query((resultSet, row) -> mapRow(resultSet))
+                .list();
+    }
+    private static ArchiveSegment mapRow(ResultSet resultSet) throws SQLException {
+        var severities = resultSet.getString("severities");
+        return new ArchiveSegment(
+                resultSet.getString("uuid"),
+                resultSet.getString("application_uuid"),
+                DateTimeUtils.convertStringToLocalDate(resultSet.getString("segment_day")),
+                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime(resultSet.getString("first_timestamp")),
+                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime(resultSet.getString("last_timestamp")),
+                resultSet.getLong("row_count"),
+                severities == null || severities.isEmpty()
+                        ? new TreeSet<>()
+                        : Arrays.stream(severities.split(",")).collect(Collectors.toCollection(TreeSet::new)),
+                resultSet.getString("file_path"),
+                resultSet.getLong("size_bytes"),
+                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime(resultSet.getString("created_at"))
+        );
+    }
+}
@@ -0,0 +1,325 @@
+package com.kenyajug.regression.repository;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.AppLog;
+import com.kenyajug.regression.models.ColumnarSegment;
+import com.kenyajug.regression.models.ColumnarSegment.Column;
+import com.kenyajug.regression.utils.ColumnarEncoding;
+import com.kenyajug.regression.utils.ColumnarEncoding.RunLengths;
+import com.kenyajug.regression.utils.DateTimeUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+/*
+ * File backed store of immutable, column oriented log segments, one per application and day.
+ * <p>
+ * A segment file starts with a header holding the zone map (row count, time range, severity and source
+ * dictionaries) and a directory of column blocks, followed by the blocks themselves:
+ * delta encoded timestamps, run-length encoded severity and source codes and message sizes, all as varints.
+ * Readers load only the blocks they aggregate over with positioned reads. Headers are cached per file.
+ * </p>
+ */
+@Repository
+public class ColumnarSegmentRepository {
+    private static final int MAGIC = 0x52435331;
+    private static final String SEGMENT_EXTENSION = ".rcs";
+    private final Path directory;
+    private final Map<Path, ColumnarSegment> headerCache = new ConcurrentHashMap<>();
+    public ColumnarSegmentRepository(@Value("${regression.columnar.directory:columnar}") Path directory) {
+        this.directory = directory;
+    }
+    /**
+     * Writes the logs of an application's day into a new segment, replacing any previous segment of that day.
+     * <p>
+     * The segment is written to a temporary file and atomically moved into place, so readers always see
+     * either the old or the new segment.
+     * </p>
+     *
+     * @param applicationId the ID of the application.
+     * @param day           the day the logs belong to.
+     * @param logs          the logs of the day, oldest first.
+     * @return the written segment, or empty if there were no logs.
+     * @throws IOException if the segment cannot be written.
+     */
+    public Optional<ColumnarSegment> write(String applicationId, LocalDate day, Stream<AppLog> logs) throws IOException {
+        var timestamps = new long[1024];
+        var messageBytes = new long[1024];
+        List<String> severities = new ArrayList<>();
+        List<String> sources = new ArrayList<>();
+        var rows = 0;
+        var iterator = logs.iterator();
+        while (iterator.hasNext()) {
+            var appLog = iterator.next();
+            if (rows == timestamps.length) {
+                timestamps = Arrays.copyOf(timestamps, rows * 2);
+                messageBytes = Arrays.copyOf(messageBytes, rows * 2);
+            }
+            timestamps[rows] = appLog.timestamp().toEpochSecond(ZoneOffset.UTC);
+            messageBytes[rows] = appLog.message() == null ? 0 : appLog.message().getBytes(StandardCharsets.UTF_8).length;
+            severities.add(appLog.severity());
+            sources.add(appLog.logSource());
+            rows++;
+        }
+        if (rows == 0) return Optional.empty();
+        timestamps = Arrays.copyOf(timestamps, rows);
+        messageBytes = Arrays.copyOf(messageBytes, rows);
+        var severityDictionary = ColumnarEncoding.dictionaryEncode(severities);
+        var sourceDictionary = ColumnarEncoding.dictionaryEncode(sources);
+        List<byte[]> blocks = List.of(
+                encodeLongs(ColumnarEncoding.deltaEncode(timestamps)),
+                encodeRuns(ColumnarEncoding.runLengthEncode(severityDictionary.codes())),
+                encodeRuns(ColumnarEncoding.runLengthEncode(sourceDictionary.codes())),
+                encodeLongs(messageBytes)
+        );
+        var columnOffsets = new long[blocks.size() + 1];
+        for (int index = 0; index < blocks.size(); index++) {
+            columnOffsets[index + 1] = columnOffsets[index] + blocks.get(index).length;
+        }
+        var segmentFile = segmentFile(applicationId, day);
+        Files.createDirectories(segmentFile.getParent());
+        var temporaryFile = segmentFile.resolveSibling(segmentFile.getFileName() + ".tmp");
+        try (var output = new DataOutputStream(Files.newOutputStream(temporaryFile))) {
+            output.writeInt(MAGIC);
+            output.writeUTF(applicationId);
+            output.writeUTF(DateTimeUtils.convertDateToString(day));
+            output.writeInt(rows);
+            output.writeLong(timestamps[0]);
+            output.writeLong(timestamps[rows - 1]);
+            writeStrings(output, severityDictionary.values());
+            writeStrings(output, sourceDictionary.values());
+            for (long offset : columnOffsets) output.writeLong(offset);
+            for (byte[] block : blocks) output.write(block);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(temporaryFile);
+            throw ex;
+        }
+        Files.move(temporaryFile, segmentFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        headerCache.remove(segmentFile);
+        return Optional.of(readHeader(segmentFile));
+    }
+    /**
+     * Finds the segment of an application's day.
+     *
+     * @param applicationId the ID of the application.
+     * @param day           the day.
+     * @return the segment header, or empty if the day has not been written.
+     * @throws IOException if the segment header cannot be read.
+     */
+    public Optional<ColumnarSegment> findByApplicationAndDay(String applicationId, LocalDate day) throws IOException {
+        var segmentFile = segmentFile(applicationId, day);
+        if (!Files.exists(segmentFile)) return Optional.empty();
+        return Optional.of(readHeader(segmentFile));
+    }
+    /**
+     * Finds the segments of the days in {@code [from, to)}, for one application or for all of them.
+     *
+     * @param applicationId an optional application filter; {@code null} or empty matches every application.
+     * @param from          the first day, inclusive.
+     * @param to            the last day, exclusive.
+     * @return the matching segment headers, ordered by application and day.
+     * @throws IOException if the store cannot be listed or a header cannot be read.
+     */
+    public List<ColumnarSegment> findByDayRange(String applicationId, LocalDate from, LocalDate to) throws IOException {
+        List<ColumnarSegment> segments = new ArrayList<>();
+        for (Path segmentFile : listSegmentFiles(applicationId)) {
+            var day = dayOf(segmentFile);
+            if (day.isBefore(from) || !day.isBefore(to)) continue;
+            segments.add(readHeader(segmentFile));
+        }
+        segments.sort(Comparator.comparing(ColumnarSegment::applicationId).thenComparing(ColumnarSegment::day));
+        return segments;
+    }
+    /**
+     * Deletes the segments of an application holding days strictly before the given day.
+     *
+     * @param applicationId the ID of the application.
+     * @param before        the first day to keep.
+     * @return the number of rows held by the deleted segments.
+     * @throws IOException if a segment cannot be deleted.
+     */
+    public long deleteByApplicationBefore(String applicationId, LocalDate before) throws IOException {
+        long deleted = 0;
+        for (Path segmentFile : listSegmentFiles(applicationId)) {
+            if (!dayOf(segmentFile).isBefore(before)) continue;
+            deleted += readHeader(segmentFile).rowCount();
+            Files.deleteIfExists(segmentFile);
+            headerCache.remove(segmentFile);
+        }
+        return deleted;
+    }
+    /**
+     * Reads the timestamp column of a segment.
+     *
+     * @param segment the segment.
+     * @return one UTC epoch second per row, ascending.
+     * @throws IOException if the column cannot be read.
+     */
+    public long[] readTimestamps(ColumnarSegment segment) throws IOException {
+        return ColumnarEncoding.deltaDecode(decodeLongs(readColumn(segment, Column.TIMESTAMP), segment.rowCount()));
+    }
+    /**
+     * Reads the severity column of a segment; codes index {@link ColumnarSegment#severities()}.
+     *
+     * @param segment the segment.
+     * @return the run-length encoded severity codes.
+     * @throws IOException if the column cannot be read.
+     */
+    public RunLengths readSeverities(ColumnarSegment segment) throws IOException {
+        return decodeRuns(readColumn(segment, Column.SEVERITY));
+    }
+    /**
+     * Reads the log source column of a segment; codes index {@link ColumnarSegment#sources()}.
+     *
+     * @param segment the segment.
+     * @return the run-length encoded source codes.
+     * @throws IOException if the column cannot be read.
+     */
+    public RunLengths readSources(ColumnarSegment segment) throws IOException {
+        return decodeRuns(readColumn(segment, Column.SOURCE));
+    }
+    /**
+     * Reads the message size column of a segment.
+     *
+     * @param segment the segment.
+     * @return the UTF-8 size in bytes of each row's message.
+     * @throws IOException if the column cannot be read.
+     */
+    public long[] readMessageBytes(ColumnarSegment segment) throws IOException {
+        return decodeLongs(readColumn(segment, Column.MESSAGE_BYTES), segment.rowCount());
+    }
+    private Path segmentFile(String applicationId, LocalDate day) {
+        return directory.resolve(applicationId).resolve(DateTimeUtils.convertDateToString(day) + SEGMENT_EXTENSION);
+    }
+    private List<Path> listSegmentFiles(String applicationId) throws IOException {
+        if (!Files.isDirectory(directory)) return List.of();
+        var root = (applicationId == null || applicationId.isEmpty()) ? directory : directory.resolve(applicationId);
+        if (!Files.isDirectory(root)) return List.of();
+        try (var files = Files.walk(root, 2)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_EXTENSION)).toList();
+        }
+    }
+    private static LocalDate dayOf(Path segmentFile) {
+        var fileName = segmentFile.getFileName().toString();
+        return DateTimeUtils.convertStringToLocalDate(fileName.substring(0, fileName.length() - SEGMENT_EXTENSION.length()));
+    }
+    private ColumnarSegment readHeader(Path segmentFile) throws IOException {
+        var cached = headerCache.get(segmentFile);
+        if (cached != null) return cached;
+        try (var buffered = new BufferedInputStream(Files.newInputStream(segmentFile));
+             var input = new DataInputStream(buffered)) {
+            if (input.readInt() != MAGIC) throw new IOException("Not a columnar segment: " + segmentFile);
+            var applicationId = input.readUTF();
+            var day = DateTimeUtils.convertStringToLocalDate(input.readUTF());
+            var rowCount = input.readInt();
+            var minTimestamp = LocalDateTime.ofEpochSecond(input.readLong(), 0, ZoneOffset.UTC);
+            var maxTimestamp = LocalDateTime.ofEpochSecond(input.readLong(), 0, ZoneOffset.UTC);
+            var severities = readStrings(input);
+            var sources = readStrings(input);
+            var columnOffsets = new long[Column.values().length + 1];
+            for (int index = 0; index < columnOffsets.length; index++) columnOffsets[index] = input.readLong();
+            var dataOffset = Files.size(segmentFile) - columnOffsets[columnOffsets.length - 1];
+            var segment = new ColumnarSegment(segmentFile, applicationId, day, rowCount, minTimestamp, maxTimestamp,
+                    severities, sources, dataOffset, columnOffsets);
+            headerCache.put(segmentFile, segment);
+            return segment;
+        }
+    }
+    private static DataInput readColumn(ColumnarSegment segment, Column column) throws IOException {
+        var start = segment.columnOffsets()[column.ordinal()];
+        var length = (int) (segment.columnOffsets()[column.ordinal() + 1] - start);
+        var buffer = ByteBuffer.allocate(length);
+        try (var channel = FileChannel.open(segment.file(), StandardOpenOption.READ)) {
+            var position = segment.dataOffset() + start;
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) throw new IOException("Truncated columnar segment: " + segment.file());
+            }
+        }
+        return new DataInputStream(new ByteArrayInputStream(buffer.array()));
+    }
+    private static byte[] encodeLongs(long[] values) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        var output = new DataOutputStream(bytes);
+        for (long value : values) ColumnarEncoding.writeVarLong(output, value);
+        return bytes.toByteArray();
+    }
+    private static long[] decodeLongs(DataInput input, int count) throws IOException {
+        var values = new long[count];
+        for (int index = 0; index < count; index++) values[index] = ColumnarEncoding.readVarLong(input);
+        return values;
+    }
+    private static byte[] encodeRuns(RunLengths runLengths) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        var output = new DataOutputStream(bytes);
+        ColumnarEncoding.writeVarLong(output, runLengths.values().length);
+        for (int run = 0; run < runLengths.values().length; run++) {
+            ColumnarEncoding.writeVarLong(output, runLengths.values()[run]);
+            ColumnarEncoding.writeVarLong(output, runLengths.lengths()[run]);
+        }
+        return bytes.toByteArray();
+    }
+    private static RunLengths decodeRuns(DataInput input) throws IOException {
+        var runs = (int) ColumnarEncoding.readVarLong(input);
+        var values = new int[runs];
+        var lengths = new int[runs];
+        for (int run = 0; run < runs; run++) {
+            values[run] = (int) ColumnarEncoding.readVarLong(input);
+            lengths[run] = (int) ColumnarEncoding.readVarLong(input);
+        }
+        return new RunLengths(values, lengths);
+    }
+    private static void writeStrings(DataOutputStream output, List<String> values) throws IOException {
+        output.writeInt(values.size());
+        for (String value : values) output.writeUTF(value);
+    }
+    private static List<String> readStrings(DataInputStream input) throws IOException {
+        var count = input.readInt();
+        List<String> values = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) values.add(input.readUTF());
+        return List.copyOf(values);
+    }
+}
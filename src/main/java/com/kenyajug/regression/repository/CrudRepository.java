@@ -32,7 +32,7 @@ import java.util.Optional;
  * @param <T> the type of the entity managed by this repository
  */
 public sealed interface CrudRepository<T>
-        permits AppLogRepository, ApplicationsRepository, LogsMetadataRepository, UserRepository, LogsDataSourceRepository
+        permits AppLogRepository, ApplicationsRepository, LogsMetadataRepository, UserRepository, LogsDataSourceRepository, RetentionPolicyRepository, ArchiveSegmentRepository, PurgeJobRepository
 {
 
     /**
@@ -0,0 +1,127 @@
+package com.kenyajug.regression.repository;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.HeavyHitterCounter;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
+/*
+ * Checkpoints of the in-memory heavy-hitter sketches, one row per tracked item of each (application, dimension,
+ * severity) sketch, from which the sketches are rebuilt after a restart.
+ */
+@Repository
+public class HeavyHitterRepository {
+    private final JdbcClient jdbcClient;
+    private final TransactionTemplate transactionTemplate;
+    public HeavyHitterRepository(JdbcClient jdbcClient, TransactionTemplate transactionTemplate) {
+        this.jdbcClient = jdbcClient;
+        this.transactionTemplate = transactionTemplate;
+    }
+    /**
+     * Replaces the stored checkpoint with the given counters.
+     * <p>
+     * Runs in the caller's transaction when there is one, so readers never see a partial checkpoint.
+     * </p>
+     *
+     * @param counters every tracked item of every sketch.
+     */
+    public void replaceAll(List<HeavyHitterCounter> counters) {
+        transactionTemplate.executeWithoutResult(status -> {
+            deleteAll();
+            var insertSql = """
+                    INSERT INTO heavy_hitter_counters (
+                        application_uuid,
+                        dimension,
+                        severity,
+                        item,
+                        item_count,
+                        item_error
+                    ) VALUES (
+                        :application_uuid,
+                        :dimension,
+                        :severity,
+                        :item,
+                        :item_count,
+                        :item_error
+                    );
+                    """;
+            for (HeavyHitterCounter counter : counters) {
+                jdbcClient.sql(insertSql)
+                        .param("application_uuid", counter.applicationId())
+                        .param("dimension", counter.dimension())
+                        .param("severity", counter.severity())
+                        .param("item", counter.item())
+                        .param("item_count", counter.itemCount())
+                        .param("item_error", counter.itemError())
+                        .update();
+            }
+        });
+    }
+    /**
+     * Reads the stored checkpoint.
+     *
+     * @return every stored counter.
+     */
+    public List<HeavyHitterCounter> findAll() {
+        var selectSql = """
+                SELECT * FROM heavy_hitter_counters;
+                """;
+        return jdbcClient.sql(selectSql)
+                .query((resultSet, row) -> new HeavyHitterCounter(
+                        resultSet.getString("application_uuid"),
+                        resultSet.getString("dimension"),
+                        resultSet.getString("severity"),
+                        resultSet.getString("item"),
+                        resultSet.getLong("item_count"),
+                        resultSet.getLong("item_error")))
+                .list();
+    }
+    /**
+     * Deletes the stored counters of an application.
+     *
+     * @param applicationId the ID of the application.
+     * @return the number of counters deleted.
+     */
+    public int deleteByApplication(String applicationId) {
+        var deleteSql = """
+                DELETE FROM heavy_hitter_counters
+                WHERE
+                application_uuid = :application_uuid
+                """;
+        return jdbcClient.sql(deleteSql)
+                .param("application_uuid", applicationId)
+                .update();
+    }
+    /**
+     * Deletes all stored counters.
+     * Use with caution in production environments.
+     */
+    public void deleteAll() {
+        var deleteSql = """
+                DELETE FROM heavy_hitter_counters;
+                """;
+        jdbcClient.sql(deleteSql).update();
+    }
+}
@@ -0,0 +1,317 @@
+package com.kenyajug.regression.repository;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.HourlyLogCount;
+import com.kenyajug.regression.utils.DateTimeUtils;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+/*
+ * Hourly log counts keyed by (application, source, severity, hour), maintained incrementally by ingestion
+ * so that charts never have to scan app_logs.
+ */
+@Repository
+public class LogHourlyCountRepository {
+    public static final String GROUP_BY_APPLICATION = "application_uuid";
+    public static final String GROUP_BY_SOURCE = "log_source";
+    private final JdbcClient jdbcClient;
+    private final TransactionTemplate transactionTemplate;
+    public LogHourlyCountRepository(JdbcClient jdbcClient, TransactionTemplate transactionTemplate) {
+        this.jdbcClient = jdbcClient;
+        this.transactionTemplate = transactionTemplate;
+    }
+    /**
+     * Adds the given counts to the rollup, creating the hourly rows that do not exist yet.
+     * <p>
+     * Runs in the caller's transaction when there is one, so the counts commit or roll back together
+     * with the ingested logs.
+     * </p>
+     *
+     * @param counts the counts to add.
+     */
+    public void incrementAll(List<HourlyLogCount> counts) {
+        if (counts.isEmpty()) return;
+        transactionTemplate.executeWithoutResult(status -> {
+            var upsertSql = """
+                    INSERT INTO log_hourly_counts (
+                        application_uuid,
+                        log_source,
+                        severity,
+                        hour_start,
+                        log_count
+                    ) VALUES (
+                        :application_uuid,
+                        :log_source,
+                        :severity,
+                        :hour_start,
+                        :log_count
+                    )
+                    ON CONFLICT (application_uuid, log_source, severity, hour_start) DO UPDATE SET
+                        log_count = log_hourly_counts.log_count + excluded.log_count
+                    ;
+                    """;
+            for (HourlyLogCount count : counts) {
+                jdbcClient.sql(upsertSql)
+                        .param("application_uuid", Objects.requireNonNullElse(count.applicationId(), ""))
+                        .param("log_source", Objects.requireNonNullElse(count.logSource(), ""))
+                        .param("severity", Objects.requireNonNullElse(count.severity(), ""))
+                        .param("hour_start", DateTimeUtils.localDateTimeToUTCTime(count.hourStart()))
+                        .param("log_count", count.logCount())
+                        .update();
+            }
+        });
+    }
+    /**
+     * Subtracts the given counts from the rollup, dropping the hourly rows that reach zero.
+     * <p>
+     * Runs in the caller's transaction when there is one, so the counts commit or roll back together
+     * with the deleted logs.
+     * </p>
+     *
+     * @param counts the counts to subtract.
+     */
+    public void decrementAll(List<HourlyLogCount> counts) {
+        if (counts.isEmpty()) return;
+        transactionTemplate.executeWithoutResult(status -> {
+            var updateSql = """
+                    UPDATE log_hourly_counts SET
+                        log_count = log_count - :log_count
+                    WHERE
+                    application_uuid = :application_uuid
+                    AND log_source = :log_source
+                    AND severity = :severity
+                    AND hour_start = :hour_start
+                    ;
+                    """;
+            var deleteSql = """
+                    DELETE FROM log_hourly_counts
+                    WHERE
+                    application_uuid = :application_uuid
+                    AND log_source = :log_source
+                    AND severity = :severity
+                    AND hour_start = :hour_start
+                    AND log_count <= 0
+                    ;
+                    """;
+            for (HourlyLogCount count : counts) {
+                jdbcClient.sql(updateSql)
+                        .param("application_uuid", Objects.requireNonNullElse(count.applicationId(), ""))
+                        .param("log_source", Objects.requireNonNullElse(count.logSource(), ""))
+                        .param("severity", Objects.requireNonNullElse(count.severity(), ""))
+                        .param("hour_start", DateTimeUtils.localDateTimeToUTCTime(count.hourStart()))
+                        .param("log_count", count.logCount())
+                        .update();
+                jdbcClient.sql(deleteSql)
+                        .param("application_uuid", Objects.requireNonNullElse(count.applicationId(), ""))
+                        .param("log_source", Objects.requireNonNullElse(count.logSource(), ""))
+                        .param("severity", Objects.requireNonNullElse(count.severity(), ""))
+                        .param("hour_start", DateTimeUtils.localDateTimeToUTCTime(count.hourStart()))
+                        .update();
+            }
+        });
+    }
+    /**
+     * Sums the logs of a severity recorded in each hour of a day, across all applications and sources.
+     *
+     * @param severity the log severity level to count.
+     * @param logsDate the day to count.
+     * @return a map from hour of day (0-23) to log count; hours without logs are absent.
+     */
+    public Map<Integer, Long> countByHour(String severity, LocalDate logsDate) {
+        var selectSql = """
+                SELECT hour_start, SUM(log_count) AS log_count FROM log_hourly_counts
+                WHERE
+                severity = :severity
+                AND hour_start >= :day_start
+                AND hour_start < :day_end
+                GROUP BY hour_start
+                ;
+                """;
+        return jdbcClient.sql(selectSql)
+                .param("severity", severity)
+                .param("day_start", DateTimeUtils.localDateTimeToUTCTime(logsDate.atStartOfDay()))
+                .param("day_end", DateTimeUtils.localDateTimeToUTCTime(logsDate.plusDays(1).atStartOfDay()))
+                .query((resultSet, row) -> Map.entry(
+                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime(resultSet.getString("hour_start")).getHour(),
+                        resultSet.getLong("log_count")))
+                .list()
+                .stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+    /**
+     * Sums the logs of every severity recorded in each hour of a day in a single grouped query, optionally
+     * limited to an application or a data source.
+     *
+     * @param logsDate      the day to count.
+     * @param applicationId optional application filter; {@code null} or empty counts every application.
+     * @param datasourceId  optional data source filter; {@code null} or empty counts every data source.
+     * @return a map from severity to 24 hourly buckets indexed by hour of day; severities without logs are absent.
+     */
+    public Map<String, long[]> countBySeverityAndHour(LocalDate logsDate, String applicationId, String datasourceId) {
+        return countBySeverity(logsDate.atStartOfDay(), Duration.ofHours(1), 24, applicationId, datasourceId);
+    }
+    /**
+     * Sums the logs of every severity recorded in each hour of a day per application or per data source, in a
+     * single grouped query.
+     *
+     * @param logsDate    the day to count.
+     * @param groupColumn {@link #GROUP_BY_APPLICATION} or {@link #GROUP_BY_SOURCE}.
+     * @return a map from application or data source ID to a map from severity to 24 hourly buckets; groups and
+     * severities without logs are absent.
+     * @throws IllegalArgumentException if the column is not one of the group columns.
+     */
+    public Map<String, Map<String, long[]>> countByGroupSeverityAndHour(LocalDate logsDate, String groupColumn) {
+        if (!GROUP_BY_APPLICATION.equals(groupColumn) && !GROUP_BY_SOURCE.equals(groupColumn))
+            throw new IllegalArgumentException("Hourly counts cannot be grouped by " + groupColumn);
+        var selectSql = """
+                SELECT %1$s AS group_key, severity, hour_start, SUM(log_count) AS log_count FROM log_hourly_counts
+                WHERE
+                hour_start >= :day_start
+                AND hour_start < :day_end
+                GROUP BY %1$s, severity, hour_start
+                ;
+                """.formatted(groupColumn);
+        Map<String, Map<String, long[]>> counts = new HashMap<>();
+        jdbcClient.sql(selectSql)
+                .param("day_start", DateTimeUtils.localDateTimeToUTCTime(logsDate.atStartOfDay()))
+                .param("day_end", DateTimeUtils.localDateTimeToUTCTime(logsDate.plusDays(1).atStartOfDay()))
+                .query(resultSet -> {
+                    var hour = DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime(resultSet.getString("hour_start")).getHour();
+                    counts.computeIfAbsent(resultSet.getString("group_key"), group -> new HashMap<>())
+                            .computeIfAbsent(resultSet.getString("severity"), severity -> new long[24])[hour] += resultSet.getLong("log_count");
+                });
+        return counts;
+    }
+    /**
+     * Sums the logs of every severity into consecutive buckets of whole hours in a single grouped query,
+     * optionally limited to an application or a data source.
+     *
+     * @param start         the start of the first bucket, on the hour.
+     * @param bucketWidth   the width of each bucket, a whole number of hours.
+     * @param buckets       the number of buckets.
+     * @param applicationId optional application filter; {@code null} or empty counts every application.
+     * @param datasourceId  optional data source filter; {@code null} or empty counts every data source.
+     * @return a map from severity to its bucket counts; severities without logs are absent.
+     */
+    public Map<String, long[]> countBySeverity(LocalDateTime start, Duration bucketWidth, int buckets, String applicationId, String datasourceId) {
+        var filterApplication = (applicationId == null || applicationId.isEmpty()) ? null : applicationId;
+        var filterSource = (datasourceId == null || datasourceId.isEmpty()) ? null : datasourceId;
+        var selectSql = """
+                SELECT severity, hour_start, SUM(log_count) AS log_count FROM log_hourly_counts
+                WHERE
+                hour_start >= :range_start
+                AND hour_start < :range_end
+                %s%s
+                GROUP BY severity, hour_start
+                ;
+                """.formatted(
+                        filterApplication == null ? "" : "AND application_uuid = :application_uuid\n",
+                        filterSource == null ? "" : "AND log_source = :log_source\n");
+        var statement = jdbcClient.sql(selectSql)
+                .param("range_start", DateTimeUtils.localDateTimeToUTCTime(start))
+                .param("range_end", DateTimeUtils.localDateTimeToUTCTime(start.plus(bucketWidth.multipliedBy(buckets))));
+        if (filterApplication != null) statement = statement.param("application_uuid", filterApplication);
+        if (filterSource != null) statement = statement.param("log_source", filterSource);
+        var widthSeconds = bucketWidth.toSeconds();
+        Map<String, long[]> counts = new HashMap<>();
+        statement.query(resultSet -> {
+            var hour = DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime(resultSet.getString("hour_start"));
+            var bucket = (int) (Duration.between(start, hour).toSeconds() / widthSeconds);
+            counts.computeIfAbsent(resultSet.getString("severity"), severity -> new long[buckets])[bucket] += resultSet.getLong("log_count");
+        });
+        return counts;
+    }
+    /**
+     * Counts the applications that logged anything from the given hour on.
+     *
+     * @param since the start of the window, inclusive.
+     * @return the number of distinct applications with logs in the window.
+     */
+    public long countApplicationsSince(LocalDateTime since) {
+        var selectSql = """
+                SELECT COUNT(DISTINCT application_uuid) AS applications FROM log_hourly_counts
+                WHERE
+                hour_start >= :since
+                ;
+                """;
+        return jdbcClient.sql(selectSql)
+                .param("since", DateTimeUtils.localDateTimeToUTCTime(since))
+                .query((resultSet, row) -> resultSet.getLong("applications"))
+                .single();
+    }
+    /**
+     * Deletes the hourly counts of an application for hours starting before the given instant.
+     *
+     * @param applicationId the ID of the application.
+     * @param before        counts of hours starting strictly before this instant are deleted.
+     * @return the number of hourly rows deleted.
+     */
+    public int deleteByApplicationBefore(String applicationId, LocalDateTime before) {
+        var deleteSql = """
+                DELETE FROM log_hourly_counts
+                WHERE
+                application_uuid = :application_uuid
+                AND hour_start < :before
+                """;
+        return jdbcClient.sql(deleteSql)
+                .param("application_uuid", applicationId)
+                .param("before", DateTimeUtils.localDateTimeToUTCTime(before))
+                .update();
+    }
+    /**
+     * Deletes every hourly count of a data source.
+     *
+     * @param datasourceId the ID of the data source.
+     * @return the number of hourly rows deleted.
+     */
+    public int deleteBySource(String datasourceId) {
+        var deleteSql = """
+                DELETE FROM log_hourly_counts
+                WHERE
+                log_source = :log_source
+                """;
+        return jdbcClient.sql(deleteSql)
+                .param("log_source", datasourceId)
+                .update();
+    }
+    /**
+     * Deletes all hourly counts.
+     * Use with caution in production environments.
+     */
+    public void deleteAll() {
+        var deleteSql = """
+                DELETE FROM log_hourly_counts;
+                """;
+        jdbcClient.sql(deleteSql)
+                .update();
+    }
+}
@@ -0,0 +1,276 @@
+package com.kenyajug.regression.repository;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.MinuteLogCount;
+import com.kenyajug.regression.utils.DateTimeUtils;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+/*
+ * Per-minute log counts keyed by (application, source, severity, minute), maintained incrementally by ingestion
+ * for zoomed-in histograms. Only recent minutes are kept; older ranges are answered from log_hourly_counts.
+ */
+@Repository
+public class LogMinuteCountRepository {
+    private final JdbcClient jdbcClient;
+    private final TransactionTemplate transactionTemplate;
+    public LogMinuteCountRepository(JdbcClient jdbcClient, TransactionTemplate transactionTemplate) {
+        this.jdbcClient = jdbcClient;
+        this.transactionTemplate = transactionTemplate;
+    }
+    /**
+     * Adds the given counts to the rollup, creating the minute rows that do not exist yet.
+     * <p>
+     * Runs in the caller's transaction when there is one, so the counts commit or roll back together
+     * with the ingested logs.
+     * </p>
+     *
+     * @param counts the counts to add.
+     */
+    public void incrementAll(List<MinuteLogCount> counts) {
+        if (counts.isEmpty()) return;
+        transactionTemplate.executeWithoutResult(status -> {
+            var upsertSql = """
+                    INSERT INTO log_minute_counts (
+                        application_uuid,
+                        log_source,
+                        severity,
+                        minute_start,
+                        log_count
+                    ) VALUES (
+                        :application_uuid,
+                        :log_source,
+                        :severity,
+                        :minute_start,
+                        :log_count
+                    )
+                    ON CONFLICT (application_uuid, log_source, severity, minute_start) DO UPDATE SET
+                        log_count = log_minute_counts.log_count + excluded.log_count
+                    ;
+                    """;
+            for (MinuteLogCount count : counts) {
+                jdbcClient.sql(upsertSql)
+                        .param("application_uuid", Objects.requireNonNullElse(count.applicationId(), ""))
+                        .param("log_source", Objects.requireNonNullElse(count.logSource(), ""))
+                        .param("severity", Objects.requireNonNullElse(count.severity(), ""))
+                        .param("minute_start", DateTimeUtils.localDateTimeToUTCTime(count.minuteStart()))
+                        .param("log_count", count.logCount())
+                        .update();
+            }
+        });
+    }
+    /**
+     * Subtracts the given counts from the rollup, dropping the minute rows that reach zero.
+     * <p>
+     * Runs in the caller's transaction when there is one, so the counts commit or roll back together
+     * with the deleted logs.
+     * </p>
+     *
+     * @param counts the counts to subtract.
+     */
+    public void decrementAll(List<MinuteLogCount> counts) {
+        if (counts.isEmpty()) return;
+        transactionTemplate.executeWithoutResult(status -> {
+            var updateSql = """
+                    UPDATE log_minute_counts SET
+                        log_count = log_count - :log_count
+                    WHERE
+                    application_uuid = :application_uuid
+                    AND log_source = :log_source
+                    AND severity = :severity
+                    AND minute_start = :minute_start
+                    ;
+                    """;
+            var deleteSql = """
+                    DELETE FROM log_minute_counts
+                    WHERE
+                    application_uuid = :application_uuid
+                    AND log_source = :log_source
+                    AND severity = :severity
+                    AND minute_start = :minute_start
+                    AND log_count <= 0
+                    ;
+                    """;
+            for (MinuteLogCount count : counts) {
+                jdbcClient.sql(updateSql)
+                        .param("application_uuid", Objects.requireNonNullElse(count.applicationId(), ""))
+                        .param("log_source", Objects.requireNonNullElse(count.logSource(), ""))
+                        .param("severity", Objects.requireNonNullElse(count.severity(), ""))
+                        .param("minute_start", DateTimeUtils.localDateTimeToUTCTime(count.minuteStart()))
+                        .param("log_count", count.logCount())
+                        .update();
+                jdbcClient.sql(deleteSql)
+                        .param("application_uuid", Objects.requireNonNullElse(count.applicationId(), ""))
+                        .param("log_source", Objects.requireNonNullElse(count.logSource(), ""))
+                        .param("severity", Objects.requireNonNullElse(count.severity(), ""))
+                        .param("minute_start", DateTimeUtils.localDateTimeToUTCTime(count.minuteStart()))
+                        .update();
+            }
+        });
+    }
+    /**
+     * Sums the logs of every severity into consecutive buckets of whole minutes in a single grouped query,
+     * optionally limited to an application or a data source.
+     *
+     * @param start         the start of the first bucket.
+     * @param bucketWidth   the width of each bucket, a whole number of minutes.
+     * @param buckets       the number of buckets.
+     * @param applicationId optional application filter; {@code null} or empty counts every application.
+     * @param datasourceId  optional data source filter; {@code null} or empty counts every data source.
+     * @return a map from severity to its bucket counts; severities without logs are absent.
+     */
+    public Map<String, long[]> countBySeverity(LocalDateTime start, Duration bucketWidth, int buckets, String applicationId, String datasourceId) {
+        var filterApplication = (applicationId == null || applicationId.isEmpty()) ? null : applicationId;
+        var filterSource = (datasourceId == null || datasourceId.isEmpty()) ? null : datasourceId;
+        var selectSql = """
+                SELECT severity, minute_start, SUM(log_count) AS log_count FROM log_minute_counts
+                WHERE
+                minute_start >= :range_start
+                AND minute_start < :range_end
+                %s%s
+                GROUP BY severity, minute_start
+                ;
+                """.formatted(
+                        filterApplication == null ? "" : "AND application_uuid = :application_uuid\n",
+                        filterSource == null ? "" : "AND log_source = :log_source\n");
+        var statement = jdbcClient.sql(selectSql)
+                .param("range_start", DateTimeUtils.localDateTimeToUTCTime(start))
+                .param("range_end", DateTimeUtils.localDateTimeToUTCTime(start.plus(bucketWidth.multipliedBy(buckets))));
+        if (filterApplication != null) statement = statement.param("application_uuid", filterApplication);
+        if (filterSource != null) statement = statement.param("log_source", filterSource);
+        var widthSeconds = bucketWidth.toSeconds();
+        Map<String, long[]> counts = new HashMap<>();
+        statement.query(resultSet -> {
+            var minute = DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime(resultSet.getString("minute_start"));
+            var bucket = (int) (Duration.between(start, minute).toSeconds() / widthSeconds);
+            counts.computeIfAbsent(resultSet.getString("severity"), severity -> new long[buckets])[bucket] += resultSet.getLong("log_count");
+        });
+        return counts;
+    }
+    /**
+     * Sums the logs of an application counted from the given minute on. Only the minutes of the window are read,
+     * so the cost does not grow with history.
+     *
+     * @param applicationId the ID of the application.
+     * @param since         the start of the window, inclusive.
+     * @return the number of logs in the window.
+     */
+    public long sumSince(String applicationId, LocalDateTime since) {
+        var selectSql = """
+                SELECT COALESCE(SUM(log_count), 0) AS log_count FROM log_minute_counts
+                WHERE
+                minute_start >= :since
+                AND application_uuid = :application_uuid
+                ;
+                """;
+        return jdbcClient.sql(selectSql)
+                .param("since", DateTimeUtils.localDateTimeToUTCTime(since))
+                .param("application_uuid", applicationId)
+                .query((resultSet, row) -> resultSet.getLong("log_count"))
+                .single();
+    }
+    /**
+     * Finds the earliest minute still counted, from which on histograms can be answered at minute resolution.
+     *
+     * @return the start of the oldest counted minute, or empty when no minute is counted.
+     */
+    public Optional<LocalDateTime> findOldestMinute() {
+        var selectSql = """
+                SELECT MIN(minute_start) AS oldest_minute FROM log_minute_counts;
+                """;
+        return jdbcClient.sql(selectSql)
+                .query((resultSet, row) -> resultSet.getString("oldest_minute"))
+                .optional()
+                .map(DateTimeUtils::convertZonedUTCTimeStringToLocalDateTime);
+    }
+    /**
+     * Deletes the minute counts of every application for minutes starting before the given instant.
+     *
+     * @param before counts of minutes starting strictly before this instant are deleted.
+     * @return the number of minute rows deleted.
+     */
+    public int deleteBefore(LocalDateTime before) {
+        var deleteSql = """
+                DELETE FROM log_minute_counts
+                WHERE
+                minute_start < :before
+                """;
+        return jdbcClient.sql(deleteSql)
+                .param("before", DateTimeUtils.localDateTimeToUTCTime(before))
+                .update();
+    }
+    /**
+     * Deletes the minute counts of an application for minutes starting before the given instant.
+     *
+     * @param applicationId the ID of the application.
+     * @param before        counts of minutes starting strictly before this instant are deleted.
+     * @return the number of minute rows deleted.
+     */
+    public int deleteByApplicationBefore(String applicationId, LocalDateTime before) {
+        var deleteSql = """
+                DELETE FROM log_minute_counts
+                WHERE
+                application_uuid = :application_uuid
+                AND minute_start < :before
+                """;
+        return jdbcClient.sql(deleteSql)
+                .param("application_uuid", applicationId)
+                .param("before", DateTimeUtils.localDateTimeToUTCTime(before))
+                .update();
+    }
+    /**
+     * Deletes every minute count of a data source.
+     *
+     * @param datasourceId the ID of the data source.
+     * @return the number of minute rows deleted.
+     */
+    public int deleteBySource(String datasourceId) {
+        var deleteSql = """
+                DELETE FROM log_minute_counts
+                WHERE
+                log_source = :log_source
+                """;
+        return jdbcClient.sql(deleteSql)
+                .param("log_source", datasourceId)
+                .update();
+    }
+    /**
+     * Deletes all minute counts.
+     * Use with caution in production environments.
+     */
+    public void deleteAll() {
+        var deleteSql = """
+                DELETE FROM log_minute_counts;
+                """;
+        jdbcClient.sql(deleteSql)
+                .update();
+    }
+}
@@ -0,0 +1,292 @@
+package com.kenyajug.regression.repository;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.models.LogOrigin;
+import com.kenyajug.regression.models.LogQuery;
+import com.kenyajug.regression.repository.dialect.SqlDialect;
+import com.kenyajug.regression.resources.ApplicationResource;
+import com.kenyajug.regression.resources.DatasourceResource;
+import com.kenyajug.regression.resources.LogResource;
+import com.kenyajug.regression.utils.DateTimeUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+/*
+ * Read-only projection of app_logs joined with the data source and application each log belongs to, so that
+ * log listings are built in a single round trip instead of looking up names row by row. Logs whose data source
+ * or application no longer exists are left out by the inner joins.
+ */
+@Repository
+public class LogResourceRepository {
+    private static final String PROJECTION_SQL = """
+            SELECT
+                app_logs.uuid AS log_uuid,
+                app_logs.timestamp AS log_timestamp,
+                app_logs.severity AS log_severity,
+                app_logs.message AS log_message,
+                logs_data_source.uuid AS source_uuid,
+                logs_data_source.name AS source_name,
+                applications.uuid AS application_uuid,
+                applications.name AS application_name,
+                applications.runtime_environment AS application_runtime
+            FROM app_logs
+            JOIN logs_data_source ON logs_data_source.uuid = app_logs.log_source
+            JOIN applications ON applications.uuid = logs_data_source.application_id
+            """;
+    private final JdbcClient jdbcClient;
+    private final JdbcClient streamingClient;
+    private final SqlDialect sqlDialect;
+    public LogResourceRepository(JdbcClient jdbcClient, DataSource dataSource, SqlDialect sqlDialect) {
+        this.jdbcClient = jdbcClient;
+        this.sqlDialect = sqlDialect;
+        var streamingTemplate = new JdbcTemplate(dataSource);
+        streamingTemplate.setFetchSize(AppLogRepository.STREAM_FETCH_SIZE);
+        this.streamingClient = JdbcClient.create(streamingTemplate);
+    }
+    /**
+     * Finds a log together with its application and data source, with the full date and time as its timestamp.
+     *
+     * @param logId the unique identifier of the log.
+     * @return an {@link Optional} containing the {@link LogResource}, or empty if the log, its data source or its
+     * application does not exist.
+     */
+    public Optional<LogResource> findById(String logId) {
+        var selectSql = PROJECTION_SQL + """
+                WHERE app_logs.uuid = :uuid
+                ;
+                """;
+        return jdbcClient.sql(selectSql)
+                .param("uuid",logId)
+                .query((resultSet, row) -> mapRow(resultSet, DateTimeUtils::convertLocalDateTimeToString))
+                .optional();
+    }
+    /**
+     * Streams the logs recorded on a given day across all applications, oldest first, with the time of day as
+     * their timestamp.
+     * The stream holds a database connection and must be closed after use, see {@link AppLogRepository#streamAll()}.
+     *
+     * @param logsDate the day to read.
+     * @return a lazily populated stream of the day's logs.
+     */
+    public Stream<LogResource> streamByDay(LocalDate logsDate) {
+        var selectSql = PROJECTION_SQL + """
+                WHERE
+                app_logs.timestamp >= :day_start
+                AND app_logs.timestamp < :day_end
+                ORDER BY app_logs.timestamp
+                ;
+                """;
+        return streamingClient.sql(selectSql)
+                .param("day_start",DateTimeUtils.localDateTimeToUTCTime(logsDate.atStartOfDay()))
+                .param("day_end",DateTimeUtils.localDateTimeToUTCTime(logsDate.plusDays(1).atStartOfDay()))
+                .query((resultSet, row) -> mapRow(resultSet, timestamp -> DateTimeUtils.localTimeString(timestamp.toLocalTime())))
+                .stream();
+    }
+    /**
+     * Streams the logs an application recorded on a given day through its own data sources, oldest first, with
+     * the time of day as their timestamp.
+     * The stream must be closed after use, see {@link AppLogRepository#streamAll()}.
+     *
+     * @param applicationId optional application filter; {@code null} or empty streams the logs of every application.
+     * @param logsDate      the day to read.
+     * @param severity      optional severity filter; {@code null}, empty or {@code All} matches every severity.
+     * @return a lazily populated stream of the matching logs.
+     */
+    public Stream<LogResource> streamByApplicationAndDay(String applicationId, LocalDate logsDate, String severity) {
+        var filterApplication = applicationId != null && !applicationId.isEmpty();
+        var applicationCondition = filterApplication ? "app_logs.application_uuid = :application_uuid\nAND " : "";
+        var selectSql = PROJECTION_SQL + "WHERE\n" + applicationCondition + """
+                logs_data_source.application_id = app_logs.application_uuid
+                AND app_logs.timestamp >= :day_start
+                AND app_logs.timestamp < :day_end
+                AND (CAST(:severity AS VARCHAR) IS NULL OR app_logs.severity = :severity)
+                ORDER BY app_logs.timestamp
+                ;
+                """;
+        var filterSeverity = (severity == null || severity.isEmpty() || severity.equals("All")) ? null : severity;
+        var statement = streamingClient.sql(selectSql)
+                .param("day_start",DateTimeUtils.localDateTimeToUTCTime(logsDate.atStartOfDay()))
+                .param("day_end",DateTimeUtils.localDateTimeToUTCTime(logsDate.plusDays(1).atStartOfDay()))
+                .param("severity",filterSeverity);
+        if (filterApplication) statement = statement.param("application_uuid",applicationId);
+        return statement.query((resultSet, row) -> mapRow(resultSet, timestamp -> DateTimeUtils.localTimeString(timestamp.toLocalTime())))
+                .stream();
+    }
+    /**
+     * Streams the logs matching a JSON API query in {@code (timestamp, uuid)} order, with the time as an ISO-8601
+     * UTC instant.
+     * <p>
+     * Only the filters that are set become conditions, so SQLite and PostgreSQL can seek on the
+     * {@code (timestamp, uuid)} and {@code (application_uuid, timestamp)} indexes. A cursor continues after the
+     * last log of the previous page with a seek instead of skipping the rows before it. The stream must be
+     * closed after use, see {@link AppLogRepository#streamAll()}.
+     * </p>
+     *
+     * @param query the filters and page bounds.
+     * @return a lazily populated stream of at most {@code query.limit()} logs; empty if the keyword has no
+     * searchable terms.
+     */
+    public Stream<LogResource> streamByQuery(LogQuery query) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+        if (query.startTime() != null) {
+            conditions.add("app_logs.timestamp >= :start_time");
+            params.put("start_time",DateTimeUtils.localDateTimeToUTCTime(query.startTime()));
+        }
+        if (query.endTime() != null) {
+            conditions.add("app_logs.timestamp < :end_time");
+            params.put("end_time",DateTimeUtils.localDateTimeToUTCTime(query.endTime()));
+        }
+        if (query.severity() != null && !query.severity().isEmpty()) {
+            conditions.add("app_logs.severity = :severity");
+            params.put("severity",query.severity());
+        }
+        if (query.applicationId() != null && !query.applicationId().isEmpty()) {
+            conditions.add("app_logs.application_uuid = :application_uuid");
+            params.put("application_uuid",query.applicationId());
+        }
+        if (query.datasourceId() != null && !query.datasourceId().isEmpty()) {
+            conditions.add("app_logs.log_source = :log_source");
+            params.put("log_source",query.datasourceId());
+        }
+        if (query.keyword() != null && !query.keyword().isBlank()) {
+            var fullTextQuery = sqlDialect.toFullTextQuery(query.keyword());
+            if (fullTextQuery.isEmpty()) return Stream.empty();
+            conditions.add(sqlDialect.fullTextPredicate());
+            params.put("full_text_query",fullTextQuery.get());
+        }
+        if (query.after() != null) {
+            conditions.add("""
+                    (app_logs.timestamp > :cursor_timestamp
+                    OR (app_logs.timestamp = :cursor_timestamp AND app_logs.uuid > :cursor_uuid))""");
+            params.put("cursor_timestamp",DateTimeUtils.localDateTimeToUTCTime(query.after().timestamp()));
+            params.put("cursor_uuid",query.after().logId());
+        }
+        var whereClause = conditions.isEmpty() ? "" : "WHERE\n" + String.join("\nAND ", conditions) + "\n";
+        var selectSql = PROJECTION_SQL + whereClause + """
+                ORDER BY app_logs.timestamp, app_logs.uuid
+                LIMIT :limit OFFSET :offset
+                ;
+                """;
+        params.put("limit",query.limit());
+        params.put("offset",query.offset());
+        return streamingClient.sql(selectSql)
+                .params(params)
+                .query((resultSet, row) -> mapRow(resultSet, DateTimeUtils::toIsoUTCString))
+                .stream();
+    }
+    /**
+     * Finds the logs carrying a metadata value through the {@code logs_metadata_index} inverted index, oldest
+     * first, with the full date and time as their timestamp.
+     *
+     * @param metadataType the indexed metadata type, e.g. {@code traceIdentifier}.
+     * @param indexValue   the value as indexed, see {@link com.kenyajug.regression.utils.MetadataEncoding#indexValue}.
+     * @param limit        the maximum number of logs to return.
+     * @return the matching logs in time order.
+     */
+    public List<LogResource> findByMetadataValue(String metadataType, String indexValue, int limit) {
+        var selectSql = PROJECTION_SQL + """
+                JOIN logs_metadata_index ON logs_metadata_index.log_uuid = app_logs.uuid
+                WHERE
+                logs_metadata_index.metadata_type = :metadata_type
+                AND logs_metadata_index.metadata_value = :metadata_value
+                ORDER BY app_logs.timestamp
+                LIMIT :limit
+                ;
+                """;
+        return jdbcClient.sql(selectSql)
+                .param("metadata_type",metadataType)
+                .param("metadata_value",indexValue)
+                .param("limit",limit)
+                .query((resultSet, row) -> mapRow(resultSet, DateTimeUtils::convertLocalDateTimeToString))
+                .list();
+    }
+    /**
+     * Resolves the application and name of each of the given data sources in a single query.
+     * <p>
+     * Used for logs that do not come from {@code app_logs}, such as full-text matches and archived logs.
+     * </p>
+     *
+     * @param datasourceIds the unique identifiers of the data sources.
+     * @return the origins keyed by data source ID; data sources that, or whose application, no longer exist
+     * are absent.
+     */
+    public Map<String, LogOrigin> findOriginsByDatasourceIds(Collection<String> datasourceIds) {
+        Map<String, LogOrigin> origins = new HashMap<>();
+        if (datasourceIds.isEmpty()) return origins;
+        var selectSql = """
+                SELECT
+                    logs_data_source.uuid AS source_uuid,
+                    logs_data_source.name AS source_name,
+                    applications.uuid AS application_uuid,
+                    applications.name AS application_name,
+                    applications.runtime_environment AS application_runtime
+                FROM logs_data_source
+                JOIN applications ON applications.uuid = logs_data_source.application_id
+                WHERE logs_data_source.uuid IN (:source_uuids)
+                ;
+                """;
+        jdbcClient.sql(selectSql)
+                .param("source_uuids",datasourceIds)
+                .query((resultSet, row) -> mapOrigin(resultSet))
+                .list()
+                .forEach(origin -> origins.put(origin.source().uuid(), origin));
+        return origins;
+    }
+    private LogResource mapRow(ResultSet resultSet, Function<LocalDateTime, String> timestampFormat) throws SQLException {
+        var origin = mapOrigin(resultSet);
+        return new LogResource(
+                timestampFormat.apply(sqlDialect.readTimestamp(resultSet, "log_timestamp")),
+                resultSet.getString("log_severity"),
+                origin.application(),
+                origin.source(),
+                resultSet.getString("log_uuid"),
+                resultSet.getString("log_message")
+        );
+    }
+    private LogOrigin mapOrigin(ResultSet resultSet) throws SQLException {
+        return new LogOrigin(
+                new ApplicationResource(
+                        resultSet.getString("application_uuid"),
+                        resultSet.getString("application_name"),
+                        resultSet.getString("application_runtime")),
+                new DatasourceResource(
+                        resultSet.getString("source_name"),
+                        resultSet.getString("source_uuid"))
+        );
+    }
+}
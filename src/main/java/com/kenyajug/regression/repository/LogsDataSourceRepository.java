@@ -23,10 +23,14 @@ package com.kenyajug.regression.repository;
  * SOFTWARE.
  */
 import com.kenyajug.regression.entities.LogsDataSource;
+import com.kenyajug.regression.models.CacheStats;
 import com.kenyajug.regression.utils.DateTimeUtils;
+import com.kenyajug.regression.utils.LookupCache;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.simple.JdbcClient;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
@@ -34,9 +38,14 @@ import java.util.Optional;
 public non-sealed class LogsDataSourceRepository implements CrudRepository<LogsDataSource> {
     private final JdbcClient jdbcClient;
     private final TransactionTemplate transactionTemplate;
-    public LogsDataSourceRepository(JdbcClient jdbcClient, TransactionTemplate transactionTemplate) {
+    private final LookupCache<String, Optional<LogsDataSource>> cache;
+    public LogsDataSourceRepository(JdbcClient jdbcClient,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${regression.cache.max-size:1000}") int cacheMaxSize,
+                                    @Value("${regression.cache.ttl-seconds:300}") long cacheTtlSeconds) {
         this.jdbcClient = jdbcClient;
         this.transactionTemplate = transactionTemplate;
+        this.cache = new LookupCache<>("data-sources", cacheMaxSize, Duration.ofSeconds(cacheTtlSeconds));
     }
     /**
      * Saves the given entity to the database.
@@ -74,31 +83,20 @@ public non-sealed class LogsDataSourceRepository implements CrudRepository<LogsD
                     .update();
 
         });
+        cache.invalidate(entity.uuid());
     }
     /**
      * Finds an entity by its unique identifier.
+     * <p>
+     * Served from the read-through lookup cache; writes through this repository invalidate it.
+     * </p>
      *
      * @param uuid the unique identifier of the entity
      * @return an {@link Optional} containing the found entity, or empty if not found
      */
     @Override
     public Optional<LogsDataSource> findById(String uuid) {
-        var selectSql = """
-                SELECT * FROM logs_data_source
-                WHERE uuid = :uuid
-                ;
-                """;
-        return jdbcClient.sql(selectSql)
-                .param("uuid", uuid)
-                .query((resultSet, row) -> new LogsDataSource(
-                        resultSet.getString("uuid"),
-                        resultSet.getString("name"),
-                        resultSet.getString("source_type"),
-                        resultSet.getString("application_id"),
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime(resultSet.getString("created_at")),
-                        resultSet.getString("log_file_path")
-                ))
-                .optional();
+        return cache.get(uuid, this::loadById);
     }
 
     /**
@@ -139,6 +137,7 @@ public non-sealed class LogsDataSourceRepository implements CrudRepository<LogsD
         jdbcClient.sql(deleteSql)
                 .param("uuid", uuid)
                 .update();
+        cache.invalidate(uuid);
     }
     /**
      * Deletes all entities of type {@code T} from the database.
@@ -151,6 +150,7 @@ public non-sealed class LogsDataSourceRepository implements CrudRepository<LogsD
                 """;
         jdbcClient.sql(deleteSql)
                 .update();
+        cache.invalidateAll();
     }
     /**
      * Checks whether an entity with the given unique identifier exists in the data source.
@@ -202,6 +202,7 @@ public non-sealed class LogsDataSourceRepository implements CrudRepository<LogsD
                 .param("uuid", uuid)
                 .update();
 
+        cache.invalidate(uuid);
     }
     public List<LogsDataSource> findByApplicationId(String parentAppId) {
         var selectSql = """
@@ -249,4 +250,36 @@ public non-sealed class LogsDataSourceRepository implements CrudRepository<LogsD
                 ))
                 .list();
     }
-}
\ No newline at end of file
+    private Optional<LogsDataSource> loadById(String uuid) {
+        var selectSql = """
+                SELECT * FROM logs_data_source
+                WHERE uuid = :uuid
+                ;
+                """;
+        return jdbcClient.sql(selectSql)
+                .param("uuid", uuid)
+                .query((resultSet, row) -> new LogsDataSource(
+                        resultSet.getString("uuid"),
+                        resultSet.getString("name"),
+                        resultSet.getString("source_type"),
+                        resultSet.getString("application_id"),
+                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime(resultSet.getString("created_at")),
+                        resultSet.getString("log_file_path")
+                ))
+                .optional();
+    }
+    /**
+     * Drops every entry of the data source lookup cache, for when the table was changed behind this repository's back.
+     */
+    public void invalidateCache() {
+        cache.invalidateAll();
+    }
+    /**
+     * Returns the hit, miss and eviction counters of the data source lookup cache.
+     *
+     * @return a snapshot of the cache statistics.
+     */
+    public CacheStats cacheStats() {
+        return cache.stats();
+    }
+}
@@ -23,19 +23,54 @@ package com.kenyajug.regression.repository;
  * SOFTWARE.
  */
 import com.kenyajug.regression.entities.LogsMetadata;
+import com.kenyajug.regression.repository.dialect.SqlDialect;
+import com.kenyajug.regression.utils.MetadataEncoding;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.simple.JdbcClient;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.StringJoiner;
+/*
+ * Metadata is stored packed, one logs_metadata_packed row per log holding all of its entries encoded with
+ * MetadataEncoding. Rows written to the legacy one-row-per-entry logs_metadata table by earlier versions are
+ * still read, and are moved into the packed table by packLegacyRows.
+ * Entries of the indexed types are also written to the logs_metadata_index inverted index, keyed by type and
+ * value, whenever the packed row of their log is written.
+ */
 @Repository
 public non-sealed class LogsMetadataRepository implements CrudRepository<LogsMetadata>{
+    private static final int LOGS_PER_LOOKUP = 500;
     private final JdbcClient jdbcClient;
     private final TransactionTemplate transactionTemplate;
-    public LogsMetadataRepository(JdbcClient jdbcClient, TransactionTemplate transactionTemplate) {
+    private final SqlDialect sqlDialect;
+    private final List<String> indexedTypes;
+    public LogsMetadataRepository(JdbcClient jdbcClient,
+                                  TransactionTemplate transactionTemplate,
+                                  SqlDialect sqlDialect,
+                                  @Value("${regression.metadata.indexed-types:traceIdentifier,sessionId,clientIpAddress,exceptionClass}") List<String> indexedTypes) {
         this.jdbcClient = jdbcClient;
         this.transactionTemplate = transactionTemplate;
+        this.sqlDialect = sqlDialect;
+        this.indexedTypes = List.copyOf(indexedTypes);
+    }
+    /**
+     * Lists the metadata types whose values are kept in the inverted index.
+     *
+     * @return the indexed metadata types.
+     */
+    public List<String> indexedTypes() {
+        return indexedTypes;
     }
     /**
      * Saves the given entity to the database.
@@ -45,32 +80,24 @@ public non-sealed class LogsMetadataRepository implements CrudRepository<LogsMet
      */
     @Override
     public void save(LogsMetadata entity) {
-        transactionTemplate.executeWithoutResult(status -> {
-            var insertSql = """
-                 INSERT INTO logs_metadata (
-                     uuid,
-                     log_uuid,
-                     metadata_type,
-                     metadata_value
-                 ) VALUES (
-                     :uuid,
-                     :log_uuid,
-                     :metadata_type,
-                     :metadata_value
-                 );
-                 
-                 """;
-            jdbcClient
-                    .sql(insertSql)
-                    .param("uuid", entity.uuid())
-                    .param("log_uuid", entity.logId())
-                    .param("metadata_type", entity.metadataType())
-                    .param("metadata_value", entity.metadataValue())
-                    .update();
-        });
+        transactionTemplate.executeWithoutResult(status -> mergePacked(List.of(entity)));
+    }
+    /**
+     * Saves a batch of metadata entries, packing the entries of each log into a single row written with
+     * multi-row {@code INSERT} statements.
+     *
+     * @param entities the metadata entries to save.
+     */
+    public void saveAll(List<LogsMetadata> entities) {
+        if (entities.isEmpty()) return;
+        transactionTemplate.executeWithoutResult(status -> mergePacked(entities));
     }
     /**
      * Finds an entity by its unique identifier.
+     * <p>
+     * Packed entries are not indexed by their own identifier, so finding one scans the packed rows; metadata
+     * is normally looked up by log with {@link #findByRootLogId(String)}.
+     * </p>
      *
      * @param uuid the unique identifier of the entity
      * @return an {@link Optional} containing the found entity, or empty if not found
@@ -82,15 +109,11 @@ public non-sealed class LogsMetadataRepository implements CrudRepository<LogsMet
                 WHERE uuid = :uuid
                 ;
                 """;
-        return jdbcClient.sql(selectSql)
+        var legacyRow = jdbcClient.sql(selectSql)
                 .param("uuid",uuid)
-                .query((resultSet, row) -> new LogsMetadata(
-                        resultSet.getString("uuid"),
-                        resultSet.getString("log_uuid"),
-                        resultSet.getString("metadata_type"),
-                        resultSet.getString("metadata_value")
-                ))
+                .query((resultSet, row) -> legacyRow(resultSet))
                 .optional();
+        return legacyRow.isPresent() ? legacyRow : findPackedEntry(uuid);
     }
     /**
      * Retrieves all entities of type {@code T} from the database.
@@ -103,14 +126,18 @@ public non-sealed class LogsMetadataRepository implements CrudRepository<LogsMet
                 SELECT * FROM logs_metadata
                 ;
                 """;
-        return jdbcClient.sql(selectSql)
-                .query((resultSet, row) -> new LogsMetadata(
-                        resultSet.getString("uuid"),
-                        resultSet.getString("log_uuid"),
-                        resultSet.getString("metadata_type"),
-                        resultSet.getString("metadata_value")
-                ))
-                .list();
+        var packedSql = """
+                SELECT log_uuid, entries FROM logs_metadata_packed
+                ;
+                """;
+        List<LogsMetadata> entities = new ArrayList<>(jdbcClient.sql(selectSql)
+                .query((resultSet, row) -> legacyRow(resultSet))
+                .list());
+        jdbcClient.sql(packedSql)
+                .query((resultSet, row) -> packedRow(resultSet))
+                .list()
+                .forEach(entities::addAll);
+        return entities;
     }
     /**
      * Deletes the entity with the specified identifier from the database.
@@ -120,14 +147,17 @@ public non-sealed class LogsMetadataRepository implements CrudRepository<LogsMet
      */
     @Override
     public void deleteById(String uuid) {
-        var deleteSql = """
-                DELETE FROM logs_metadata
-                WHERE
-                uuid = :uuid
-                """;
-        jdbcClient.sql(deleteSql)
-                .param("uuid",uuid)
-                .update();
+        transactionTemplate.executeWithoutResult(status -> {
+            var deleteSql = """
+                    DELETE FROM logs_metadata
+                    WHERE
+                    uuid = :uuid
+                    """;
+            var deleted = jdbcClient.sql(deleteSql)
+                    .param("uuid",uuid)
+                    .update();
+            if (deleted == 0) findPackedEntry(uuid).ifPresent(this::removePacked);
+        });
     }
     /**
      * Deletes all entities of type {@code T} from the database.
@@ -138,8 +168,18 @@ public non-sealed class LogsMetadataRepository implements CrudRepository<LogsMet
         var deleteSql = """
                 DELETE FROM logs_metadata;
                 """;
+        var deletePackedSql = """
+                DELETE FROM logs_metadata_packed;
+                """;
+        var deleteIndexSql = """
+                DELETE FROM logs_metadata_index;
+                """;
         jdbcClient.sql(deleteSql)
                 .update();
+        jdbcClient.sql(deletePackedSql)
+                .update();
+        jdbcClient.sql(deleteIndexSql)
+                .update();
     }
     /**
      * Checks whether an entity with the given unique identifier exists in the data source.
@@ -149,16 +189,7 @@ public non-sealed class LogsMetadataRepository implements CrudRepository<LogsMet
      */
     @Override
     public boolean existsById(String uuid) {
-        var countSql = """
-                SELECT COUNT(*) FROM logs_metadata
-                WHERE
-                uuid = :uuid
-                """;
-        var count = jdbcClient.sql(countSql)
-                .param("uuid",uuid)
-                .query((resultSet,row) -> resultSet.getLong(1))
-                .single();
-        return count > 0;
+        return findById(uuid).isPresent();
     }
     /**
      * Updates an existing entity identified by the given UUID with the provided new data.
@@ -171,35 +202,244 @@ public non-sealed class LogsMetadataRepository implements CrudRepository<LogsMet
      */
     @Override
     public void updateById(String uuid, LogsMetadata entity) throws NoSuchElementException {
-        var updateSql = """
-                UPDATE logs_metadata
-                SET log_uuid = :log_uuid,
-                    metadata_type = :metadata_type,
-                    metadata_value = :metadata_value
-                WHERE uuid = :uuid;
-                ;
-                """;
-        jdbcClient.sql(updateSql)
-                .param("log_uuid", entity.logId())
-                .param("metadata_type", entity.metadataType())
-                .param("metadata_value", entity.metadataValue())
-                .param("uuid",uuid)
-                .update();
+        transactionTemplate.executeWithoutResult(status -> {
+            var updateSql = """
+                    UPDATE logs_metadata
+                    SET log_uuid = :log_uuid,
+                        metadata_type = :metadata_type,
+                        metadata_value = :metadata_value
+                    WHERE uuid = :uuid;
+                    ;
+                    """;
+            var updated = jdbcClient.sql(updateSql)
+                    .param("log_uuid", entity.logId())
+                    .param("metadata_type", entity.metadataType())
+                    .param("metadata_value", entity.metadataValue())
+                    .param("uuid",uuid)
+                    .update();
+            if (updated > 0) return;
+            findPackedEntry(uuid).ifPresent(existing -> {
+                var replacement = new LogsMetadata(uuid, entity.logId(), entity.metadataType(), entity.metadataValue());
+                if (!existing.logId().equals(entity.logId())) removePacked(existing);
+                mergePacked(List.of(replacement));
+            });
+        });
     }
     public List<LogsMetadata> findByRootLogId(String parentLogId) {
+        return findByRootLogIds(List.of(parentLogId));
+    }
+    /**
+     * Retrieves the metadata of several logs, reading one packed row per log.
+     *
+     * @param parentLogIds the unique identifiers of the logs.
+     * @return the metadata of the given logs; never {@code null}, but may be empty.
+     */
+    public List<LogsMetadata> findByRootLogIds(List<String> parentLogIds) {
+        if (parentLogIds.isEmpty()) return List.of();
         var selectSql = """
                 SELECT * FROM logs_metadata
-                WHERE log_uuid = :log_uuid
+                WHERE log_uuid IN (:log_uuids)
+                ;
+                """;
+        List<LogsMetadata> entities = new ArrayList<>();
+        findPacked(parentLogIds).values().forEach(entities::addAll);
+        entities.addAll(jdbcClient.sql(selectSql)
+                .param("log_uuids",parentLogIds)
+                .query((resultSet, row) -> legacyRow(resultSet))
+                .list());
+        return entities;
+    }
+    /**
+     * Moves the legacy one-row-per-entry metadata of up to {@code logsPerChunk} logs into packed rows, in a
+     * single short transaction.
+     * <p>
+     * Callers migrate the whole table by calling this repeatedly until it returns {@code 0}.
+     * </p>
+     *
+     * @param logsPerChunk the maximum number of logs to migrate.
+     * @return the number of logs whose metadata was packed.
+     */
+    public int packLegacyRows(int logsPerChunk) {
+        var result = transactionTemplate.execute(status -> {
+            var selectLogsSql = """
+                    SELECT DISTINCT log_uuid FROM logs_metadata
+                    LIMIT :limit
+                    ;
+                    """;
+            List<String> logIds = jdbcClient.sql(selectLogsSql)
+                    .param("limit",logsPerChunk)
+                    .query((resultSet, row) -> resultSet.getString("log_uuid"))
+                    .list();
+            if (logIds.isEmpty()) return 0;
+            var selectSql = """
+                    SELECT * FROM logs_metadata
+                    WHERE log_uuid IN (:log_uuids)
+                    ;
+                    """;
+            mergePacked(jdbcClient.sql(selectSql)
+                    .param("log_uuids",logIds)
+                    .query((resultSet, row) -> legacyRow(resultSet))
+                    .list());
+            var deleteSql = """
+                    DELETE FROM logs_metadata
+                    WHERE log_uuid IN (:log_uuids)
+                    """;
+            jdbcClient.sql(deleteSql)
+                    .param("log_uuids",logIds)
+                    .update();
+            return logIds.size();
+        });
+        return result == null ? 0 : result;
+    }
+    private Map<String, List<LogsMetadata>> findPacked(Collection<String> logIds) {
+        Map<String, List<LogsMetadata>> entriesByLog = new HashMap<>();
+        var distinctIds = List.copyOf(new LinkedHashSet<>(logIds));
+        var selectSql = """
+                SELECT log_uuid, entries FROM logs_metadata_packed
+                WHERE log_uuid IN (:log_uuids)
+                ;
+                """;
+        for (int start = 0; start < distinctIds.size(); start += LOGS_PER_LOOKUP) {
+            var chunk = distinctIds.subList(start, Math.min(start + LOGS_PER_LOOKUP, distinctIds.size()));
+            jdbcClient.sql(selectSql)
+                    .param("log_uuids",chunk)
+                    .query(resultSet -> {
+                        entriesByLog.put(resultSet.getString("log_uuid"), packedRow(resultSet));
+                    });
+        }
+        return entriesByLog;
+    }
+    private Optional<LogsMetadata> findPackedEntry(String uuid) {
+        var selectSql = """
+                SELECT log_uuid, entries FROM logs_metadata_packed
                 ;
                 """;
-        return jdbcClient.sql(selectSql)
-                .param("log_uuid",parentLogId)
-                .query((resultSet, row) -> new LogsMetadata(
-                        resultSet.getString("uuid"),
-                        resultSet.getString("log_uuid"),
-                        resultSet.getString("metadata_type"),
-                        resultSet.getString("metadata_value")
-                ))
-                .list();
+        try (var rows = jdbcClient.sql(selectSql).query((resultSet, row) -> packedRow(resultSet)).stream()) {
+            return rows.flatMap(List::stream)
+                    .filter(entry -> entry.uuid() != null && entry.uuid().equals(uuid))
+                    .findFirst();
+        }
+    }
+    /*
+     * Adds entries to the packed rows of their logs; an entry replaces an existing entry of the same log
+     * with the same identifier.
+     */
+    private void mergePacked(List<LogsMetadata> entities) {
+        if (entities.isEmpty()) return;
+        Map<String, List<LogsMetadata>> entriesByLog = new LinkedHashMap<>();
+        for (LogsMetadata entity : entities) {
+            entriesByLog.computeIfAbsent(entity.logId(), key -> new ArrayList<>()).add(entity);
+        }
+        var existing = findPacked(entriesByLog.keySet());
+        existing.forEach((logId, entries) -> {
+            var merged = new ArrayList<>(entries);
+            for (LogsMetadata entity : entriesByLog.get(logId)) {
+                merged.removeIf(entry -> entry.uuid() != null && entry.uuid().equals(entity.uuid()));
+                merged.add(entity);
+            }
+            entriesByLog.put(logId, merged);
+        });
+        writePacked(entriesByLog);
+    }
+    private void removePacked(LogsMetadata entry) {
+        var remaining = new ArrayList<>(findPacked(List.of(entry.logId())).getOrDefault(entry.logId(), List.of()));
+        remaining.removeIf(existing -> existing.uuid() != null && existing.uuid().equals(entry.uuid()));
+        if (remaining.isEmpty()) {
+            var deleteSql = """
+                    DELETE FROM logs_metadata_packed
+                    WHERE log_uuid = :log_uuid
+                    """;
+            jdbcClient.sql(deleteSql)
+                    .param("log_uuid",entry.logId())
+                    .update();
+            writeIndex(Map.of(entry.logId(), List.of()));
+            return;
+        }
+        writePacked(Map.of(entry.logId(), remaining));
+    }
+    private void writePacked(Map<String, List<LogsMetadata>> entriesByLog) {
+        var rowsPerInsert = sqlDialect.maxRowsPerInsert(2);
+        var logIds = List.copyOf(entriesByLog.keySet());
+        for (int start = 0; start < logIds.size(); start += rowsPerInsert) {
+            var chunk = logIds.subList(start, Math.min(start + rowsPerInsert, logIds.size()));
+            var values = new StringJoiner(",\n");
+            var params = new HashMap<String, Object>();
+            for (int index = 0; index < chunk.size(); index++) {
+                var logId = chunk.get(index);
+                values.add("(:log_uuid%1$d, :entries%1$d)".formatted(index));
+                params.put("log_uuid" + index, logId);
+                params.put("entries" + index, MetadataEncoding.encode(entriesByLog.get(logId)));
+            }
+            var upsertSql = """
+                    INSERT INTO logs_metadata_packed (
+                        log_uuid,
+                        entries
+                    ) VALUES
+                    %s
+                    ON CONFLICT (log_uuid) DO UPDATE SET
+                        entries = excluded.entries
+                    ;
+                    """.formatted(values);
+            jdbcClient.sql(upsertSql)
+                    .params(params)
+                    .update();
+        }
+        writeIndex(entriesByLog);
+    }
+    /*
+     * Replaces the index entries of the given logs with the values of their indexed metadata types.
+     */
+    private void writeIndex(Map<String, List<LogsMetadata>> entriesByLog) {
+        var deleteSql = """
+                DELETE FROM logs_metadata_index
+                WHERE log_uuid IN (:log_uuids)
+                """;
+        var logIds = List.copyOf(entriesByLog.keySet());
+        for (int start = 0; start < logIds.size(); start += LOGS_PER_LOOKUP) {
+            jdbcClient.sql(deleteSql)
+                    .param("log_uuids",logIds.subList(start, Math.min(start + LOGS_PER_LOOKUP, logIds.size())))
+                    .update();
+        }
+        var indexEntries = entriesByLog.values().stream()
+                .flatMap(List::stream)
+                .filter(entry -> indexedTypes.contains(entry.metadataType()) && entry.metadataValue() != null)
+                .toList();
+        var rowsPerInsert = sqlDialect.maxRowsPerInsert(3);
+        for (int start = 0; start < indexEntries.size(); start += rowsPerInsert) {
+            var chunk = indexEntries.subList(start, Math.min(start + rowsPerInsert, indexEntries.size()));
+            var values = new StringJoiner(",\n");
+            var params = new HashMap<String, Object>();
+            for (int index = 0; index < chunk.size(); index++) {
+                var entry = chunk.get(index);
+                values.add("(:metadata_type%1$d, :metadata_value%1$d, :log_uuid%1$d)".formatted(index));
+                params.put("metadata_type" + index, entry.metadataType());
+                params.put("metadata_value" + index, MetadataEncoding.indexValue(entry.metadataType(), entry.metadataValue()));
+                params.put("log_uuid" + index, entry.logId());
+            }
+            var insertSql = """
+                    INSERT INTO logs_metadata_index (
+                        metadata_type,
+                        metadata_value,
+                        log_uuid
+                    ) VALUES
+                    %s
+                    ON CONFLICT DO NOTHING
+                    ;
+                    """.formatted(values);
+            jdbcClient.sql(insertSql)
+                    .params(params)
+                    .update();
+        }
+    }
+    private static LogsMetadata legacyRow(ResultSet resultSet) throws SQLException {
+        return new LogsMetadata(
+                resultSet.getString("uuid"),
+                resultSet.getString("log_uuid"),
+                resultSet.getString("metadata_type"),
+                resultSet.getString("metadata_value")
+        );
+    }
+    private static List<LogsMetadata> packedRow(ResultSet resultSet) throws SQLException {
+        return MetadataEncoding.decode(resultSet.getString("log_uuid"), resultSet.getBytes("entries"));
     }
 }
@@ -0,0 +1,270 @@
+package com.kenyajug.regression.repository;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.PurgeJob;
+import com.kenyajug.regression.utils.DateTimeUtils;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+@Repository
+public non-sealed class PurgeJobRepository implements CrudRepository<PurgeJob> {
+    private final JdbcClient jdbcClient;
+    private final TransactionTemplate transactionTemplate;
+    public PurgeJobRepository(JdbcClient jdbcClient, TransactionTemplate transactionTemplate) {
+        this.jdbcClient = jdbcClient;
+        this.transactionTemplate = transactionTemplate;
+    }
+    /**
+     * Saves the given entity to the database.
+     * If the entity already exists (e.g., same ID), it may update the record depending on implementation.
+     *
+     * @param entity the entity to save (must not be {@code null})
+     */
+    @Override
+    public void save(PurgeJob entity) {
+        transactionTemplate.executeWithoutResult(status -> {
+            var insertSql = """
+                    INSERT INTO purge_jobs (
+                        uuid,
+                        target_type,
+                        target_uuid,
+                        target_name,
+                        status,
+                        total_logs,
+                        deleted_logs,
+                        created_at,
+                        updated_at
+                    ) VALUES (
+                        :uuid,
+                        :target_type,
+                        :target_uuid,
+                        :target_name,
+                        :status,
+                        :total_logs,
+                        :deleted_logs,
+                        :created_at,
+                        :updated_at
+                    );
+                    """;
+            jdbcClient.sql(insertSql)
+                    .param("uuid", entity.uuid())
+                    .param("target_type", entity.targetType())
+                    .param("target_uuid", entity.targetId())
+                    .param("target_name", entity.targetName())
+                    .param("status", entity.status())
+                    .param("total_logs", entity.totalLogs())
+                    .param("deleted_logs", entity.deletedLogs())
+                    .param("created_at", DateTimeUtils.localDateTimeToUTCTime(entity.createdAt()))
+                    .param("updated_at", DateTimeUtils.localDateTimeToUTCTime(entity.updatedAt()))
+                    .update();
+        });
+    }
+    /**
+     * Finds an entity by its unique identifier.
+     *
+     * @param uuid the unique identifier of the entity
+     * @return an {@link Optional} containing the found entity, or empty if not found
+     */
+    @Override
+    public Optional<PurgeJob> findById(String uuid) {
+        var selectSql = """
+                SELECT * FROM purge_jobs
+                WHERE uuid = :uuid
+                ;
+                """;
+        return jdbcClient.sql(selectSql)
+                .param("uuid", uuid)
+                .query((resultSet, row) -> mapRow(resultSet))
+                .optional();
+    }
+    /**
+     * Retrieves all entities of type {@code T} from the database.
+     *
+     * @return a list of all entities; never {@code null}, but may be empty
+     */
+    @Override
+    public List<PurgeJob> findAll() {
+        var selectSql = """
+                SELECT * FROM purge_jobs
+                ;
+                """;
+        return jdbcClient.sql(selectSql)
+                .query((resultSet, row) -> mapRow(resultSet))
+                .list();
+    }
+    /**
+     * Deletes the entity with the specified identifier from the database.
+     * If no such entity exists, the operation is silently ignored.
+     *
+     * @param uuid the unique identifier of the entity to delete
+     */
+    @Override
+    public void deleteById(String uuid) {
+        var deleteSql = """
+                DELETE FROM purge_jobs
+                WHERE
+                uuid = :uuid
+                """;
+        jdbcClient.sql(deleteSql)
+                .param("uuid", uuid)
+                .update();
+    }
+    /**
+     * Deletes all entities of type {@code T} from the database.
+     * Use with caution in production environments.
+     */
+    @Override
+    public void deleteAll() {
+        var deleteSql = """
+                DELETE FROM purge_jobs;
+                """;
+        jdbcClient.sql(deleteSql)
+                .update();
+    }
+    /**
+     * Checks whether an entity with the given unique identifier exists in the data source.
+     *
+     * @param uuid the unique identifier of the entity to check (must not be {@code null})
+     * @return {@code true} if an entity with the specified UUID exists, {@code false} otherwise
+     */
+    @Override
+    public boolean existsById(String uuid) {
+        var countSql = """
+                SELECT COUNT(*) FROM purge_jobs
+                WHERE
+                uuid = :uuid
+                """;
+        var count = jdbcClient.sql(countSql)
+                .param("uuid", uuid)
+                .query((resultSet, row) -> resultSet.getLong(1))
+                .single();
+        return count > 0;
+    }
+    /**
+     * Updates an existing entity identified by the given UUID with the provided new data.
+     *
+     * @param uuid   the unique identifier of the entity to update (must not be {@code null})
+     * @param entity the updated entity data to apply (must not be {@code null});
+     *               the UUID field inside the entity is typically ignored in favor of the provided {@code uuid}
+     * @throws IllegalArgumentException if {@code uuid} or {@code entity} is {@code null}
+     * @throws NoSuchElementException   if no entity with the given {@code uuid} exists in the data source
+     */
+    @Override
+    public void updateById(String uuid, PurgeJob entity) throws NoSuchElementException {
+        var updateSql = """
+                UPDATE purge_jobs
+                SET status = :status,
+                    total_logs = :total_logs,
+                    deleted_logs = :deleted_logs,
+                    updated_at = :updated_at
+                WHERE uuid = :uuid
+                ;
+                """;
+        var updated = jdbcClient.sql(updateSql)
+                .param("status", entity.status())
+                .param("total_logs", entity.totalLogs())
+                .param("deleted_logs", entity.deletedLogs())
+                .param("updated_at", DateTimeUtils.localDateTimeToUTCTime(entity.updatedAt()))
+                .param("uuid", uuid)
+                .update();
+        if (updated == 0) throw new NoSuchElementException("No purge job with id " + uuid);
+    }
+    /**
+     * Records the progress of a running purge.
+     *
+     * @param uuid        the unique identifier of the job.
+     * @param status      the new status of the job.
+     * @param deletedLogs the number of logs deleted so far.
+     */
+    public void updateProgress(String uuid, String status, long deletedLogs) {
+        var updateSql = """
+                UPDATE purge_jobs
+                SET status = :status,
+                    deleted_logs = :deleted_logs,
+                    updated_at = :updated_at
+                WHERE uuid = :uuid
+                ;
+                """;
+        jdbcClient.sql(updateSql)
+                .param("status", status)
+                .param("deleted_logs", deletedLogs)
+                .param("updated_at", DateTimeUtils.localDateTimeToUTCTime(LocalDateTime.now()))
+                .param("uuid", uuid)
+                .update();
+    }
+    /**
+     * Finds the jobs that still have logs to delete, including jobs interrupted by a restart while running.
+     *
+     * @return the unfinished jobs, oldest first.
+     */
+    public List<PurgeJob> findUnfinished() {
+        var selectSql = """
+                SELECT * FROM purge_jobs
+                WHERE status <> :completed
+                ORDER BY created_at
+                ;
+                """;
+        return jdbcClient.sql(selectSql)
+                .param("completed", PurgeJob.STATUS_COMPLETED)
+                .query((resultSet, row) -> mapRow(resultSet))
+                .list();
+    }
+    /**
+     * Finds the most recently requested jobs, for progress reporting.
+     *
+     * @param limit the maximum number of jobs to return.
+     * @return the jobs, most recent first.
+     */
+    public List<PurgeJob> findRecent(int limit) {
+        var selectSql = """
+                SELECT * FROM purge_jobs
+                ORDER BY created_at DESC
+                LIMIT :limit
+                ;
+                """;
+        return jdbcClient.sql(selectSql)
+                .param("limit", limit)
+                .query((resultSet, row) -> mapRow(resultSet))
+                .list();
+    }
+    private static PurgeJob mapRow(ResultSet resultSet) throws SQLException {
+        return new PurgeJob(
+                resultSet.getString("uuid"),
+                resultSet.getString("target_type"),
+                resultSet.getString("target_uuid"),
+                resultSet.getString("target_name"),
+                resultSet.getString("status"),
+                resultSet.getLong("total_logs"),
+                resultSet.getLong("deleted_logs"),
+                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime(resultSet.getString("created_at")),
+                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime(resultSet.getString("updated_at"))
+        );
+    }
+}
@@ -0,0 +1,196 @@
+package com.kenyajug.regression.repository;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.RetentionPolicy;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+@Repository
+public non-sealed class RetentionPolicyRepository implements CrudRepository<RetentionPolicy> {
+    private final JdbcClient jdbcClient;
+    private final TransactionTemplate transactionTemplate;
+    public RetentionPolicyRepository(JdbcClient jdbcClient, TransactionTemplate transactionTemplate) {
+        this.jdbcClient = jdbcClient;
+        this.transactionTemplate = transactionTemplate;
+    }
+    /**
+     * Saves the given entity to the database.
+     * A policy is keyed by its application, so saving a policy for an application that already
+     * has one replaces the existing policy.
+     *
+     * @param entity the entity to save (must not be {@code null})
+     */
+    @Override
+    public void save(RetentionPolicy entity) {
+        transactionTemplate.executeWithoutResult(status -> {
+            var insertSql = """
+                    INSERT INTO retention_policies (
+                        application_uuid,
+                        retention_days,
+                        max_rows,
+                        max_bytes
+                    ) VALUES (
+                        :application_uuid,
+                        :retention_days,
+                        :max_rows,
+                        :max_bytes
+                    )
+                    ON CONFLICT (application_uuid) DO UPDATE SET
+                        retention_days = excluded.retention_days,
+                        max_rows = excluded.max_rows,
+                        max_bytes = excluded.max_bytes
+                    ;
+                    """;
+            jdbcClient.sql(insertSql)
+                    .param("application_uuid", entity.applicationId())
+                    .param("retention_days", entity.retentionDays())
+                    .param("max_rows", entity.maxRows())
+                    .param("max_bytes", entity.maxBytes())
+                    .update();
+        });
+    }
+    /**
+     * Finds the retention policy of an application.
+     *
+     * @param uuid the unique identifier of the application
+     * @return an {@link Optional} containing the found policy, or empty if the application has none
+     */
+    @Override
+    public Optional<RetentionPolicy> findById(String uuid) {
+        var selectSql = """
+                SELECT * FROM retention_policies
+                WHERE application_uuid = :application_uuid
+                ;
+                """;
+        return jdbcClient.sql(selectSql)
+                .param("application_uuid", uuid)
+                .query((resultSet, row) -> mapRow(resultSet))
+                .optional();
+    }
+    /**
+     * Retrieves all entities of type {@code T} from the database.
+     *
+     * @return a list of all entities; never {@code null}, but may be empty
+     */
+    @Override
+    public List<RetentionPolicy> findAll() {
+        var selectSql = """
+                SELECT * FROM retention_policies
+                ;
+                """;
+        return jdbcClient.sql(selectSql)
+                .query((resultSet, row) -> mapRow(resultSet))
+                .list();
+    }
+    /**
+     * Deletes the retention policy of an application, the application falls back to the default retention.
+     * If no such entity exists, the operation is silently ignored.
+     *
+     * @param uuid the unique identifier of the application
+     */
+    @Override
+    public void deleteById(String uuid) {
+        var deleteSql = """
+                DELETE FROM retention_policies
+                WHERE
+                application_uuid = :application_uuid
+                """;
+        jdbcClient.sql(deleteSql)
+                .param("application_uuid", uuid)
+                .update();
+    }
+    /**
+     * Deletes all entities of type {@code T} from the database.
+     * Use with caution in production environments.
+     */
+    @Override
+    public void deleteAll() {
+        var deleteSql = """
+                DELETE FROM retention_policies;
+                """;
+        jdbcClient.sql(deleteSql)
+                .update();
+    }
+    /**
+     * Checks whether an application has a retention policy.
+     *
+     * @param uuid the unique identifier of the application (must not be {@code null})
+     * @return {@code true} if a policy exists for the application, {@code false} otherwise
+     */
+    @Override
+    public boolean existsById(String uuid) {
+        var countSql = """
+                SELECT COUNT(*) FROM retention_policies
+                WHERE
+                application_uuid = :application_uuid
+                """;
+        var count = jdbcClient.sql(countSql)
+                .param("application_uuid", uuid)
+                .query((resultSet, row) -> resultSet.getLong(1))
+                .single();
+        return count > 0;
+    }
+    /**
+     * Updates the retention policy of the given application.
+     *
+     * @param uuid   the unique identifier of the application (must not be {@code null})
+     * @param entity the updated policy to apply (must not be {@code null});
+     *               the application id inside the entity is ignored in favor of the provided {@code uuid}
+     * @throws NoSuchElementException if no entity with the given {@code uuid} exists in the data source
+     */
+    @Override
+    public void updateById(String uuid, RetentionPolicy entity) throws NoSuchElementException {
+        var updateSql = """
+                UPDATE retention_policies
+                SET retention_days = :retention_days,
+                    max_rows = :max_rows,
+                    max_bytes = :max_bytes
+                WHERE application_uuid = :application_uuid
+                ;
+                """;
+        jdbcClient.sql(updateSql)
+                .param("retention_days", entity.retentionDays())
+                .param("max_rows", entity.maxRows())
+                .param("max_bytes", entity.maxBytes())
+                .param("application_uuid", uuid)
+                .update();
+    }
+    private static RetentionPolicy mapRow(ResultSet resultSet) throws SQLException {
+        long maxRows = resultSet.getLong("max_rows");
+        var maxRowsValue = resultSet.wasNull() ? null : maxRows;
+        long maxBytes = resultSet.getLong("max_bytes");
+        var maxBytesValue = resultSet.wasNull() ? null : maxBytes;
+        return new RetentionPolicy(
+                resultSet.getString("application_uuid"),
+                resultSet.getInt("retention_days"),
+                maxRowsValue,
+                maxBytesValue
+        );
+    }
+}
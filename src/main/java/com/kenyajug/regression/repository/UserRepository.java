@@ -23,19 +23,28 @@ package com.kenyajug.regression.repository;
  * SOFTWARE.
  */
 import com.kenyajug.regression.entities.User;
+import com.kenyajug.regression.models.CacheStats;
 import com.kenyajug.regression.utils.DateTimeUtils;
+import com.kenyajug.regression.utils.LookupCache;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.simple.JdbcClient;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 @Repository
 public non-sealed class UserRepository implements CrudRepository<User> {
     private final JdbcClient jdbcClient;
     private final TransactionTemplate transactionTemplate;
-    public UserRepository(JdbcClient jdbcClient, TransactionTemplate transactionTemplate) {
+    private final LookupCache<String, Optional<User>> cache;
+    public UserRepository(JdbcClient jdbcClient,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${regression.cache.max-size:1000}") int cacheMaxSize,
+                          @Value("${regression.cache.ttl-seconds:300}") long cacheTtlSeconds) {
         this.jdbcClient = jdbcClient;
         this.transactionTemplate = transactionTemplate;
+        this.cache = new LookupCache<>("users", cacheMaxSize, Duration.ofSeconds(cacheTtlSeconds));
     }
     /**
      * Saves the given entity to the database.
@@ -59,6 +68,7 @@ public non-sealed class UserRepository implements CrudRepository<User> {
                     .param("created_at", DateTimeUtils.localDateTimeToUTCTime(user.created_at()))
                     .update();
         });
+        cache.invalidateAll();
     }
 
     /**
@@ -121,6 +131,7 @@ public non-sealed class UserRepository implements CrudRepository<User> {
         jdbcClient.sql(deleteSql)
                 .param("uuid",uuid)
                 .update();
+        cache.invalidateAll();
     }
     /**
      * Deletes all entities of type {@code T} from the database.
@@ -133,6 +144,7 @@ public non-sealed class UserRepository implements CrudRepository<User> {
                 """;
         jdbcClient.sql(deleteSql)
                 .update();
+        cache.invalidateAll();
     }
     /**
      * Checks whether an entity with the given unique identifier exists in the data source.
@@ -180,8 +192,33 @@ public non-sealed class UserRepository implements CrudRepository<User> {
                 .param("created_at",DateTimeUtils.localDateTimeToUTCTime(user.created_at()))
                 .param("uuid",uuid)
                 .update();
+        cache.invalidateAll();
     }
+    /**
+     * Finds a user by username.
+     * <p>
+     * Served from the read-through lookup cache, as it runs on every authentication; writes through this
+     * repository invalidate it.
+     * </p>
+     *
+     * @param username the username to look up
+     * @return an {@link Optional} containing the user, or empty if not found
+     */
     public Optional<User> findByUsername(String username){
+        return cache.get(username, this::loadByUsername);
+    }
+    public boolean existsByUsername(String username){
+        var selectSql = """
+                SELECT COUNT(*) FROM users
+                WHERE username = :username
+                ;
+                """;
+        return jdbcClient.sql(selectSql)
+                .param("username",username)
+                .query((resultSet, row) -> resultSet.getLong(1))
+                .single() > 0;
+    }
+    private Optional<User> loadByUsername(String username) {
         var selectSql = """
                 SELECT * FROM users
                 WHERE username = :username
@@ -198,15 +235,19 @@ public non-sealed class UserRepository implements CrudRepository<User> {
                 ))
                 .optional();
     }
-    public boolean existsByUsername(String username){
-        var selectSql = """
-                SELECT COUNT(*) FROM users
-                WHERE username = :username
-                ;
-                """;
-        return jdbcClient.sql(selectSql)
-                .param("username",username)
-                .query((resultSet, row) -> resultSet.getLong(1))
-                .single() > 0;
+    /**
+     * Drops every entry of the user lookup cache, for when the table was changed behind this repository's back.
+     */
+    public void invalidateCache() {
+        cache.invalidateAll();
+    }
+    /**
+     * Returns the hit, miss and eviction counters of the user lookup cache, which is keyed by username since
+     * that is the lookup made on every authentication.
+     *
+     * @return a snapshot of the cache statistics.
+     */
+    public CacheStats cacheStats() {
+        return cache.stats();
     }
 }
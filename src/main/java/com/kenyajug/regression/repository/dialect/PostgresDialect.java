@@ -0,0 +1,79 @@
+package com.kenyajug.regression.repository.dialect;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.utils.FullTextUtils;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Optional;
+@Component
+@Profile("postgres")
+public final class PostgresDialect implements SqlDialect {
+    /**
+     * The PostgreSQL wire protocol caps a statement at 65535 bind parameters; leave headroom.
+     */
+    private static final int MAX_VARIABLES_PER_STATEMENT = 30000;
+    @Override
+    public Optional<String> toFullTextQuery(String keyword) {
+        return FullTextUtils.toTsQuery(keyword);
+    }
+    @Override
+    public String fullTextSearchSql() {
+        return """
+                SELECT * FROM app_logs
+                WHERE
+                message_tsv @@ to_tsquery('simple', :full_text_query)
+                AND timestamp >= :day_start
+                AND timestamp < :day_end
+                AND (CAST(:severity AS VARCHAR) IS NULL OR severity = :severity)
+                AND (CAST(:application_uuid AS VARCHAR) IS NULL OR application_uuid = :application_uuid)
+                AND (CAST(:log_source AS VARCHAR) IS NULL OR log_source = :log_source)
+                ORDER BY timestamp DESC
+                LIMIT :limit
+                ;
+                """;
+    }
+    @Override
+    public String fullTextPredicate() {
+        return "app_logs.message_tsv @@ to_tsquery('simple', :full_text_query)";
+    }
+    @Override
+    public String messageBytesExpression() {
+        return "OCTET_LENGTH(message)";
+    }
+    @Override
+    public int maxRowsPerInsert(int columns) {
+        return Math.max(1, MAX_VARIABLES_PER_STATEMENT / columns);
+    }
+    @Override
+    public Optional<String> logPartitionSql() {
+        return Optional.of("SELECT ensure_app_logs_partition(CAST(:month_start AS DATE));");
+    }
+    @Override
+    public LocalDateTime readTimestamp(ResultSet resultSet, String column) throws SQLException {
+        return resultSet.getObject(column, LocalDateTime.class);
+    }
+}
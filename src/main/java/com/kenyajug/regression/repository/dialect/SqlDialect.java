@@ -0,0 +1,91 @@
+package com.kenyajug.regression.repository.dialect;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Optional;
+/*
+ * Storage backend specific SQL used by the repositories. Everything else the repositories run is portable
+ * between SQLite and PostgreSQL; the active dialect is selected by the "postgres" Spring profile.
+ */
+public sealed interface SqlDialect permits SqliteDialect, PostgresDialect {
+    /**
+     * Translates a keyword typed into the logs search box into the backend's full-text query syntax.
+     *
+     * @param keyword the raw keyword.
+     * @return the query, or empty if the keyword has no searchable terms.
+     */
+    Optional<String> toFullTextQuery(String keyword);
+    /**
+     * Returns the keyword search query over {@code app_logs}.
+     * <p>
+     * The query binds {@code :full_text_query}, {@code :day_start}, {@code :day_end}, {@code :severity},
+     * {@code :application_uuid}, {@code :log_source} and {@code :limit}, and returns {@code app_logs} rows most recent first.
+     * </p>
+     *
+     * @return the SQL text.
+     */
+    String fullTextSearchSql();
+    /**
+     * Returns a condition on {@code app_logs} that matches logs whose message satisfies {@code :full_text_query},
+     * for queries that combine keyword search with other filters.
+     *
+     * @return the SQL condition.
+     */
+    String fullTextPredicate();
+    /**
+     * Returns an SQL expression for the size in bytes of the {@code message} column.
+     *
+     * @return the SQL expression.
+     */
+    String messageBytesExpression();
+    /**
+     * Returns how many rows a single multi-row {@code INSERT} may carry, bounded by the backend's limit
+     * on bind variables per statement.
+     *
+     * @param columns the number of bound columns per row.
+     * @return the maximum number of rows per statement.
+     */
+    int maxRowsPerInsert(int columns);
+    /**
+     * Returns the statement that makes sure the {@code app_logs} partition covering a month exists, for
+     * backends that partition logs by time.
+     * <p>
+     * The statement binds {@code :month_start}, the first day of the month.
+     * </p>
+     *
+     * @return the SQL text, or empty if logs are not partitioned.
+     */
+    Optional<String> logPartitionSql();
+    /**
+     * Reads a log timestamp column, stored as UTC text on SQLite and as a native timestamp on PostgreSQL.
+     *
+     * @param resultSet the result set positioned on a row.
+     * @param column    the column label.
+     * @return the timestamp, or {@code null} if the column is {@code NULL}.
+     * @throws SQLException if the column cannot be read.
+     */
+    LocalDateTime readTimestamp(ResultSet resultSet, String column) throws SQLException;
+}
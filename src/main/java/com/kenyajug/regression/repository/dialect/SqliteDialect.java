@@ -0,0 +1,82 @@
+package com.kenyajug.regression.repository.dialect;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.utils.DateTimeUtils;
+import com.kenyajug.regression.utils.FullTextUtils;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Optional;
+@Component
+@Profile("!postgres")
+public final class SqliteDialect implements SqlDialect {
+    /**
+     * SQLite rejects statements with more than 32766 bind variables; stay well below it.
+     */
+    private static final int MAX_VARIABLES_PER_STATEMENT = 3000;
+    @Override
+    public Optional<String> toFullTextQuery(String keyword) {
+        return FullTextUtils.toMatchExpression(keyword);
+    }
+    @Override
+    public String fullTextSearchSql() {
+        return """
+                SELECT app_logs.* FROM app_logs_fts
+                JOIN app_logs ON app_logs.rowid = app_logs_fts.rowid
+                WHERE
+                app_logs_fts MATCH :full_text_query
+                AND app_logs.timestamp >= :day_start
+                AND app_logs.timestamp < :day_end
+                AND (:severity IS NULL OR app_logs.severity = :severity)
+                AND (:application_uuid IS NULL OR app_logs.application_uuid = :application_uuid)
+                AND (:log_source IS NULL OR app_logs.log_source = :log_source)
+                ORDER BY app_logs.timestamp DESC
+                LIMIT :limit
+                ;
+                """;
+    }
+    @Override
+    public String fullTextPredicate() {
+        return "app_logs.rowid IN (SELECT rowid FROM app_logs_fts WHERE app_logs_fts MATCH :full_text_query)";
+    }
+    @Override
+    public String messageBytesExpression() {
+        return "LENGTH(CAST(message AS BLOB))";
+    }
+    @Override
+    public int maxRowsPerInsert(int columns) {
+        return Math.max(1, MAX_VARIABLES_PER_STATEMENT / columns);
+    }
+    @Override
+    public Optional<String> logPartitionSql() {
+        return Optional.empty();
+    }
+    @Override
+    public LocalDateTime readTimestamp(ResultSet resultSet, String column) throws SQLException {
+        var timestamp = resultSet.getString(column);
+        return timestamp == null ? null : DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime(timestamp);
+    }
+}
@@ -0,0 +1,66 @@
+package com.kenyajug.regression.repository.shard;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import java.util.function.Supplier;
+/*
+ * The application whose shard the current thread reads and writes logs in. ShardRoutingDataSource hands out
+ * connections to that shard; threads without an application, and applications without a shard, use the core
+ * database.
+ */
+public final class ShardContext {
+    private static final ThreadLocal<String> CURRENT_SHARD = new ThreadLocal<>();
+    private ShardContext() {
+    }
+    /**
+     * Returns the application whose shard the current thread is routed to.
+     *
+     * @return the application ID, or {@code null} for the core database.
+     */
+    public static String current() {
+        return CURRENT_SHARD.get();
+    }
+    /**
+     * Runs an action with the current thread routed to an application's shard, restoring the previous routing
+     * afterwards.
+     * <p>
+     * Connections are routed when they are obtained, so a transaction already running on the thread keeps the
+     * connection it started with.
+     * </p>
+     *
+     * @param applicationId the application ID, or {@code null} for the core database.
+     * @param action        the action to run.
+     * @param <T>           the type of the action's result.
+     * @return the action's result.
+     */
+    public static <T> T call(String applicationId, Supplier<T> action) {
+        var previous = CURRENT_SHARD.get();
+        CURRENT_SHARD.set(applicationId);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) CURRENT_SHARD.remove();
+            else CURRENT_SHARD.set(previous);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.kenyajug.regression.repository.shard;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import java.io.IOException;
+import java.nio.file.Path;
+/*
+ * Replaces the auto-configured data source with ShardRoutingDataSource when per-application log shards are
+ * enabled. The core database is still configured through spring.datasource.*; the JdbcClient, the transaction
+ * manager and Liquibase all run on the routing data source and reach the core database outside a shard.
+ */
+@Configuration
+@Profile("!postgres")
+@ConditionalOnProperty(name = "regression.shards.enabled", havingValue = "true")
+public class ShardDataSourceConfiguration {
+    @Bean
+    public ShardRoutingDataSource dataSource(DataSourceProperties dataSourceProperties,
+                                             @Value("${regression.shards.directory:shards}") Path directory,
+                                             @Value("${regression.shards.pool-size:4}") int poolSize) throws IOException {
+        var coreDataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        return new ShardRoutingDataSource(coreDataSource, directory, poolSize);
+    }
+}
@@ -0,0 +1,251 @@
+package com.kenyajug.regression.repository.shard;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+/*
+ * Primary data source when regression.shards.enabled is set: each application's logs live in their own SQLite
+ * file, shards/<application id>.db, holding app_logs, its full-text index, the three metadata tables and the
+ * application's hourly, minute and metric counters. Every other table stays in the core database, which each
+ * shard connection attaches as "core". SQLite resolves unqualified table names in the shard first and in the
+ * attached core database next, so the repositories run their usual SQL, joins with applications included, on
+ * whichever database a connection points at. Ingestion only writes tables held by the shard, so shard writers
+ * never take the core database's write lock and each commit stays within one file.
+ * <p>
+ * Connections are routed by ShardContext when they are obtained. Threads without an application, and
+ * applications that have no shard yet, get a core connection; their logs are still read from and written to the
+ * core tables. Opening a shard copies the definitions of the sharded tables from the core database, so shards
+ * follow the core migrations they are created after, and then moves the application's remaining core rows into
+ * the shard.
+ * </p>
+ */
+@Slf4j
+public class ShardRoutingDataSource extends AbstractDataSource implements DisposableBean {
+    public static final String CORE_SCHEMA = "core";
+    private static final String SHARD_EXTENSION = ".db";
+    private static final List<String> SHARD_FILE_SUFFIXES = List.of("", "-wal", "-shm");
+    private static final Pattern SHARD_ID = Pattern.compile("[A-Za-z0-9_-]+");
+    private static final List<String> SHARDED_TABLES = List.of("app_logs", "app_logs_fts", "logs_metadata", "logs_metadata_packed", "logs_metadata_index",
+            "log_hourly_counts", "log_minute_counts", "app_metric_counts");
+    private static final List<String> SHARDED_COUNTER_TABLES = List.of("log_hourly_counts", "log_minute_counts", "app_metric_counts");
+    private final DataSource coreDataSource;
+    private final Path directory;
+    private final int poolSize;
+    private final Set<String> shardIds = ConcurrentHashMap.newKeySet();
+    private final Map<String, HikariDataSource> openShards = new ConcurrentHashMap<>();
+    public ShardRoutingDataSource(DataSource coreDataSource, Path directory, int poolSize) throws IOException {
+        this.coreDataSource = coreDataSource;
+        this.directory = directory.toAbsolutePath();
+        this.poolSize = Math.max(1, poolSize);
+        Files.createDirectories(this.directory);
+        try (var files = Files.list(this.directory)) {
+            files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(SHARD_EXTENSION))
+                    .map(name -> name.substring(0, name.length() - SHARD_EXTENSION.length()))
+                    .filter(name -> SHARD_ID.matcher(name).matches())
+                    .forEach(shardIds::add);
+        }
+    }
+    @Override
+    public Connection getConnection() throws SQLException {
+        return targetDataSource().getConnection();
+    }
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return targetDataSource().getConnection(username, password);
+    }
+    /**
+     * Checks whether an application's logs are stored in a shard of their own.
+     *
+     * @param applicationId the ID of the application.
+     * @return {@code true} if the application has a shard.
+     */
+    public boolean hasShard(String applicationId) {
+        return applicationId != null && shardIds.contains(applicationId);
+    }
+    /**
+     * Lists the applications that have a shard.
+     *
+     * @return the application IDs.
+     */
+    public Set<String> shardIds() {
+        return Set.copyOf(shardIds);
+    }
+    /**
+     * Creates the shard of an application, if it has none yet, and opens it.
+     * <p>
+     * The application's logs and metadata still held in the core database are moved into the new shard.
+     * </p>
+     *
+     * @param applicationId the ID of the application.
+     * @throws IllegalArgumentException        if the ID cannot be used as a file name.
+     * @throws DataAccessResourceFailureException if the shard cannot be created.
+     */
+    public void createShard(String applicationId) {
+        if (applicationId == null || !SHARD_ID.matcher(applicationId).matches())
+            throw new IllegalArgumentException("Invalid application ID for a shard: " + applicationId);
+        shardIds.add(applicationId);
+        openShard(applicationId);
+    }
+    /**
+     * Closes the shard of an application and deletes its files, together with every log in it.
+     *
+     * @param applicationId the ID of the application.
+     * @throws IOException if a shard file cannot be deleted.
+     */
+    public void dropShard(String applicationId) throws IOException {
+        if (!hasShard(applicationId)) return;
+        synchronized (this) {
+            shardIds.remove(applicationId);
+            var shard = openShards.remove(applicationId);
+            if (shard != null) shard.close();
+        }
+        for (String suffix : SHARD_FILE_SUFFIXES) {
+            Files.deleteIfExists(shardFile(applicationId, suffix));
+        }
+        log.info("Dropped the log shard of application {}", applicationId);
+    }
+    @Override
+    public void destroy() throws Exception {
+        openShards.values().forEach(HikariDataSource::close);
+        openShards.clear();
+        if (coreDataSource instanceof AutoCloseable closeable) closeable.close();
+    }
+    private DataSource targetDataSource() {
+        var applicationId = ShardContext.current();
+        if (!hasShard(applicationId)) return coreDataSource;
+        return openShard(applicationId);
+    }
+    private DataSource openShard(String applicationId) {
+        var shard = openShards.get(applicationId);
+        if (shard != null) return shard;
+        synchronized (this) {
+            shard = openShards.get(applicationId);
+            if (shard != null) return shard;
+            shard = new HikariDataSource();
+            shard.setPoolName("regression-shard-" + applicationId);
+            shard.setJdbcUrl("jdbc:sqlite:" + shardFile(applicationId, "") + "?journal_mode=WAL&synchronous=NORMAL&busy_timeout=5000");
+            shard.setConnectionInitSql("ATTACH DATABASE '" + coreDatabaseFile().replace("'", "''") + "' AS " + CORE_SCHEMA);
+            shard.setMaximumPoolSize(poolSize);
+            shard.setMinimumIdle(0);
+            try {
+                copySchema(shard);
+                moveCoreRows(shard, applicationId);
+            } catch (RuntimeException ex) {
+                shard.close();
+                throw new DataAccessResourceFailureException("Failed to open the log shard of application " + applicationId, ex);
+            }
+            openShards.put(applicationId, shard);
+            return shard;
+        }
+    }
+    private Path shardFile(String applicationId, String suffix) {
+        return directory.resolve(applicationId + SHARD_EXTENSION + suffix);
+    }
+    private String coreDatabaseFile() {
+        var file = JdbcClient.create(coreDataSource)
+                .sql("SELECT file FROM pragma_database_list WHERE name = 'main'")
+                .query(String.class)
+                .optional()
+                .orElse("");
+        if (file.isEmpty()) throw new IllegalStateException("Log shards need a file backed core database");
+        return file;
+    }
+    /*
+     * Creates the sharded tables, their indexes and the full-text triggers from their definitions in the core
+     * database. sqlite_master keeps CREATE statements without IF NOT EXISTS, so objects the shard already has
+     * are skipped.
+     */
+    private void copySchema(DataSource shard) {
+        var jdbcClient = JdbcClient.create(shard);
+        var selectDefinitionsSql = """
+                SELECT name, sql FROM core.sqlite_master
+                WHERE tbl_name IN (:tables)
+                AND sql IS NOT NULL
+                ORDER BY CASE type WHEN 'table' THEN 0 WHEN 'index' THEN 1 ELSE 2 END, rowid
+                ;
+                """;
+        var definitions = jdbcClient.sql(selectDefinitionsSql)
+                .param("tables",SHARDED_TABLES)
+                .query((resultSet, row) -> Map.entry(resultSet.getString("name"), resultSet.getString("sql")))
+                .list();
+        var existing = Set.copyOf(jdbcClient.sql("SELECT name FROM main.sqlite_master")
+                .query(String.class)
+                .list());
+        definitions.stream()
+                .filter(definition -> !existing.contains(definition.getKey()))
+                .forEach(definition -> jdbcClient.sql(definition.getValue()).update());
+    }
+    /*
+     * Moves the logs and counters an application wrote to the core database before its shard existed. Rows
+     * already copied by an interrupted earlier move are skipped, and the core rows are only deleted once copied.
+     */
+    private void moveCoreRows(DataSource shard, String applicationId) {
+        var jdbcClient = JdbcClient.create(shard);
+        var coreLogsSql = "SELECT uuid FROM core.app_logs WHERE application_uuid = :application_uuid";
+        var moved = new TransactionTemplate(new DataSourceTransactionManager(shard)).execute(status -> {
+            for (String table : List.of("logs_metadata", "logs_metadata_packed", "logs_metadata_index")) {
+                jdbcClient.sql("INSERT OR IGNORE INTO main." + table + " SELECT * FROM core." + table + " WHERE log_uuid IN (" + coreLogsSql + ")")
+                        .param("application_uuid",applicationId)
+                        .update();
+                jdbcClient.sql("DELETE FROM core." + table + " WHERE log_uuid IN (" + coreLogsSql + ")")
+                        .param("application_uuid",applicationId)
+                        .update();
+            }
+            for (String table : SHARDED_COUNTER_TABLES) {
+                jdbcClient.sql("INSERT OR IGNORE INTO main." + table + " SELECT * FROM core." + table + " WHERE application_uuid = :application_uuid")
+                        .param("application_uuid",applicationId)
+                        .update();
+                jdbcClient.sql("DELETE FROM core." + table + " WHERE application_uuid = :application_uuid")
+                        .param("application_uuid",applicationId)
+                        .update();
+            }
+            jdbcClient.sql("INSERT OR IGNORE INTO main.app_logs SELECT * FROM core.app_logs WHERE application_uuid = :application_uuid")
+                    .param("application_uuid",applicationId)
+                    .update();
+            return jdbcClient.sql("DELETE FROM core.app_logs WHERE application_uuid = :application_uuid")
+                    .param("application_uuid",applicationId)
+                    .update();
+        });
+        if (Objects.requireNonNullElse(moved, 0) > 0) log.info("Moved {} logs of application {} into its shard", moved, applicationId);
+    }
+}
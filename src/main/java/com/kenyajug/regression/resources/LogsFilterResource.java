@@ -25,6 +25,7 @@ package com.kenyajug.regression.resources;
 
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import org.springframework.format.annotation.DateTimeFormat;
 import java.time.LocalDate;
 public record LogsFilterResource(
@@ -42,7 +43,23 @@ public record LogsFilterResource(
                 regexp = "^[0-9a-fA-F]{8}\\b-[0-9a-fA-F]{4}\\b-[0-9a-fA-F]{4}\\b-[0-9a-fA-F]{4}\\b-[0-9a-fA-F]{12}$",
                 message = "Invalid data source id"
         )
-        String selectedSourceId
-
+        String selectedSourceId,
+        @Size(max = 200, message = "Search keyword must not exceed 200 characters")
+        String keyword
 ) {
+    /**
+     * Returns this filter with equivalent values spelled one way: no severity filter as {@code All}, no application
+     * or data source as empty, and the keyword without surrounding blanks. Filters selecting the same logs are then
+     * equal, so they share cached and in-flight page data.
+     *
+     * @return the normalised filter.
+     */
+    public LogsFilterResource normalized() {
+        return new LogsFilterResource(
+                selectedDate,
+                (selectedSeverity == null || selectedSeverity.isEmpty()) ? "All" : selectedSeverity,
+                selectedAppId == null ? "" : selectedAppId,
+                selectedSourceId == null ? "" : selectedSourceId,
+                keyword == null ? "" : keyword.strip());
+    }
 }
@@ -0,0 +1,69 @@
+package com.kenyajug.regression.scheduled;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.models.CacheStats;
+import com.kenyajug.regression.repository.ApplicationsRepository;
+import com.kenyajug.regression.repository.LogsDataSourceRepository;
+import com.kenyajug.regression.repository.UserRepository;
+import com.kenyajug.regression.services.IViewCacheService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.util.List;
+/*
+ * Logs the counters of the lookup caches and of the page data cache, so their hit ratios can be checked when
+ * tuning regression.cache.* and regression.view-cache.*. Caches that have not been used are skipped.
+ */
+@Component
+@Slf4j
+public class CacheStatsCron {
+    private final ApplicationsRepository applicationsRepository;
+    private final LogsDataSourceRepository dataSourceRepository;
+    private final UserRepository userRepository;
+    private final IViewCacheService viewCacheService;
+    public CacheStatsCron(ApplicationsRepository applicationsRepository,
+                          LogsDataSourceRepository dataSourceRepository,
+                          UserRepository userRepository,
+                          IViewCacheService viewCacheService) {
+        this.applicationsRepository = applicationsRepository;
+        this.dataSourceRepository = dataSourceRepository;
+        this.userRepository = userRepository;
+        this.viewCacheService = viewCacheService;
+    }
+    @Scheduled(fixedDelayString = "${regression.cache.stats-log-millis:900000}", initialDelayString = "${regression.cache.stats-log-millis:900000}")
+    public void logCacheStats() {
+        var lookupCaches = List.of(applicationsRepository.cacheStats(), dataSourceRepository.cacheStats(), userRepository.cacheStats());
+        for (CacheStats stats : lookupCaches) {
+            logStats(stats);
+        }
+        var viewStats = viewCacheService.stats();
+        if (logStats(viewStats)) log.info("Cache {}: {} page loads shared with a load already in flight", viewStats.name(), viewCacheService.sharedLoads());
+    }
+    private boolean logStats(CacheStats stats) {
+        if (stats.hits() + stats.misses() == 0) return false;
+        log.info("Cache {}: {} hits, {} misses, hit ratio {}, {} evictions, {} entries",
+                stats.name(), stats.hits(), stats.misses(), "%.2f".formatted(stats.hitRatio()), stats.evictions(), stats.size());
+        return true;
+    }
+}
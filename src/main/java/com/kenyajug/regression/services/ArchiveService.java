@@ -0,0 +1,319 @@
+package com.kenyajug.regression.services;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kenyajug.regression.entities.AppLog;
+import com.kenyajug.regression.entities.Application;
+import com.kenyajug.regression.entities.ArchiveSegment;
+import com.kenyajug.regression.entities.LogsMetadata;
+import com.kenyajug.regression.models.ArchivedLog;
+import com.kenyajug.regression.repository.AppLogRepository;
+import com.kenyajug.regression.repository.ApplicationsRepository;
+import com.kenyajug.regression.repository.ArchiveSegmentRepository;
+import com.kenyajug.regression.repository.LogsMetadataRepository;
+import com.kenyajug.regression.utils.DateTimeUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+@Slf4j
+@Service
+public class ArchiveService implements IArchiveService {
+    private static final String SEGMENT_EXTENSION = ".ndjson.gz";
+    private final ApplicationsRepository applicationsRepository;
+    private final AppLogRepository appLogRepository;
+    private final LogsMetadataRepository metadataRepository;
+    private final ArchiveSegmentRepository segmentRepository;
+    private final IShardService shardService;
+    private final IWriterService writerService;
+    private final ObjectMapper objectMapper;
+    private final Path archiveDirectory;
+    private final int hotDays;
+    private final int chunkSize;
+    public ArchiveService(ApplicationsRepository applicationsRepository,
+                          AppLogRepository appLogRepository,
+                          LogsMetadataRepository metadataRepository,
+                          ArchiveSegmentRepository segmentRepository,
+                          IShardService shardService,
+                          IWriterService writerService,
+                          ObjectMapper objectMapper,
+                          @Value("${regression.archive.directory:archive}") Path archiveDirectory,
+                          @Value("${regression.archive.hot-days:0}") int hotDays,
+                          @Value("${regression.retention.chunk-size:1000}") int chunkSize) {
+        this.applicationsRepository = applicationsRepository;
+        this.appLogRepository = appLogRepository;
+        this.metadataRepository = metadataRepository;
+        this.segmentRepository = segmentRepository;
+        this.shardService = shardService;
+        this.writerService = writerService;
+        this.objectMapper = objectMapper;
+        this.archiveDirectory = archiveDirectory;
+        this.hotDays = hotDays;
+        this.chunkSize = chunkSize;
+    }
+    /**
+     * Checks whether logs of the given day fall outside the hot window and may live in archive segments.
+     *
+     * @param date the day to check.
+     * @return {@code true} if archiving is enabled and the day is older than the hot window.
+     */
+    @Override
+    public boolean isArchived(LocalDate date) {
+        return hotDays > 0 && date.isBefore(LocalDate.now().minusDays(hotDays));
+    }
+    /**
+     * Archives the logs of every registered application that fall outside the hot window.
+     *
+     * @return the total number of logs moved into archive segments.
+     */
+    @Override
+    public long archiveOldLogs() {
+        if (hotDays <= 0) return 0;
+        long archived = 0;
+        for (Application application : applicationsRepository.findAll()) {
+            archived += archiveApplication(application.uuid(), LocalDate.now());
+        }
+        return archived;
+    }
+    /**
+     * Archives the logs of one application that fall outside the hot window, oldest day first.
+     * <p>
+     * Every archived day is written to its own immutable segment, the segment is registered in
+     * {@code archive_segments} and only then are the archived logs removed from the database, in chunks.
+     * A failure before the removal leaves the logs in the database, so nothing is lost; a day archived
+     * twice is de-duplicated when read back. Logs are read from the application's shard and removed through its
+     * writer, one chunk per write command; segments are registered through the database writer.
+     * </p>
+     *
+     * @param applicationId the ID of the application.
+     * @param today         the current day, used to compute the hot window.
+     * @return the number of logs moved into archive segments.
+     */
+    @Override
+    public long archiveApplication(String applicationId, LocalDate today) {
+        if (hotDays <= 0) return 0;
+        return shardService.onShard(applicationId, () -> archiveShard(applicationId, today));
+    }
+    private long archiveShard(String applicationId, LocalDate today) {
+        var firstHotDay = today.minusDays(hotDays);
+        long archived = 0;
+        var oldestDay = appLogRepository.findOldestLogDay(applicationId);
+        while (oldestDay.isPresent() && oldestDay.get().isBefore(firstHotDay)) {
+            var day = oldestDay.get();
+            WrittenSegment written;
+            try {
+                var optionalWritten = writeSegment(applicationId, day);
+                if (optionalWritten.isEmpty()) break;
+                written = optionalWritten.get();
+                writerService.run(() -> segmentRepository.save(written.segment()));
+            } catch (IOException ex) {
+                log.error("Failed to archive logs of {} for application {}: {}", day, applicationId, ex.getLocalizedMessage());
+                break;
+            }
+            var logIds = written.logIds();
+            var shardWriter = shardService.existingWriterFor(applicationId);
+            for (int from = 0; from < logIds.size(); from += chunkSize) {
+                var chunk = logIds.subList(from, Math.min(from + chunkSize, logIds.size()));
+                shardWriter.execute(() -> appLogRepository.deleteByIds(chunk));
+            }
+            log.info("Archived {} logs of {} for application {}", logIds.size(), day, applicationId);
+            archived += logIds.size();
+            oldestDay = appLogRepository.findOldestLogDay(applicationId);
+        }
+        return archived;
+    }
+    /**
+     * Reads archived logs back from the segments of a given day.
+     * <p>
+     * Segments whose severity index cannot match the filter are skipped without being opened.
+     * </p>
+     *
+     * @param date          the day to read.
+     * @param severity      an optional severity filter. If null, empty or {@code All}, all severities are included.
+     * @param applicationId an optional application filter. If null or empty, logs from all applications are included.
+     * @return the archived logs of the day, oldest first.
+     */
+    @Override
+    public List<ArchivedLog> findArchivedLogs(LocalDate date, String severity, String applicationId) {
+        return findArchivedLogs(date, severity, applicationId, appLog -> true);
+    }
+    /**
+     * Reads the archived logs of a given day that match a filter.
+     * <p>
+     * Segments whose severity index cannot match the filter are skipped without being opened; the others are
+     * decompressed and parsed one NDJSON line at a time, and only the lines that pass the filter are kept.
+     * </p>
+     *
+     * @param date          the day to read.
+     * @param severity      an optional severity filter. If null, empty or {@code All}, all severities are included.
+     * @param applicationId an optional application filter. If null or empty, logs from all applications are included.
+     * @param filter        the condition an archived log must meet to be returned.
+     * @return the matching archived logs of the day, oldest first.
+     */
+    @Override
+    public List<ArchivedLog> findArchivedLogs(LocalDate date, String severity, String applicationId, Predicate<AppLog> filter) {
+        var filterSeverity = (severity == null || severity.isEmpty() || severity.equals("All")) ? null : severity;
+        Map<String, ArchivedLog> archivedLogs = new LinkedHashMap<>();
+        for (ArchiveSegment segment : segmentRepository.findByDay(date, applicationId)) {
+            if (filterSeverity != null && !segment.severities().contains(filterSeverity)) continue;
+            try {
+                readSegment(segment, archivedLog -> {
+                    var appLog = archivedLog.log();
+                    if (filterSeverity != null && !filterSeverity.equals(appLog.severity())) return;
+                    if (!filter.test(appLog)) return;
+                    archivedLogs.putIfAbsent(appLog.uuid(), archivedLog);
+                });
+            } catch (IOException ex) {
+                log.error("Failed to read archive segment {}: {}", segment.filePath(), ex.getLocalizedMessage());
+            }
+        }
+        return archivedLogs.values()
+                .stream()
+                .sorted((first, second) -> first.log().timestamp().compareTo(second.log().timestamp()))
+                .toList();
+    }
+    /**
+     * Deletes the segments of an application holding days strictly before the given day.
+     *
+     * @param applicationId the ID of the application.
+     * @param before        the first day to keep.
+     * @return the number of archived logs deleted.
+     */
+    @Override
+    public long expireSegmentsBefore(String applicationId, LocalDate before) {
+        long deleted = 0;
+        for (ArchiveSegment segment : segmentRepository.findByApplicationBefore(applicationId, before)) {
+            try {
+                Files.deleteIfExists(archiveDirectory.resolve(segment.filePath()));
+            } catch (IOException ex) {
+                log.error("Failed to delete archive segment {}: {}", segment.filePath(), ex.getLocalizedMessage());
+                continue;
+            }
+            writerService.run(() -> segmentRepository.deleteById(segment.uuid()));
+            deleted += segment.rowCount();
+        }
+        return deleted;
+    }
+    private record WrittenSegment(ArchiveSegment segment, List<String> logIds) {}
+    /**
+     * Streams the logs of a day straight into a new segment file, looking metadata up one chunk at a time,
+     * so only the archived log ids are held in memory however large the day is.
+     */
+    private Optional<WrittenSegment> writeSegment(String applicationId, LocalDate day) throws IOException {
+        var segmentId = UUID.randomUUID().toString();
+        var relativePath = applicationId + "/" + DateTimeUtils.convertDateToString(day) + "-" + segmentId + SEGMENT_EXTENSION;
+        var segmentFile = archiveDirectory.resolve(relativePath);
+        Files.createDirectories(segmentFile.getParent());
+        var temporaryFile = segmentFile.resolveSibling(segmentFile.getFileName() + ".tmp");
+        List<String> logIds = new ArrayList<>();
+        Set<String> severities = new TreeSet<>();
+        LocalDateTime firstTimestamp = null;
+        LocalDateTime lastTimestamp = null;
+        try (var logs = appLogRepository.streamByApplicationAndDay(applicationId, day);
+             var writer = new BufferedWriter(new OutputStreamWriter(
+                     new GZIPOutputStream(Files.newOutputStream(temporaryFile)), StandardCharsets.UTF_8))) {
+            List<AppLog> chunk = new ArrayList<>(chunkSize);
+            var iterator = logs.iterator();
+            while (iterator.hasNext()) {
+                var appLog = iterator.next();
+                if (firstTimestamp == null) firstTimestamp = appLog.timestamp();
+                lastTimestamp = appLog.timestamp();
+                if (appLog.severity() != null) severities.add(appLog.severity());
+                logIds.add(appLog.uuid());
+                chunk.add(appLog);
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(writer, chunk);
+                    chunk.clear();
+                }
+            }
+            writeChunk(writer, chunk);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(temporaryFile);
+            throw ex;
+        }
+        if (logIds.isEmpty()) {
+            Files.deleteIfExists(temporaryFile);
+            return Optional.empty();
+        }
+        Files.move(temporaryFile, segmentFile, StandardCopyOption.ATOMIC_MOVE);
+        var segment = new ArchiveSegment(
+                segmentId,
+                applicationId,
+                day,
+                firstTimestamp,
+                lastTimestamp,
+                logIds.size(),
+                severities,
+                relativePath,
+                Files.size(segmentFile),
+                DateTimeUtils.nowUTCTime()
+        );
+        return Optional.of(new WrittenSegment(segment, logIds));
+    }
+    private void writeChunk(BufferedWriter writer, List<AppLog> chunk) throws IOException {
+        if (chunk.isEmpty()) return;
+        var metadata = metadataRepository.findByRootLogIds(chunk.stream().map(AppLog::uuid).toList())
+                .stream()
+                .collect(Collectors.groupingBy(LogsMetadata::logId));
+        for (AppLog appLog : chunk) {
+            var archivedLog = new ArchivedLog(appLog, metadata.getOrDefault(appLog.uuid(), List.of()));
+            writer.write(objectMapper.writeValueAsString(archivedLog));
+            writer.newLine();
+        }
+    }
+    private void readSegment(ArchiveSegment segment, Consumer<ArchivedLog> consumer) throws IOException {
+        var segmentFile = archiveDirectory.resolve(segment.filePath());
+        try (var reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(segmentFile)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                consumer.accept(objectMapper.readValue(line, ArchivedLog.class));
+            }
+        }
+    }
+}
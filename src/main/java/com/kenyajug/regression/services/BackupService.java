@@ -0,0 +1,258 @@
+package com.kenyajug.regression.services;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.models.BackupSnapshot;
+import com.kenyajug.regression.repository.ApplicationsRepository;
+import com.kenyajug.regression.repository.LogsDataSourceRepository;
+import com.kenyajug.regression.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.sqlite.SQLiteConnection;
+import org.sqlite.SQLiteErrorCode;
+import org.sqlite.core.DB;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+@Slf4j
+@Service
+public class BackupService implements IBackupService {
+    private static final String SNAPSHOT_PREFIX = "regression-";
+    private static final String SNAPSHOT_EXTENSION = ".db.gz";
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("regression-\\d{8}-\\d{9}\\.db\\.gz");
+    private static final DateTimeFormatter SNAPSHOT_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmssSSS");
+    private static final int BUSY_RETRIES = 100;
+    private final DataSource dataSource;
+    private final ApplicationsRepository applicationsRepository;
+    private final LogsDataSourceRepository dataSourceRepository;
+    private final UserRepository userRepository;
+    private final IWriterService writerService;
+    private final IViewCacheService viewCacheService;
+    private final IHeavyHitterService heavyHitterService;
+    private final IShardService shardService;
+    private final Path backupDirectory;
+    private final int keepSnapshots;
+    private final int pagesPerStep;
+    private final int stepPauseMillis;
+    public BackupService(DataSource dataSource,
+                         ApplicationsRepository applicationsRepository,
+                         LogsDataSourceRepository dataSourceRepository,
+                         UserRepository userRepository,
+                         IWriterService writerService,
+                         IViewCacheService viewCacheService,
+                         IHeavyHitterService heavyHitterService,
+                         IShardService shardService,
+                         @Value("${regression.backup.directory:backups}") Path backupDirectory,
+                         @Value("${regression.backup.keep:7}") int keepSnapshots,
+                         @Value("${regression.backup.pages-per-step:256}") int pagesPerStep,
+                         @Value("${regression.backup.step-pause-millis:10}") int stepPauseMillis) {
+        this.dataSource = dataSource;
+        this.applicationsRepository = applicationsRepository;
+        this.dataSourceRepository = dataSourceRepository;
+        this.userRepository = userRepository;
+        this.writerService = writerService;
+        this.viewCacheService = viewCacheService;
+        this.heavyHitterService = heavyHitterService;
+        this.shardService = shardService;
+        this.backupDirectory = backupDirectory;
+        this.keepSnapshots = keepSnapshots;
+        this.pagesPerStep = pagesPerStep;
+        this.stepPauseMillis = stepPauseMillis;
+    }
+    /**
+     * Takes a snapshot of the live database and removes the snapshots beyond the rotation limit.
+     * <p>
+     * The database is copied with SQLite's online backup API, {@code regression.backup.pages-per-step} pages at
+     * a time with a short pause between steps. Locks are only held for the duration of a step, so ingestion
+     * keeps committing while the snapshot is taken; SQLite restarts the copy if a step sees pages changed by
+     * another connection, so every snapshot is a consistent image of the database. The copy is then gzipped
+     * and moved into place atomically.
+     * </p>
+     * <p>
+     * Snapshots only copy the core database, so they are refused while per-application log shards are enabled:
+     * a snapshot without the shard files would silently leave out the logs of every sharded application.
+     * </p>
+     *
+     * @return the new {@link BackupSnapshot}, or empty if the backend does not support online snapshots, log
+     * shards are enabled or the snapshot failed.
+     */
+    @Override
+    public Optional<BackupSnapshot> createSnapshot() {
+        if (shardService.isEnabled()) {
+            log.warn("Online snapshots do not cover the log shards, stop the application and back up the database and the shard directory instead");
+            return Optional.empty();
+        }
+        var createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        var fileName = SNAPSHOT_PREFIX + createdAt.format(SNAPSHOT_TIMESTAMP) + SNAPSHOT_EXTENSION;
+        var snapshotFile = backupDirectory.resolve(fileName);
+        var copyFile = backupDirectory.resolve(fileName + ".db.tmp");
+        var compressedFile = backupDirectory.resolve(fileName + ".tmp");
+        try {
+            Files.createDirectories(backupDirectory);
+            try (var connection = dataSource.getConnection()) {
+                if (!connection.isWrapperFor(SQLiteConnection.class)) {
+                    log.warn("Online snapshots are only supported on SQLite, use the backend's own backup tools");
+                    return Optional.empty();
+                }
+                var database = connection.unwrap(SQLiteConnection.class).getDatabase();
+                var result = database.backup("main", copyFile.toString(), progressLogger("Backup"), stepPauseMillis, BUSY_RETRIES, pagesPerStep);
+                if (result != SQLiteErrorCode.SQLITE_OK.code)
+                    throw new SQLException("Backup failed with SQLite error " + SQLiteErrorCode.getErrorCode(result));
+            }
+            try (var input = Files.newInputStream(copyFile);
+                 var output = new GZIPOutputStream(Files.newOutputStream(compressedFile))) {
+                input.transferTo(output);
+            }
+            Files.move(compressedFile, snapshotFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            var snapshot = new BackupSnapshot(fileName, createdAt, Files.size(snapshotFile));
+            log.info("Wrote database snapshot {} ({} bytes)", fileName, snapshot.sizeBytes());
+            rotateSnapshots();
+            return Optional.of(snapshot);
+        } catch (IOException | SQLException ex) {
+            log.error("Failed to write database snapshot {}: {}", fileName, ex.getLocalizedMessage());
+            return Optional.empty();
+        } finally {
+            deleteQuietly(copyFile);
+            deleteQuietly(compressedFile);
+        }
+    }
+    /**
+     * Lists the snapshots kept in the backup directory.
+     *
+     * @return the snapshots, most recent first.
+     */
+    @Override
+    public List<BackupSnapshot> listSnapshots() {
+        if (!Files.isDirectory(backupDirectory)) return List.of();
+        try (Stream<Path> files = Files.list(backupDirectory)) {
+            return files.filter(file -> SNAPSHOT_NAME.matcher(file.getFileName().toString()).matches())
+                    .map(this::toSnapshot)
+                    .sorted(Comparator.comparing(BackupSnapshot::fileName).reversed())
+                    .toList();
+        } catch (IOException | UncheckedIOException ex) {
+            log.error("Failed to list database snapshots: {}", ex.getLocalizedMessage());
+            return List.of();
+        }
+    }
+    /**
+     * Replaces the content of the live database with a snapshot.
+     * <p>
+     * The snapshot is decompressed next to the backups and copied into the live database with the online
+     * backup API in a single step, so other connections either see the old or the restored database and never
+     * a mix of both. The copy runs as an exclusive command of the writer thread, so no queued write lands half
+     * before and half after it. Lookup caches, cached pages and the recurring message counts are reset to the
+     * restored data before the writer moves on. Restores are refused while log shards are enabled, since
+     * rewinding the core database alone would leave shard logs of applications and data sources it no longer has.
+     * </p>
+     *
+     * @param fileName the file name of a snapshot returned by {@link #listSnapshots()}.
+     * @return {@code true} if the database was restored.
+     * @throws IllegalArgumentException if no snapshot has that file name.
+     */
+    @Override
+    public boolean restoreSnapshot(String fileName) {
+        if (fileName == null || !SNAPSHOT_NAME.matcher(fileName).matches() || !Files.isRegularFile(backupDirectory.resolve(fileName)))
+            throw new IllegalArgumentException("Invalid snapshot " + fileName);
+        if (shardService.isEnabled()) {
+            log.warn("Online restore does not cover the log shards, stop the application and restore the database and the shard directory instead");
+            return false;
+        }
+        var restoreFile = backupDirectory.resolve(fileName + ".restore.tmp");
+        try {
+            try (var input = new GZIPInputStream(Files.newInputStream(backupDirectory.resolve(fileName)))) {
+                Files.copy(input, restoreFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return writerService.executeExclusive(() -> restoreDatabase(fileName, restoreFile));
+        } catch (IOException ex) {
+            log.error("Failed to restore database snapshot {}: {}", fileName, ex.getLocalizedMessage());
+            return false;
+        } finally {
+            deleteQuietly(restoreFile);
+        }
+    }
+    private boolean restoreDatabase(String fileName, Path restoreFile) {
+        try (var connection = dataSource.getConnection()) {
+            if (!connection.isWrapperFor(SQLiteConnection.class)) {
+                log.warn("Online restore is only supported on SQLite, use the backend's own restore tools");
+                return false;
+            }
+            var database = connection.unwrap(SQLiteConnection.class).getDatabase();
+            var result = database.restore("main", restoreFile.toString(), progressLogger("Restore"));
+            if (result != SQLiteErrorCode.SQLITE_OK.code)
+                throw new SQLException("Restore failed with SQLite error " + SQLiteErrorCode.getErrorCode(result));
+        } catch (SQLException ex) {
+            log.error("Failed to restore database snapshot {}: {}", fileName, ex.getLocalizedMessage());
+            return false;
+        }
+        applicationsRepository.invalidateCache();
+        dataSourceRepository.invalidateCache();
+        userRepository.invalidateCache();
+        heavyHitterService.reload();
+        viewCacheService.invalidateAll();
+        log.info("Restored database from snapshot {}", fileName);
+        return true;
+    }
+    private void rotateSnapshots() {
+        var snapshots = listSnapshots();
+        for (BackupSnapshot snapshot : snapshots.subList(Math.min(keepSnapshots, snapshots.size()), snapshots.size())) {
+            deleteQuietly(backupDirectory.resolve(snapshot.fileName()));
+            log.info("Rotated out database snapshot {}", snapshot.fileName());
+        }
+    }
+    private BackupSnapshot toSnapshot(Path file) {
+        var fileName = file.getFileName().toString();
+        var timestamp = fileName.substring(SNAPSHOT_PREFIX.length(), fileName.length() - SNAPSHOT_EXTENSION.length());
+        try {
+            return new BackupSnapshot(fileName, LocalDateTime.parse(timestamp, SNAPSHOT_TIMESTAMP), Files.size(file));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+    private static DB.ProgressObserver progressLogger(String operation) {
+        return (remaining, pageCount) -> {
+            if (remaining == 0) log.debug("{} copied {} pages", operation, pageCount);
+        };
+    }
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Failed to delete {}: {}", file, ex.getLocalizedMessage());
+        }
+    }
+}
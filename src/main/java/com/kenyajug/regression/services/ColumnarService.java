@@ -0,0 +1,222 @@
+package com.kenyajug.regression.services;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.Application;
+import com.kenyajug.regression.models.ColumnarSegment;
+import com.kenyajug.regression.repository.AppLogRepository;
+import com.kenyajug.regression.repository.ApplicationsRepository;
+import com.kenyajug.regression.repository.ColumnarSegmentRepository;
+import com.kenyajug.regression.repository.LogHourlyCountRepository;
+import com.kenyajug.regression.utils.ColumnarEncoding.RunLengths;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+@Slf4j
+@Service
+public class ColumnarService implements IColumnarService {
+    private final ApplicationsRepository applicationsRepository;
+    private final AppLogRepository appLogRepository;
+    private final ColumnarSegmentRepository segmentRepository;
+    private final LogHourlyCountRepository hourlyCountRepository;
+    private final IShardService shardService;
+    private final int sealDays;
+    public ColumnarService(ApplicationsRepository applicationsRepository,
+                           AppLogRepository appLogRepository,
+                           ColumnarSegmentRepository segmentRepository,
+                           LogHourlyCountRepository hourlyCountRepository,
+                           IShardService shardService,
+                           @Value("${regression.columnar.seal-days:7}") int sealDays) {
+        this.applicationsRepository = applicationsRepository;
+        this.appLogRepository = appLogRepository;
+        this.segmentRepository = segmentRepository;
+        this.hourlyCountRepository = hourlyCountRepository;
+        this.shardService = shardService;
+        this.sealDays = sealDays;
+    }
+    /**
+     * Seals the completed days of every registered application into columnar segments.
+     *
+     * @return the total number of rows written into segments.
+     */
+    @Override
+    public long sealCompletedDays() {
+        if (sealDays <= 0) return 0;
+        long sealed = 0;
+        for (Application application : applicationsRepository.findAll()) {
+            sealed += sealApplication(application.uuid(), LocalDate.now());
+        }
+        return sealed;
+    }
+    /**
+     * Seals the completed days of one application that fall inside the sealing window, oldest first.
+     * <p>
+     * A day is compared with its segment severity by severity. Segments are immutable, so a day holding more logs
+     * of any severity than its segment, because late logs arrived after it was sealed, is written again as a whole
+     * and atomically replaces the previous segment. A day whose logs have only been archived, trimmed or expired
+     * since is left untouched, as the database then holds fewer rows of every severity than the segment. Logs are
+     * read from the application's shard.
+     * </p>
+     *
+     * @param applicationId the ID of the application.
+     * @param today         the current day; only days strictly before it are sealed.
+     * @return the number of rows written into segments.
+     */
+    @Override
+    public long sealApplication(String applicationId, LocalDate today) {
+        if (sealDays <= 0) return 0;
+        return shardService.onShard(applicationId, () -> sealShard(applicationId, today));
+    }
+    private long sealShard(String applicationId, LocalDate today) {
+        var oldestDay = appLogRepository.findOldestLogDay(applicationId);
+        if (oldestDay.isEmpty()) return 0;
+        var day = oldestDay.get().isAfter(today.minusDays(sealDays)) ? oldestDay.get() : today.minusDays(sealDays);
+        long sealed = 0;
+        for (; day.isBefore(today); day = day.plusDays(1)) {
+            try {
+                var hotCounts = appLogRepository.countBySeverityForApplicationAndDay(applicationId, day);
+                var sealedCounts = segmentRepository.findByApplicationAndDay(applicationId, day)
+                        .map(this::countSeverities)
+                        .orElse(Map.of());
+                var stale = hotCounts.entrySet()
+                        .stream()
+                        .anyMatch(e -> e.getValue() > sealedCounts.getOrDefault(e.getKey(), 0L));
+                if (!stale) continue;
+                try (var logs = appLogRepository.streamByApplicationAndDay(applicationId, day)) {
+                    var segment = segmentRepository.write(applicationId, day, logs);
+                    if (segment.isPresent()) sealed += segment.get().rowCount();
+                }
+            } catch (IOException ex) {
+                log.error("Failed to seal columnar segment of {} for application {}: {}", day, applicationId, ex.getLocalizedMessage());
+            }
+        }
+        return sealed;
+    }
+    /**
+     * Counts logs per severity over the days in {@code [from, to)}.
+     * <p>
+     * Sealed days are read from their segments: only the severity column is read, counts come straight from the
+     * run lengths so rows are never expanded, and segments are aggregated in parallel across cores. Days without a
+     * segment, such as today and the days not sealed yet, are added from the hourly rollups of the application's
+     * shard in one grouped query.
+     * Without an application filter the totals of every registered application are summed.
+     * </p>
+     *
+     * @param applicationId an optional application filter; {@code null} or empty matches every application.
+     * @param from          the first day, inclusive.
+     * @param to            the last day, exclusive.
+     * @return the number of logs per severity, most frequent first.
+     */
+    @Override
+    public Map<String, Long> countBySeverity(String applicationId, LocalDate from, LocalDate to) {
+        Map<String, Long> totals = new HashMap<>();
+        if (applicationId == null || applicationId.isEmpty()) {
+            for (Application application : applicationsRepository.findAll()) {
+                countApplicationBySeverity(application.uuid(), from, to).forEach((severity, count) -> totals.merge(severity, count, Long::sum));
+            }
+        } else {
+            totals.putAll(countApplicationBySeverity(applicationId, from, to));
+        }
+        return totals.entrySet()
+                .stream()
+                .filter(e -> e.getValue() > 0)
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, Long::sum, LinkedHashMap::new));
+    }
+    /**
+     * Deletes the segments of an application holding days strictly before the given day.
+     *
+     * @param applicationId the ID of the application.
+     * @param before        the first day to keep.
+     * @return the number of rows held by the deleted segments.
+     */
+    @Override
+    public long expireSegmentsBefore(String applicationId, LocalDate before) {
+        try {
+            return segmentRepository.deleteByApplicationBefore(applicationId, before);
+        } catch (IOException ex) {
+            log.error("Failed to expire columnar segments of application {}: {}", applicationId, ex.getLocalizedMessage());
+            return 0;
+        }
+    }
+    private List<ColumnarSegment> findSegments(String applicationId, LocalDate from, LocalDate to) {
+        try {
+            return segmentRepository.findByDayRange(applicationId, from, to)
+                    .stream()
+                    .filter(segment -> segment.overlaps(from.atStartOfDay(), to.atStartOfDay()))
+                    .toList();
+        } catch (IOException ex) {
+            log.error("Failed to list columnar segments: {}", ex.getLocalizedMessage());
+            return List.of();
+        }
+    }
+    private Map<String, Long> countApplicationBySeverity(String applicationId, LocalDate from, LocalDate to) {
+        var days = (int) ChronoUnit.DAYS.between(from, to);
+        if (days <= 0) return Map.of();
+        var segments = findSegments(applicationId, from, to);
+        Map<String, Long> totals = new HashMap<>(segments.parallelStream()
+                .flatMap(segment -> countSeverities(segment).entrySet().stream())
+                .collect(Collectors.groupingByConcurrent(Map.Entry::getKey, Collectors.summingLong(Map.Entry::getValue))));
+        var sealedDays = segments.stream()
+                .map(ColumnarSegment::day)
+                .collect(Collectors.toSet());
+        if (sealedDays.size() == days) return totals;
+        var rollups = shardService.onShard(applicationId, () -> hourlyCountRepository.countBySeverity(from.atStartOfDay(), Duration.ofDays(1), days, applicationId, null));
+        rollups.forEach((severity, counts) -> {
+            for (int index = 0; index < days; index++) {
+                if (counts[index] == 0 || sealedDays.contains(from.plusDays(index))) continue;
+                totals.merge(severity, counts[index], Long::sum);
+            }
+        });
+        return totals;
+    }
+    private Map<String, Long> countSeverities(ColumnarSegment segment) {
+        var severities = readSeverities(segment);
+        var counts = new long[segment.severities().size()];
+        for (int run = 0; run < severities.values().length; run++) {
+            counts[severities.values()[run]] += severities.lengths()[run];
+        }
+        Map<String, Long> totals = new HashMap<>();
+        for (int code = 0; code < counts.length; code++) {
+            totals.merge(segment.severities().get(code), counts[code], Long::sum);
+        }
+        return totals;
+    }
+    private RunLengths readSeverities(ColumnarSegment segment) {
+        try {
+            return segmentRepository.readSeverities(segment);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read columnar segment " + segment.file(), ex);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.kenyajug.regression.services;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.AppLog;
+import com.kenyajug.regression.entities.HeavyHitterCounter;
+import com.kenyajug.regression.entities.LogsMetadata;
+import com.kenyajug.regression.models.RecurringItem;
+import com.kenyajug.regression.repository.HeavyHitterRepository;
+import com.kenyajug.regression.utils.MessageTemplates;
+import com.kenyajug.regression.utils.SpaceSaving;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+@Slf4j
+@Service
+public class HeavyHitterService implements IHeavyHitterService {
+    private final HeavyHitterRepository heavyHitterRepository;
+    private final IWriterService writerService;
+    private final int capacity;
+    private final List<String> metadataTypes;
+    private final Map<SketchKey, SpaceSaving<String>> sketches = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private volatile boolean restored;
+    public HeavyHitterService(HeavyHitterRepository heavyHitterRepository,
+                              IWriterService writerService,
+                              @Value("${regression.heavy-hitters.capacity:100}") int capacity,
+                              @Value("${regression.heavy-hitters.metadata-types:exceptionClass,httpRequestPath,clientIpAddress}") List<String> metadataTypes) {
+        this.heavyHitterRepository = heavyHitterRepository;
+        this.writerService = writerService;
+        this.capacity = Math.max(1, capacity);
+        this.metadataTypes = metadataTypes.stream().map(String::strip).filter(type -> !type.isEmpty()).toList();
+    }
+    private record SketchKey(String applicationId, String dimension, String severity) {}
+    /**
+     * Counts the message templates and tracked metadata values of committed logs.
+     * <p>
+     * Each (application, dimension, severity) has a Space-Saving sketch of fixed capacity, so memory stays bounded
+     * however many distinct messages arrive. Occurrences are summed per batch first, so each distinct item
+     * updates its sketch once.
+     * </p>
+     *
+     * @param logs     the logs just committed by ingestion.
+     * @param metadata the metadata of those logs, keyed by log.
+     */
+    @Override
+    public void observe(List<AppLog> logs, Map<AppLog, List<LogsMetadata>> metadata) {
+        if (logs.isEmpty()) return;
+        ensureRestored();
+        Map<SketchKey, Map<String, Long>> batch = new HashMap<>();
+        for (AppLog appLog : logs) {
+            var applicationId = Objects.requireNonNullElse(appLog.applicationId(), "");
+            var severity = Objects.requireNonNullElse(appLog.severity(), "");
+            var template = MessageTemplates.normalize(appLog.message());
+            if (!template.isEmpty()) {
+                batch.computeIfAbsent(new SketchKey(applicationId, MESSAGE_DIMENSION, severity), key -> new HashMap<>())
+                        .merge(template, 1L, Long::sum);
+            }
+            for (LogsMetadata entry : metadata.getOrDefault(appLog, List.of())) {
+                if (!metadataTypes.contains(entry.metadataType()) || entry.metadataValue() == null) continue;
+                batch.computeIfAbsent(new SketchKey(applicationId, entry.metadataType(), severity), key -> new HashMap<>())
+                        .merge(MessageTemplates.truncate(entry.metadataValue().strip()), 1L, Long::sum);
+            }
+        }
+        batch.forEach((key, weights) -> {
+            var sketch = sketches.computeIfAbsent(key, k -> new SpaceSaving<>(capacity));
+            synchronized (sketch) {
+                weights.forEach(sketch::offer);
+            }
+        });
+        dirty.set(true);
+    }
+    @Override
+    public List<RecurringItem> top(String applicationId, String dimension, String severity, int limit) {
+        ensureRestored();
+        var sketch = sketches.get(new SketchKey(applicationId, dimension, severity));
+        if (sketch == null || limit < 1) return List.of();
+        synchronized (sketch) {
+            return sketch.top(limit)
+                    .stream()
+                    .map(entry -> new RecurringItem(entry.item(), entry.count(), entry.error()))
+                    .toList();
+        }
+    }
+    @Override
+    public List<String> dimensions() {
+        return Stream.concat(Stream.of(MESSAGE_DIMENSION), metadataTypes.stream()).toList();
+    }
+    /**
+     * Stores the current counts, replacing the previous checkpoint through the writer thread.
+     *
+     * @return the number of counters stored, or zero when nothing changed since the last checkpoint.
+     */
+    @Override
+    public int checkpoint() {
+        if (!dirty.getAndSet(false)) return 0;
+        List<HeavyHitterCounter> counters = new ArrayList<>();
+        sketches.forEach((key, sketch) -> {
+            synchronized (sketch) {
+                for (SpaceSaving.Entry<String> entry : sketch.top(sketch.size())) {
+                    counters.add(new HeavyHitterCounter(key.applicationId(), key.dimension(), key.severity(), entry.item(), entry.count(), entry.error()));
+                }
+            }
+        });
+        try {
+            writerService.run(() -> heavyHitterRepository.replaceAll(counters));
+        } catch (RuntimeException ex) {
+            dirty.set(true);
+            throw ex;
+        }
+        return counters.size();
+    }
+    @Override
+    public void forgetApplication(String applicationId) {
+        ensureRestored();
+        sketches.keySet().removeIf(key -> key.applicationId().equals(applicationId));
+        writerService.run(() -> heavyHitterRepository.deleteByApplication(applicationId));
+    }
+    /**
+     * Drops the in-memory sketches, without storing them, and rebuilds them from the stored checkpoint.
+     */
+    @Override
+    public void reload() {
+        synchronized (this) {
+            sketches.clear();
+            dirty.set(false);
+            restored = false;
+        }
+        ensureRestored();
+    }
+    @PreDestroy
+    public void stop() {
+        try {
+            checkpoint();
+        } catch (RuntimeException ex) {
+            log.warn("Could not checkpoint recurring message counts on shutdown: {}", ex.getLocalizedMessage());
+        }
+    }
+    /*
+     * Rebuilds the sketches from the last checkpoint on first use, before anything is counted or stored.
+     */
+    private void ensureRestored() {
+        if (restored) return;
+        synchronized (this) {
+            if (restored) return;
+            for (HeavyHitterCounter counter : heavyHitterRepository.findAll()) {
+                var key = new SketchKey(counter.applicationId(), counter.dimension(), counter.severity());
+                sketches.computeIfAbsent(key, k -> new SpaceSaving<>(capacity))
+                        .restore(counter.item(), counter.itemCount(), counter.itemError());
+            }
+            restored = true;
+        }
+    }
+}
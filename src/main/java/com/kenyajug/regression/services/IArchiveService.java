@@ -0,0 +1,85 @@
+package com.kenyajug.regression.services;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.AppLog;
+import com.kenyajug.regression.models.ArchivedLog;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Predicate;
+/*
+ * Service interface responsible for moving old logs out of the database into compressed archive segments
+ * and reading them back on demand.
+ */
+public interface IArchiveService {
+    /**
+     * Checks whether logs of the given day fall outside the hot window and may live in archive segments.
+     *
+     * @param date the day to check.
+     * @return {@code true} if archiving is enabled and the day is older than the hot window.
+     */
+    boolean isArchived(LocalDate date);
+    /**
+     * Archives the logs of every registered application that fall outside the hot window.
+     *
+     * @return the total number of logs moved into archive segments.
+     */
+    long archiveOldLogs();
+    /**
+     * Archives the logs of one application that fall outside the hot window, oldest day first.
+     * Every archived day is written to its own immutable segment before its logs are removed from the database.
+     *
+     * @param applicationId the ID of the application.
+     * @param today         the current day, used to compute the hot window.
+     * @return the number of logs moved into archive segments.
+     */
+    long archiveApplication(String applicationId, LocalDate today);
+    /**
+     * Reads archived logs back from the segments of a given day.
+     *
+     * @param date          the day to read.
+     * @param severity      an optional severity filter. If null, empty or {@code All}, all severities are included.
+     * @param applicationId an optional application filter. If null or empty, logs from all applications are included.
+     * @return the archived logs of the day, oldest first.
+     */
+    List<ArchivedLog> findArchivedLogs(LocalDate date, String severity, String applicationId);
+    /**
+     * Reads the archived logs of a given day that match a filter. Segments are decompressed and filtered line
+     * by line, so only the matching logs are held in memory.
+     *
+     * @param date          the day to read.
+     * @param severity      an optional severity filter. If null, empty or {@code All}, all severities are included.
+     * @param applicationId an optional application filter. If null or empty, logs from all applications are included.
+     * @param filter        the condition an archived log must meet to be returned.
+     * @return the matching archived logs of the day, oldest first.
+     */
+    List<ArchivedLog> findArchivedLogs(LocalDate date, String severity, String applicationId, Predicate<AppLog> filter);
+    /**
+     * Deletes the segments of an application holding days strictly before the given day.
+     *
+     * @param applicationId the ID of the application.
+     * @param before        the first day to keep.
+     * @return the number of archived logs deleted.
+     */
+    long expireSegmentsBefore(String applicationId, LocalDate before);
+}
@@ -0,0 +1,54 @@
+package com.kenyajug.regression.services;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.models.BackupSnapshot;
+import java.util.List;
+import java.util.Optional;
+/*
+ * Service interface responsible for taking compressed online snapshots of the database and restoring them.
+ */
+public interface IBackupService {
+    /**
+     * Takes a snapshot of the live database and removes the snapshots beyond the rotation limit.
+     *
+     * @return the new {@link BackupSnapshot}, or empty if the backend does not support online snapshots, log
+     * shards are enabled or the snapshot failed.
+     */
+    Optional<BackupSnapshot> createSnapshot();
+    /**
+     * Lists the snapshots kept in the backup directory.
+     *
+     * @return the snapshots, most recent first.
+     */
+    List<BackupSnapshot> listSnapshots();
+    /**
+     * Replaces the content of the live database with a snapshot.
+     *
+     * @param fileName the file name of a snapshot returned by {@link #listSnapshots()}.
+     * @return {@code true} if the database was restored; {@code false} if the restore failed or log shards are
+     * enabled.
+     * @throws IllegalArgumentException if no snapshot has that file name.
+     */
+    boolean restoreSnapshot(String fileName);
+}
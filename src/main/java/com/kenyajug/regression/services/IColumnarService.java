@@ -0,0 +1,65 @@
+package com.kenyajug.regression.services;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import java.time.LocalDate;
+import java.util.Map;
+/*
+ * Service interface responsible for sealing completed days of logs into columnar segments and running
+ * analytical aggregations over them.
+ */
+public interface IColumnarService {
+    /**
+     * Seals the completed days of every registered application into columnar segments.
+     *
+     * @return the total number of rows written into segments.
+     */
+    long sealCompletedDays();
+    /**
+     * Seals the completed days of one application that fall inside the sealing window, oldest first.
+     * A day already sealed is rewritten only if more logs have been ingested for it since.
+     *
+     * @param applicationId the ID of the application.
+     * @param today         the current day; only days strictly before it are sealed.
+     * @return the number of rows written into segments.
+     */
+    long sealApplication(String applicationId, LocalDate today);
+    /**
+     * Counts logs per severity over the days in {@code [from, to)}, reading sealed days from their segments and
+     * the other days from the hourly rollups.
+     *
+     * @param applicationId an optional application filter; {@code null} or empty matches every application.
+     * @param from          the first day, inclusive.
+     * @param to            the last day, exclusive.
+     * @return the number of logs per severity, most frequent first.
+     */
+    Map<String, Long> countBySeverity(String applicationId, LocalDate from, LocalDate to);
+    /**
+     * Deletes the segments of an application holding days strictly before the given day.
+     *
+     * @param applicationId the ID of the application.
+     * @param before        the first day to keep.
+     * @return the number of rows held by the deleted segments.
+     */
+    long expireSegmentsBefore(String applicationId, LocalDate before);
+}
@@ -0,0 +1,75 @@
+package com.kenyajug.regression.services;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.AppLog;
+import com.kenyajug.regression.entities.LogsMetadata;
+import com.kenyajug.regression.models.RecurringItem;
+import java.util.List;
+import java.util.Map;
+/*
+ * Service interface tracking the most recurring messages and metadata values per application and severity in
+ * bounded memory, updated as logs are ingested.
+ */
+public interface IHeavyHitterService {
+    String MESSAGE_DIMENSION = "message";
+    /**
+     * Counts the message templates and tracked metadata values of committed logs.
+     *
+     * @param logs     the logs just committed by ingestion.
+     * @param metadata the metadata of those logs, keyed by log.
+     */
+    void observe(List<AppLog> logs, Map<AppLog, List<LogsMetadata>> metadata);
+    /**
+     * Returns the most recurring items of an application.
+     *
+     * @param applicationId the ID of the application.
+     * @param dimension     {@value #MESSAGE_DIMENSION} for message templates, or a tracked metadata type.
+     * @param severity      the severity, e.g. {@code ERROR}.
+     * @param limit         the maximum number of items.
+     * @return the items, most recurring first; empty when nothing was counted.
+     */
+    List<RecurringItem> top(String applicationId, String dimension, String severity, int limit);
+    /**
+     * Returns the dimensions that are counted.
+     *
+     * @return {@value #MESSAGE_DIMENSION} followed by the tracked metadata types.
+     */
+    List<String> dimensions();
+    /**
+     * Stores the current counts, so they survive a restart.
+     *
+     * @return the number of counters stored, or zero when nothing changed since the last checkpoint.
+     */
+    int checkpoint();
+    /**
+     * Drops the counts of a deleted application.
+     *
+     * @param applicationId the ID of the application.
+     */
+    void forgetApplication(String applicationId);
+    /**
+     * Replaces the current counts with the last stored checkpoint, e.g. after the database was restored.
+     */
+    void reload();
+}
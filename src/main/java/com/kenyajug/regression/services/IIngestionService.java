@@ -120,5 +120,11 @@ public interface IIngestionService {
      * @return an {@link Optional} containing the extracted {@link LogsMetadata} if a match is found; otherwise, an empty {@link Optional}
      */
     Optional<LogsMetadata> extractMetadataByRegex(AppLog appLog, InstantTraceGroup traceGroup, Constants.Tuple regex);
+    /**
+     * Moves metadata stored one row per entry by earlier versions into the packed per-log format.
+     *
+     * @return the number of logs whose metadata was packed.
+     */
+    int packLegacyMetadata();
 }
 
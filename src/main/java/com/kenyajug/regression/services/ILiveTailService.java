@@ -0,0 +1,57 @@
+package com.kenyajug.regression.services;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.AppLog;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.util.List;
+/*
+ * Service interface pushing newly ingested logs to connected browsers over Server-Sent Events.
+ */
+public interface ILiveTailService {
+    /**
+     * Opens a live tail for a browser.
+     *
+     * @param applicationId optional application filter; {@code null} or empty matches every application.
+     * @param datasourceId  optional data source filter; {@code null} or empty matches every data source.
+     * @param severity      optional severity filter; {@code null}, empty or {@code All} matches every severity.
+     * @return the event stream, sending a {@code log} event per matching log as it is ingested.
+     */
+    SseEmitter subscribe(String applicationId, String datasourceId, String severity);
+    /**
+     * Pushes committed logs to the subscribers whose filters they match.
+     * <p>
+     * Never blocks on a subscriber: each has a bounded buffer, and a subscriber that falls behind either loses
+     * logs or is disconnected.
+     * </p>
+     *
+     * @param logs the logs just committed by ingestion.
+     */
+    void publish(List<AppLog> logs);
+    /**
+     * Returns the number of connected subscribers.
+     *
+     * @return the subscriber count.
+     */
+    int subscriberCount();
+}
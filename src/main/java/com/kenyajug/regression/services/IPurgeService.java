@@ -0,0 +1,59 @@
+package com.kenyajug.regression.services;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.PurgeJob;
+import java.util.List;
+import java.util.Optional;
+/*
+ * Service interface responsible for deleting applications and data sources together with everything logged
+ * through them, in the background.
+ */
+public interface IPurgeService {
+    /**
+     * Deletes an application, its data sources and its retention policy, and schedules the purge of its logs.
+     *
+     * @param applicationId the ID of the application.
+     * @return the scheduled {@link PurgeJob}, or empty if the application does not exist.
+     */
+    Optional<PurgeJob> purgeApplication(String applicationId);
+    /**
+     * Deletes a data source and schedules the purge of its logs.
+     *
+     * @param datasourceId the ID of the data source.
+     * @return the scheduled {@link PurgeJob}, or empty if the data source does not exist.
+     */
+    Optional<PurgeJob> purgeDataSource(String datasourceId);
+    /**
+     * Runs every unfinished purge job to completion, oldest first.
+     *
+     * @return the total number of logs deleted.
+     */
+    long runPendingJobs();
+    /**
+     * Lists the most recently requested purge jobs, for progress reporting.
+     *
+     * @return the jobs, most recent first.
+     */
+    List<PurgeJob> findRecentJobs();
+}
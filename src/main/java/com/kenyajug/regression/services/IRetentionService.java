@@ -0,0 +1,59 @@
+package com.kenyajug.regression.services;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.RetentionPolicy;
+import java.time.LocalDate;
+/*
+ * Service interface responsible for expiring logs according to per-application retention policies.
+ */
+public interface IRetentionService {
+    /**
+     * Applies the retention policy of every registered application.
+     *
+     * @return the total number of logs deleted across all applications.
+     */
+    long enforceRetentionPolicies();
+    /**
+     * Resolves the policy that applies to an application, falling back to the configured default retention
+     * when the application has no policy of its own.
+     *
+     * @param applicationId the ID of the application.
+     * @return the effective {@link RetentionPolicy}; never {@code null}.
+     */
+    RetentionPolicy findEffectivePolicy(String applicationId);
+    /**
+     * Applies a single retention policy.
+     * <p>
+     * Whole days older than {@link RetentionPolicy#retentionDays()} are expired first, oldest day first,
+     * together with the archive segments, columnar segments and hourly chart counts of those days.
+     * The row and byte quotas, when set, are then enforced by dropping the oldest remaining logs.
+     * All deletes run in bounded chunks so ingestion can interleave with the purge.
+     * </p>
+     *
+     * @param policy the policy to apply.
+     * @param today  the current day, used to compute the retention window.
+     * @return the number of logs deleted.
+     */
+    long enforceRetentionPolicy(RetentionPolicy policy, LocalDate today);
+}
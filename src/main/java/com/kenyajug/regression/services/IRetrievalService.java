@@ -23,18 +23,27 @@ package com.kenyajug.regression.services;
  * SOFTWARE.
  */
 import com.kenyajug.regression.entities.LogsMetadata;
+import com.kenyajug.regression.models.LogHistogram;
+import com.kenyajug.regression.models.LogQuery;
 import com.kenyajug.regression.resources.ApplicationResource;
 import com.kenyajug.regression.resources.DatasourceResource;
 import com.kenyajug.regression.resources.LogResource;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface IRetrievalService {
+    String CHART_GROUP_APPLICATION = "application";
+    String CHART_GROUP_SOURCE = "source";
     /**
      * Retrieves a list of log resources filtered by the specified date, optional severity level,
      * application identifier, and data source.
      *
+     * <p>Days older than the hot window are transparently read back from archive segments as well.</p>
+     *
      * @param date          the date for which logs should be retrieved (required).
      * @param severity      an optional severity filter (e.g., "INFO", "WARN", "ERROR"). If null or empty, all severities are included.
      * @param applicationId the ID of the application to filter logs by. If null or empty, logs from all applications are included.
@@ -42,6 +51,21 @@ public interface IRetrievalService {
      * @return a list of {@link LogResource} objects matching the given filters.
      */
     List<LogResource> listLogs(LocalDate date, String severity, String applicationId, String datasource);
+    /**
+     * Searches the messages of logs recorded on the specified date using the full-text index.
+     *
+     * <p>The keyword supports phrase queries ({@code "connection refused"}) and prefix queries
+     * ({@code Null*}); plain terms are combined with {@code AND}. Days older than the hot window are
+     * also scanned in their archive segments.</p>
+     *
+     * @param date          the date for which logs should be searched (required).
+     * @param keyword       the keyword to search for in log messages.
+     * @param severity      an optional severity filter. If null, empty or {@code All}, all severities are included.
+     * @param applicationId an optional application filter. If null or empty, logs from all applications are included.
+     * @param datasourceId  an optional data source filter. If null or empty, logs from all data sources are included.
+     * @return a list of matching {@link LogResource} objects, most recent first.
+     */
+    List<LogResource> searchLogs(LocalDate date, String keyword, String severity, String applicationId, String datasourceId);
     /**
      * Retrieves all log entries recorded for the current day.
      *
@@ -76,6 +100,43 @@ public interface IRetrievalService {
      * @throws IllegalArgumentException if the severity is null or not recognized
      */
     List<Long> composeChartDataBySeverity(LocalDate logsDate, String severity);
+    /**
+     * Composes the hourly log counts of every severity on a specific date in one pass.
+     *
+     * <p>Returns one {@link HourlyLogStats} per severity, {@code INFO}, {@code WARN} and {@code ERROR} in that
+     * order, each holding 24 zero-filled hourly counts, from a single grouped query.</p>
+     *
+     * @param logsDate      the date for which to collect log data (must not be null)
+     * @param applicationId an optional application filter. If null or empty, logs from all applications are counted.
+     * @param datasourceId  an optional data source filter. If null or empty, logs from all data sources are counted.
+     * @return the hourly counts of each severity.
+     */
+    List<HourlyLogStats> composeChartData(LocalDate logsDate, String applicationId, String datasourceId);
+    /**
+     * Composes the hourly log counts of every severity on a specific date for each application or each data source.
+     *
+     * <p>All groups are read with a single grouped query; each group holds one {@link HourlyLogStats} per severity,
+     * as returned by {@link #composeChartData(LocalDate, String, String)}.</p>
+     *
+     * @param logsDate the date for which to collect log data (must not be null)
+     * @param groupBy  {@value #CHART_GROUP_APPLICATION} or {@value #CHART_GROUP_SOURCE}.
+     * @return the hourly counts of each severity keyed by application or data source ID, in ID order; groups
+     *         without logs that day are absent.
+     * @throws IllegalArgumentException if {@code groupBy} is neither of the two groupings.
+     */
+    Map<String, List<HourlyLogStats>> composeChartDataByGroup(LocalDate logsDate, String groupBy);
+    /**
+     * Composes the log counts of any time range in equal buckets, choosing minute, hour or day resolution so
+     * that at most {@code targetBuckets} buckets are returned.
+     *
+     * @param start         the start of the range (inclusive).
+     * @param end           the end of the range (exclusive).
+     * @param targetBuckets the maximum number of buckets wanted.
+     * @param applicationId an optional application filter. If null or empty, logs from all applications are counted.
+     * @param datasourceId  an optional data source filter. If null or empty, logs from all data sources are counted.
+     * @return the bucket counts of each severity.
+     */
+    LogHistogram composeHistogram(LocalDateTime start, LocalDateTime end, int targetBuckets, String applicationId, String datasourceId);
     /**
      * Finds a log resource by its unique identifier.
      *
@@ -90,4 +151,36 @@ public interface IRetrievalService {
      * @return an {@code List} containing the {@code LogsMetadata} list if found, or empty if no log matches the given ID
      */
     List<LogsMetadata> findMetadataByLogId(String logId);
+    /**
+     * Finds the metadata of several logs in one lookup.
+     *
+     * @param logIds the unique identifiers of the logs.
+     * @return the metadata grouped by log id; logs without metadata are absent.
+     */
+    Map<String, List<LogsMetadata>> findMetadataByLogIds(List<String> logIds);
+    /**
+     * Lists the metadata types that logs can be looked up by with {@link #findLogsByMetadata(String, String)}.
+     *
+     * @return the indexed metadata types.
+     */
+    List<String> listIndexedMetadataTypes();
+    /**
+     * Finds the logs carrying a metadata value, such as every log of a trace or every request from a client IP.
+     *
+     * @param metadataType one of the {@link #listIndexedMetadataTypes() indexed metadata types}.
+     * @param value        the value to look up, either bare ({@code abc-123}) or as extracted ({@code traceId=abc-123}).
+     * @return the matching logs in time order, oldest first.
+     * @throws IllegalArgumentException if the metadata type is not indexed.
+     */
+    List<LogResource> findLogsByMetadata(String metadataType, String value);
+    /**
+     * Streams the logs matching a time range, severity, application and keyword, a page at a time.
+     * <p>
+     * The stream holds a database connection and must be closed after use.
+     * </p>
+     *
+     * @param query the filters and page bounds; a cursor continues after the last log of the previous page.
+     * @return a lazily populated stream of the matching logs, oldest first, with ISO-8601 UTC timestamps.
+     */
+    Stream<LogResource> streamLogs(LogQuery query);
 }
@@ -0,0 +1,97 @@
+package com.kenyajug.regression.services;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import java.util.List;
+import java.util.function.Supplier;
+/*
+ * Service interface routing log reads and writes to the per-application SQLite shards. When shards are disabled
+ * every method runs its action directly on the single database, so callers need no separate code path.
+ */
+public interface IShardService {
+    /**
+     * Checks whether applications' logs are stored in shards of their own.
+     *
+     * @return {@code true} if {@code regression.shards.enabled} is set.
+     */
+    boolean isEnabled();
+    /**
+     * Runs an action against the logs of one application, on its shard if it has one.
+     *
+     * @param applicationId the ID of the application; {@code null} or empty runs the action on the core database.
+     * @param action        the repository calls to run; it must start its own transactions.
+     * @param <T>           the type of the action's result.
+     * @return the action's result.
+     * @throws IllegalStateException if called inside a transaction on another shard.
+     */
+    <T> T onShard(String applicationId, Supplier<T> action);
+    /**
+     * Runs an action against the logs of every application: once on the core database and once on each shard,
+     * concurrently on virtual threads.
+     *
+     * @param action the repository calls to run; it must start its own transactions.
+     * @param <T>    the type of the action's result.
+     * @return the results, the core database's first.
+     * @throws RuntimeException      the exception of the first failed action, after every action has finished.
+     * @throws IllegalStateException if called inside a transaction.
+     */
+    <T> List<T> onEveryShard(Supplier<T> action);
+    /**
+     * Returns the writer for an application's logs, creating its shard on first use.
+     * <p>
+     * Each shard has its own writer thread, so applications commit their logs independently of each other.
+     * Commands also run on the shard, and still reach the core tables through the attached core database.
+     * </p>
+     *
+     * @param applicationId the ID of the application.
+     * @return the shard's writer, or the database writer when shards are disabled.
+     */
+    IWriterService writerFor(String applicationId);
+    /**
+     * Returns the writer for an application's logs without creating a shard.
+     * <p>
+     * Meant for maintenance writes such as retention and purges, which must not create a shard for an
+     * application whose logs are still in the core database.
+     * </p>
+     *
+     * @param applicationId the ID of the application.
+     * @return the shard's writer if the application has a shard, the database writer otherwise.
+     */
+    IWriterService existingWriterFor(String applicationId);
+    /**
+     * Runs a write command against the logs of every application: once on the database writer and once on the
+     * writer of each shard, concurrently, and waits for every commit.
+     *
+     * @param command the writes to run.
+     * @param <T>     the type of the command's result.
+     * @return the results, the core database's first.
+     * @throws RuntimeException the exception of the first failed command, after every command has finished.
+     */
+    <T> List<T> executeOnEveryShard(Supplier<T> command);
+    /**
+     * Stops the writer of an application's shard and deletes the shard with every log still in it.
+     *
+     * @param applicationId the ID of the application.
+     */
+    void dropShard(String applicationId);
+}
@@ -0,0 +1,58 @@
+package com.kenyajug.regression.services;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.models.CacheStats;
+import java.util.function.Supplier;
+/*
+ * Service interface for caching the assembled data of read-heavy pages, such as the dashboard, between the
+ * ingestion cycles that change it.
+ */
+public interface IViewCacheService {
+    /**
+     * Returns the cached data of a page, assembling and caching it on a miss or once the cached data has expired.
+     *
+     * @param view   the name of the page, e.g. {@code dashboard}.
+     * @param key    what the page data depends on, such as the user and the filter; must implement {@code equals}.
+     * @param loader assembles the page data on a miss; concurrent misses of the same key share one call.
+     * @param <T>    the type of the page data.
+     * @return the cached or freshly assembled page data.
+     */
+    <T> T get(String view, Object key, Supplier<T> loader);
+    /**
+     * Drops all cached page data, after new logs or other changes were committed.
+     */
+    void invalidateAll();
+    /**
+     * Returns the hit, miss and eviction counters of the page cache.
+     *
+     * @return a snapshot of the cache statistics.
+     */
+    CacheStats stats();
+    /**
+     * Returns how many page requests joined a load already in flight instead of running the page's queries.
+     *
+     * @return the number of coalesced loads.
+     */
+    long sharedLoads();
+}
@@ -0,0 +1,76 @@
+package com.kenyajug.regression.services;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+/*
+ * Service interface funnelling database writes through a single writer thread, which commits concurrent write
+ * commands together in group transactions.
+ */
+public interface IWriterService {
+    /**
+     * Queues a write command for the writer thread.
+     * <p>
+     * The command runs inside a group transaction with the other commands queued at the same time, in its own
+     * savepoint, so a failing command is rolled back alone. The returned future completes once the group has
+     * been committed, or exceptionally if the command or the commit failed.
+     * </p>
+     *
+     * @param command the writes to run; it must only touch the database through the repositories.
+     * @param <T>     the type of the command's result.
+     * @return a future completed with the command's result after commit.
+     */
+    <T> CompletableFuture<T> submit(Supplier<T> command);
+    /**
+     * Runs a write command on the writer thread and waits for its group to be committed.
+     *
+     * @param command the writes to run.
+     * @param <T>     the type of the command's result.
+     * @return the command's result.
+     * @throws RuntimeException the exception thrown by the command or by the commit.
+     */
+    <T> T execute(Supplier<T> command);
+    /**
+     * Runs a write command without a result on the writer thread and waits for its group to be committed.
+     *
+     * @param command the writes to run.
+     * @throws RuntimeException the exception thrown by the command or by the commit.
+     */
+    void run(Runnable command);
+    /**
+     * Runs a command on the writer thread on its own, outside any group transaction, and waits for it.
+     * <p>
+     * The commands queued before it are committed first and the commands queued after it only start once it
+     * has returned, so the command sees no pending writes and none are made while it runs. Meant for
+     * operations that replace the database wholesale, such as restoring a snapshot.
+     * </p>
+     *
+     * @param command the operation to run; it manages its own connection and transactions.
+     * @param <T>     the type of the command's result.
+     * @return the command's result.
+     * @throws RuntimeException the exception thrown by the command.
+     * @throws IllegalStateException if called from inside another write command.
+     */
+    <T> T executeExclusive(Supplier<T> command);
+}
@@ -23,10 +23,18 @@ package com.kenyajug.regression.services;
  * SOFTWARE.
  */
 import com.kenyajug.regression.entities.AppLog;
+import com.kenyajug.regression.entities.AppMetricCount;
+import com.kenyajug.regression.entities.Application;
+import com.kenyajug.regression.entities.HourlyLogCount;
 import com.kenyajug.regression.entities.LogsDataSource;
 import com.kenyajug.regression.entities.LogsMetadata;
+import com.kenyajug.regression.entities.MinuteLogCount;
 import com.kenyajug.regression.models.InstantTraceGroup;
 import com.kenyajug.regression.repository.AppLogRepository;
+import com.kenyajug.regression.repository.AppMetricCountRepository;
+import com.kenyajug.regression.repository.ApplicationsRepository;
+import com.kenyajug.regression.repository.LogHourlyCountRepository;
+import com.kenyajug.regression.repository.LogMinuteCountRepository;
 import com.kenyajug.regression.repository.LogsDataSourceRepository;
 import com.kenyajug.regression.repository.LogsMetadataRepository;
 import com.kenyajug.regression.utils.Constants;
@@ -39,23 +47,51 @@ import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 @Slf4j
 @Service
 public class IngestionService implements IIngestionService{
+    private static final int LEGACY_METADATA_CHUNK = 500;
     private final LogsDataSourceRepository dataSourceRepository;
     private final AppLogRepository appLogRepository;
     private final LogsMetadataRepository metadataRepository;
-    public IngestionService(LogsDataSourceRepository dataSourceRepository, AppLogRepository appLogRepository, LogsMetadataRepository metadataRepository) {
+    private final LogHourlyCountRepository hourlyCountRepository;
+    private final LogMinuteCountRepository minuteCountRepository;
+    private final AppMetricCountRepository metricCountRepository;
+    private final ApplicationsRepository applicationsRepository;
+    private final IShardService shardService;
+    private final IViewCacheService viewCacheService;
+    private final ILiveTailService liveTailService;
+    private final IHeavyHitterService heavyHitterService;
+    public IngestionService(LogsDataSourceRepository dataSourceRepository, AppLogRepository appLogRepository, LogsMetadataRepository metadataRepository, LogHourlyCountRepository hourlyCountRepository, LogMinuteCountRepository minuteCountRepository, AppMetricCountRepository metricCountRepository, ApplicationsRepository applicationsRepository, IShardService shardService, IViewCacheService viewCacheService, ILiveTailService liveTailService, IHeavyHitterService heavyHitterService) {
         this.dataSourceRepository = dataSourceRepository;
         this.appLogRepository = appLogRepository;
         this.metadataRepository = metadataRepository;
+        this.hourlyCountRepository = hourlyCountRepository;
+        this.minuteCountRepository = minuteCountRepository;
+        this.metricCountRepository = metricCountRepository;
+        this.applicationsRepository = applicationsRepository;
+        this.shardService = shardService;
+        this.viewCacheService = viewCacheService;
+        this.liveTailService = liveTailService;
+        this.heavyHitterService = heavyHitterService;
     }
     /**
      * Initiates the collection of local logs from the current application environment.
      * <p>
      * This method is typically used to trigger a log harvesting process from locally available
      * log files (e.g., those generated by a running Spring Boot/Tomcat application).
+     * Data sources are read and parsed in parallel, since extracting timestamps, severities and metadata is
+     * CPU bound and independent per source. The parsed logs of each data source, their metadata and the matching
+     * rollup counts are then handed to the writer of the source's application as a single write command using
+     * multi-row inserts rather than one statement per row. All commands are queued before any is awaited, so
+     * applications with their own shard commit concurrently, while commands for the same writer are committed
+     * together. Cached page data is dropped once a data source's new logs are committed, and the committed logs
+     * are counted towards the recurring messages of their application, in data source order.
      * </p>
      *
      * @return {@code true} if log collection was successfully initiated or completed;
@@ -67,13 +103,26 @@ public class IngestionService implements IIngestionService{
         var newLogsRecorded = false;
         List<LogsDataSource> logsDataSources = dataSourceRepository.findBySourceType(localLogs);
         if (logsDataSources.isEmpty()) return false;
-        for (LogsDataSource logsDataSource : logsDataSources) {
-            try {
-                var rawLogs = collectRawLogs(logsDataSource);
-                var traceGroups = composeRawLogsTraceGroup(rawLogs);
-                var logsAndMetadata = composeLogsAndMetadata(logsDataSource,traceGroups);
-                var appLogs = logsAndMetadata.keySet();
-                if (appLogs.isEmpty()) continue;
+        var parsedSources = logsDataSources.parallelStream()
+                .map(this::parseDataSource)
+                .toList();
+        List<PendingWrite> pendingWrites = new ArrayList<>();
+        ParsedDataSource failedSource = null;
+        for (ParsedDataSource parsedSource : parsedSources) {
+            if (parsedSource.failure() != null) {
+                failedSource = parsedSource;
+                break;
+            }
+            var logsDataSource = parsedSource.dataSource();
+            var logsAndMetadata = parsedSource.logsAndMetadata();
+            var appLogs = logsAndMetadata.keySet();
+            if (appLogs.isEmpty()) continue;
+            var appVersion = applicationsRepository.findById(logsDataSource.applicationId())
+                    .map(Application::appVersion)
+                    .orElse("");
+            var savedLogs = shardService.writerFor(logsDataSource.applicationId()).submit(() -> {
+                List<AppLog> batch = new ArrayList<>();
+                List<LogsMetadata> batchMetadata = new ArrayList<>();
                 for (AppLog appLog : appLogs) {
                     var alreadyExists = appLogRepository.existsByTimestampApplicationAndSource(
                             appLog.timestamp(),
@@ -81,18 +130,56 @@ public class IngestionService implements IIngestionService{
                             appLog.logSource()
                     );
                     if (alreadyExists) continue;
-                    saveNewLogs(appLog, logsAndMetadata);
-                    newLogsRecorded = true;
+                    batch.add(appLog);
+                    batchMetadata.addAll(logsAndMetadata.get(appLog));
                 }
-            } catch (IOException ex){
-                log.error("Encountered IO exception while reading raw logs from file {}: {}",
-                        logsDataSource.logFilePath(),
-                        ex.getLocalizedMessage());
-                throw new IOException("Encountered IO exception while reading raw logs from file");
+                if (batch.isEmpty()) return batch;
+                appLogRepository.saveAll(batch);
+                metadataRepository.saveAll(batchMetadata);
+                hourlyCountRepository.incrementAll(rollupHourlyCounts(batch));
+                minuteCountRepository.incrementAll(rollupMinuteCounts(batch));
+                metricCountRepository.incrementAll(rollupMetricCounts(batch, appVersion));
+                return batch;
+            });
+            pendingWrites.add(new PendingWrite(logsAndMetadata, savedLogs));
+        }
+        for (PendingWrite pendingWrite : pendingWrites) {
+            var savedLogs = await(pendingWrite.savedLogs());
+            if (savedLogs != null && !savedLogs.isEmpty()) {
+                newLogsRecorded = true;
+                viewCacheService.invalidateAll();
+                liveTailService.publish(savedLogs);
+                heavyHitterService.observe(savedLogs, pendingWrite.logsAndMetadata());
             }
         }
+        if (failedSource != null) {
+            log.error("Encountered IO exception while reading raw logs from file {}: {}",
+                    failedSource.dataSource().logFilePath(),
+                    failedSource.failure().getLocalizedMessage());
+            throw new IOException("Encountered IO exception while reading raw logs from file");
+        }
         return newLogsRecorded;
     }
+    private record PendingWrite(Map<AppLog, List<LogsMetadata>> logsAndMetadata, CompletableFuture<List<AppLog>> savedLogs) {}
+    private static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) throw cause;
+            if (ex.getCause() instanceof Error cause) throw cause;
+            throw ex;
+        }
+    }
+    private record ParsedDataSource(LogsDataSource dataSource, Map<AppLog, List<LogsMetadata>> logsAndMetadata, IOException failure) {}
+    private ParsedDataSource parseDataSource(LogsDataSource logsDataSource) {
+        try {
+            var rawLogs = collectRawLogs(logsDataSource);
+            var traceGroups = composeRawLogsTraceGroup(rawLogs);
+            return new ParsedDataSource(logsDataSource, composeLogsAndMetadata(logsDataSource,traceGroups), null);
+        } catch (IOException ex) {
+            return new ParsedDataSource(logsDataSource, Map.of(), ex);
+        }
+    }
     /**
      * Persists a new {@link AppLog} entry along with its associated metadata records.
      * <p>
@@ -116,6 +203,54 @@ public class IngestionService implements IIngestionService{
             metadataRepository.save(logsMetadata);
         }
     }
+    /**
+     * Aggregates a batch of logs into hourly counts keyed by application, source, severity and hour.
+     *
+     * @param appLogs the logs to aggregate.
+     * @return one {@link HourlyLogCount} per distinct key in the batch.
+     */
+    public List<HourlyLogCount> rollupHourlyCounts(Collection<AppLog> appLogs) {
+        return LogRollups.hourlyCounts(appLogs);
+    }
+    /**
+     * Aggregates a batch of logs into minute counts keyed by application, source, severity and minute.
+     *
+     * @param appLogs the logs to aggregate.
+     * @return one {@link MinuteLogCount} per distinct key in the batch.
+     */
+    public List<MinuteLogCount> rollupMinuteCounts(Collection<AppLog> appLogs) {
+        return LogRollups.minuteCounts(appLogs);
+    }
+    /**
+     * Aggregates a batch of logs into the lifetime counters behind the application metrics: logs per severity,
+     * and errors per hour of day, day of week and application version.
+     *
+     * @param appLogs    the logs to aggregate.
+     * @param appVersion the version of the application the logs were ingested for.
+     * @return one {@link AppMetricCount} per counter touched by the batch.
+     */
+    public List<AppMetricCount> rollupMetricCounts(Collection<AppLog> appLogs, String appVersion) {
+        var errors = appLogs.stream()
+                .filter(appLog -> AppMetricCount.INCIDENT_SEVERITY.equals(appLog.severity()))
+                .toList();
+        List<AppMetricCount> counts = new ArrayList<>();
+        counts.addAll(countMetric(appLogs, AppMetricCount.METRIC_SEVERITY, AppLog::severity));
+        counts.addAll(countMetric(errors, AppMetricCount.METRIC_ERROR_HOUR, appLog -> "%02d".formatted(appLog.timestamp().getHour())));
+        counts.addAll(countMetric(errors, AppMetricCount.METRIC_ERROR_WEEKDAY, appLog -> appLog.timestamp().getDayOfWeek().name()));
+        counts.addAll(countMetric(errors, AppMetricCount.METRIC_ERROR_VERSION, appLog -> Objects.requireNonNullElse(appVersion, "")));
+        return counts;
+    }
+    private record MetricKey(String applicationId, String metricKey) {}
+    private List<AppMetricCount> countMetric(Collection<AppLog> appLogs, String metric, Function<AppLog, String> metricKey) {
+        return appLogs.stream()
+                .collect(Collectors.groupingBy(
+                        e -> new MetricKey(e.applicationId(), metricKey.apply(e)),
+                        Collectors.counting()))
+                .entrySet()
+                .stream()
+                .map(e -> new AppMetricCount(e.getKey().applicationId(), metric, e.getKey().metricKey(), e.getValue()))
+                .toList();
+    }
     /**
      * Collects raw log data from the specified {@link LogsDataSource}.
      *
@@ -282,4 +417,27 @@ public class IngestionService implements IIngestionService{
         );
         return Optional.of(metadata);
     }
+    /**
+     * Moves metadata stored one row per entry by earlier versions into the packed per-log format.
+     * <p>
+     * Logs are migrated {@value #LEGACY_METADATA_CHUNK} at a time, each chunk as its own short write command so
+     * that ingestion can write between chunks. Once the legacy table is empty this costs a single query. The
+     * core database and every shard are packed concurrently, each through its own writer.
+     * </p>
+     *
+     * @return the number of logs whose metadata was packed.
+     */
+    @Override
+    public int packLegacyMetadata() {
+        int packed = 0;
+        int chunk;
+        do {
+            chunk = shardService.executeOnEveryShard(() -> metadataRepository.packLegacyRows(LEGACY_METADATA_CHUNK))
+                    .stream()
+                    .mapToInt(Integer::intValue)
+                    .sum();
+            packed += chunk;
+        } while (chunk > 0);
+        return packed;
+    }
 }
@@ -0,0 +1,193 @@
+package com.kenyajug.regression.services;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.AppLog;
+import com.kenyajug.regression.repository.LogResourceRepository;
+import com.kenyajug.regression.resources.LogResource;
+import com.kenyajug.regression.utils.DateTimeUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+@Slf4j
+@Service
+public class LiveTailService implements ILiveTailService {
+    private static final long KEEP_ALIVE_MILLIS = 15000;
+    private final LogResourceRepository logResourceRepository;
+    private final int bufferSize;
+    private final boolean disconnectSlowConsumers;
+    private final long timeoutMillis;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    public LiveTailService(LogResourceRepository logResourceRepository,
+                           @Value("${regression.tail.buffer-size:256}") int bufferSize,
+                           @Value("${regression.tail.disconnect-slow-consumers:false}") boolean disconnectSlowConsumers,
+                           @Value("${regression.tail.timeout-millis:1800000}") long timeoutMillis) {
+        this.logResourceRepository = logResourceRepository;
+        this.bufferSize = Math.max(1, bufferSize);
+        this.disconnectSlowConsumers = disconnectSlowConsumers;
+        this.timeoutMillis = timeoutMillis;
+    }
+    /**
+     * Opens a live tail for a browser.
+     * <p>
+     * Each subscriber gets a bounded buffer drained by its own virtual thread, the only thread writing to its
+     * connection. A keep-alive comment is sent when no log arrived for a while, so dead connections are noticed.
+     * </p>
+     *
+     * @param applicationId optional application filter.
+     * @param datasourceId  optional data source filter.
+     * @param severity      optional severity filter.
+     * @return the event stream.
+     */
+    @Override
+    public SseEmitter subscribe(String applicationId, String datasourceId, String severity) {
+        var emitter = createEmitter(timeoutMillis);
+        var subscriber = new Subscriber(emitter, blankToNull(applicationId), blankToNull(datasourceId),
+                (severity == null || severity.isEmpty() || severity.equals("All")) ? null : severity);
+        emitter.onCompletion(subscriber::stop);
+        emitter.onTimeout(subscriber::stop);
+        emitter.onError(error -> subscriber.stop());
+        subscribers.add(subscriber);
+        subscriber.sender = Thread.ofVirtual().name("live-tail").start(subscriber::drain);
+        return emitter;
+    }
+    /**
+     * Pushes committed logs to the subscribers whose filters they match.
+     * <p>
+     * The application and data source names are resolved in a single query, and only when someone is subscribed.
+     * A subscriber whose buffer is full loses the log and is told how many it lost, or is disconnected when
+     * {@code regression.tail.disconnect-slow-consumers} is set.
+     * </p>
+     *
+     * @param logs the logs just committed by ingestion.
+     */
+    @Override
+    public void publish(List<AppLog> logs) {
+        if (subscribers.isEmpty() || logs.isEmpty()) return;
+        try {
+            var datasourceIds = logs.stream()
+                    .map(AppLog::logSource)
+                    .collect(Collectors.toSet());
+            var origins = logResourceRepository.findOriginsByDatasourceIds(datasourceIds);
+            for (AppLog appLog : logs) {
+                var origin = origins.get(appLog.logSource());
+                if (origin == null) continue;
+                var resource = new LogResource(
+                        DateTimeUtils.localTimeString(appLog.timestamp().toLocalTime()),
+                        appLog.severity(),
+                        origin.application(),
+                        origin.source(),
+                        appLog.uuid(),
+                        appLog.message());
+                for (Subscriber subscriber : subscribers) {
+                    if (subscriber.matches(resource)) subscriber.offer(resource);
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.error("Failed to publish {} logs to live tail subscribers: {}", logs.size(), ex.getLocalizedMessage());
+        }
+    }
+    @Override
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+    @PreDestroy
+    public void stop() {
+        subscribers.forEach(Subscriber::stop);
+    }
+    protected SseEmitter createEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+    private static String blankToNull(String value) {
+        return (value == null || value.isEmpty()) ? null : value;
+    }
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final String applicationId;
+        private final String datasourceId;
+        private final String severity;
+        private final BlockingQueue<LogResource> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicLong dropped = new AtomicLong();
+        private volatile boolean open = true;
+        private volatile Thread sender;
+        private Subscriber(SseEmitter emitter, String applicationId, String datasourceId, String severity) {
+            this.emitter = emitter;
+            this.applicationId = applicationId;
+            this.datasourceId = datasourceId;
+            this.severity = severity;
+        }
+        private boolean matches(LogResource resource) {
+            return (applicationId == null || applicationId.equals(resource.application().uuid()))
+                    && (datasourceId == null || datasourceId.equals(resource.source().uuid()))
+                    && (severity == null || severity.equals(resource.severity()));
+        }
+        private void offer(LogResource resource) {
+            if (buffer.offer(resource)) return;
+            if (disconnectSlowConsumers) {
+                log.warn("Disconnecting a live tail subscriber that fell {} logs behind", bufferSize);
+                stop();
+            } else {
+                dropped.incrementAndGet();
+            }
+        }
+        private void drain() {
+            try {
+                while (open) {
+                    var resource = buffer.poll(KEEP_ALIVE_MILLIS, TimeUnit.MILLISECONDS);
+                    var lost = dropped.getAndSet(0);
+                    if (lost > 0) emitter.send(SseEmitter.event().name("dropped").data(lost));
+                    if (resource != null) {
+                        emitter.send(SseEmitter.event().name("log").id(resource.logId()).data(resource, MediaType.APPLICATION_JSON));
+                    } else if (open) {
+                        emitter.send(SseEmitter.event().comment("keep-alive"));
+                    }
+                }
+            } catch (IOException | IllegalStateException ex) {
+                log.debug("Live tail subscriber disconnected: {}", ex.getLocalizedMessage());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } finally {
+                stop();
+                emitter.complete();
+            }
+        }
+        private void stop() {
+            open = false;
+            subscribers.remove(this);
+            var thread = sender;
+            if (thread != null && thread != Thread.currentThread()) thread.interrupt();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.kenyajug.regression.services;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.AppLog;
+import com.kenyajug.regression.entities.HourlyLogCount;
+import com.kenyajug.regression.entities.MinuteLogCount;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+/*
+ * Aggregates logs into the hourly and minute chart counts. Ingestion adds these counts and quota trimming
+ * subtracts them, so both go through the same keys.
+ */
+final class LogRollups {
+    private record RollupKey(String applicationId, String logSource, String severity, LocalDateTime start) {}
+    private LogRollups() {
+    }
+    /**
+     * Aggregates logs into hourly counts keyed by application, source, severity and hour.
+     *
+     * @param appLogs the logs to aggregate.
+     * @return one {@link HourlyLogCount} per distinct key.
+     */
+    static List<HourlyLogCount> hourlyCounts(Collection<AppLog> appLogs) {
+        return rollup(appLogs, ChronoUnit.HOURS)
+                .entrySet()
+                .stream()
+                .map(e -> new HourlyLogCount(e.getKey().applicationId(), e.getKey().logSource(), e.getKey().severity(), e.getKey().start(), e.getValue()))
+                .toList();
+    }
+    /**
+     * Aggregates logs into minute counts keyed by application, source, severity and minute.
+     *
+     * @param appLogs the logs to aggregate.
+     * @return one {@link MinuteLogCount} per distinct key.
+     */
+    static List<MinuteLogCount> minuteCounts(Collection<AppLog> appLogs) {
+        return rollup(appLogs, ChronoUnit.MINUTES)
+                .entrySet()
+                .stream()
+                .map(e -> new MinuteLogCount(e.getKey().applicationId(), e.getKey().logSource(), e.getKey().severity(), e.getKey().start(), e.getValue()))
+                .toList();
+    }
+    private static Map<RollupKey, Long> rollup(Collection<AppLog> appLogs, ChronoUnit unit) {
+        return appLogs.stream()
+                .collect(Collectors.groupingBy(
+                        e -> new RollupKey(e.applicationId(), e.logSource(), e.severity(), e.timestamp().truncatedTo(unit)),
+                        Collectors.counting()));
+    }
+}
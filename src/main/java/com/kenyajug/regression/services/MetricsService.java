@@ -0,0 +1,132 @@
+package com.kenyajug.regression.services;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.AppMetricCount;
+import com.kenyajug.regression.models.ApplicationMetrics;
+import com.kenyajug.regression.repository.AppMetricCountRepository;
+import com.kenyajug.regression.repository.LogHourlyCountRepository;
+import com.kenyajug.regression.repository.LogMinuteCountRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.format.TextStyle;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+@Service
+public class MetricsService implements IMetricsService {
+    private static final List<String> TIMES_OF_DAY = List.of("Night", "Morning", "Afternoon", "Evening");
+    private final AppMetricCountRepository metricCountRepository;
+    private final LogMinuteCountRepository minuteCountRepository;
+    private final LogHourlyCountRepository hourlyCountRepository;
+    private final IHeavyHitterService heavyHitterService;
+    private final IShardService shardService;
+    private final int rateWindowMinutes;
+    private final int activeWindowHours;
+    public MetricsService(AppMetricCountRepository metricCountRepository,
+                          LogMinuteCountRepository minuteCountRepository,
+                          LogHourlyCountRepository hourlyCountRepository,
+                          IHeavyHitterService heavyHitterService,
+                          IShardService shardService,
+                          @Value("${regression.metrics.rate-window-minutes:15}") int rateWindowMinutes,
+                          @Value("${regression.metrics.active-window-hours:24}") int activeWindowHours) {
+        this.metricCountRepository = metricCountRepository;
+        this.minuteCountRepository = minuteCountRepository;
+        this.hourlyCountRepository = hourlyCountRepository;
+        this.heavyHitterService = heavyHitterService;
+        this.shardService = shardService;
+        this.rateWindowMinutes = Math.max(1, rateWindowMinutes);
+        this.activeWindowHours = Math.max(1, activeWindowHours);
+    }
+    /**
+     * Composes the metrics of an application.
+     * <p>
+     * Every part is read from bounded data: the application's lifetime counters (a few dozen rows), the
+     * per-minute rollup of the rate window, the hourly rollup of the activity window and the in-memory
+     * recurring message sketches. The cost does not grow with the number of stored logs. The counters are read
+     * from the application's shard; the number of active applications is added up over every shard.
+     * </p>
+     *
+     * @param applicationId the ID of the application.
+     * @return the metrics of the application.
+     */
+    @Override
+    public ApplicationMetrics composeMetrics(String applicationId) {
+        var now = LocalDateTime.now();
+        var counters = shardService.onShard(applicationId, () -> metricCountRepository.findByApplication(applicationId))
+                .stream()
+                .collect(Collectors.groupingBy(AppMetricCount::metric,
+                        Collectors.toMap(AppMetricCount::metricKey, AppMetricCount::metricCount, Long::sum, TreeMap::new)));
+        var severityCounts = counters.getOrDefault(AppMetricCount.METRIC_SEVERITY, new TreeMap<>());
+        var windowStart = now.truncatedTo(ChronoUnit.MINUTES).minusMinutes(rateWindowMinutes - 1L);
+        var rate = (double) shardService.onShard(applicationId, () -> minuteCountRepository.sumSince(applicationId, windowStart)) / rateWindowMinutes;
+        var activeSince = now.truncatedTo(ChronoUnit.HOURS).minusHours(activeWindowHours - 1L);
+        var activeApplications = shardService.onEveryShard(() -> hourlyCountRepository.countApplicationsSince(activeSince))
+                .stream()
+                .mapToLong(Long::longValue)
+                .sum();
+        Map<String, String> recurring = new TreeMap<>();
+        for (String severity : severityCounts.keySet()) {
+            heavyHitterService.top(applicationId, IHeavyHitterService.MESSAGE_DIMENSION, severity, 1)
+                    .forEach(item -> recurring.put(severity, item.item()));
+        }
+        var version = highest(counters.get(AppMetricCount.METRIC_ERROR_VERSION))
+                .map(entry -> new ApplicationMetrics.VersionErrors(applicationId, entry.getKey(), entry.getValue()))
+                .orElse(null);
+        return new ApplicationMetrics(
+                applicationId,
+                rate,
+                severityCounts,
+                activeApplications,
+                highestTimeOfDay(counters.get(AppMetricCount.METRIC_ERROR_HOUR)),
+                highest(counters.get(AppMetricCount.METRIC_ERROR_WEEKDAY))
+                        .map(entry -> DayOfWeek.valueOf(entry.getKey()).getDisplayName(TextStyle.FULL, Locale.ENGLISH))
+                        .orElse(null),
+                recurring,
+                version);
+    }
+    /*
+     * Buckets the error hours into four six-hour periods of the day, starting with the night at midnight.
+     */
+    private String highestTimeOfDay(Map<String, Long> errorsByHour) {
+        if (errorsByHour == null || errorsByHour.isEmpty()) return null;
+        var periods = new long[TIMES_OF_DAY.size()];
+        errorsByHour.forEach((hour, count) -> periods[Integer.parseInt(hour) / 6] += count);
+        int highest = 0;
+        for (int i = 1; i < periods.length; i++) {
+            if (periods[i] > periods[highest]) highest = i;
+        }
+        return TIMES_OF_DAY.get(highest);
+    }
+    /*
+     * Picks the counter with the highest count; ties go to the first key in order.
+     */
+    private Optional<Map.Entry<String, Long>> highest(Map<String, Long> counts) {
+        if (counts == null) return Optional.empty();
+        return counts.entrySet()
+                .stream()
+                .reduce((best, next) -> next.getValue() > best.getValue() ? next : best);
+    }
+}
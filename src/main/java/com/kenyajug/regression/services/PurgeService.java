@@ -0,0 +1,252 @@
+package com.kenyajug.regression.services;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.PurgeJob;
+import com.kenyajug.regression.repository.AppLogRepository;
+import com.kenyajug.regression.repository.AppMetricCountRepository;
+import com.kenyajug.regression.repository.ApplicationsRepository;
+import com.kenyajug.regression.repository.LogHourlyCountRepository;
+import com.kenyajug.regression.repository.LogMinuteCountRepository;
+import com.kenyajug.regression.repository.LogsDataSourceRepository;
+import com.kenyajug.regression.repository.PurgeJobRepository;
+import com.kenyajug.regression.repository.RetentionPolicyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+@Slf4j
+@Service
+public class PurgeService implements IPurgeService {
+    public static final int RECENT_JOBS_LIMIT = 20;
+    private final ApplicationsRepository applicationsRepository;
+    private final LogsDataSourceRepository dataSourceRepository;
+    private final RetentionPolicyRepository retentionPolicyRepository;
+    private final AppLogRepository appLogRepository;
+    private final LogHourlyCountRepository hourlyCountRepository;
+    private final LogMinuteCountRepository minuteCountRepository;
+    private final AppMetricCountRepository metricCountRepository;
+    private final PurgeJobRepository purgeJobRepository;
+    private final IArchiveService archiveService;
+    private final IColumnarService columnarService;
+    private final IHeavyHitterService heavyHitterService;
+    private final IShardService shardService;
+    private final IWriterService writerService;
+    private final int chunkSize;
+    private final long pauseMillis;
+    public PurgeService(ApplicationsRepository applicationsRepository,
+                        LogsDataSourceRepository dataSourceRepository,
+                        RetentionPolicyRepository retentionPolicyRepository,
+                        AppLogRepository appLogRepository,
+                        LogHourlyCountRepository hourlyCountRepository,
+                        LogMinuteCountRepository minuteCountRepository,
+                        AppMetricCountRepository metricCountRepository,
+                        PurgeJobRepository purgeJobRepository,
+                        IArchiveService archiveService,
+                        IColumnarService columnarService,
+                        IHeavyHitterService heavyHitterService,
+                        IShardService shardService,
+                        IWriterService writerService,
+                        @Value("${regression.purge.chunk-size:1000}") int chunkSize,
+                        @Value("${regression.purge.pause-millis:20}") long pauseMillis) {
+        this.applicationsRepository = applicationsRepository;
+        this.dataSourceRepository = dataSourceRepository;
+        this.retentionPolicyRepository = retentionPolicyRepository;
+        this.appLogRepository = appLogRepository;
+        this.hourlyCountRepository = hourlyCountRepository;
+        this.minuteCountRepository = minuteCountRepository;
+        this.metricCountRepository = metricCountRepository;
+        this.purgeJobRepository = purgeJobRepository;
+        this.archiveService = archiveService;
+        this.columnarService = columnarService;
+        this.heavyHitterService = heavyHitterService;
+        this.shardService = shardService;
+        this.writerService = writerService;
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+    }
+    /**
+     * Deletes an application, its data sources and its retention policy, and schedules the purge of its logs.
+     * <p>
+     * The rows are removed immediately so ingestion stops and the application disappears from the UI; its
+     * logs, metadata, chart, metric and recurring message counts, archive and columnar segments are deleted later by
+     * {@link #runPendingJobs()}.
+     * </p>
+     *
+     * @param applicationId the ID of the application.
+     * @return the scheduled {@link PurgeJob}, or empty if the application does not exist.
+     */
+    @Override
+    public Optional<PurgeJob> purgeApplication(String applicationId) {
+        var optionalApplication = applicationsRepository.findById(applicationId);
+        if (optionalApplication.isEmpty()) return Optional.empty();
+        var application = optionalApplication.get();
+        var now = LocalDateTime.now();
+        var job = new PurgeJob(
+                UUID.randomUUID().toString(),
+                PurgeJob.TARGET_APPLICATION,
+                application.uuid(),
+                application.name(),
+                PurgeJob.STATUS_PENDING,
+                shardService.onShard(application.uuid(), () -> appLogRepository.countByApplication(application.uuid())),
+                0,
+                now,
+                now);
+        writerService.run(() -> {
+            purgeJobRepository.save(job);
+            dataSourceRepository.findByApplicationId(application.uuid())
+                    .forEach(datasource -> dataSourceRepository.deleteById(datasource.uuid()));
+            retentionPolicyRepository.deleteById(application.uuid());
+            applicationsRepository.deleteById(application.uuid());
+        });
+        log.info("Scheduled purge of {} logs of application {}", job.totalLogs(), application.uuid());
+        return Optional.of(job);
+    }
+    /**
+     * Deletes a data source and schedules the purge of its logs.
+     * <p>
+     * The data source row is removed immediately so ingestion stops; its logs, metadata and chart counts
+     * are deleted later by {@link #runPendingJobs()}. Archived and columnar segments are kept per application
+     * and expire with the application's retention policy.
+     * </p>
+     * <p>
+     * Recurring message counts are not kept per data source, so the application's counts are dropped now and
+     * start again from the next ingested logs. Metric counters are intentionally left as they are: they are
+     * lifetime totals of everything the application ingested, like after retention, and are only dropped
+     * when the application itself is purged.
+     * </p>
+     *
+     * @param datasourceId the ID of the data source.
+     * @return the scheduled {@link PurgeJob}, or empty if the data source does not exist.
+     */
+    @Override
+    public Optional<PurgeJob> purgeDataSource(String datasourceId) {
+        var optionalDatasource = dataSourceRepository.findById(datasourceId);
+        if (optionalDatasource.isEmpty()) return Optional.empty();
+        var datasource = optionalDatasource.get();
+        var now = LocalDateTime.now();
+        var job = new PurgeJob(
+                UUID.randomUUID().toString(),
+                PurgeJob.TARGET_DATASOURCE,
+                datasource.uuid(),
+                datasource.name(),
+                PurgeJob.STATUS_PENDING,
+                shardService.onShard(datasource.applicationId(), () -> appLogRepository.countBySource(datasource.uuid())),
+                0,
+                now,
+                now);
+        writerService.run(() -> {
+            purgeJobRepository.save(job);
+            dataSourceRepository.deleteById(datasource.uuid());
+        });
+        heavyHitterService.forgetApplication(datasource.applicationId());
+        log.info("Scheduled purge of {} logs of data source {}", job.totalLogs(), datasource.uuid());
+        return Optional.of(job);
+    }
+    /**
+     * Runs every unfinished purge job to completion, oldest first.
+     * <p>
+     * Logs are deleted in bounded chunks, each as a short command on the writer of the application's shard,
+     * with a pause between chunks so ingestion can interleave with the purge. Progress is recorded after every
+     * chunk; a job interrupted by a shutdown resumes where it stopped on the next run. A purged application's
+     * shard is deleted once it is empty. A data source's chunks are deleted through the writer of every shard,
+     * since the data source row naming its application is already gone.
+     * </p>
+     *
+     * @return the total number of logs deleted.
+     */
+    @Override
+    public long runPendingJobs() {
+        long deleted = 0;
+        for (PurgeJob job : purgeJobRepository.findUnfinished()) {
+            if (Thread.currentThread().isInterrupted()) break;
+            deleted += runJob(job);
+        }
+        return deleted;
+    }
+    /**
+     * Lists the most recently requested purge jobs, for progress reporting.
+     *
+     * @return the jobs, most recent first.
+     */
+    @Override
+    public List<PurgeJob> findRecentJobs() {
+        return purgeJobRepository.findRecent(RECENT_JOBS_LIMIT);
+    }
+    private long runJob(PurgeJob job) {
+        long deleted = job.deletedLogs();
+        updateProgress(job, PurgeJob.STATUS_RUNNING, deleted);
+        int chunk;
+        while ((chunk = deleteChunk(job)) > 0) {
+            deleted += chunk;
+            updateProgress(job, PurgeJob.STATUS_RUNNING, deleted);
+            if (!pauseBetweenChunks()) return deleted - job.deletedLogs();
+        }
+        deleteDerivedData(job);
+        updateProgress(job, PurgeJob.STATUS_COMPLETED, deleted);
+        log.info("Purged {} logs of {} {}", deleted, job.targetType().toLowerCase(), job.targetId());
+        return deleted - job.deletedLogs();
+    }
+    private void updateProgress(PurgeJob job, String status, long deleted) {
+        writerService.run(() -> purgeJobRepository.updateProgress(job.uuid(), status, deleted));
+    }
+    private int deleteChunk(PurgeJob job) {
+        return switch (job.targetType()) {
+            case PurgeJob.TARGET_APPLICATION -> shardService.existingWriterFor(job.targetId()).execute(() ->
+                    appLogRepository.deleteChunkBefore(job.targetId(), RetentionService.END_OF_TIME, chunkSize));
+            case PurgeJob.TARGET_DATASOURCE -> shardService.executeOnEveryShard(() -> appLogRepository.deleteChunkBySource(job.targetId(), chunkSize))
+                    .stream()
+                    .mapToInt(Integer::intValue)
+                    .sum();
+            default -> throw new IllegalStateException("Unknown purge target " + job.targetType());
+        };
+    }
+    private void deleteDerivedData(PurgeJob job) {
+        if (PurgeJob.TARGET_DATASOURCE.equals(job.targetType())) {
+            shardService.executeOnEveryShard(() -> hourlyCountRepository.deleteBySource(job.targetId())
+                    + minuteCountRepository.deleteBySource(job.targetId()));
+            return;
+        }
+        shardService.existingWriterFor(job.targetId()).execute(() -> hourlyCountRepository.deleteByApplicationBefore(job.targetId(), RetentionService.END_OF_TIME)
+                + minuteCountRepository.deleteByApplicationBefore(job.targetId(), RetentionService.END_OF_TIME)
+                + metricCountRepository.deleteByApplication(job.targetId()));
+        archiveService.expireSegmentsBefore(job.targetId(), RetentionService.END_OF_TIME.toLocalDate());
+        columnarService.expireSegmentsBefore(job.targetId(), RetentionService.END_OF_TIME.toLocalDate());
+        heavyHitterService.forgetApplication(job.targetId());
+        shardService.dropShard(job.targetId());
+    }
+    private boolean pauseBetweenChunks() {
+        if (pauseMillis <= 0) return true;
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            log.warn("Purge interrupted, remaining logs will be deleted on the next run");
+            return false;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.kenyajug.regression.services;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.AppLog;
+import com.kenyajug.regression.entities.Application;
+import com.kenyajug.regression.entities.RetentionPolicy;
+import com.kenyajug.regression.repository.AppLogRepository;
+import com.kenyajug.regression.repository.ApplicationsRepository;
+import com.kenyajug.regression.repository.LogHourlyCountRepository;
+import com.kenyajug.regression.repository.LogMinuteCountRepository;
+import com.kenyajug.regression.repository.RetentionPolicyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.IntSupplier;
+@Slf4j
+@Service
+public class RetentionService implements IRetentionService {
+    public static final LocalDateTime END_OF_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private final ApplicationsRepository applicationsRepository;
+    private final AppLogRepository appLogRepository;
+    private final RetentionPolicyRepository retentionPolicyRepository;
+    private final LogHourlyCountRepository hourlyCountRepository;
+    private final LogMinuteCountRepository minuteCountRepository;
+    private final IArchiveService archiveService;
+    private final IColumnarService columnarService;
+    private final IShardService shardService;
+    private final int defaultRetentionDays;
+    private final int chunkSize;
+    private final long pauseMillis;
+    private final int minuteRollupDays;
+    public RetentionService(ApplicationsRepository applicationsRepository,
+                            AppLogRepository appLogRepository,
+                            RetentionPolicyRepository retentionPolicyRepository,
+                            LogHourlyCountRepository hourlyCountRepository,
+                            LogMinuteCountRepository minuteCountRepository,
+                            IArchiveService archiveService,
+                            IColumnarService columnarService,
+                            IShardService shardService,
+                            @Value("${regression.retention.default-days:0}") int defaultRetentionDays,
+                            @Value("${regression.retention.chunk-size:1000}") int chunkSize,
+                            @Value("${regression.retention.pause-millis:20}") long pauseMillis,
+                            @Value("${regression.histogram.minute-rollup-days:7}") int minuteRollupDays) {
+        this.applicationsRepository = applicationsRepository;
+        this.appLogRepository = appLogRepository;
+        this.retentionPolicyRepository = retentionPolicyRepository;
+        this.hourlyCountRepository = hourlyCountRepository;
+        this.minuteCountRepository = minuteCountRepository;
+        this.archiveService = archiveService;
+        this.columnarService = columnarService;
+        this.shardService = shardService;
+        this.defaultRetentionDays = defaultRetentionDays;
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+        this.minuteRollupDays = minuteRollupDays;
+    }
+    /**
+     * Applies the retention policy of every registered application, then drops the minute chart counts older
+     * than {@code regression.histogram.minute-rollup-days} in every shard; older ranges are charted from the
+     * hourly counts.
+     *
+     * @return the total number of logs deleted across all applications.
+     */
+    @Override
+    public long enforceRetentionPolicies() {
+        long deleted = 0;
+        for (Application application : applicationsRepository.findAll()) {
+            var policy = findEffectivePolicy(application.uuid());
+            deleted += enforceRetentionPolicy(policy, LocalDate.now());
+        }
+        if (minuteRollupDays > 0) {
+            var minutesBefore = LocalDate.now().minusDays(minuteRollupDays).atStartOfDay();
+            shardService.executeOnEveryShard(() -> minuteCountRepository.deleteBefore(minutesBefore));
+        }
+        return deleted;
+    }
+    /**
+     * Resolves the policy that applies to an application, falling back to the configured default retention
+     * when the application has no policy of its own.
+     *
+     * @param applicationId the ID of the application.
+     * @return the effective {@link RetentionPolicy}; never {@code null}.
+     */
+    @Override
+    public RetentionPolicy findEffectivePolicy(String applicationId) {
+        return retentionPolicyRepository.findById(applicationId)
+                .orElse(new RetentionPolicy(applicationId, defaultRetentionDays, null, null));
+    }
+    /**
+     * Applies a single retention policy.
+     * <p>
+     * Whole days older than {@link RetentionPolicy#retentionDays()} are expired first, oldest day first,
+     * together with the archive segments, columnar segments and hourly and minute chart counts of those days.
+     * The row and byte quotas, when set, are then enforced by dropping the oldest remaining logs; each trimmed
+     * chunk is subtracted from the hourly and minute chart counts in the write command that deletes it.
+     * All deletes run in bounded chunks, each as a command on the writer of the application's shard, so
+     * ingestion can interleave with the purge.
+     * </p>
+     *
+     * @param policy the policy to apply.
+     * @param today  the current day, used to compute the retention window.
+     * @return the number of logs deleted.
+     */
+    @Override
+    public long enforceRetentionPolicy(RetentionPolicy policy, LocalDate today) {
+        return shardService.onShard(policy.applicationId(), () -> applyRetentionPolicy(policy, today));
+    }
+    private long applyRetentionPolicy(RetentionPolicy policy, LocalDate today) {
+        var applicationId = policy.applicationId();
+        var writer = shardService.existingWriterFor(applicationId);
+        long deleted = 0;
+        if (policy.retentionDays() > 0) {
+            var firstRetainedDay = today.minusDays(policy.retentionDays());
+            var oldestDay = appLogRepository.findOldestLogDay(applicationId);
+            while (oldestDay.isPresent() && oldestDay.get().isBefore(firstRetainedDay)) {
+                var expiredDay = oldestDay.get();
+                var expiredBefore = expiredDay.plusDays(1).atStartOfDay();
+                var expired = deleteInChunks(() -> writer.execute(() -> appLogRepository.deleteChunkBefore(applicationId, expiredBefore, chunkSize)));
+                log.info("Expired {} logs of {} for application {}", expired, expiredDay, applicationId);
+                deleted += expired;
+                oldestDay = appLogRepository.findOldestLogDay(applicationId);
+            }
+            deleted += archiveService.expireSegmentsBefore(applicationId, firstRetainedDay);
+            writer.run(() -> {
+                hourlyCountRepository.deleteByApplicationBefore(applicationId, firstRetainedDay.atStartOfDay());
+                minuteCountRepository.deleteByApplicationBefore(applicationId, firstRetainedDay.atStartOfDay());
+            });
+            columnarService.expireSegmentsBefore(applicationId, firstRetainedDay);
+        }
+        if (policy.maxRows() != null) {
+            var excessRows = appLogRepository.countByApplication(applicationId) - policy.maxRows();
+            if (excessRows > 0) {
+                var cutoff = appLogRepository.findRowsQuotaCutoff(applicationId, excessRows).orElse(END_OF_TIME);
+                deleted += deleteInChunks(() -> writer.execute(() -> trimChunkBefore(applicationId, cutoff)));
+            }
+        }
+        if (policy.maxBytes() != null) {
+            var excessBytes = appLogRepository.sumMessageBytesByApplication(applicationId) - policy.maxBytes();
+            if (excessBytes > 0) {
+                var cutoff = appLogRepository.findBytesQuotaCutoff(applicationId, excessBytes).orElse(END_OF_TIME);
+                deleted += deleteInChunks(() -> writer.execute(() -> trimChunkBefore(applicationId, cutoff)));
+            }
+        }
+        return deleted;
+    }
+    private long deleteInChunks(IntSupplier chunkDeleter) {
+        long deleted = 0;
+        int chunk;
+        do {
+            chunk = chunkDeleter.getAsInt();
+            deleted += chunk;
+            if (chunk > 0 && !pauseBetweenChunks()) break;
+        } while (chunk > 0);
+        return deleted;
+    }
+    private int trimChunkBefore(String applicationId, LocalDateTime cutoff) {
+        var logs = appLogRepository.findChunkBefore(applicationId, cutoff, chunkSize);
+        if (logs.isEmpty()) return 0;
+        hourlyCountRepository.decrementAll(LogRollups.hourlyCounts(logs));
+        minuteCountRepository.decrementAll(LogRollups.minuteCounts(logs));
+        return appLogRepository.deleteByIds(logs.stream().map(AppLog::uuid).toList());
+    }
+    private boolean pauseBetweenChunks() {
+        if (pauseMillis <= 0) return true;
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            log.warn("Retention purge interrupted, remaining logs will be expired on the next run");
+            return false;
+        }
+    }
+}
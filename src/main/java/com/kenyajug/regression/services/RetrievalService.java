@@ -23,39 +23,84 @@ package com.kenyajug.regression.services;
  * SOFTWARE.
  */
 import com.kenyajug.regression.entities.AppLog;
-import com.kenyajug.regression.entities.LogsDataSource;
 import com.kenyajug.regression.entities.LogsMetadata;
+import com.kenyajug.regression.models.ArchivedLog;
+import com.kenyajug.regression.models.LogHistogram;
+import com.kenyajug.regression.models.LogQuery;
 import com.kenyajug.regression.repository.AppLogRepository;
 import com.kenyajug.regression.repository.ApplicationsRepository;
+import com.kenyajug.regression.repository.LogHourlyCountRepository;
+import com.kenyajug.regression.repository.LogMinuteCountRepository;
+import com.kenyajug.regression.repository.LogResourceRepository;
 import com.kenyajug.regression.repository.LogsDataSourceRepository;
 import com.kenyajug.regression.repository.LogsMetadataRepository;
 import com.kenyajug.regression.resources.ApplicationResource;
 import com.kenyajug.regression.resources.DatasourceResource;
 import com.kenyajug.regression.resources.LogResource;
 import com.kenyajug.regression.utils.DateTimeUtils;
+import com.kenyajug.regression.utils.FullTextUtils;
+import com.kenyajug.regression.utils.MergedStreams;
+import com.kenyajug.regression.utils.MetadataEncoding;
 import org.springframework.stereotype.Service;
+import java.time.Duration;
 import java.time.LocalDate;
-import java.time.LocalTime;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 @Service
 public class RetrievalService implements IRetrievalService{
+    public static final int SEARCH_RESULTS_LIMIT = 500;
+    private static final List<String> CHART_SEVERITIES = List.of("INFO", "WARN", "ERROR");
+    private static final List<Duration> HISTOGRAM_WIDTHS = List.of(
+            Duration.ofMinutes(1), Duration.ofMinutes(2), Duration.ofMinutes(5), Duration.ofMinutes(10),
+            Duration.ofMinutes(15), Duration.ofMinutes(30),
+            Duration.ofHours(1), Duration.ofHours(2), Duration.ofHours(3), Duration.ofHours(6), Duration.ofHours(12),
+            Duration.ofDays(1), Duration.ofDays(2), Duration.ofDays(7), Duration.ofDays(14), Duration.ofDays(30));
+    /*
+     * Order of the log listings, matching their ORDER BY. Timestamps are formatted with fixed-width fields and
+     * whole seconds, so their text sorts chronologically.
+     */
+    private static final Comparator<LogResource> LOG_ORDER = Comparator.comparing(LogResource::timestamp).thenComparing(LogResource::logId);
     private final AppLogRepository logRepository;
     private final ApplicationsRepository applicationsRepository;
     private final LogsDataSourceRepository dataSourceRepository;
     private final LogsMetadataRepository metadataRepository;
-    public RetrievalService(AppLogRepository logRepository, ApplicationsRepository applicationsRepository, LogsDataSourceRepository dataSourceRepository, LogsMetadataRepository metadataRepository) {
+    private final LogHourlyCountRepository hourlyCountRepository;
+    private final LogMinuteCountRepository minuteCountRepository;
+    private final LogResourceRepository logResourceRepository;
+    private final IArchiveService archiveService;
+    private final IShardService shardService;
+    public RetrievalService(AppLogRepository logRepository, ApplicationsRepository applicationsRepository, LogsDataSourceRepository dataSourceRepository, LogsMetadataRepository metadataRepository, LogHourlyCountRepository hourlyCountRepository, LogMinuteCountRepository minuteCountRepository, LogResourceRepository logResourceRepository, IArchiveService archiveService, IShardService shardService) {
         this.logRepository = logRepository;
         this.applicationsRepository = applicationsRepository;
         this.dataSourceRepository = dataSourceRepository;
         this.metadataRepository = metadataRepository;
+        this.hourlyCountRepository = hourlyCountRepository;
+        this.minuteCountRepository = minuteCountRepository;
+        this.logResourceRepository = logResourceRepository;
+        this.archiveService = archiveService;
+        this.shardService = shardService;
     }
     /**
      * Retrieves a list of log resources filtered by the specified date, optional severity level,
      * application identifier, and data source.
      *
+     * <p>Logs are read from the application's shard together with their application and data source names in a
+     * single joined query. Without an application filter every shard is read concurrently and the logs are merged
+     * in time order. Days older than the hot window are transparently read back from archive segments as
+     * well.</p>
+     *
      * @param date          the date for which logs should be retrieved (required).
      * @param severity      an optional severity filter (e.g., "INFO", "WARN", "ERROR"). If null or empty, all severities are included.
      * @param applicationId the ID of the application to filter logs by. If null or empty, logs from all applications are included.
@@ -64,71 +109,104 @@ public class RetrievalService implements IRetrievalService{
      */
     @Override
     public List<LogResource> listLogs(LocalDate date, String severity, String applicationId, String datasource) {
-        var optionalApplication = applicationsRepository.findById(applicationId);
-        if (optionalApplication.isEmpty()) return List.of();
-        var application = optionalApplication.get();
-        var applicationResource = new ApplicationResource(application.uuid(),application.name(),application.runtimeEnvironment());
-        var datasoureList = dataSourceRepository.findByApplicationId(application.uuid());
-        List<LogResource> result = new ArrayList<>();
-        for (LogsDataSource logsDataSource : datasoureList) {
-            List<AppLog> logs = logRepository.findByApplicationAndDatasource(application.uuid(),logsDataSource.uuid())
+        List<LogResource> result = new ArrayList<>(readShards(applicationId, () -> {
+            try (var logs = logResourceRepository.streamByApplicationAndDay(applicationId, date, severity)) {
+                return logs.toList();
+            }
+        }));
+        if (applicationId == null || applicationId.isEmpty()) result.sort(LOG_ORDER);
+        if (archiveService.isArchived(date)) {
+            var archivedLogs = archiveService.findArchivedLogs(date, severity, applicationId)
                     .stream()
-                    .filter(e -> DateTimeUtils.isSameDay(e.timestamp().toLocalDate(),date))
+                    .map(ArchivedLog::log)
                     .toList();
-            if (!(severity.isEmpty()) && !(severity.equals("All")))
-                logs = logs.stream().filter(e -> e.severity().equals(severity)).toList();
-            for (AppLog log : logs) {
-                var time = log.timestamp().toLocalTime();
-                var timeFormatter = DateTimeUtils.localTimeString(time);
-                var datasourceResource = new DatasourceResource(logsDataSource.name(),logsDataSource.uuid());
-                var resource = new LogResource(
-                        timeFormatter,
-                        log.severity(),
-                        applicationResource,
-                        datasourceResource,
-                        log.uuid(),
-                        log.message());
-                result.add(resource);
-            }
+            result.addAll(toLogResources(archivedLogs));
         }
         return result;
     }
     /**
-     * Retrieves all log entries recorded for the current day.
+     * Searches the messages of logs recorded on the specified date using the full-text index.
      *
-     * @return a list of {@link LogResource} objects representing today's logs,
-     * regardless of severity, application, or data source.
+     * <p>The keyword supports phrase queries ({@code "connection refused"}) and prefix queries
+     * ({@code Null*}); plain terms are combined with {@code AND}. Without an application filter every shard
+     * is searched concurrently and the matches are merged. Days older than the hot window are also scanned in
+     * their archive segments.</p>
+     *
+     * @param date          the date for which logs should be searched (required).
+     * @param keyword       the keyword to search for in log messages.
+     * @param severity      an optional severity filter. If null, empty or {@code All}, all severities are included.
+     * @param applicationId an optional application filter. If null or empty, logs from all applications are included.
+     * @param datasourceId  an optional data source filter. If null or empty, logs from all data sources are included.
+     * @return a list of matching {@link LogResource} objects, most recent first.
      */
     @Override
-    public List<LogResource> listAllTodayLogs() {
-        List<AppLog> logs = logRepository.findAll()
+    public List<LogResource> searchLogs(LocalDate date, String keyword, String severity, String applicationId, String datasourceId) {
+        List<AppLog> logs = new ArrayList<>(readShards(applicationId, () -> logRepository.searchByKeyword(keyword, date, severity, applicationId, datasourceId, SEARCH_RESULTS_LIMIT))
+                .stream()
+                .sorted(Comparator.comparing(AppLog::timestamp).reversed())
+                .limit(SEARCH_RESULTS_LIMIT)
+                .toList());
+        if (archiveService.isArchived(date) && logs.size() < SEARCH_RESULTS_LIMIT) {
+            archiveService.findArchivedLogs(date, severity, applicationId, e ->
+                            (datasourceId == null || datasourceId.isEmpty() || datasourceId.equals(e.logSource()))
+                                    && FullTextUtils.matches(keyword, e.message()))
+                    .stream()
+                    .map(ArchivedLog::log)
+                    .sorted(Comparator.comparing(AppLog::timestamp).reversed())
+                    .limit(SEARCH_RESULTS_LIMIT - logs.size())
+                    .forEach(logs::add);
+        }
+        return toLogResources(logs);
+    }
+    /*
+     * Reads the logs of one application from its shard, or those of every application from every shard.
+     */
+    private <T> List<T> readShards(String applicationId, Supplier<List<T>> query) {
+        if (applicationId != null && !applicationId.isEmpty()) return shardService.onShard(applicationId, query);
+        return shardService.onEveryShard(query)
                 .stream()
-                .filter(e -> DateTimeUtils.isSameDay(e.timestamp().toLocalDate(), LocalDate.now()))
+                .flatMap(List::stream)
                 .toList();
+    }
+    private List<LogResource> toLogResources(List<AppLog> logs) {
+        var datasourceIds = logs.stream()
+                .map(AppLog::logSource)
+                .collect(Collectors.toSet());
+        var origins = logResourceRepository.findOriginsByDatasourceIds(datasourceIds);
         List<LogResource> result = new ArrayList<>();
         for (AppLog log : logs) {
-            var time = log.timestamp().toLocalTime();
-            var timeFormatter = DateTimeUtils.localTimeString(time);
-            var datasourceId = log.logSource();
-            var optionalDatasource = dataSourceRepository.findById(datasourceId);
-            if (optionalDatasource.isEmpty()) return List.of();
-            var logsDataSource = optionalDatasource.get();
-            var applicationId = logsDataSource.applicationId();
-            var optionalApplication = applicationsRepository.findById(applicationId);
-            if (optionalApplication.isEmpty()) return List.of();
-            var application = optionalApplication.get();
-            var applicationResource = new ApplicationResource(application.uuid(),application.name(),application.runtimeEnvironment());
-            var datasourceResource = new DatasourceResource(logsDataSource.name(),logsDataSource.uuid());
+            var origin = origins.get(log.logSource());
+            if (origin == null) continue;
             var resource = new LogResource(
-                    timeFormatter,
+                    DateTimeUtils.localTimeString(log.timestamp().toLocalTime()),
                     log.severity(),
-                    applicationResource,datasourceResource,
+                    origin.application(),
+                    origin.source(),
                     log.uuid(),
                     log.message());
             result.add(resource);
         }
         return result;
     }
+    /**
+     * Retrieves all log entries recorded for the current day.
+     *
+     * <p>Logs whose data source or application no longer exists are left out rather than emptying the list.</p>
+     *
+     * @return a list of {@link LogResource} objects representing today's logs,
+     * regardless of severity, application, or data source.
+     */
+    @Override
+    public List<LogResource> listAllTodayLogs() {
+        return readShards(null, () -> {
+                    try (var todayLogs = logResourceRepository.streamByDay(LocalDate.now())) {
+                        return todayLogs.toList();
+                    }
+                })
+                .stream()
+                .sorted(LOG_ORDER)
+                .toList();
+    }
     /**
      * Retrieves a list of all available application resources.
      *
@@ -161,6 +239,11 @@ public class RetrievalService implements IRetrievalService{
      * The value at each index represents the number of log entries that occurred
      * during that hour for the specified severity level.</p>
      *
+     * <p>The counts are read from the {@code log_hourly_counts} rollup maintained by ingestion, so this is a
+     * single indexed lookup regardless of log volume. Rollups outlive archiving, so archived days chart too.
+     * Each shard keeps the rollups of its application; the charts read every shard concurrently and add up
+     * their counts.</p>
+     *
      * @param logsDate the date for which to collect log data (must not be null)
      * @param severity the log severity level to filter by (e.g., "INFO", "WARN", "ERROR")
      * @return a list of 24 longs representing hourly log counts for the given severity;
@@ -169,17 +252,140 @@ public class RetrievalService implements IRetrievalService{
      */
     @Override
     public List<Long> composeChartDataBySeverity(LocalDate logsDate, String severity) {
-        var allLogs = logRepository.findBySeverityAndDate(severity, logsDate)
+        Map<Integer, Long> hourlyCounts = new HashMap<>();
+        shardService.onEveryShard(() -> hourlyCountRepository.countByHour(severity, logsDate))
+                .forEach(shardCounts -> shardCounts.forEach((hour, count) -> hourlyCounts.merge(hour, count, Long::sum)));
+        return DateTimeUtils.ALL_HOURS
                 .stream()
-                .sorted(Comparator.comparing(AppLog::timestamp))
+                .map(hour -> hourlyCounts.getOrDefault(hour.getHour(), 0L))
                 .toList();
-        var allHours = DateTimeUtils.ALL_HOURS;
-        List<Long> hourlyCount = new ArrayList<>();
-        for (LocalTime hour : allHours) {
-            var count = allLogs.stream().filter(e -> e.timestamp().getHour() == hour.getHour()).count();
-            hourlyCount.add(count);
+    }
+    /**
+     * Composes the hourly log counts of every severity on a specific date in one pass.
+     *
+     * <p>A single {@code GROUP BY severity, hour} query over the {@code log_hourly_counts} rollup fills
+     * primitive 24-hour buckets, replacing one query and 24 lookups per severity.</p>
+     *
+     * @param logsDate      the date for which to collect log data (must not be null)
+     * @param applicationId an optional application filter. If null or empty, logs from all applications are counted.
+     * @param datasourceId  an optional data source filter. If null or empty, logs from all data sources are counted.
+     * @return the hourly counts of {@code INFO}, {@code WARN} and {@code ERROR}, in that order.
+     */
+    @Override
+    public List<HourlyLogStats> composeChartData(LocalDate logsDate, String applicationId, String datasourceId) {
+        return toChartStats(countShards(applicationId, () -> hourlyCountRepository.countBySeverityAndHour(logsDate, applicationId, datasourceId)));
+    }
+    /**
+     * Composes the hourly log counts of every severity on a specific date for each application or each data source.
+     *
+     * <p>A single {@code GROUP BY group, severity, hour} query over the {@code log_hourly_counts} rollup fills the
+     * buckets of every group at once, instead of one query per application or data source.</p>
+     *
+     * @param logsDate the date for which to collect log data (must not be null)
+     * @param groupBy  {@value #CHART_GROUP_APPLICATION} or {@value #CHART_GROUP_SOURCE}.
+     * @return the hourly counts of {@code INFO}, {@code WARN} and {@code ERROR} keyed by application or data source ID.
+     * @throws IllegalArgumentException if {@code groupBy} is neither of the two groupings.
+     */
+    @Override
+    public Map<String, List<HourlyLogStats>> composeChartDataByGroup(LocalDate logsDate, String groupBy) {
+        String groupColumn;
+        if (CHART_GROUP_APPLICATION.equals(groupBy)) groupColumn = LogHourlyCountRepository.GROUP_BY_APPLICATION;
+        else if (CHART_GROUP_SOURCE.equals(groupBy)) groupColumn = LogHourlyCountRepository.GROUP_BY_SOURCE;
+        else throw new IllegalArgumentException("Chart data can only be grouped by " + CHART_GROUP_APPLICATION + " or " + CHART_GROUP_SOURCE);
+        Map<String, List<Map<String, long[]>>> shardCounts = new HashMap<>();
+        shardService.onEveryShard(() -> hourlyCountRepository.countByGroupSeverityAndHour(logsDate, groupColumn))
+                .forEach(groups -> groups.forEach((group, counts) -> shardCounts.computeIfAbsent(group, key -> new ArrayList<>()).add(counts)));
+        Map<String, List<HourlyLogStats>> stats = new TreeMap<>();
+        shardCounts.forEach((group, counts) -> stats.put(group, toChartStats(sumCounts(counts))));
+        return stats;
+    }
+    /*
+     * Reads rollup counts of one application from its shard, or adds up those of every shard.
+     */
+    private Map<String, long[]> countShards(String applicationId, Supplier<Map<String, long[]>> query) {
+        if (applicationId != null && !applicationId.isEmpty()) return shardService.onShard(applicationId, query);
+        return sumCounts(shardService.onEveryShard(query));
+    }
+    private static Map<String, long[]> sumCounts(List<Map<String, long[]>> shardCounts) {
+        Map<String, long[]> total = new HashMap<>();
+        for (Map<String, long[]> counts : shardCounts) {
+            counts.forEach((severity, buckets) -> total.merge(severity, buckets.clone(), (sum, next) -> {
+                for (int i = 0; i < sum.length; i++) sum[i] += next[i];
+                return sum;
+            }));
+        }
+        return total;
+    }
+    private static List<HourlyLogStats> toChartStats(Map<String, long[]> counts) {
+        List<HourlyLogStats> stats = new ArrayList<>(CHART_SEVERITIES.size());
+        for (String severity : CHART_SEVERITIES) {
+            var buckets = counts.getOrDefault(severity, new long[DateTimeUtils.ALL_HOURS.size()]);
+            stats.add(new HourlyLogStats(severity, Arrays.stream(buckets).boxed().toList()));
         }
-        return hourlyCount;
+        return stats;
+    }
+    /**
+     * Composes the log counts of any time range in at most {@code targetBuckets} equal buckets.
+     *
+     * <p>The finest bucket width that fits is chosen from 1 minute to 30 days. Widths under an hour are read from
+     * the {@code log_minute_counts} rollup, but only when it still covers the start of the range; otherwise, and
+     * for wider buckets, counts come from {@code log_hourly_counts}. Either way a single grouped query reads at
+     * most one row per severity and rollup interval, so a month costs about as much as a day. Buckets are aligned
+     * to their width from midnight, so the first one may start before {@code start}.</p>
+     *
+     * @param start         the start of the range (inclusive).
+     * @param end           the end of the range (exclusive).
+     * @param targetBuckets the maximum number of buckets wanted.
+     * @param applicationId an optional application filter. If null or empty, logs from all applications are counted.
+     * @param datasourceId  an optional data source filter. If null or empty, logs from all data sources are counted.
+     * @return the bucket counts of {@code INFO}, {@code WARN} and {@code ERROR}.
+     * @throws IllegalArgumentException if the range is empty or fewer than one bucket is wanted.
+     */
+    @Override
+    public LogHistogram composeHistogram(LocalDateTime start, LocalDateTime end, int targetBuckets, String applicationId, String datasourceId) {
+        if (!start.isBefore(end)) throw new IllegalArgumentException("The histogram range must end after it starts");
+        if (targetBuckets < 1) throw new IllegalArgumentException("A histogram needs at least one bucket");
+        var minutesCovered = shardService.onEveryShard(minuteCountRepository::findOldestMinute)
+                .stream()
+                .flatMap(Optional::stream)
+                .min(Comparator.naturalOrder())
+                .map(oldestMinute -> !start.isBefore(oldestMinute))
+                .orElse(false);
+        var width = HISTOGRAM_WIDTHS.stream()
+                .filter(candidate -> minutesCovered || candidate.toHours() >= 1)
+                .filter(candidate -> bucketCount(start, end, candidate) <= targetBuckets)
+                .findFirst()
+                .orElseGet(() -> {
+                    var days = Math.max(31, Math.ceilDiv(Duration.between(start, end).toDays(), targetBuckets));
+                    while (bucketCount(start, end, Duration.ofDays(days)) > targetBuckets) days++;
+                    return Duration.ofDays(days);
+                });
+        var origin = bucketOrigin(start, width);
+        var buckets = (int) bucketCount(start, end, width);
+        var counts = countShards(applicationId, () -> width.toHours() < 1 ?
+                minuteCountRepository.countBySeverity(origin, width, buckets, applicationId, datasourceId) :
+                hourlyCountRepository.countBySeverity(origin, width, buckets, applicationId, datasourceId));
+        List<String> bucketStarts = new ArrayList<>(buckets);
+        for (int i = 0; i < buckets; i++) bucketStarts.add(DateTimeUtils.toIsoUTCString(origin.plus(width.multipliedBy(i))));
+        Map<String, List<Long>> series = new LinkedHashMap<>();
+        for (String severity : CHART_SEVERITIES) {
+            series.put(severity, Arrays.stream(counts.getOrDefault(severity, new long[buckets])).boxed().toList());
+        }
+        var resolution = width.toHours() < 1 ? "MINUTE" : width.toDays() < 1 ? "HOUR" : "DAY";
+        return new LogHistogram(resolution, width.toSeconds(), bucketStarts, series);
+    }
+    /*
+     * Start of the bucket holding the given instant: widths under a day divide the day evenly and are counted
+     * from midnight, wider buckets start at midnight.
+     */
+    private static LocalDateTime bucketOrigin(LocalDateTime start, Duration width) {
+        var dayStart = start.toLocalDate().atStartOfDay();
+        if (width.toDays() >= 1) return dayStart;
+        var offsetSeconds = Duration.between(dayStart, start).toSeconds();
+        return dayStart.plusSeconds(offsetSeconds - offsetSeconds % width.toSeconds());
+    }
+    private static long bucketCount(LocalDateTime start, LocalDateTime end, Duration width) {
+        return Math.ceilDiv(Duration.between(bucketOrigin(start, width), end).toSeconds(), width.toSeconds());
     }
     /**
      * Finds a log resource by its unique identifier.
@@ -189,30 +395,10 @@ public class RetrievalService implements IRetrievalService{
      */
     @Override
     public Optional<LogResource> findLogsById(String logId) {
-        var appLog = logRepository.findById(logId);
-        if (appLog.isEmpty()) return Optional.empty();
-        var optionalDatasource = dataSourceRepository.findById(appLog.get().logSource());
-        if (optionalDatasource.isEmpty()) return Optional.empty();
-        var logsDataSource = optionalDatasource.get();
-        var applicationId = logsDataSource.applicationId();
-        var optionalApplication = applicationsRepository.findById(applicationId);
-        if (optionalApplication.isEmpty()) return Optional.empty();
-        var application = optionalApplication.get();
-        var applicationResource = new ApplicationResource(
-                application.uuid(),
-                application.name(),
-                application.runtimeEnvironment()
-        );
-        var datasourceResource = new DatasourceResource(logsDataSource.name(),logsDataSource.uuid());
-        var resource = new LogResource(
-                DateTimeUtils.convertLocalDateTimeToString(appLog.get().timestamp()),
-                appLog.get().severity(),
-                applicationResource,
-                datasourceResource,
-                appLog.get().uuid(),
-                appLog.get().message()
-        );
-        return Optional.of(resource);
+        return shardService.onEveryShard(() -> logResourceRepository.findById(logId))
+                .stream()
+                .flatMap(Optional::stream)
+                .findFirst();
     }
 
     /**
@@ -223,6 +409,85 @@ public class RetrievalService implements IRetrievalService{
      */
     @Override
     public List<LogsMetadata> findMetadataByLogId(String logId) {
-        return metadataRepository.findByRootLogId(logId);
+        return readShards(null, () -> metadataRepository.findByRootLogId(logId));
+    }
+    /**
+     * Finds the metadata of several logs in one lookup, as used by the export to add metadata columns a chunk
+     * of rows at a time.
+     *
+     * @param logIds the unique identifiers of the logs.
+     * @return the metadata grouped by log id; logs without metadata are absent.
+     */
+    @Override
+    public Map<String, List<LogsMetadata>> findMetadataByLogIds(List<String> logIds) {
+        return readShards(null, () -> metadataRepository.findByRootLogIds(logIds))
+                .stream()
+                .collect(Collectors.groupingBy(LogsMetadata::logId));
+    }
+    /**
+     * Lists the metadata types that logs can be looked up by with {@link #findLogsByMetadata(String, String)}.
+     *
+     * @return the indexed metadata types.
+     */
+    @Override
+    public List<String> listIndexedMetadataTypes() {
+        return metadataRepository.indexedTypes();
+    }
+    /**
+     * Finds the logs carrying a metadata value, such as every log of a trace or every request from a client IP.
+     *
+     * <p>The value is reduced to its index form and resolved through the {@code logs_metadata_index} inverted
+     * index in a single joined query. Archived logs are not indexed.</p>
+     *
+     * @param metadataType one of the {@link #listIndexedMetadataTypes() indexed metadata types}.
+     * @param value        the value to look up, either bare ({@code abc-123}) or as extracted ({@code traceId=abc-123}).
+     * @return the matching logs in time order, oldest first, at most {@value #SEARCH_RESULTS_LIMIT}.
+     * @throws IllegalArgumentException if the metadata type is not indexed.
+     */
+    @Override
+    public List<LogResource> findLogsByMetadata(String metadataType, String value) {
+        if (!metadataRepository.indexedTypes().contains(metadataType))
+            throw new IllegalArgumentException("Metadata type " + metadataType + " is not indexed");
+        if (value == null || value.isBlank()) return List.of();
+        var indexValue = MetadataEncoding.indexValue(metadataType, value);
+        return readShards(null, () -> logResourceRepository.findByMetadataValue(metadataType, indexValue, SEARCH_RESULTS_LIMIT))
+                .stream()
+                .sorted(LOG_ORDER)
+                .limit(SEARCH_RESULTS_LIMIT)
+                .toList();
+    }
+    /**
+     * Streams the logs matching a JSON API query, see {@link LogResourceRepository#streamByQuery(LogQuery)}.
+     *
+     * <p>Logs are read from {@code app_logs} only; days already moved to archive segments are not included.
+     * A query without an application filter streams every shard at once, each up to the end of the page, and
+     * merges them lazily in {@code (timestamp, uuid)} order before skipping to the page.</p>
+     *
+     * @param query the filters and page bounds.
+     * @return a lazily populated stream of the matching logs in {@code (timestamp, uuid)} order.
+     */
+    @Override
+    public Stream<LogResource> streamLogs(LogQuery query) {
+        if (!shardService.isEnabled()) return logResourceRepository.streamByQuery(query);
+        if (query.applicationId() != null && !query.applicationId().isEmpty())
+            return shardService.onShard(query.applicationId(), () -> logResourceRepository.streamByQuery(query));
+        var pageEnd = (int) Math.min(Integer.MAX_VALUE, (long) query.offset() + query.limit());
+        var shardQuery = new LogQuery(query.startTime(), query.endTime(), query.severity(), query.applicationId(),
+                query.datasourceId(), query.keyword(), query.after(), 0, pageEnd);
+        List<Stream<LogResource>> opened = Collections.synchronizedList(new ArrayList<>());
+        List<Stream<LogResource>> shardStreams;
+        try {
+            shardStreams = shardService.onEveryShard(() -> {
+                var shardStream = logResourceRepository.streamByQuery(shardQuery);
+                opened.add(shardStream);
+                return shardStream;
+            });
+        } catch (RuntimeException ex) {
+            opened.forEach(Stream::close);
+            throw ex;
+        }
+        return MergedStreams.mergeSorted(shardStreams, LOG_ORDER)
+                .skip(query.offset())
+                .limit(query.limit());
     }
 }
@@ -0,0 +1,170 @@
+package com.kenyajug.regression.services;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.repository.shard.ShardContext;
+import com.kenyajug.regression.repository.shard.ShardRoutingDataSource;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+@Slf4j
+@Service
+public class ShardService implements IShardService {
+    private final ShardRoutingDataSource routingDataSource;
+    private final IWriterService writerService;
+    private final PlatformTransactionManager transactionManager;
+    private final int maxGroupSize;
+    private final long maxDelayMillis;
+    private final Map<String, WriterService> shardWriters = new ConcurrentHashMap<>();
+    public ShardService(ObjectProvider<ShardRoutingDataSource> routingDataSource,
+                        IWriterService writerService,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${regression.writer.max-group-size:64}") int maxGroupSize,
+                        @Value("${regression.writer.max-delay-millis:2}") long maxDelayMillis) {
+        this.routingDataSource = routingDataSource.getIfAvailable();
+        this.writerService = writerService;
+        this.transactionManager = transactionManager;
+        this.maxGroupSize = maxGroupSize;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+    @Override
+    public boolean isEnabled() {
+        return routingDataSource != null;
+    }
+    @Override
+    public <T> T onShard(String applicationId, Supplier<T> action) {
+        if (!isEnabled() || applicationId == null || applicationId.isEmpty()) return action.get();
+        if (TransactionSynchronizationManager.isActualTransactionActive() && !Objects.equals(ShardContext.current(), applicationId))
+            throw new IllegalStateException("Cannot switch to the shard of application " + applicationId + " inside a transaction");
+        return ShardContext.call(applicationId, action);
+    }
+    /**
+     * Runs an action on the core database and on every shard.
+     * <p>
+     * The core database is included because applications without a shard, such as those that have not ingested
+     * logs since shards were enabled, keep their logs there.
+     * </p>
+     */
+    @Override
+    public <T> List<T> onEveryShard(Supplier<T> action) {
+        List<T> results = new ArrayList<>();
+        if (!isEnabled()) {
+            results.add(action.get());
+            return results;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive())
+            throw new IllegalStateException("Cannot read every shard inside a transaction");
+        List<String> targets = new ArrayList<>();
+        targets.add(null);
+        targets.addAll(routingDataSource.shardIds());
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<T>> futures = targets.stream()
+                    .map(applicationId -> executor.submit(() -> ShardContext.call(applicationId, action)))
+                    .toList();
+            for (Future<T> future : futures) {
+                results.add(await(future));
+            }
+        }
+        return results;
+    }
+    @Override
+    public IWriterService writerFor(String applicationId) {
+        if (!isEnabled()) return writerService;
+        return shardWriters.computeIfAbsent(applicationId, id -> {
+            routingDataSource.createShard(id);
+            return new WriterService(id, transactionManager, maxGroupSize, maxDelayMillis);
+        });
+    }
+    @Override
+    public IWriterService existingWriterFor(String applicationId) {
+        if (!isEnabled() || applicationId == null || !routingDataSource.hasShard(applicationId)) return writerService;
+        return writerFor(applicationId);
+    }
+    @Override
+    public <T> List<T> executeOnEveryShard(Supplier<T> command) {
+        List<Future<T>> futures = new ArrayList<>();
+        futures.add(writerService.submit(command));
+        if (isEnabled()) {
+            for (String applicationId : routingDataSource.shardIds()) {
+                futures.add(existingWriterFor(applicationId).submit(command));
+            }
+        }
+        List<T> results = new ArrayList<>();
+        RuntimeException failure = null;
+        for (Future<T> future : futures) {
+            try {
+                results.add(await(future));
+            } catch (RuntimeException ex) {
+                if (failure == null) failure = ex;
+            }
+        }
+        if (failure != null) throw failure;
+        return results;
+    }
+    @Override
+    public void dropShard(String applicationId) {
+        if (!isEnabled()) return;
+        var shardWriter = shardWriters.remove(applicationId);
+        try {
+            if (shardWriter != null) shardWriter.stop();
+            routingDataSource.dropShard(applicationId);
+        } catch (IOException ex) {
+            log.error("Failed to delete the log shard of application {}: {}", applicationId, ex.getLocalizedMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while stopping the writer of application {}, its shard is kept", applicationId);
+        }
+    }
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        for (WriterService shardWriter : shardWriters.values()) {
+            shardWriter.stop();
+        }
+    }
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) throw cause;
+            if (ex.getCause() instanceof Error cause) throw cause;
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the log shards", ex);
+        }
+    }
+}
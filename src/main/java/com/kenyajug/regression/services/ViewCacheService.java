@@ -0,0 +1,76 @@
+package com.kenyajug.regression.services;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.models.CacheStats;
+import com.kenyajug.regression.utils.LookupCache;
+import com.kenyajug.regression.utils.SingleFlight;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.time.Duration;
+import java.util.function.Supplier;
+@Service
+public class ViewCacheService implements IViewCacheService {
+    private record ViewKey(String view, Object key) {}
+    private final LookupCache<ViewKey, Object> cache;
+    private final SingleFlight<ViewKey> loads = new SingleFlight<>();
+    public ViewCacheService(@Value("${regression.view-cache.max-size:64}") int maxSize,
+                            @Value("${regression.view-cache.ttl-seconds:30}") long ttlSeconds) {
+        this.cache = new LookupCache<>("views", maxSize, Duration.ofSeconds(ttlSeconds));
+    }
+    /**
+     * Returns the cached data of a page, assembling and caching it on a miss or once the cached data has expired.
+     * <p>
+     * Page data is dropped by {@link #invalidateAll()} when ingestion commits new logs; the time to live bounds how
+     * long changes made elsewhere, such as purges and retention, take to show.
+     * </p>
+     * <p>
+     * Concurrent misses of the same page share one load, so a crowd opening the same view at once costs one set of
+     * queries. This holds with caching disabled too.
+     * </p>
+     *
+     * @param view   the name of the page.
+     * @param key    what the page data depends on.
+     * @param loader assembles the page data on a miss.
+     * @param <T>    the type of the page data.
+     * @return the cached or freshly assembled page data.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(String view, Object key, Supplier<T> loader) {
+        return (T) cache.get(new ViewKey(view, key), viewKey -> loads.run(viewKey, loader));
+    }
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+        loads.forgetAll();
+    }
+    @Override
+    public long sharedLoads() {
+        return loads.sharedCount();
+    }
+    @Override
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
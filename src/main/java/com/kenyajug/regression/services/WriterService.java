@@ -0,0 +1,223 @@
+package com.kenyajug.regression.services;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.repository.shard.ShardContext;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+@Slf4j
+@Service
+public class WriterService implements IWriterService {
+    private static final long IDLE_POLL_MILLIS = 100;
+    private static final long SHUTDOWN_WAIT_MILLIS = 5000;
+    private record WriteCommand<T>(Supplier<T> action, CompletableFuture<T> result, boolean exclusive) {}
+    private final BlockingQueue<WriteCommand<?>> queue = new LinkedBlockingQueue<>();
+    private final TransactionTemplate groupTransaction;
+    private final TransactionTemplate commandTransaction;
+    private final int maxGroupSize;
+    private final long maxDelayNanos;
+    private final Thread writerThread;
+    private volatile boolean running = true;
+    @Autowired
+    public WriterService(PlatformTransactionManager transactionManager,
+                         @Value("${regression.writer.max-group-size:64}") int maxGroupSize,
+                         @Value("${regression.writer.max-delay-millis:2}") long maxDelayMillis) {
+        this(null, transactionManager, maxGroupSize, maxDelayMillis);
+    }
+    /*
+     * Writer of one application's log shard, see ShardService; its thread is routed to the shard for good.
+     */
+    WriterService(String shardId,
+                  PlatformTransactionManager transactionManager,
+                  int maxGroupSize,
+                  long maxDelayMillis) {
+        this.groupTransaction = new TransactionTemplate(transactionManager);
+        this.commandTransaction = new TransactionTemplate(transactionManager);
+        this.commandTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+        this.maxGroupSize = Math.max(1, maxGroupSize);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxDelayMillis));
+        this.writerThread = Thread.ofPlatform()
+                .name(shardId == null ? "regression-writer" : "regression-writer-" + shardId)
+                .daemon()
+                .start(() -> ShardContext.call(shardId, () -> {
+                    writeLoop();
+                    return null;
+                }));
+    }
+    /**
+     * Queues a write command for the writer thread.
+     * <p>
+     * Commands submitted from the writer thread itself, i.e. from inside another command, run immediately as
+     * part of that command.
+     * </p>
+     *
+     * @param command the writes to run.
+     * @param <T>     the type of the command's result.
+     * @return a future completed with the command's result after commit.
+     */
+    @Override
+    public <T> CompletableFuture<T> submit(Supplier<T> command) {
+        return enqueue(command, false);
+    }
+    @Override
+    public <T> T execute(Supplier<T> command) {
+        return join(submit(command));
+    }
+    @Override
+    public void run(Runnable command) {
+        execute(() -> {
+            command.run();
+            return null;
+        });
+    }
+    @Override
+    public <T> T executeExclusive(Supplier<T> command) {
+        if (Thread.currentThread() == writerThread)
+            throw new IllegalStateException("An exclusive command cannot run inside another write command");
+        return join(enqueue(command, true));
+    }
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writerThread.join(SHUTDOWN_WAIT_MILLIS);
+    }
+    private <T> CompletableFuture<T> enqueue(Supplier<T> command, boolean exclusive) {
+        var result = new CompletableFuture<T>();
+        if (Thread.currentThread() == writerThread) {
+            try {
+                result.complete(command.get());
+            } catch (RuntimeException ex) {
+                result.completeExceptionally(ex);
+            }
+            return result;
+        }
+        if (!running) {
+            result.completeExceptionally(new IllegalStateException("The database writer has been stopped"));
+            return result;
+        }
+        queue.add(new WriteCommand<>(command, result, exclusive));
+        return result;
+    }
+    private static <T> T join(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) throw cause;
+            if (ex.getCause() instanceof Error cause) throw cause;
+            throw ex;
+        }
+    }
+    /*
+     * Takes the first queued command, then gathers whatever else is queued, waiting at most max-delay-millis
+     * for more, until the group is max-group-size commands large.
+     */
+    private void writeLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                var first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                List<WriteCommand<?>> group = new ArrayList<>();
+                group.add(first);
+                queue.drainTo(group, maxGroupSize - 1);
+                var deadline = System.nanoTime() + maxDelayNanos;
+                while (group.size() < maxGroupSize) {
+                    var remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) break;
+                    var next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    group.add(next);
+                    queue.drainTo(group, maxGroupSize - group.size());
+                }
+                commitInOrder(group);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+        }
+        WriteCommand<?> pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result().completeExceptionally(new IllegalStateException("The database writer has been stopped"));
+        }
+    }
+    /*
+     * Commits the gathered commands in queue order, splitting the group around exclusive commands, which run on
+     * their own between the group transactions.
+     */
+    private void commitInOrder(List<WriteCommand<?>> commands) {
+        List<WriteCommand<?>> group = new ArrayList<>();
+        for (WriteCommand<?> command : commands) {
+            if (!command.exclusive()) {
+                group.add(command);
+                continue;
+            }
+            if (!group.isEmpty()) commitGroup(group);
+            group = new ArrayList<>();
+            runExclusive(command);
+        }
+        if (!group.isEmpty()) commitGroup(group);
+    }
+    private <T> void runExclusive(WriteCommand<T> command) {
+        try {
+            command.result().complete(command.action().get());
+        } catch (RuntimeException | Error ex) {
+            command.result().completeExceptionally(ex);
+        }
+    }
+    private void commitGroup(List<WriteCommand<?>> group) {
+        List<Runnable> completions = new ArrayList<>(group.size());
+        try {
+            groupTransaction.executeWithoutResult(status -> {
+                for (WriteCommand<?> command : group) {
+                    runCommand(command, completions);
+                }
+            });
+            completions.forEach(Runnable::run);
+            if (group.size() > 1) log.debug("Committed {} write commands in one transaction", group.size());
+        } catch (RuntimeException | Error ex) {
+            log.error("Failed to commit a group of {} write commands: {}", group.size(), ex.getLocalizedMessage());
+            group.forEach(command -> command.result().completeExceptionally(ex));
+        }
+    }
+    private <T> void runCommand(WriteCommand<T> command, List<Runnable> completions) {
+        try {
+            var value = commandTransaction.execute(status -> command.action().get());
+            completions.add(() -> command.result().complete(value));
+        } catch (RuntimeException ex) {
+            command.result().completeExceptionally(ex);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.kenyajug.regression.utils;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+/*
+ * Column encodings used by the columnar segment store: delta coding for sorted timestamps, dictionary coding
+ * for low cardinality text columns, run-length coding for the dictionary codes and LEB128 varints on disk.
+ */
+public final class ColumnarEncoding {
+    private ColumnarEncoding(){}
+    /**
+     * A dictionary encoded column: each distinct value is stored once and rows hold its index.
+     *
+     * @param values the distinct values, in order of first appearance.
+     * @param codes  one index into {@code values} per row.
+     */
+    public record Dictionary(List<String> values, int[] codes) {}
+    /**
+     * A run-length encoded column of integer codes: {@code lengths[i]} consecutive rows hold {@code values[i]}.
+     *
+     * @param values  the code of each run.
+     * @param lengths the number of rows in each run.
+     */
+    public record RunLengths(int[] values, int[] lengths) {
+        public int rowCount() {
+            return Arrays.stream(lengths).sum();
+        }
+    }
+    /**
+     * Replaces every value after the first with its difference from the previous one. Sorted input yields
+     * small non-negative deltas that varint encode in one or two bytes.
+     *
+     * @param values the values to encode.
+     * @return the delta encoded values.
+     */
+    public static long[] deltaEncode(long[] values) {
+        var deltas = new long[values.length];
+        for (int index = 0; index < values.length; index++) {
+            deltas[index] = index == 0 ? values[0] : values[index] - values[index - 1];
+        }
+        return deltas;
+    }
+    /**
+     * Reverses {@link #deltaEncode(long[])}.
+     *
+     * @param deltas the delta encoded values.
+     * @return the original values.
+     */
+    public static long[] deltaDecode(long[] deltas) {
+        var values = new long[deltas.length];
+        long running = 0;
+        for (int index = 0; index < deltas.length; index++) {
+            running += deltas[index];
+            values[index] = running;
+        }
+        return values;
+    }
+    /**
+     * Dictionary encodes a text column; {@code null} values are stored as the empty string.
+     *
+     * @param column the column values, one per row.
+     * @return the dictionary and the per-row codes.
+     */
+    public static Dictionary dictionaryEncode(List<String> column) {
+        Map<String, Integer> lookup = new HashMap<>();
+        List<String> values = new ArrayList<>();
+        var codes = new int[column.size()];
+        for (int index = 0; index < column.size(); index++) {
+            var value = column.get(index) == null ? "" : column.get(index);
+            codes[index] = lookup.computeIfAbsent(value, key -> {
+                values.add(key);
+                return values.size() - 1;
+            });
+        }
+        return new Dictionary(List.copyOf(values), codes);
+    }
+    /**
+     * Collapses consecutive equal codes into runs.
+     *
+     * @param codes the per-row codes.
+     * @return the runs.
+     */
+    public static RunLengths runLengthEncode(int[] codes) {
+        var values = new int[codes.length];
+        var lengths = new int[codes.length];
+        int runs = 0;
+        for (int index = 0; index < codes.length; index++) {
+            if (runs > 0 && values[runs - 1] == codes[index]) {
+                lengths[runs - 1]++;
+                continue;
+            }
+            values[runs] = codes[index];
+            lengths[runs] = 1;
+            runs++;
+        }
+        return new RunLengths(Arrays.copyOf(values, runs), Arrays.copyOf(lengths, runs));
+    }
+    /**
+     * Expands runs back into one code per row.
+     *
+     * @param runLengths the runs.
+     * @return the per-row codes.
+     */
+    public static int[] runLengthDecode(RunLengths runLengths) {
+        var codes = new int[runLengths.rowCount()];
+        int row = 0;
+        for (int run = 0; run < runLengths.values().length; run++) {
+            Arrays.fill(codes, row, row + runLengths.lengths()[run], runLengths.values()[run]);
+            row += runLengths.lengths()[run];
+        }
+        return codes;
+    }
+    /**
+     * Writes a non-negative value as an unsigned LEB128 varint.
+     *
+     * @param output the output to write to.
+     * @param value  the value, must not be negative.
+     * @throws IOException if the output cannot be written.
+     */
+    public static void writeVarLong(DataOutput output, long value) throws IOException {
+        if (value < 0) throw new IllegalArgumentException("Varint values must not be negative: " + value);
+        while ((value & ~0x7FL) != 0) {
+            output.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        output.writeByte((int) value);
+    }
+    /**
+     * Reads an unsigned LEB128 varint written by {@link #writeVarLong(DataOutput, long)}.
+     *
+     * @param input the input to read from.
+     * @return the value.
+     * @throws IOException if the input cannot be read or is malformed.
+     */
+    public static long readVarLong(DataInput input) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            var current = input.readByte();
+            value |= (long) (current & 0x7F) << shift;
+            if ((current & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed varint");
+    }
+}
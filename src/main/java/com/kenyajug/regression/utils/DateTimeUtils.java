@@ -169,4 +169,23 @@ public final class DateTimeUtils {
     public static boolean isSameDay(LocalDate date1, LocalDate date2) {
         return date1.isEqual(date2);
     }
+    /**
+     * Formats a UTC {@link LocalDateTime} as an ISO-8601 instant, e.g. {@code 2025-05-08T12:00:00Z}.
+     *
+     * @param localDateTime the UTC date-time to format
+     * @return the ISO-8601 instant string
+     */
+    public static String toIsoUTCString(LocalDateTime localDateTime) {
+        return localDateTime.toInstant(ZoneOffset.UTC).toString();
+    }
+    /**
+     * Parses an ISO-8601 instant, e.g. {@code 2025-05-08T12:00:00Z}, to a UTC {@link LocalDateTime}.
+     *
+     * @param isoTimestamp the ISO-8601 instant string
+     * @return the UTC date-time
+     * Might throw DateTimeParseException if the input string cannot be parsed
+     */
+    public static LocalDateTime fromIsoUTCString(String isoTimestamp) {
+        return LocalDateTime.ofInstant(Instant.parse(isoTimestamp), ZoneOffset.UTC);
+    }
 }
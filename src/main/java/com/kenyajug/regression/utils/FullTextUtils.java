@@ -0,0 +1,138 @@
+package com.kenyajug.regression.utils;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+public final class FullTextUtils {
+    private FullTextUtils(){}
+    /**
+     * Translates a keyword typed into the logs search box into an FTS5 {@code MATCH} expression.
+     * <p>
+     * Text wrapped in double quotes is kept together as a phrase query, a term ending with {@code *}
+     * becomes a prefix query and every other whitespace separated term is matched as-is. All terms are
+     * quoted so that FTS5 operators and punctuation typed by the user (e.g. {@code -}, {@code :}, {@code .})
+     * are never interpreted as query syntax. Terms are implicitly combined with {@code AND}.
+     * </p>
+     *
+     * @param keyword the raw keyword, e.g. {@code "connection refused" Null* timeout}
+     * @return an {@link Optional} containing the MATCH expression, or empty if the keyword has no searchable terms
+     */
+    public static Optional<String> toMatchExpression(String keyword) {
+        var terms = parseTerms(keyword);
+        if (terms.isEmpty()) return Optional.empty();
+        var expression = terms.stream()
+                .map(term -> term.prefix() ? quote(term.text()) + "*" : quote(term.text()))
+                .toList();
+        return Optional.of(String.join(" ", expression));
+    }
+    /**
+     * Translates a keyword typed into the logs search box into a PostgreSQL {@code to_tsquery} expression.
+     * <p>
+     * The keyword is parsed exactly like {@link #toMatchExpression(String)}: phrase words are chained with
+     * the {@code <->} (followed by) operator, prefix terms get the {@code :*} suffix and all terms are
+     * combined with {@code &}. Every word is quoted as a lexeme so that user input is never read as
+     * tsquery syntax.
+     * </p>
+     *
+     * @param keyword the raw keyword, e.g. {@code "connection refused" Null* timeout}
+     * @return an {@link Optional} containing the tsquery expression, or empty if the keyword has no searchable terms
+     */
+    public static Optional<String> toTsQuery(String keyword) {
+        var terms = parseTerms(keyword);
+        if (terms.isEmpty()) return Optional.empty();
+        var expression = terms.stream()
+                .map(term -> {
+                    var words = Arrays.stream(term.text().split("\\s+"))
+                            .map(FullTextUtils::quoteLexeme)
+                            .toList();
+                    var phrase = String.join(" <-> ", words);
+                    return term.prefix() ? phrase + ":*" : phrase;
+                })
+                .toList();
+        return Optional.of(String.join(" & ", expression));
+    }
+    /**
+     * Evaluates a keyword against a single message without the full-text index, as needed for logs that
+     * have been moved out of the database into archive segments.
+     * <p>
+     * The keyword is parsed exactly like {@link #toMatchExpression(String)}; every phrase and term has to
+     * appear in the message, compared case-insensitively.
+     * </p>
+     *
+     * @param keyword the raw keyword typed into the logs search box
+     * @param message the log message to test
+     * @return {@code true} if the keyword has searchable terms and the message contains all of them
+     */
+    public static boolean matches(String keyword, String message) {
+        var terms = parseTerms(keyword);
+        if (terms.isEmpty() || message == null) return false;
+        var haystack = message.toLowerCase(Locale.ROOT);
+        return terms.stream().allMatch(term -> haystack.contains(term.text().toLowerCase(Locale.ROOT)));
+    }
+    private record Term(String text, boolean prefix) {}
+    private static List<Term> parseTerms(String keyword) {
+        if (keyword == null || keyword.isBlank()) return List.of();
+        List<Term> terms = new ArrayList<>();
+        var current = new StringBuilder();
+        var insidePhrase = false;
+        for (char character : keyword.toCharArray()) {
+            if (character == '"') {
+                if (insidePhrase) addPhrase(terms, current.toString());
+                else addTerms(terms, current.toString());
+                current.setLength(0);
+                insidePhrase = !insidePhrase;
+                continue;
+            }
+            current.append(character);
+        }
+        if (insidePhrase) addPhrase(terms, current.toString());
+        else addTerms(terms, current.toString());
+        return terms;
+    }
+    private static void addPhrase(List<Term> terms, String phrase) {
+        if (phrase.isBlank()) return;
+        terms.add(new Term(phrase.strip(), false));
+    }
+    private static void addTerms(List<Term> terms, String text) {
+        for (String token : text.strip().split("\\s+")) {
+            if (token.isEmpty()) continue;
+            if (token.endsWith("*")) {
+                var prefix = token.replaceAll("\\*+$", "");
+                if (prefix.isEmpty()) continue;
+                terms.add(new Term(prefix, true));
+                continue;
+            }
+            terms.add(new Term(token, false));
+        }
+    }
+    private static String quoteLexeme(String word) {
+        return "'" + word.replace("\\", "\\\\").replace("'", "''") + "'";
+    }
+    private static String quote(String term) {
+        return "\"" + term.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,145 @@
+package com.kenyajug.regression.utils;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.models.CacheStats;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+/*
+ * Small read-through cache for lookups of rarely changing rows, bounded by size (least recently used entries
+ * are evicted first) and by time to live. A maximum size or time to live of zero disables caching.
+ * <p>
+ * Loaders run outside the cache lock, so a slow query never blocks readers of other keys; two threads missing
+ * the same key at once may both load it. Writers are expected to invalidate the affected keys themselves; a value
+ * loaded while an invalidation happened is returned but not cached, so it cannot outlive the write. An
+ * invalidation made inside a transaction is repeated once the transaction completes, since other connections
+ * keep reading, and caching, the previous rows until the commit.
+ * </p>
+ */
+public final class LookupCache<K, V> {
+    private record Entry<V>(V value, long expiresAtNanos) {}
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long generation;
+    public LookupCache(String name, int maxSize, Duration ttl) {
+        this(name, maxSize, ttl, System::nanoTime);
+    }
+    public LookupCache(String name, int maxSize, Duration ttl, LongSupplier nanoClock) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                var evict = size() > LookupCache.this.maxSize;
+                if (evict) evictions++;
+                return evict;
+            }
+        };
+    }
+    /**
+     * Returns the cached value of a key, loading and caching it on a miss or once the cached value has expired.
+     *
+     * @param key    the key to look up.
+     * @param loader computes the value of a missing key; may return {@code Optional.empty()}, which is cached too.
+     * @return the cached or freshly loaded value.
+     */
+    public V get(K key, Function<K, V> loader) {
+        if (!isEnabled()) return loader.apply(key);
+        long loadGeneration;
+        synchronized (this) {
+            var entry = entries.get(key);
+            if (entry != null && entry.expiresAtNanos() - nanoClock.getAsLong() > 0) {
+                hits++;
+                return entry.value();
+            }
+            if (entry != null) {
+                entries.remove(key);
+                evictions++;
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+        var value = loader.apply(key);
+        synchronized (this) {
+            if (loadGeneration == generation) entries.put(key, new Entry<>(value, nanoClock.getAsLong() + ttlNanos));
+        }
+        return value;
+    }
+    /**
+     * Drops the cached value of a key, now and again after the surrounding transaction, if any, completes.
+     *
+     * @param key the key to drop.
+     */
+    public void invalidate(K key) {
+        remove(key);
+        afterTransaction(() -> remove(key));
+    }
+    /**
+     * Drops every cached value, now and again after the surrounding transaction, if any, completes.
+     */
+    public void invalidateAll() {
+        clear();
+        afterTransaction(this::clear);
+    }
+    /**
+     * Returns the hit, miss and eviction counters of this cache since it was created.
+     *
+     * @return a snapshot of the cache statistics.
+     */
+    public synchronized CacheStats stats() {
+        return new CacheStats(name, hits, misses, evictions, entries.size());
+    }
+    private synchronized void remove(K key) {
+        generation++;
+        entries.remove(key);
+    }
+    private synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+    private static void afterTransaction(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+    }
+    private boolean isEnabled() {
+        return maxSize > 0 && ttlNanos > 0;
+    }
+}
@@ -0,0 +1,85 @@
+package com.kenyajug.regression.utils;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+/*
+ * K-way merge of streams that are each already sorted, used to combine the log streams read from several shards
+ * without buffering them: only the current head of every stream is held in memory.
+ */
+public final class MergedStreams {
+    private MergedStreams() {
+    }
+    /**
+     * Merges sorted streams into one sorted stream.
+     * <p>
+     * Elements are pulled from the streams only as the merged stream is consumed. Equal elements keep the order
+     * of the streams they come from. Closing the merged stream closes every source stream.
+     * </p>
+     *
+     * @param streams the streams to merge, each sorted by {@code order}; elements must not be null.
+     * @param order   the order of the streams and of the result.
+     * @param <T>     the type of the elements.
+     * @return the merged stream.
+     */
+    public static <T> Stream<T> mergeSorted(List<Stream<T>> streams, Comparator<? super T> order) {
+        var sources = streams.stream()
+                .map(Stream::iterator)
+                .toList();
+        var merged = new Iterator<T>() {
+            private PriorityQueue<Head<T>> heads;
+            @Override
+            public boolean hasNext() {
+                return !heads().isEmpty();
+            }
+            @Override
+            public T next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                var head = heads.poll();
+                var source = sources.get(head.source());
+                if (source.hasNext()) heads.add(new Head<>(source.next(), head.source()));
+                return head.value();
+            }
+            private PriorityQueue<Head<T>> heads() {
+                if (heads != null) return heads;
+                heads = new PriorityQueue<>(Math.max(1, sources.size()), Comparator.<Head<T>, T>comparing(Head::value, order)
+                        .thenComparingInt(Head::source));
+                for (int index = 0; index < sources.size(); index++) {
+                    if (sources.get(index).hasNext()) heads.add(new Head<>(sources.get(index).next(), index));
+                }
+                return heads;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> streams.forEach(Stream::close));
+    }
+    private record Head<T>(T value, int source) {}
+}
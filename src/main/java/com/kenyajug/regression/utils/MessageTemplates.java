@@ -0,0 +1,79 @@
+package com.kenyajug.regression.utils;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import java.util.regex.Pattern;
+public final class MessageTemplates {
+    public static final int MAX_TEMPLATE_LENGTH = 200;
+    private static final Pattern SPRING_BOOT_LINE = Pattern.compile("---\\s+\\[.*?]\\s+(\\S+)\\s*:\\s(.*)$");
+    private static final Pattern LEADING_TIMESTAMP = Pattern.compile("^\\[?\\d{4}-\\d{2}-\\d{2}[T ]\\d{2}:\\d{2}:\\d{2}\\S*\\s+");
+    private static final Pattern LEADING_SEVERITY = Pattern.compile("^(?:TRACE|DEBUG|INFO|WARN|ERROR|FATAL)\\s+");
+    private static final Pattern QUOTED = Pattern.compile("\"[^\"]*\"|'[^']*'");
+    private static final Pattern UUID = Pattern.compile("\\b[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}\\b");
+    private static final Pattern IP_ADDRESS = Pattern.compile("\\b\\d{1,3}(?:\\.\\d{1,3}){3}(?::\\d+)?\\b");
+    private static final Pattern HEX = Pattern.compile("\\b(?:0x[0-9a-fA-F]+|(?=[0-9a-fA-F]*\\d)[0-9a-fA-F]{8,})\\b");
+    private static final Pattern NUMBER = Pattern.compile("-?\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private MessageTemplates(){}
+    /**
+     * Reduces a log message to its template, so that occurrences of the same statement with different
+     * parameters count as one recurring message.
+     * <p>
+     * Only the first line is kept, so stack traces collapse onto their exception message. The timestamp,
+     * severity, process and thread prefix of the Spring Boot console format is dropped, keeping the logger
+     * name, and quoted strings, UUIDs, IP addresses, hexadecimal values and numbers are replaced by
+     * placeholders. The template is cut at {@value #MAX_TEMPLATE_LENGTH} characters.
+     * </p>
+     *
+     * @param message the raw log message, e.g. {@code 2025-06-22T10:15:30 ERROR 42 --- [main] c.e.Users : User 17 not found}
+     * @return the template, e.g. {@code c.e.Users : User <num> not found}; empty for a blank message.
+     */
+    public static String normalize(String message) {
+        if (message == null) return "";
+        var line = message.strip().lines().findFirst().orElse("");
+        var springBoot = SPRING_BOOT_LINE.matcher(line);
+        if (springBoot.find()) {
+            line = springBoot.group(1) + " : " + springBoot.group(2);
+        } else {
+            line = LEADING_TIMESTAMP.matcher(line).replaceFirst("");
+            line = LEADING_SEVERITY.matcher(line).replaceFirst("");
+        }
+        line = QUOTED.matcher(line).replaceAll("<str>");
+        line = UUID.matcher(line).replaceAll("<uuid>");
+        line = IP_ADDRESS.matcher(line).replaceAll("<ip>");
+        line = HEX.matcher(line).replaceAll("<hex>");
+        line = NUMBER.matcher(line).replaceAll("<num>");
+        line = WHITESPACE.matcher(line).replaceAll(" ").strip();
+        return truncate(line);
+    }
+    /**
+     * Cuts a value at {@value #MAX_TEMPLATE_LENGTH} characters, so long values do not bloat tracked items.
+     *
+     * @param value the value.
+     * @return the value, cut if needed.
+     */
+    public static String truncate(String value) {
+        if (value == null) return "";
+        return value.length() <= MAX_TEMPLATE_LENGTH ? value : value.substring(0, MAX_TEMPLATE_LENGTH);
+    }
+}
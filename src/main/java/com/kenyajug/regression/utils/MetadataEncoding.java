@@ -0,0 +1,174 @@
+package com.kenyajug.regression.utils;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.LogsMetadata;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+/*
+ * Packed encoding of all metadata entries of one log: a format version byte, a varint entry count and per entry
+ * a varint header holding the type code, the entry UUID as 16 raw bytes when it is canonical and the value as a
+ * length prefixed UTF-8 string.
+ */
+public final class MetadataEncoding {
+    private MetadataEncoding(){}
+    private static final int FORMAT_VERSION = 1;
+    /*
+     * Type codes are persisted, entries may only ever be appended. Code 0 is reserved for types outside this
+     * list, whose name is then stored inline.
+     */
+    private static final List<String> TYPE_CODES = List.of(
+            "clientIpAddress",
+            "requestLatencyMs",
+            "configuredPort",
+            "tomcatStartupPort",
+            "sessionId",
+            "exceptionClassAndMessage",
+            "exceptionClass",
+            "traceIdentifier",
+            "threadName",
+            "logSeverityLevel",
+            "sourceLoggerClass",
+            "processId",
+            "httpQueryParameters",
+            "httpHostHeader",
+            "activeProfiles",
+            "userAgentHeader",
+            "httpRequestMethodAndPath",
+            "httpRequestPath",
+            "httpResponseStatusCode"
+    );
+    private static final Map<String, Pattern> TYPE_PATTERNS = Constants.regexTuples.stream()
+            .collect(Collectors.toMap(Constants.Tuple::logName, tuple -> Pattern.compile(tuple.regex())));
+    /**
+     * Reduces a metadata value to the needle it is indexed and looked up by: the first group captured by the
+     * extractor of its type, e.g. {@code abc-123} for the trace identifier {@code traceId=abc-123}. Values the
+     * extractor does not match, such as a bare identifier typed into a lookup, are returned trimmed.
+     *
+     * @param type  the metadata type.
+     * @param value the metadata value.
+     * @return the index value, or {@code null} if the value is {@code null}.
+     */
+    public static String indexValue(String type, String value) {
+        if (value == null) return null;
+        var pattern = TYPE_PATTERNS.get(type);
+        if (pattern == null) return value.trim();
+        var matcher = pattern.matcher(value);
+        if (!matcher.find() || matcher.groupCount() == 0 || matcher.group(1) == null) return value.trim();
+        return matcher.group(1);
+    }
+    /**
+     * Packs the metadata entries of a log; the log identifier itself is not stored.
+     *
+     * @param entries the metadata entries of a single log.
+     * @return the packed entries.
+     */
+    public static byte[] encode(List<LogsMetadata> entries) {
+        var bytes = new ByteArrayOutputStream(16 + entries.size() * 40);
+        try (var output = new DataOutputStream(bytes)) {
+            output.writeByte(FORMAT_VERSION);
+            ColumnarEncoding.writeVarLong(output, entries.size());
+            for (LogsMetadata entry : entries) {
+                var typeCode = TYPE_CODES.indexOf(entry.metadataType()) + 1;
+                var binaryUuid = isCanonicalUuid(entry.uuid());
+                ColumnarEncoding.writeVarLong(output, ((long) typeCode << 1) | (binaryUuid ? 1 : 0));
+                if (typeCode == 0) writeString(output, entry.metadataType());
+                if (binaryUuid) {
+                    var uuid = UUID.fromString(entry.uuid());
+                    output.writeLong(uuid.getMostSignificantBits());
+                    output.writeLong(uuid.getLeastSignificantBits());
+                } else {
+                    writeString(output, entry.uuid());
+                }
+                writeString(output, entry.metadataValue());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+    /**
+     * Unpacks the entries written by {@link #encode(List)}.
+     *
+     * @param logId  the log the entries belong to.
+     * @param packed the packed entries.
+     * @return the metadata entries, in the order they were packed.
+     * @throws UncheckedIOException if the packed entries are malformed.
+     */
+    public static List<LogsMetadata> decode(String logId, byte[] packed) {
+        try (var input = new DataInputStream(new ByteArrayInputStream(packed))) {
+            var version = input.readUnsignedByte();
+            if (version != FORMAT_VERSION) throw new IOException("Unsupported metadata format version " + version);
+            var count = ColumnarEncoding.readVarLong(input);
+            List<LogsMetadata> entries = new ArrayList<>();
+            for (long index = 0; index < count; index++) {
+                var header = ColumnarEncoding.readVarLong(input);
+                var typeCode = (int) (header >>> 1);
+                if (typeCode > TYPE_CODES.size()) throw new IOException("Unknown metadata type code " + typeCode);
+                var type = typeCode == 0 ? readString(input) : TYPE_CODES.get(typeCode - 1);
+                var uuid = (header & 1) == 1 ? new UUID(input.readLong(), input.readLong()).toString() : readString(input);
+                entries.add(new LogsMetadata(uuid, logId, type, readString(input)));
+            }
+            return entries;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Malformed metadata of log " + logId, ex);
+        }
+    }
+    private static boolean isCanonicalUuid(String value) {
+        if (value == null || value.length() != 36) return false;
+        try {
+            return UUID.fromString(value).toString().equals(value);
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+    private static void writeString(DataOutput output, String value) throws IOException {
+        if (value == null) {
+            ColumnarEncoding.writeVarLong(output, 0);
+            return;
+        }
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        ColumnarEncoding.writeVarLong(output, bytes.length + 1L);
+        output.write(bytes);
+    }
+    private static String readString(DataInput input) throws IOException {
+        var length = ColumnarEncoding.readVarLong(input);
+        if (length == 0) return null;
+        var bytes = new byte[(int) (length - 1)];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,105 @@
+package com.kenyajug.regression.utils;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+/*
+ * Runs the independent queries behind a page concurrently, one virtual thread each, and waits for all of them
+ * within a deadline, so a page takes about as long as its slowest query rather than the sum of them.
+ * <p>
+ * Modelled on StructuredTaskScope.ShutdownOnFailure, which is still a preview API on Java 21: queries are forked
+ * inside a try-with-resources block, {@link #join()} waits for them, and the first failure or a missed deadline
+ * cancels the queries still running. Closing the scope cancels anything left, so no query outlives the request.
+ * </p>
+ */
+public final class QueryScope implements AutoCloseable {
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final CompletionService<Object> completions = new ExecutorCompletionService<>(executor);
+    private final List<Future<?>> futures = new ArrayList<>();
+    private final long deadlineNanos;
+    public QueryScope(Duration deadline) {
+        this.deadlineNanos = System.nanoTime() + deadline.toNanos();
+    }
+    /**
+     * Starts a query on its own virtual thread.
+     *
+     * @param query the query to run.
+     * @param <T>   the type of the query's result.
+     * @return the query's result, available once {@link #join()} has returned; calling it earlier throws
+     * {@link IllegalStateException}.
+     */
+    public <T> Supplier<T> fork(Supplier<T> query) {
+        var future = completions.submit(query::get);
+        futures.add(future);
+        @SuppressWarnings("unchecked")
+        Supplier<T> result = () -> (T) future.resultNow();
+        return result;
+    }
+    /**
+     * Waits for every forked query to finish, in the order they complete, so a failure is seen as soon as it
+     * happens.
+     *
+     * @throws RuntimeException      the exception of the first failed query; the other queries are cancelled.
+     * @throws IllegalStateException if the queries did not finish before the deadline; they are cancelled.
+     */
+    public void join() {
+        try {
+            for (int pending = futures.size(); pending > 0; pending--) {
+                var completed = completions.poll(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (completed == null) throw new TimeoutException();
+                completed.get();
+            }
+        } catch (ExecutionException ex) {
+            cancelAll();
+            if (ex.getCause() instanceof RuntimeException cause) throw cause;
+            if (ex.getCause() instanceof Error cause) throw cause;
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            cancelAll();
+            throw new IllegalStateException("Queries did not finish before the deadline", ex);
+        } catch (InterruptedException ex) {
+            cancelAll();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for queries", ex);
+        }
+    }
+    @Override
+    public void close() {
+        cancelAll();
+        executor.shutdownNow();
+    }
+    private void cancelAll() {
+        futures.forEach(future -> future.cancel(true));
+    }
+}
@@ -0,0 +1,89 @@
+package com.kenyajug.regression.utils;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+/*
+ * Coalesces concurrent identical computations: the first caller of a key runs it, and callers arriving while it
+ * is in flight wait for and share its result or failure instead of running it again. Nothing is kept once the
+ * computation finishes; caching results is left to the caller.
+ */
+public final class SingleFlight<K> {
+    private final ConcurrentHashMap<K, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+    private final AtomicLong shared = new AtomicLong();
+    /**
+     * Runs a computation, or joins the computation of the same key already in flight.
+     *
+     * @param key         identifies the computation; equal keys must produce equal results.
+     * @param computation the computation, run on the calling thread when no other caller is running it.
+     * @param <V>         the type of the result.
+     * @return the result of this or the joined computation.
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V run(K key, Supplier<V> computation) {
+        var flight = new CompletableFuture<Object>();
+        var inFlight = flights.putIfAbsent(key, flight);
+        if (inFlight != null) {
+            shared.incrementAndGet();
+            return (V) await(inFlight);
+        }
+        try {
+            var value = computation.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+    /**
+     * Stops handing out the computations in flight, so later callers start afresh, e.g. once the data they read
+     * has changed. Callers already waiting still get their results.
+     */
+    public void forgetAll() {
+        flights.clear();
+    }
+    /**
+     * Returns how many callers shared a computation instead of running it since this instance was created.
+     *
+     * @return the number of coalesced calls.
+     */
+    public long sharedCount() {
+        return shared.get();
+    }
+    private static Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) throw cause;
+            if (ex.getCause() instanceof Error cause) throw cause;
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.kenyajug.regression.utils;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+/*
+ * Space-Saving sketch (Metwally et al.) tracking the most frequent items of an unbounded stream in a fixed number
+ * of counters. An item seen when every counter is taken replaces the least frequent one and inherits its count,
+ * recorded as the item's error, so a reported count never undercounts and overcounts by at most its error. Every
+ * item occurring more than total/capacity times is guaranteed to be tracked. Not thread-safe.
+ */
+public final class SpaceSaving<T> {
+    /**
+     * A tracked item with its estimated count; the true count lies between {@code count - error} and {@code count}.
+     */
+    public record Entry<T>(T item, long count, long error) {}
+    private static final class Counter<T> {
+        private final T item;
+        private final long sequence;
+        private long count;
+        private long error;
+        private Counter(T item, long sequence, long count, long error) {
+            this.item = item;
+            this.sequence = sequence;
+            this.count = count;
+            this.error = error;
+        }
+    }
+    private final int capacity;
+    private final Map<T, Counter<T>> counters = new HashMap<>();
+    private final TreeSet<Counter<T>> byCount = new TreeSet<>(Comparator.<Counter<T>>comparingLong(counter -> counter.count)
+            .thenComparingLong(counter -> counter.sequence));
+    private long sequence;
+    private long total;
+    public SpaceSaving(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive");
+        this.capacity = capacity;
+    }
+    /**
+     * Counts occurrences of an item, evicting the least frequent item when every counter is taken.
+     *
+     * @param item   the item, must implement {@code equals} and {@code hashCode}.
+     * @param weight the number of occurrences, at least one.
+     */
+    public void offer(T item, long weight) {
+        if (weight < 1) return;
+        total += weight;
+        var counter = counters.get(item);
+        if (counter != null) {
+            byCount.remove(counter);
+            counter.count += weight;
+            byCount.add(counter);
+            return;
+        }
+        if (counters.size() < capacity) {
+            track(new Counter<>(item, sequence++, weight, 0));
+            return;
+        }
+        var minimum = byCount.pollFirst();
+        counters.remove(minimum.item);
+        track(new Counter<>(item, sequence++, minimum.count + weight, minimum.count));
+    }
+    /**
+     * Puts back an item of an earlier snapshot with its count and error, e.g. after a restart. When the sketch is
+     * full the least frequent item is dropped.
+     *
+     * @param item  the item.
+     * @param count the estimated count.
+     * @param error the maximum overcount of {@code count}.
+     */
+    public void restore(T item, long count, long error) {
+        var existing = counters.remove(item);
+        if (existing != null) byCount.remove(existing);
+        total += count - error;
+        track(new Counter<>(item, sequence++, count, error));
+        if (counters.size() > capacity) counters.remove(byCount.pollFirst().item);
+    }
+    /**
+     * Returns the most frequent items, most frequent first.
+     *
+     * @param limit the maximum number of items.
+     * @return up to {@code limit} tracked items.
+     */
+    public List<Entry<T>> top(int limit) {
+        List<Entry<T>> entries = new ArrayList<>(Math.min(limit, counters.size()));
+        var iterator = byCount.descendingIterator();
+        while (iterator.hasNext() && entries.size() < limit) {
+            var counter = iterator.next();
+            entries.add(new Entry<>(counter.item, counter.count, counter.error));
+        }
+        return entries;
+    }
+    /**
+     * Returns how many items are tracked, at most the capacity.
+     *
+     * @return the number of tracked items.
+     */
+    public int size() {
+        return counters.size();
+    }
+    /**
+     * Returns the number of occurrences offered since the sketch was created or restored.
+     *
+     * @return the total weight of the stream.
+     */
+    public long total() {
+        return total;
+    }
+    private void track(Counter<T> counter) {
+        counters.put(counter.item, counter);
+        byCount.add(counter);
+    }
+}
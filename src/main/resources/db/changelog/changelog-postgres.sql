@@ -0,0 +1,215 @@
+--liquibase formatted sql
+
+--changeset kenyajug:pg-1.0
+CREATE TABLE IF NOT EXISTS users (
+    uuid VARCHAR(36) PRIMARY KEY,
+    username VARCHAR(100) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    roles_list_json TEXT,
+    created_at TEXT
+);
+
+CREATE TABLE IF NOT EXISTS applications (
+    uuid VARCHAR(36) PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    app_version VARCHAR(50),
+    runtime_environment VARCHAR(100),
+    owner_uuid VARCHAR(36),
+    created_at TEXT,
+
+    CONSTRAINT fk_app_owner FOREIGN KEY (owner_uuid) REFERENCES users(uuid)
+);
+
+CREATE TABLE IF NOT EXISTS logs_data_source (
+    uuid VARCHAR(36) PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    source_type VARCHAR(50) CHECK (source_type IN ('local', 'API', 'Form')),
+    application_id VARCHAR(36),
+    created_at TEXT,
+    log_file_path TEXT,
+    CONSTRAINT fk_application FOREIGN KEY (application_id) REFERENCES applications(uuid) ON DELETE SET NULL
+);
+--changeset kenyajug:pg-2.0
+-- Logs are range partitioned by month on a native timestamp; the primary key has to include the partition key.
+-- Full-text search uses a generated tsvector column instead of the SQLite FTS5 shadow table and triggers.
+CREATE TABLE IF NOT EXISTS app_logs (
+    uuid VARCHAR(36) NOT NULL,
+    timestamp TIMESTAMP NOT NULL,
+    severity VARCHAR(20),
+    application_uuid VARCHAR(36),
+    log_source VARCHAR(100),
+    message TEXT,
+    message_tsv TSVECTOR GENERATED ALWAYS AS (to_tsvector('simple', COALESCE(message, ''))) STORED,
+
+    PRIMARY KEY (uuid, timestamp),
+    CONSTRAINT fk_log_application FOREIGN KEY (application_uuid) REFERENCES applications(uuid)
+) PARTITION BY RANGE (timestamp);
+CREATE TABLE IF NOT EXISTS app_logs_default PARTITION OF app_logs DEFAULT;
+CREATE INDEX IF NOT EXISTS idx_app_logs_application_timestamp ON app_logs (application_uuid, timestamp);
+CREATE INDEX IF NOT EXISTS idx_app_logs_uuid ON app_logs (uuid);
+CREATE INDEX IF NOT EXISTS idx_app_logs_message_tsv ON app_logs USING GIN (message_tsv);
+
+-- A foreign key to a partitioned table must cover its whole primary key, so log_uuid is not enforced here.
+CREATE TABLE IF NOT EXISTS logs_metadata (
+    uuid VARCHAR(36) PRIMARY KEY,
+    log_uuid VARCHAR(36) NOT NULL,
+    metadata_type VARCHAR(100) NOT NULL,
+    metadata_value TEXT
+);
+CREATE INDEX IF NOT EXISTS idx_logs_metadata_log_uuid ON logs_metadata (log_uuid);
+--changeset kenyajug:pg-2.1 splitStatements:false
+CREATE OR REPLACE FUNCTION ensure_app_logs_partition(month_start DATE) RETURNS VOID AS $$
+DECLARE
+    partition_name TEXT := 'app_logs_' || to_char(month_start, 'YYYY_MM');
+BEGIN
+    IF to_regclass(partition_name) IS NULL THEN
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF app_logs FOR VALUES FROM (%L) TO (%L)',
+            partition_name,
+            date_trunc('month', month_start),
+            date_trunc('month', month_start) + INTERVAL '1 month'
+        );
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+--changeset kenyajug:pg-3.0
+CREATE TABLE IF NOT EXISTS retention_policies (
+    application_uuid VARCHAR(36) PRIMARY KEY,
+    retention_days INTEGER NOT NULL DEFAULT 0,
+    max_rows BIGINT,
+    max_bytes BIGINT,
+
+    CONSTRAINT fk_retention_application FOREIGN KEY (application_uuid) REFERENCES applications(uuid)
+);
+CREATE TABLE IF NOT EXISTS archive_segments (
+    uuid VARCHAR(36) PRIMARY KEY,
+    application_uuid VARCHAR(36) NOT NULL,
+    segment_day TEXT NOT NULL,
+    first_timestamp TEXT NOT NULL,
+    last_timestamp TEXT NOT NULL,
+    row_count BIGINT NOT NULL,
+    severities TEXT,
+    file_path TEXT NOT NULL,
+    size_bytes BIGINT NOT NULL,
+    created_at TEXT,
+
+    CONSTRAINT fk_segment_application FOREIGN KEY (application_uuid) REFERENCES applications(uuid)
+);
+CREATE INDEX IF NOT EXISTS idx_archive_segments_day_application ON archive_segments (segment_day, application_uuid);
+CREATE INDEX IF NOT EXISTS idx_archive_segments_application_day ON archive_segments (application_uuid, segment_day);
+CREATE TABLE IF NOT EXISTS log_hourly_counts (
+    application_uuid VARCHAR(36) NOT NULL,
+    log_source VARCHAR(100) NOT NULL,
+    severity VARCHAR(20) NOT NULL,
+    hour_start TEXT NOT NULL,
+    log_count BIGINT NOT NULL DEFAULT 0,
+
+    PRIMARY KEY (application_uuid, log_source, severity, hour_start)
+);
+CREATE INDEX IF NOT EXISTS idx_log_hourly_counts_severity_hour ON log_hourly_counts (severity, hour_start);
+--changeset kenyajug:pg-4.0
+CREATE TABLE IF NOT EXISTS purge_jobs (
+    uuid VARCHAR(36) PRIMARY KEY,
+    target_type VARCHAR(20) NOT NULL CHECK (target_type IN ('APPLICATION', 'DATASOURCE')),
+    target_uuid VARCHAR(36) NOT NULL,
+    target_name VARCHAR(255),
+    status VARCHAR(20) NOT NULL,
+    total_logs BIGINT NOT NULL DEFAULT 0,
+    deleted_logs BIGINT NOT NULL DEFAULT 0,
+    created_at TEXT NOT NULL,
+    updated_at TEXT NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_purge_jobs_status ON purge_jobs (status);
+CREATE INDEX IF NOT EXISTS idx_app_logs_log_source ON app_logs (log_source);
+--changeset kenyajug:pg-5.0
+CREATE TABLE IF NOT EXISTS logs_metadata_packed (
+    log_uuid VARCHAR(36) PRIMARY KEY,
+    entries BYTEA NOT NULL
+);
+--changeset kenyajug:pg-6.0
+CREATE TABLE IF NOT EXISTS logs_metadata_index (
+    metadata_type VARCHAR(100) NOT NULL,
+    metadata_value TEXT NOT NULL,
+    log_uuid VARCHAR(36) NOT NULL,
+
+    PRIMARY KEY (metadata_type, metadata_value, log_uuid)
+);
+CREATE INDEX IF NOT EXISTS idx_logs_metadata_index_log_uuid ON logs_metadata_index (log_uuid);
+--changeset kenyajug:pg-7.0
+CREATE INDEX IF NOT EXISTS idx_app_logs_timestamp_uuid ON app_logs (timestamp, uuid);
+--changeset kenyajug:pg-8.0
+CREATE INDEX IF NOT EXISTS idx_log_hourly_counts_hour ON log_hourly_counts (hour_start, severity);
+--changeset kenyajug:pg-9.0
+CREATE TABLE IF NOT EXISTS log_minute_counts (
+    application_uuid VARCHAR(36) NOT NULL,
+    log_source VARCHAR(100) NOT NULL,
+    severity VARCHAR(20) NOT NULL,
+    minute_start TEXT NOT NULL,
+    log_count BIGINT NOT NULL DEFAULT 0,
+
+    PRIMARY KEY (application_uuid, log_source, severity, minute_start)
+);
+CREATE INDEX IF NOT EXISTS idx_log_minute_counts_minute ON log_minute_counts (minute_start, severity);
+--changeset kenyajug:pg-10.0
+CREATE TABLE IF NOT EXISTS heavy_hitter_counters (
+    application_uuid VARCHAR(36) NOT NULL,
+    dimension VARCHAR(100) NOT NULL,
+    severity VARCHAR(20) NOT NULL,
+    item TEXT NOT NULL,
+    item_count BIGINT NOT NULL,
+    item_error BIGINT NOT NULL DEFAULT 0,
+
+    PRIMARY KEY (application_uuid, dimension, severity, item)
+);
+--changeset kenyajug:pg-11.0
+CREATE TABLE IF NOT EXISTS app_metric_counts (
+    application_uuid VARCHAR(36) NOT NULL,
+    metric VARCHAR(20) NOT NULL,
+    metric_key VARCHAR(50) NOT NULL,
+    metric_count BIGINT NOT NULL DEFAULT 0,
+
+    PRIMARY KEY (application_uuid, metric, metric_key)
+);
+--changeset kenyajug:pg-11.1
+-- Backfills the counters of logs ingested before pg-11.0; rows counted since then keep the larger count.
+INSERT INTO app_metric_counts (application_uuid, metric, metric_key, metric_count)
+SELECT COALESCE(application_uuid, ''), 'SEVERITY', COALESCE(severity, ''), COUNT(*)
+FROM app_logs
+GROUP BY 1, 3
+ON CONFLICT (application_uuid, metric, metric_key) DO UPDATE SET
+    metric_count = GREATEST(app_metric_counts.metric_count, excluded.metric_count);
+INSERT INTO app_metric_counts (application_uuid, metric, metric_key, metric_count)
+SELECT COALESCE(application_uuid, ''), 'ERROR_HOUR', to_char(timestamp, 'HH24'), COUNT(*)
+FROM app_logs
+WHERE severity = 'ERROR'
+GROUP BY 1, 3
+ON CONFLICT (application_uuid, metric, metric_key) DO UPDATE SET
+    metric_count = GREATEST(app_metric_counts.metric_count, excluded.metric_count);
+INSERT INTO app_metric_counts (application_uuid, metric, metric_key, metric_count)
+SELECT COALESCE(application_uuid, ''), 'ERROR_WEEKDAY', to_char(timestamp, 'FMDAY'), COUNT(*)
+FROM app_logs
+WHERE severity = 'ERROR'
+GROUP BY 1, 3
+ON CONFLICT (application_uuid, metric, metric_key) DO UPDATE SET
+    metric_count = GREATEST(app_metric_counts.metric_count, excluded.metric_count);
+INSERT INTO app_metric_counts (application_uuid, metric, metric_key, metric_count)
+SELECT app_logs.application_uuid, 'ERROR_VERSION', COALESCE(applications.app_version, ''), COUNT(*)
+FROM app_logs
+JOIN applications ON applications.uuid = app_logs.application_uuid
+WHERE app_logs.severity = 'ERROR'
+GROUP BY 1, 3
+ON CONFLICT (application_uuid, metric, metric_key) DO UPDATE SET
+    metric_count = GREATEST(app_metric_counts.metric_count, excluded.metric_count);
+--changeset kenyajug:pg-11.2
+-- Ingestion may already have counted minutes since pg-9.0, so existing rows keep the larger count.
+INSERT INTO log_minute_counts (application_uuid, log_source, severity, minute_start, log_count)
+SELECT COALESCE(application_uuid, ''),
+       COALESCE(log_source, ''),
+       COALESCE(severity, ''),
+       to_char(date_trunc('minute', timestamp), 'YYYY-MM-DD HH24:MI:SS') || ' UTC',
+       COUNT(*)
+FROM app_logs
+WHERE timestamp >= (now() AT TIME ZONE 'UTC') - INTERVAL '7 days'
+GROUP BY 1, 2, 3, 4
+ON CONFLICT (application_uuid, log_source, severity, minute_start) DO UPDATE SET
+    log_count = GREATEST(log_minute_counts.log_count, excluded.log_count);
@@ -49,3 +49,178 @@ CREATE TABLE IF NOT EXISTS logs_data_source (
     log_file_path TEXT,
     CONSTRAINT fk_application FOREIGN KEY (application_id) REFERENCES applications(uuid) ON DELETE SET NULL
 );
+--changeset kenyajug:3.0
+CREATE VIRTUAL TABLE IF NOT EXISTS app_logs_fts USING fts5(
+    message,
+    content='app_logs',
+    tokenize='unicode61'
+);
+--changeset kenyajug:3.1 splitStatements:false
+CREATE TRIGGER IF NOT EXISTS app_logs_fts_insert AFTER INSERT ON app_logs BEGIN
+    INSERT INTO app_logs_fts(rowid, message) VALUES (new.rowid, new.message);
+END;
+--changeset kenyajug:3.2 splitStatements:false
+CREATE TRIGGER IF NOT EXISTS app_logs_fts_delete AFTER DELETE ON app_logs BEGIN
+    INSERT INTO app_logs_fts(app_logs_fts, rowid, message) VALUES ('delete', old.rowid, old.message);
+END;
+--changeset kenyajug:3.3 splitStatements:false
+CREATE TRIGGER IF NOT EXISTS app_logs_fts_update AFTER UPDATE OF message ON app_logs BEGIN
+    INSERT INTO app_logs_fts(app_logs_fts, rowid, message) VALUES ('delete', old.rowid, old.message);
+    INSERT INTO app_logs_fts(rowid, message) VALUES (new.rowid, new.message);
+END;
+--changeset kenyajug:3.4
+INSERT INTO app_logs_fts(app_logs_fts) VALUES ('rebuild');
+--changeset kenyajug:4.0
+CREATE TABLE IF NOT EXISTS retention_policies (
+    application_uuid VARCHAR(36) PRIMARY KEY,
+    retention_days INTEGER NOT NULL DEFAULT 0,
+    max_rows INTEGER,
+    max_bytes INTEGER,
+
+    CONSTRAINT fk_retention_application FOREIGN KEY (application_uuid) REFERENCES applications(uuid)
+);
+CREATE INDEX IF NOT EXISTS idx_app_logs_application_timestamp ON app_logs (application_uuid, timestamp);
+CREATE INDEX IF NOT EXISTS idx_logs_metadata_log_uuid ON logs_metadata (log_uuid);
+--changeset kenyajug:5.0
+CREATE TABLE IF NOT EXISTS archive_segments (
+    uuid VARCHAR(36) PRIMARY KEY,
+    application_uuid VARCHAR(36) NOT NULL,
+    segment_day TEXT NOT NULL,
+    first_timestamp TEXT NOT NULL,
+    last_timestamp TEXT NOT NULL,
+    row_count INTEGER NOT NULL,
+    severities TEXT,
+    file_path TEXT NOT NULL,
+    size_bytes INTEGER NOT NULL,
+    created_at TEXT,
+
+    CONSTRAINT fk_segment_application FOREIGN KEY (application_uuid) REFERENCES applications(uuid)
+);
+CREATE INDEX IF NOT EXISTS idx_archive_segments_day_application ON archive_segments (segment_day, application_uuid);
+CREATE INDEX IF NOT EXISTS idx_archive_segments_application_day ON archive_segments (application_uuid, segment_day);
+--changeset kenyajug:6.0
+CREATE TABLE IF NOT EXISTS log_hourly_counts (
+    application_uuid VARCHAR(36) NOT NULL,
+    log_source VARCHAR(100) NOT NULL,
+    severity VARCHAR(20) NOT NULL,
+    hour_start TEXT NOT NULL,
+    log_count INTEGER NOT NULL DEFAULT 0,
+
+    PRIMARY KEY (application_uuid, log_source, severity, hour_start)
+);
+CREATE INDEX IF NOT EXISTS idx_log_hourly_counts_severity_hour ON log_hourly_counts (severity, hour_start);
+--changeset kenyajug:6.1
+INSERT INTO log_hourly_counts (application_uuid, log_source, severity, hour_start, log_count)
+SELECT COALESCE(application_uuid, ''),
+       COALESCE(log_source, ''),
+       COALESCE(severity, ''),
+       substr(timestamp, 1, 13) || ':00:00 UTC',
+       COUNT(*)
+FROM app_logs
+GROUP BY 1, 2, 3, 4;
+--changeset kenyajug:7.0
+CREATE TABLE IF NOT EXISTS purge_jobs (
+    uuid VARCHAR(36) PRIMARY KEY,
+    target_type VARCHAR(20) NOT NULL CHECK (target_type IN ('APPLICATION', 'DATASOURCE')),
+    target_uuid VARCHAR(36) NOT NULL,
+    target_name VARCHAR(255),
+    status VARCHAR(20) NOT NULL,
+    total_logs INTEGER NOT NULL DEFAULT 0,
+    deleted_logs INTEGER NOT NULL DEFAULT 0,
+    created_at TEXT NOT NULL,
+    updated_at TEXT NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_purge_jobs_status ON purge_jobs (status);
+CREATE INDEX IF NOT EXISTS idx_app_logs_log_source ON app_logs (log_source);
+--changeset kenyajug:8.0
+CREATE TABLE IF NOT EXISTS logs_metadata_packed (
+    log_uuid VARCHAR(36) PRIMARY KEY,
+    entries BLOB NOT NULL,
+    CONSTRAINT fk_logs_metadata_packed_log FOREIGN KEY (log_uuid) REFERENCES app_logs(uuid)
+);
+--changeset kenyajug:9.0
+CREATE TABLE IF NOT EXISTS logs_metadata_index (
+    metadata_type VARCHAR(100) NOT NULL,
+    metadata_value TEXT NOT NULL,
+    log_uuid VARCHAR(36) NOT NULL,
+
+    PRIMARY KEY (metadata_type, metadata_value, log_uuid)
+) WITHOUT ROWID;
+CREATE INDEX IF NOT EXISTS idx_logs_metadata_index_log_uuid ON logs_metadata_index (log_uuid);
+--changeset kenyajug:10.0
+CREATE INDEX IF NOT EXISTS idx_app_logs_timestamp_uuid ON app_logs (timestamp, uuid);
+--changeset kenyajug:11.0
+CREATE INDEX IF NOT EXISTS idx_log_hourly_counts_hour ON log_hourly_counts (hour_start, severity);
+--changeset kenyajug:12.0
+CREATE TABLE IF NOT EXISTS log_minute_counts (
+    application_uuid VARCHAR(36) NOT NULL,
+    log_source VARCHAR(100) NOT NULL,
+    severity VARCHAR(20) NOT NULL,
+    minute_start TEXT NOT NULL,
+    log_count INTEGER NOT NULL DEFAULT 0,
+
+    PRIMARY KEY (application_uuid, log_source, severity, minute_start)
+);
+CREATE INDEX IF NOT EXISTS idx_log_minute_counts_minute ON log_minute_counts (minute_start, severity);
+--changeset kenyajug:12.1
+INSERT INTO log_minute_counts (application_uuid, log_source, severity, minute_start, log_count)
+SELECT COALESCE(application_uuid, ''),
+       COALESCE(log_source, ''),
+       COALESCE(severity, ''),
+       substr(timestamp, 1, 16) || ':00 UTC',
+       COUNT(*)
+FROM app_logs
+WHERE timestamp >= strftime('%Y-%m-%d %H:%M:%S UTC', 'now', '-7 days')
+GROUP BY 1, 2, 3, 4;
+--changeset kenyajug:13.0
+CREATE TABLE IF NOT EXISTS heavy_hitter_counters (
+    application_uuid VARCHAR(36) NOT NULL,
+    dimension VARCHAR(100) NOT NULL,
+    severity VARCHAR(20) NOT NULL,
+    item TEXT NOT NULL,
+    item_count INTEGER NOT NULL,
+    item_error INTEGER NOT NULL DEFAULT 0,
+
+    PRIMARY KEY (application_uuid, dimension, severity, item)
+);
+--changeset kenyajug:14.0
+CREATE TABLE IF NOT EXISTS app_metric_counts (
+    application_uuid VARCHAR(36) NOT NULL,
+    metric VARCHAR(20) NOT NULL,
+    metric_key VARCHAR(50) NOT NULL,
+    metric_count INTEGER NOT NULL DEFAULT 0,
+
+    PRIMARY KEY (application_uuid, metric, metric_key)
+);
+--changeset kenyajug:14.1
+INSERT INTO app_metric_counts (application_uuid, metric, metric_key, metric_count)
+SELECT COALESCE(application_uuid, ''), 'SEVERITY', COALESCE(severity, ''), COUNT(*)
+FROM app_logs
+GROUP BY 1, 3;
+INSERT INTO app_metric_counts (application_uuid, metric, metric_key, metric_count)
+SELECT COALESCE(application_uuid, ''), 'ERROR_HOUR', substr(timestamp, 12, 2), COUNT(*)
+FROM app_logs
+WHERE severity = 'ERROR'
+GROUP BY 1, 3;
+INSERT INTO app_metric_counts (application_uuid, metric, metric_key, metric_count)
+SELECT COALESCE(application_uuid, ''),
+       'ERROR_WEEKDAY',
+       CASE strftime('%w', substr(timestamp, 1, 19))
+           WHEN '0' THEN 'SUNDAY'
+           WHEN '1' THEN 'MONDAY'
+           WHEN '2' THEN 'TUESDAY'
+           WHEN '3' THEN 'WEDNESDAY'
+           WHEN '4' THEN 'THURSDAY'
+           WHEN '5' THEN 'FRIDAY'
+           ELSE 'SATURDAY'
+       END,
+       COUNT(*)
+FROM app_logs
+WHERE severity = 'ERROR'
+GROUP BY 1, 3;
+INSERT INTO app_metric_counts (application_uuid, metric, metric_key, metric_count)
+SELECT app_logs.application_uuid, 'ERROR_VERSION', COALESCE(applications.app_version, ''), COUNT(*)
+FROM app_logs
+JOIN applications ON applications.uuid = app_logs.application_uuid
+WHERE app_logs.severity = 'ERROR'
+GROUP BY 1, 3;
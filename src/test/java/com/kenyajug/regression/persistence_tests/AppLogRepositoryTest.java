@@ -35,7 +35,9 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 import static org.assertj.core.api.Assertions.assertThat;
 @SpringBootTest
 @Transactional
@@ -52,6 +54,7 @@ public class AppLogRepositoryTest {
                 DELETE FROM app_logs;
                 """;
         jdbcClient.sql(clearTable).update();
+        jdbcClient.sql("DELETE FROM logs_metadata;").update();
     }
     @Test
     public void shouldSaveObjectTest(){
@@ -290,4 +293,237 @@ public class AppLogRepositoryTest {
         assertThat(filtered).isNotEmpty();
         assertThat(filtered.size()).isEqualTo(2);
     }
+    @Test
+    @DisplayName("Should search log messages by keyword, phrase and prefix")
+    public void shouldSearchByKeywordTest(){
+        var entity1 = new AppLog(
+                "UUID1",
+                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("1990-11-22 11:09:22 UTC"),
+                "ERROR",
+                appId,
+                "Chrome LTS  version 132.0.6834.223",
+                "java.net.ConnectException: Connection refused while calling billing"
+        );
+        var entity2 = new AppLog(
+                "UUID2",
+                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("1990-11-22 10:49:50 UTC"),
+                "WARN",
+                appId,
+                "Chrome LTS  version 132.0.6834.223",
+                "Connection pool exhausted, request refused"
+        );
+        var entity3 = new AppLog(
+                "UUID3",
+                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("1990-11-23 10:49:50 UTC"),
+                "ERROR",
+                appId,
+                "Chrome LTS  version 132.0.6834.223",
+                "Connection refused"
+        );
+        repository.save(entity1);
+        repository.save(entity2);
+        repository.save(entity3);
+        var date = LocalDate.of(1990,11,22);
+        var terms = repository.searchByKeyword("connection refused", date, "All", "", null, 10);
+        assertThat(terms).extracting(AppLog::uuid).containsExactly("UUID1","UUID2");
+        var phrase = repository.searchByKeyword("\"connection refused\"", date, "All", "", null, 10);
+        assertThat(phrase).extracting(AppLog::uuid).containsExactly("UUID1");
+        var prefix = repository.searchByKeyword("exhaust*", date, "", null, null, 10);
+        assertThat(prefix).extracting(AppLog::uuid).containsExactly("UUID2");
+        var bySeverity = repository.searchByKeyword("connection", date, "WARN", appId, null, 10);
+        assertThat(bySeverity).extracting(AppLog::uuid).containsExactly("UUID2");
+        var byOtherApp = repository.searchByKeyword("connection", date, "All", "APP_UUID2", null, 10);
+        assertThat(byOtherApp).isEmpty();
+        repository.save(new AppLog(
+                "UUID4",
+                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("1990-11-22 12:00:00 UTC"),
+                "ERROR",
+                appId,
+                "Firefox ESR",
+                "Connection refused"
+        ));
+        var bySource = repository.searchByKeyword("connection", date, "All", appId, "Chrome LTS  version 132.0.6834.223", 10);
+        assertThat(bySource).extracting(AppLog::uuid).containsExactly("UUID1","UUID2");
+        var byOtherSource = repository.searchByKeyword("connection", date, "All", appId, "Firefox ESR", 10);
+        assertThat(byOtherSource).extracting(AppLog::uuid).containsExactly("UUID4");
+    }
+    @Test
+    @DisplayName("Should keep the full-text index in sync with updates and deletes")
+    public void shouldSyncFullTextIndexOnUpdateAndDeleteTest(){
+        var entity = new AppLog(
+                "UUID1",
+                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("1990-11-22 11:09:22 UTC"),
+                "ERROR",
+                appId,
+                "Chrome LTS  version 132.0.6834.223",
+                "Object not found exception"
+        );
+        repository.save(entity);
+        var date = LocalDate.of(1990,11,22);
+        assertThat(repository.searchByKeyword("object", date, "All", "", null, 10)).hasSize(1);
+        repository.updateById(entity.uuid(), new AppLog(
+                entity.uuid(),
+                entity.timestamp(),
+                entity.severity(),
+                entity.applicationId(),
+                entity.logSource(),
+                "Socket timeout"
+        ));
+        assertThat(repository.searchByKeyword("object", date, "All", "", null, 10)).isEmpty();
+        assertThat(repository.searchByKeyword("socket", date, "All", "", null, 10)).hasSize(1);
+        repository.deleteById(entity.uuid());
+        assertThat(repository.searchByKeyword("socket", date, "All", "", null, 10)).isEmpty();
+    }
+    @Test
+    @DisplayName("Should route logs by day and delete the oldest ones in bounded chunks")
+    public void shouldDeleteOldestLogsInChunksTest(){
+        for (int i = 0; i < 5; i++) {
+            repository.save(new AppLog(
+                    "UUID" + i,
+                    DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("1990-11-2" + i + " 11:09:22 UTC"),
+                    "INFO",
+                    appId,
+                    "Chrome LTS  version 132.0.6834.223",
+                    "Message " + i
+            ));
+        }
+        jdbcClient.sql("INSERT INTO logs_metadata (uuid, log_uuid, metadata_type, metadata_value) VALUES ('M0', 'UUID0', 'threadName', 'main')")
+                .update();
+        var oldestDay = repository.findOldestLogDay(appId);
+        assertThat(oldestDay).contains(LocalDate.of(1990,11,20));
+        assertThat(repository.findOldestLogDay("APP_UUID2")).isEmpty();
+        var before = LocalDate.of(1990,11,23).atStartOfDay();
+        assertThat(repository.deleteChunkBefore(appId, before, 2)).isEqualTo(2);
+        assertThat(repository.deleteChunkBefore(appId, before, 2)).isEqualTo(1);
+        assertThat(repository.deleteChunkBefore(appId, before, 2)).isEqualTo(0);
+        assertThat(repository.countByApplication(appId)).isEqualTo(2);
+        assertThat(repository.findOldestLogDay(appId)).contains(LocalDate.of(1990,11,23));
+        var orphanedMetadata = jdbcClient.sql("SELECT COUNT(*) FROM logs_metadata WHERE log_uuid = 'UUID0'")
+                .query((resultSet, row) -> resultSet.getLong(1))
+                .single();
+        assertThat(orphanedMetadata).isZero();
+    }
+    @Test
+    @DisplayName("Should delete the logs of a data source in bounded chunks")
+    public void shouldDeleteSourceLogsInChunksTest(){
+        for (int i = 0; i < 3; i++) {
+            repository.save(new AppLog(
+                    "UUID" + i,
+                    DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("1990-11-2" + i + " 11:09:22 UTC"),
+                    "INFO",
+                    appId,
+                    i < 2 ? "SOURCE_UUID1" : "SOURCE_UUID2",
+                    "Message " + i
+            ));
+        }
+        jdbcClient.sql("INSERT INTO logs_metadata (uuid, log_uuid, metadata_type, metadata_value) VALUES ('M0', 'UUID0', 'threadName', 'main')")
+                .update();
+        assertThat(repository.countBySource("SOURCE_UUID1")).isEqualTo(2);
+        assertThat(repository.deleteChunkBySource("SOURCE_UUID1", 1)).isEqualTo(1);
+        assertThat(repository.deleteChunkBySource("SOURCE_UUID1", 1)).isEqualTo(1);
+        assertThat(repository.deleteChunkBySource("SOURCE_UUID1", 1)).isEqualTo(0);
+        assertThat(repository.countBySource("SOURCE_UUID1")).isZero();
+        assertThat(repository.countBySource("SOURCE_UUID2")).isEqualTo(1);
+        var orphanedMetadata = jdbcClient.sql("SELECT COUNT(*) FROM logs_metadata WHERE log_uuid = 'UUID0'")
+                .query((resultSet, row) -> resultSet.getLong(1))
+                .single();
+        assertThat(orphanedMetadata).isZero();
+    }
+    @Test
+    @DisplayName("Should find the cut-off timestamps for row and byte quotas")
+    public void shouldFindQuotaCutoffsTest(){
+        for (int i = 0; i < 4; i++) {
+            repository.save(new AppLog(
+                    "UUID" + i,
+                    DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("1990-11-2" + i + " 11:09:22 UTC"),
+                    "INFO",
+                    appId,
+                    "Chrome LTS  version 132.0.6834.223",
+                    "0123456789"
+            ));
+        }
+        assertThat(repository.sumMessageBytesByApplication(appId)).isEqualTo(40);
+        assertThat(repository.sumMessageBytesByApplication("APP_UUID2")).isZero();
+        var rowsCutoff = repository.findRowsQuotaCutoff(appId, 3);
+        assertThat(rowsCutoff).contains(LocalDate.of(1990,11,23).atTime(11,9,22));
+        assertThat(repository.findRowsQuotaCutoff(appId, 4)).isEmpty();
+        var bytesCutoff = repository.findBytesQuotaCutoff(appId, 15);
+        assertThat(bytesCutoff).contains(LocalDate.of(1990,11,22).atTime(11,9,22));
+        assertThat(repository.findBytesQuotaCutoff(appId, 41)).isEmpty();
+    }
+    @Test
+    @DisplayName("Should read a day of logs in order and delete logs by id")
+    public void shouldFindByApplicationAndDayAndDeleteByIdsTest(){
+        for (int i = 0; i < 3; i++) {
+            repository.save(new AppLog(
+                    "UUID" + i,
+                    DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("1990-11-20 1" + (2 - i) + ":09:22 UTC"),
+                    "INFO",
+                    appId,
+                    "Chrome LTS  version 132.0.6834.223",
+                    "Message " + i
+            ));
+        }
+        repository.save(new AppLog(
+                "UUID3",
+                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("1990-11-21 00:00:00 UTC"),
+                "INFO",
+                appId,
+                "Chrome LTS  version 132.0.6834.223",
+                "Next day"
+        ));
+        try (var dayLogs = repository.streamByApplicationAndDay(appId, LocalDate.of(1990,11,20))) {
+            assertThat(dayLogs.map(AppLog::uuid).toList()).containsExactly("UUID2","UUID1","UUID0");
+        }
+        assertThat(repository.deleteByIds(List.of("UUID0","UUID1"))).isEqualTo(2);
+        assertThat(repository.deleteByIds(List.of())).isZero();
+        assertThat(repository.countByApplication(appId)).isEqualTo(2);
+    }
+    @Test
+    @DisplayName("Should stream logs lazily and release the cursor when closed")
+    public void shouldStreamLogsTest(){
+        for (int i = 0; i < 3; i++) {
+            repository.save(new AppLog(
+                    "UUID" + i,
+                    DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("1990-11-2" + i + " 11:09:22 UTC"),
+                    i == 0 ? "ERROR" : "INFO",
+                    appId,
+                    "SOURCE_UUID1",
+                    "Message " + i
+            ));
+        }
+        try (var logs = repository.streamAll()) {
+            assertThat(logs.filter(e -> e.severity().equals("INFO")).count()).isEqualTo(2);
+        }
+        try (var logs = repository.streamByDay(LocalDate.of(1990,11,21))) {
+            assertThat(logs.map(AppLog::uuid).toList()).containsExactly("UUID1");
+        }
+        try (var logs = repository.streamByApplicationAndDatasource(appId, "SOURCE_UUID1")) {
+            assertThat(logs.limit(1).count()).isEqualTo(1);
+        }
+        try (var logs = repository.streamByApplicationAndDatasource(appId, "SOURCE_UUID2")) {
+            assertThat(logs.findAny()).isEmpty();
+        }
+    }
+    @Test
+    @DisplayName("Should save a large batch with multi-row inserts and keep it searchable")
+    public void shouldSaveAllInMultiRowInsertsTest(){
+        var logs = new ArrayList<AppLog>();
+        for (int i = 0; i < 1200; i++) {
+            logs.add(new AppLog(
+                    "UUID" + i,
+                    DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("1990-11-20 11:09:22 UTC").plusSeconds(i),
+                    "INFO",
+                    appId,
+                    "SOURCE_UUID1",
+                    i == 700 ? "Connection refused by peer" : "Message " + i
+            ));
+        }
+        repository.saveAll(logs);
+        repository.saveAll(List.of());
+        assertThat(repository.countByApplication(appId)).isEqualTo(1200);
+        assertThat(repository.findById("UUID1199")).contains(logs.get(1199));
+        var matches = repository.searchByKeyword("refused", LocalDate.of(1990,11,20), null, appId, null, 10);
+        assertThat(matches).extracting(AppLog::uuid).containsExactly("UUID700");
+    }
 }
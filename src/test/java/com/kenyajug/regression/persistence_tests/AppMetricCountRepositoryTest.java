@@ -0,0 +1,65 @@
+package com.kenyajug.regression.persistence_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.AppMetricCount;
+import com.kenyajug.regression.repository.AppMetricCountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+@SpringBootTest
+@Transactional
+@TestPropertySource(locations = "classpath:application-test.properties")
+public class AppMetricCountRepositoryTest {
+    @Autowired
+    private AppMetricCountRepository repository;
+    @AfterEach
+    public void cleanUp(){
+        repository.deleteAll();
+    }
+    @Test
+    public void shouldAccumulateCountersPerApplicationTest(){
+        repository.incrementAll(List.of(
+                new AppMetricCount("APP_UUID1", AppMetricCount.METRIC_SEVERITY, "ERROR", 2),
+                new AppMetricCount("APP_UUID1", AppMetricCount.METRIC_ERROR_HOUR, "14", 2),
+                new AppMetricCount("APP_UUID2", AppMetricCount.METRIC_SEVERITY, "ERROR", 9)));
+        repository.incrementAll(List.of(new AppMetricCount("APP_UUID1", AppMetricCount.METRIC_SEVERITY, "ERROR", 3)));
+        assertThat(repository.findByApplication("APP_UUID1")).containsExactlyInAnyOrder(
+                new AppMetricCount("APP_UUID1", AppMetricCount.METRIC_SEVERITY, "ERROR", 5),
+                new AppMetricCount("APP_UUID1", AppMetricCount.METRIC_ERROR_HOUR, "14", 2));
+    }
+    @Test
+    public void shouldDeleteCountersOfApplicationTest(){
+        repository.incrementAll(List.of(
+                new AppMetricCount("APP_UUID1", AppMetricCount.METRIC_SEVERITY, "WARN", 4),
+                new AppMetricCount("APP_UUID2", AppMetricCount.METRIC_SEVERITY, "WARN", 1)));
+        assertThat(repository.deleteByApplication("APP_UUID1")).isEqualTo(1);
+        assertThat(repository.findByApplication("APP_UUID1")).isEmpty();
+        assertThat(repository.findByApplication("APP_UUID2")).hasSize(1);
+    }
+}
@@ -0,0 +1,117 @@
+package com.kenyajug.regression.persistence_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.ArchiveSegment;
+import com.kenyajug.regression.repository.ArchiveSegmentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+@SpringBootTest
+@Transactional
+@TestPropertySource(locations = "classpath:application-test.properties")
+public class ArchiveSegmentRepositoryTest {
+    @Autowired
+    private JdbcClient jdbcClient;
+    @Autowired
+    private ArchiveSegmentRepository repository;
+    @AfterEach
+    public void cleanUp(){
+        var clearTable = """
+                DELETE FROM archive_segments;
+                """;
+        jdbcClient.sql(clearTable).update();
+    }
+    private ArchiveSegment segment(String uuid, String applicationId, LocalDate day) {
+        return new ArchiveSegment(
+                uuid,
+                applicationId,
+                day,
+                day.atTime(0,0,5),
+                day.atTime(23,59,1),
+                120,
+                Set.of("ERROR","INFO"),
+                applicationId + "/" + day + "-" + uuid + ".ndjson.gz",
+                2048,
+                LocalDateTime.of(2025,5,20,1,45));
+    }
+    @Test
+    public void shouldSaveObjectTest(){
+        var entity = segment("SEGMENT1", "APP_UUID1", LocalDate.of(2025,4,1));
+        repository.save(entity);
+        var optionalEntity = repository.findById("SEGMENT1");
+        assertThat(optionalEntity).isNotEmpty();
+        var persisted = optionalEntity.get();
+        assertThat(persisted.segmentDay()).isEqualTo(LocalDate.of(2025,4,1));
+        assertThat(persisted.firstTimestamp()).isEqualTo(entity.firstTimestamp());
+        assertThat(persisted.lastTimestamp()).isEqualTo(entity.lastTimestamp());
+        assertThat(persisted.rowCount()).isEqualTo(120);
+        assertThat(persisted.severities()).containsExactlyInAnyOrder("ERROR","INFO");
+        assertThat(persisted.filePath()).isEqualTo(entity.filePath());
+        assertThat(persisted.sizeBytes()).isEqualTo(2048);
+        assertThat(repository.existsById("SEGMENT1")).isTrue();
+    }
+    @Test
+    public void shouldFindSegmentsByDayTest(){
+        repository.save(segment("SEGMENT1", "APP_UUID1", LocalDate.of(2025,4,1)));
+        repository.save(segment("SEGMENT2", "APP_UUID2", LocalDate.of(2025,4,1)));
+        repository.save(segment("SEGMENT3", "APP_UUID1", LocalDate.of(2025,4,2)));
+        assertThat(repository.findByDay(LocalDate.of(2025,4,1), null)).hasSize(2);
+        assertThat(repository.findByDay(LocalDate.of(2025,4,1), "APP_UUID1"))
+                .extracting(ArchiveSegment::uuid)
+                .containsExactly("SEGMENT1");
+        assertThat(repository.findByDay(LocalDate.of(2025,4,3), "")).isEmpty();
+    }
+    @Test
+    public void shouldFindSegmentsBeforeDayTest(){
+        repository.save(segment("SEGMENT1", "APP_UUID1", LocalDate.of(2025,4,1)));
+        repository.save(segment("SEGMENT2", "APP_UUID1", LocalDate.of(2025,4,2)));
+        repository.save(segment("SEGMENT3", "APP_UUID2", LocalDate.of(2025,3,1)));
+        var segments = repository.findByApplicationBefore("APP_UUID1", LocalDate.of(2025,4,2));
+        assertThat(segments).extracting(ArchiveSegment::uuid).containsExactly("SEGMENT1");
+    }
+    @Test
+    public void shouldDeleteObjectsTest(){
+        repository.save(segment("SEGMENT1", "APP_UUID1", LocalDate.of(2025,4,1)));
+        repository.save(segment("SEGMENT2", "APP_UUID1", LocalDate.of(2025,4,2)));
+        repository.deleteById("SEGMENT1");
+        assertThat(repository.existsById("SEGMENT1")).isFalse();
+        repository.deleteAll();
+        assertThat(repository.findAll()).isEmpty();
+    }
+    @Test
+    public void shouldRejectUpdatesTest(){
+        var entity = segment("SEGMENT1", "APP_UUID1", LocalDate.of(2025,4,1));
+        assertThatThrownBy(() -> repository.updateById("SEGMENT1", entity))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+}
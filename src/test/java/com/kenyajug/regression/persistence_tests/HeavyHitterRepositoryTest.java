@@ -0,0 +1,64 @@
+package com.kenyajug.regression.persistence_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.HeavyHitterCounter;
+import com.kenyajug.regression.repository.HeavyHitterRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+@SpringBootTest
+@Transactional
+@TestPropertySource(locations = "classpath:application-test.properties")
+public class HeavyHitterRepositoryTest {
+    @Autowired
+    private HeavyHitterRepository repository;
+    @AfterEach
+    public void cleanUp(){
+        repository.deleteAll();
+    }
+    @Test
+    public void shouldReplaceCheckpointTest(){
+        repository.replaceAll(List.of(
+                new HeavyHitterCounter("APP_UUID1", "message", "ERROR", "User <num> not found", 12, 0),
+                new HeavyHitterCounter("APP_UUID1", "exceptionClass", "ERROR", "java.lang.NullPointerException", 9, 2)));
+        var latest = new HeavyHitterCounter("APP_UUID2", "message", "WARN", "Slow query took <num> ms", 4, 1);
+        repository.replaceAll(List.of(latest));
+        assertThat(repository.findAll()).containsExactly(latest);
+    }
+    @Test
+    public void shouldDeleteCountersOfApplicationTest(){
+        var kept = new HeavyHitterCounter("APP_UUID2", "message", "ERROR", "Connection refused", 3, 0);
+        repository.replaceAll(List.of(
+                new HeavyHitterCounter("APP_UUID1", "message", "ERROR", "Connection refused", 5, 0),
+                new HeavyHitterCounter("APP_UUID1", "clientIpAddress", "ERROR", "10.0.0.7", 2, 0),
+                kept));
+        assertThat(repository.deleteByApplication("APP_UUID1")).isEqualTo(2);
+        assertThat(repository.findAll()).containsExactly(kept);
+    }
+}
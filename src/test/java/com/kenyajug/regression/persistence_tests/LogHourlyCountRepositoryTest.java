@@ -0,0 +1,156 @@
+package com.kenyajug.regression.persistence_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.HourlyLogCount;
+import com.kenyajug.regression.repository.LogHourlyCountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+@SpringBootTest
+@Transactional
+@TestPropertySource(locations = "classpath:application-test.properties")
+public class LogHourlyCountRepositoryTest {
+    @Autowired
+    private JdbcClient jdbcClient;
+    @Autowired
+    private LogHourlyCountRepository repository;
+    @AfterEach
+    public void cleanUp(){
+        var clearTable = """
+                DELETE FROM log_hourly_counts;
+                """;
+        jdbcClient.sql(clearTable).update();
+    }
+    @Test
+    public void shouldAccumulateHourlyCountsTest(){
+        var hour = LocalDateTime.of(2025,8,11,11,0);
+        repository.incrementAll(List.of(
+                new HourlyLogCount("APP_UUID1", "SOURCE_UUID1", "WARN", hour, 2),
+                new HourlyLogCount("APP_UUID2", "SOURCE_UUID2", "WARN", hour, 1),
+                new HourlyLogCount("APP_UUID1", "SOURCE_UUID1", "WARN", hour.plusHours(12), 4),
+                new HourlyLogCount("APP_UUID1", "SOURCE_UUID1", "ERROR", hour, 7)
+        ));
+        repository.incrementAll(List.of(new HourlyLogCount("APP_UUID1", "SOURCE_UUID1", "WARN", hour, 3)));
+        var counts = repository.countByHour("WARN", LocalDate.of(2025,8,11));
+        assertThat(counts).hasSize(2);
+        assertThat(counts.get(11)).isEqualTo(6);
+        assertThat(counts.get(23)).isEqualTo(4);
+        assertThat(repository.countByHour("WARN", LocalDate.of(2025,8,12))).isEmpty();
+        assertThat(repository.countByHour("ERROR", LocalDate.of(2025,8,11))).containsEntry(11, 7L);
+    }
+    @Test
+    public void shouldDeleteCountsBeforeInstantTest(){
+        repository.incrementAll(List.of(
+                new HourlyLogCount("APP_UUID1", "SOURCE_UUID1", "WARN", LocalDateTime.of(2025,8,10,23,0), 2),
+                new HourlyLogCount("APP_UUID1", "SOURCE_UUID1", "WARN", LocalDateTime.of(2025,8,11,0,0), 1),
+                new HourlyLogCount("APP_UUID2", "SOURCE_UUID2", "WARN", LocalDateTime.of(2025,8,10,23,0), 5)
+        ));
+        var deleted = repository.deleteByApplicationBefore("APP_UUID1", LocalDate.of(2025,8,11).atStartOfDay());
+        assertThat(deleted).isEqualTo(1);
+        assertThat(repository.countByHour("WARN", LocalDate.of(2025,8,10))).containsEntry(23, 5L);
+        assertThat(repository.countByHour("WARN", LocalDate.of(2025,8,11))).containsEntry(0, 1L);
+    }
+    @Test
+    public void shouldDecrementCountsAndDropEmptyHoursTest(){
+        var hour = LocalDateTime.of(2025,8,11,11,0);
+        repository.incrementAll(List.of(
+                new HourlyLogCount("APP_UUID1", "SOURCE_UUID1", "WARN", hour, 5),
+                new HourlyLogCount("APP_UUID1", "SOURCE_UUID1", "WARN", hour.plusHours(1), 2)
+        ));
+        repository.decrementAll(List.of(
+                new HourlyLogCount("APP_UUID1", "SOURCE_UUID1", "WARN", hour, 3),
+                new HourlyLogCount("APP_UUID1", "SOURCE_UUID1", "WARN", hour.plusHours(1), 2)
+        ));
+        assertThat(repository.countByHour("WARN", LocalDate.of(2025,8,11))).hasSize(1).containsEntry(11, 2L);
+        var rows = jdbcClient.sql("SELECT COUNT(*) FROM log_hourly_counts").query(Long.class).single();
+        assertThat(rows).isEqualTo(1);
+    }
+    @Test
+    public void shouldCountEverySeverityByHourInOneQueryTest(){
+        repository.incrementAll(List.of(
+                new HourlyLogCount("APP_UUID1", "SOURCE_UUID1", "INFO", LocalDateTime.of(2025,8,11,9,0), 4),
+                new HourlyLogCount("APP_UUID1", "SOURCE_UUID1", "ERROR", LocalDateTime.of(2025,8,11,11,0), 7),
+                new HourlyLogCount("APP_UUID2", "SOURCE_UUID2", "ERROR", LocalDateTime.of(2025,8,11,11,0), 2),
+                new HourlyLogCount("APP_UUID2", "SOURCE_UUID2", "WARN", LocalDateTime.of(2025,8,11,23,0), 1),
+                new HourlyLogCount("APP_UUID1", "SOURCE_UUID1", "ERROR", LocalDateTime.of(2025,8,12,0,0), 5)
+        ));
+        var logsDate = LocalDate.of(2025,8,11);
+        var counts = repository.countBySeverityAndHour(logsDate, null, null);
+        assertThat(counts).containsOnlyKeys("INFO", "WARN", "ERROR");
+        assertThat(counts.get("INFO")).hasSize(24);
+        assertThat(counts.get("INFO")[9]).isEqualTo(4);
+        assertThat(counts.get("ERROR")[11]).isEqualTo(9);
+        assertThat(counts.get("ERROR")[0]).isZero();
+        assertThat(counts.get("WARN")[23]).isEqualTo(1);
+        var applicationCounts = repository.countBySeverityAndHour(logsDate, "APP_UUID1", "");
+        assertThat(applicationCounts).containsOnlyKeys("INFO", "ERROR");
+        assertThat(applicationCounts.get("ERROR")[11]).isEqualTo(7);
+        var sourceCounts = repository.countBySeverityAndHour(logsDate, null, "SOURCE_UUID2");
+        assertThat(sourceCounts).containsOnlyKeys("WARN", "ERROR");
+        assertThat(sourceCounts.get("ERROR")[11]).isEqualTo(2);
+    }
+    @Test
+    public void shouldCountEverySeverityByHourPerGroupTest(){
+        repository.incrementAll(List.of(
+                new HourlyLogCount("APP_UUID1", "SOURCE_UUID1", "INFO", LocalDateTime.of(2025,8,11,9,0), 4),
+                new HourlyLogCount("APP_UUID1", "SOURCE_UUID2", "ERROR", LocalDateTime.of(2025,8,11,11,0), 7),
+                new HourlyLogCount("APP_UUID1", "SOURCE_UUID1", "ERROR", LocalDateTime.of(2025,8,11,11,0), 1),
+                new HourlyLogCount("APP_UUID2", "SOURCE_UUID3", "ERROR", LocalDateTime.of(2025,8,11,11,0), 2),
+                new HourlyLogCount("APP_UUID3", "SOURCE_UUID4", "WARN", LocalDateTime.of(2025,8,12,0,0), 5)
+        ));
+        var logsDate = LocalDate.of(2025,8,11);
+        var byApplication = repository.countByGroupSeverityAndHour(logsDate, LogHourlyCountRepository.GROUP_BY_APPLICATION);
+        assertThat(byApplication).containsOnlyKeys("APP_UUID1", "APP_UUID2");
+        assertThat(byApplication.get("APP_UUID1")).containsOnlyKeys("INFO", "ERROR");
+        assertThat(byApplication.get("APP_UUID1").get("INFO")[9]).isEqualTo(4);
+        assertThat(byApplication.get("APP_UUID1").get("ERROR")[11]).isEqualTo(8);
+        assertThat(byApplication.get("APP_UUID2").get("ERROR")[11]).isEqualTo(2);
+        var bySource = repository.countByGroupSeverityAndHour(logsDate, LogHourlyCountRepository.GROUP_BY_SOURCE);
+        assertThat(bySource).containsOnlyKeys("SOURCE_UUID1", "SOURCE_UUID2", "SOURCE_UUID3");
+        assertThat(bySource.get("SOURCE_UUID1").get("ERROR")[11]).isEqualTo(1);
+        assertThat(bySource.get("SOURCE_UUID2").get("ERROR")[11]).isEqualTo(7);
+        assertThatThrownBy(() -> repository.countByGroupSeverityAndHour(logsDate, "severity"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    @Test
+    public void shouldCountApplicationsWithLogsSinceHourTest(){
+        var since = LocalDateTime.of(2025,8,11,10,0);
+        repository.incrementAll(List.of(
+                new HourlyLogCount("APP_UUID1", "SOURCE_UUID1", "ERROR", since, 2),
+                new HourlyLogCount("APP_UUID1", "SOURCE_UUID2", "INFO", since.plusHours(3), 1),
+                new HourlyLogCount("APP_UUID2", "SOURCE_UUID3", "INFO", since.plusHours(1), 4),
+                new HourlyLogCount("APP_UUID3", "SOURCE_UUID4", "INFO", since.minusHours(1), 9)
+        ));
+        assertThat(repository.countApplicationsSince(since)).isEqualTo(2);
+    }
+}
@@ -0,0 +1,100 @@
+package com.kenyajug.regression.persistence_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.MinuteLogCount;
+import com.kenyajug.regression.repository.LogMinuteCountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+@SpringBootTest
+@Transactional
+@TestPropertySource(locations = "classpath:application-test.properties")
+public class LogMinuteCountRepositoryTest {
+    @Autowired
+    private JdbcClient jdbcClient;
+    @Autowired
+    private LogMinuteCountRepository repository;
+    @AfterEach
+    public void cleanUp(){
+        var clearTable = """
+                DELETE FROM log_minute_counts;
+                """;
+        jdbcClient.sql(clearTable).update();
+    }
+    @Test
+    public void shouldCountMinutesIntoBucketsTest(){
+        var minute = LocalDateTime.of(2025,8,11,10,3);
+        repository.incrementAll(List.of(
+                new MinuteLogCount("APP_UUID1", "SOURCE_UUID1", "ERROR", minute, 2),
+                new MinuteLogCount("APP_UUID1", "SOURCE_UUID1", "ERROR", minute.plusMinutes(1), 1),
+                new MinuteLogCount("APP_UUID2", "SOURCE_UUID2", "ERROR", minute.plusMinutes(6), 4),
+                new MinuteLogCount("APP_UUID1", "SOURCE_UUID1", "INFO", minute.plusMinutes(9), 3),
+                new MinuteLogCount("APP_UUID1", "SOURCE_UUID1", "INFO", minute.plusMinutes(30), 8)
+        ));
+        repository.incrementAll(List.of(new MinuteLogCount("APP_UUID1", "SOURCE_UUID1", "ERROR", minute, 5)));
+        var start = LocalDateTime.of(2025,8,11,10,0);
+        var counts = repository.countBySeverity(start, Duration.ofMinutes(5), 3, null, "");
+        assertThat(counts.get("ERROR")).containsExactly(8, 4, 0);
+        assertThat(counts.get("INFO")).containsExactly(0, 0, 3);
+        assertThat(repository.countBySeverity(start, Duration.ofMinutes(5), 3, "APP_UUID2", null).get("ERROR"))
+                .containsExactly(0, 4, 0);
+        assertThat(repository.countBySeverity(start, Duration.ofMinutes(5), 3, null, "SOURCE_UUID2"))
+                .doesNotContainKey("INFO");
+    }
+    @Test
+    public void shouldTrackOldestMinuteAndDeleteBeforeInstantTest(){
+        assertThat(repository.findOldestMinute()).isEmpty();
+        repository.incrementAll(List.of(
+                new MinuteLogCount("APP_UUID1", "SOURCE_UUID1", "WARN", LocalDateTime.of(2025,8,10,23,59), 2),
+                new MinuteLogCount("APP_UUID1", "SOURCE_UUID1", "WARN", LocalDateTime.of(2025,8,11,0,0), 1),
+                new MinuteLogCount("APP_UUID2", "SOURCE_UUID2", "WARN", LocalDateTime.of(2025,8,11,0,1), 5)
+        ));
+        assertThat(repository.findOldestMinute()).contains(LocalDateTime.of(2025,8,10,23,59));
+        assertThat(repository.deleteBefore(LocalDateTime.of(2025,8,11,0,0))).isEqualTo(1);
+        assertThat(repository.findOldestMinute()).contains(LocalDateTime.of(2025,8,11,0,0));
+        assertThat(repository.deleteBySource("SOURCE_UUID2")).isEqualTo(1);
+        assertThat(repository.deleteByApplicationBefore("APP_UUID1", LocalDateTime.of(2025,8,12,0,0))).isEqualTo(1);
+        assertThat(repository.findOldestMinute()).isEmpty();
+    }
+    @Test
+    public void shouldSumApplicationLogsSinceMinuteTest(){
+        var since = LocalDateTime.of(2025,8,11,10,0);
+        repository.incrementAll(List.of(
+                new MinuteLogCount("APP_UUID1", "SOURCE_UUID1", "ERROR", since.minusMinutes(1), 7),
+                new MinuteLogCount("APP_UUID1", "SOURCE_UUID1", "ERROR", since, 2),
+                new MinuteLogCount("APP_UUID1", "SOURCE_UUID2", "INFO", since.plusMinutes(4), 3),
+                new MinuteLogCount("APP_UUID2", "SOURCE_UUID3", "INFO", since.plusMinutes(4), 6)
+        ));
+        assertThat(repository.sumSince("APP_UUID1", since)).isEqualTo(5);
+        assertThat(repository.sumSince("APP_UUID3", since)).isZero();
+    }
+}
@@ -0,0 +1,192 @@
+package com.kenyajug.regression.persistence_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.AppLog;
+import com.kenyajug.regression.entities.Application;
+import com.kenyajug.regression.entities.LogsDataSource;
+import com.kenyajug.regression.entities.LogsMetadata;
+import com.kenyajug.regression.models.LogCursor;
+import com.kenyajug.regression.models.LogQuery;
+import com.kenyajug.regression.repository.AppLogRepository;
+import com.kenyajug.regression.repository.ApplicationsRepository;
+import com.kenyajug.regression.repository.LogResourceRepository;
+import com.kenyajug.regression.repository.LogsDataSourceRepository;
+import com.kenyajug.regression.repository.LogsMetadataRepository;
+import com.kenyajug.regression.resources.LogResource;
+import com.kenyajug.regression.utils.DateTimeUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+@SpringBootTest
+@Transactional
+@TestPropertySource(locations = "classpath:application-test.properties")
+public class LogResourceRepositoryTest {
+    @Autowired
+    private LogResourceRepository logResourceRepository;
+    @Autowired
+    private AppLogRepository appLogRepository;
+    @Autowired
+    private ApplicationsRepository applicationsRepository;
+    @Autowired
+    private LogsDataSourceRepository dataSourceRepository;
+    @Autowired
+    private LogsMetadataRepository metadataRepository;
+    private final LocalDate logsDate = LocalDate.of(2025,8,11);
+    @BeforeEach
+    public void setUp(){
+        applicationsRepository.save(new Application("APP_UUID1", "Instagram", "12.05.11", "JVM", "OWNER_UUID1",
+                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-01 11:09:22 UTC")));
+        dataSourceRepository.save(new LogsDataSource("SOURCE_UUID1", "Tomcat", "local", "APP_UUID1",
+                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-01 11:09:22 UTC"), "/var/log/tomcat.log"));
+        appLogRepository.saveAll(List.of(
+                new AppLog("LOG_UUID1", DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-11 09:15:00 UTC"),
+                        "INFO", "APP_UUID1", "SOURCE_UUID1", "Server startup"),
+                new AppLog("LOG_UUID2", DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-11 10:30:00 UTC"),
+                        "ERROR", "APP_UUID1", "SOURCE_UUID1", "Connection refused"),
+                new AppLog("LOG_UUID3", DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-12 08:00:00 UTC"),
+                        "ERROR", "APP_UUID1", "SOURCE_UUID1", "Disk full"),
+                new AppLog("LOG_UUID4", DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-11 11:00:00 UTC"),
+                        "WARN", "APP_UUID1", "MISSING_SOURCE", "Orphaned log")
+        ));
+    }
+    @AfterEach
+    public void cleanUp(){
+        appLogRepository.deleteAll();
+        dataSourceRepository.deleteAll();
+        applicationsRepository.deleteAll();
+    }
+    @Test
+    public void shouldStreamDayWithApplicationAndSourceTest(){
+        List<LogResource> logs;
+        try (var stream = logResourceRepository.streamByDay(logsDate)) {
+            logs = stream.toList();
+        }
+        assertThat(logs).extracting(LogResource::logId).containsExactly("LOG_UUID1", "LOG_UUID2");
+        var first = logs.getFirst();
+        assertThat(first.timestamp()).isEqualTo(DateTimeUtils.localTimeString(
+                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-11 09:15:00 UTC").toLocalTime()));
+        assertThat(first.application().name()).isEqualTo("Instagram");
+        assertThat(first.application().runtimeEnvironment()).isEqualTo("JVM");
+        assertThat(first.source().name()).isEqualTo("Tomcat");
+        assertThat(first.source().uuid()).isEqualTo("SOURCE_UUID1");
+    }
+    @Test
+    public void shouldFilterApplicationDayBySeverityTest(){
+        try (var stream = logResourceRepository.streamByApplicationAndDay("APP_UUID1", logsDate, "ERROR")) {
+            assertThat(stream.map(LogResource::logId).toList()).containsExactly("LOG_UUID2");
+        }
+        try (var stream = logResourceRepository.streamByApplicationAndDay("APP_UUID1", logsDate, "All")) {
+            assertThat(stream.count()).isEqualTo(2);
+        }
+        try (var stream = logResourceRepository.streamByApplicationAndDay("APP_UUID2", logsDate, "")) {
+            assertThat(stream.count()).isZero();
+        }
+        try (var stream = logResourceRepository.streamByApplicationAndDay(null, logsDate, "All")) {
+            assertThat(stream.map(LogResource::logId).toList()).containsExactly("LOG_UUID1", "LOG_UUID2");
+        }
+    }
+    @Test
+    public void shouldFindByIdWithFullTimestampTest(){
+        var log = logResourceRepository.findById("LOG_UUID3");
+        assertThat(log).isPresent();
+        assertThat(log.get().timestamp()).isEqualTo(DateTimeUtils.convertLocalDateTimeToString(
+                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-12 08:00:00 UTC")));
+        assertThat(log.get().application().uuid()).isEqualTo("APP_UUID1");
+        assertThat(logResourceRepository.findById("LOG_UUID4")).isEmpty();
+    }
+    @Test
+    public void shouldLeaveOutLogsOfDeletedApplicationTest(){
+        applicationsRepository.deleteById("APP_UUID1");
+        try (var stream = logResourceRepository.streamByDay(logsDate)) {
+            assertThat(stream.count()).isZero();
+        }
+        assertThat(logResourceRepository.findById("LOG_UUID1")).isEmpty();
+    }
+    @Test
+    public void shouldFindOriginsByDatasourceIdsTest(){
+        var origins = logResourceRepository.findOriginsByDatasourceIds(List.of("SOURCE_UUID1", "MISSING_SOURCE"));
+        assertThat(origins).containsOnlyKeys("SOURCE_UUID1");
+        assertThat(origins.get("SOURCE_UUID1").application().name()).isEqualTo("Instagram");
+        assertThat(logResourceRepository.findOriginsByDatasourceIds(List.of())).isEmpty();
+    }
+    @Test
+    public void shouldFindLogsByIndexedMetadataValueInTimeOrderTest(){
+        metadataRepository.saveAll(List.of(
+                new LogsMetadata("M1", "LOG_UUID3", "traceIdentifier", "traceId=abc-123"),
+                new LogsMetadata("M2", "LOG_UUID1", "traceIdentifier", "traceId abc-123"),
+                new LogsMetadata("M3", "LOG_UUID2", "traceIdentifier", "traceId=def-456"),
+                new LogsMetadata("M4", "LOG_UUID4", "traceIdentifier", "traceId=abc-123")));
+        var logs = logResourceRepository.findByMetadataValue("traceIdentifier", "abc-123", 10);
+        assertThat(logs).extracting(LogResource::logId).containsExactly("LOG_UUID1", "LOG_UUID3");
+        assertThat(logs.getLast().timestamp()).isEqualTo(DateTimeUtils.convertLocalDateTimeToString(
+                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-12 08:00:00 UTC")));
+        assertThat(logResourceRepository.findByMetadataValue("traceIdentifier", "abc-123", 1)).hasSize(1);
+        assertThat(logResourceRepository.findByMetadataValue("sessionId", "abc-123", 10)).isEmpty();
+    }
+    private List<String> queryLogIds(LogQuery query) {
+        try (var stream = logResourceRepository.streamByQuery(query)) {
+            return stream.map(LogResource::logId).toList();
+        }
+    }
+    @Test
+    public void shouldStreamQueryWithFiltersTest(){
+        var dayStart = LocalDateTime.of(2025,8,11,0,0);
+        var dayEnd = LocalDateTime.of(2025,8,12,0,0);
+        assertThat(queryLogIds(new LogQuery(null, null, null, null, null, null, null, 0, 10)))
+                .containsExactly("LOG_UUID1", "LOG_UUID2", "LOG_UUID3");
+        assertThat(queryLogIds(new LogQuery(dayStart, dayEnd, null, "APP_UUID1", null, null, null, 0, 10)))
+                .containsExactly("LOG_UUID1", "LOG_UUID2");
+        assertThat(queryLogIds(new LogQuery(null, null, "ERROR", null, null, null, null, 0, 10)))
+                .containsExactly("LOG_UUID2", "LOG_UUID3");
+        assertThat(queryLogIds(new LogQuery(null, null, null, null, "SOURCE_UUID1", null, null, 0, 10)))
+                .containsExactly("LOG_UUID1", "LOG_UUID2", "LOG_UUID3");
+        assertThat(queryLogIds(new LogQuery(null, null, null, null, "SOURCE_UUID2", null, null, 0, 10))).isEmpty();
+        assertThat(queryLogIds(new LogQuery(null, null, null, null, null, "refused", null, 0, 10)))
+                .containsExactly("LOG_UUID2");
+        assertThat(queryLogIds(new LogQuery(null, null, null, null, null, "***", null, 0, 10))).isEmpty();
+        assertThat(queryLogIds(new LogQuery(null, null, null, null, null, null, null, 1, 1)))
+                .containsExactly("LOG_UUID2");
+        try (var stream = logResourceRepository.streamByQuery(new LogQuery(null, null, "ERROR", null, null, null, null, 0, 1))) {
+            assertThat(stream.toList().getFirst().timestamp()).isEqualTo("2025-08-11T10:30:00Z");
+        }
+    }
+    @Test
+    public void shouldContinueQueryAfterCursorTest(){
+        appLogRepository.save(new AppLog("LOG_UUID0", DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-11 10:30:00 UTC"),
+                "ERROR", "APP_UUID1", "SOURCE_UUID1", "Connection reset"));
+        var firstPage = queryLogIds(new LogQuery(null, null, null, null, null, null, null, 0, 2));
+        assertThat(firstPage).containsExactly("LOG_UUID1", "LOG_UUID0");
+        var cursor = new LogCursor(LocalDateTime.of(2025,8,11,10,30), "LOG_UUID0");
+        assertThat(queryLogIds(new LogQuery(null, null, null, null, null, null, cursor, 0, 2)))
+                .containsExactly("LOG_UUID2", "LOG_UUID3");
+    }
+}
@@ -31,7 +31,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.jdbc.core.simple.JdbcClient;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 import static org.assertj.core.api.Assertions.assertThat;
 @SpringBootTest
 @Transactional
@@ -46,6 +48,7 @@ public class LogsMetadataRepositoryTest {
     public void cleanUp(){
         var clearTable = """
                 DELETE FROM logs_metadata;
+                DELETE FROM logs_metadata_packed;
                 """;
         jdbcClient.sql(clearTable).update();
     }
@@ -202,4 +205,79 @@ public class LogsMetadataRepositoryTest {
         assertThat(match.metadataType()).isEqualTo(entity2.metadataType());
         assertThat(match.metadataValue()).isEqualTo(entity2.metadataValue());
     }
+    @Test
+    public void shouldSaveAllInMultiRowInsertsTest(){
+        var entities = new ArrayList<LogsMetadata>();
+        for (int i = 0; i < 1000; i++) {
+            entities.add(new LogsMetadata("UUID" + i, logId, "OS", "Ubuntu Desktop 24.04.2 LTS"));
+        }
+        repository.saveAll(entities);
+        assertThat(repository.findAll()).hasSize(1000);
+        assertThat(repository.findById("UUID999")).contains(entities.get(999));
+    }
+    @Test
+    public void shouldPackAllEntriesOfALogIntoOneRowTest(){
+        var entities = List.of(
+                new LogsMetadata("2f1d8c1e-8a47-4b8e-9d0a-0e5c4b7f6a11", logId, "threadName", "main"),
+                new LogsMetadata("6c0e4a55-3b8f-4a2c-a1e4-5d7b9c2f0e32", logId, "exceptionClass", "java.lang.NullPointerException"),
+                new LogsMetadata("UUID3", "LOG_UUID_2", "OS", "Ubuntu Desktop 24.04.2 LTS"));
+        repository.saveAll(entities);
+        var packedRows = jdbcClient.sql("SELECT COUNT(*) FROM logs_metadata_packed").query(Long.class).single();
+        var legacyRows = jdbcClient.sql("SELECT COUNT(*) FROM logs_metadata").query(Long.class).single();
+        assertThat(packedRows).isEqualTo(2);
+        assertThat(legacyRows).isZero();
+        assertThat(repository.findByRootLogId(logId)).containsExactly(entities.get(0), entities.get(1));
+        assertThat(repository.findByRootLogIds(List.of(logId, "LOG_UUID_2"))).containsExactlyInAnyOrderElementsOf(entities);
+    }
+    @Test
+    public void shouldDeleteOneEntryOfAPackedRowTest(){
+        var entity1 = new LogsMetadata("UUID1", logId, "threadName", "main");
+        var entity2 = new LogsMetadata("UUID2", logId, "processId", "4242");
+        repository.saveAll(List.of(entity1, entity2));
+        repository.deleteById("UUID1");
+        assertThat(repository.findByRootLogId(logId)).containsExactly(entity2);
+        repository.deleteById("UUID2");
+        var packedRows = jdbcClient.sql("SELECT COUNT(*) FROM logs_metadata_packed").query(Long.class).single();
+        assertThat(packedRows).isZero();
+    }
+    @Test
+    public void shouldReadAndPackLegacyRowsTest(){
+        jdbcClient.sql("INSERT INTO logs_metadata (uuid, log_uuid, metadata_type, metadata_value) VALUES ('M1', :log_uuid, 'threadName', 'main')")
+                .param("log_uuid", logId)
+                .update();
+        jdbcClient.sql("INSERT INTO logs_metadata (uuid, log_uuid, metadata_type, metadata_value) VALUES ('M2', 'LOG_UUID_2', 'processId', '4242')")
+                .update();
+        var packedEntry = new LogsMetadata("UUID3", logId, "exceptionClass", "java.io.IOException");
+        repository.save(packedEntry);
+        assertThat(repository.findByRootLogId(logId)).containsExactlyInAnyOrder(
+                packedEntry,
+                new LogsMetadata("M1", logId, "threadName", "main"));
+        assertThat(repository.packLegacyRows(1)).isEqualTo(1);
+        assertThat(repository.packLegacyRows(1)).isEqualTo(1);
+        assertThat(repository.packLegacyRows(1)).isZero();
+        var legacyRows = jdbcClient.sql("SELECT COUNT(*) FROM logs_metadata").query(Long.class).single();
+        assertThat(legacyRows).isZero();
+        assertThat(repository.findByRootLogId(logId)).containsExactlyInAnyOrder(
+                packedEntry,
+                new LogsMetadata("M1", logId, "threadName", "main"));
+        assertThat(repository.findById("M2")).contains(new LogsMetadata("M2", "LOG_UUID_2", "processId", "4242"));
+    }
+    @Test
+    public void shouldMaintainInvertedIndexOfIndexedTypesTest(){
+        repository.saveAll(List.of(
+                new LogsMetadata("UUID1", logId, "traceIdentifier", "traceId=abc-123"),
+                new LogsMetadata("UUID2", logId, "clientIpAddress", "10.0.0.17"),
+                new LogsMetadata("UUID3", logId, "threadName", "[main]")));
+        var indexed = jdbcClient.sql("SELECT metadata_type || '=' || metadata_value FROM logs_metadata_index WHERE log_uuid = :log_uuid")
+                .param("log_uuid", logId)
+                .query(String.class)
+                .list();
+        assertThat(indexed).containsExactlyInAnyOrder("traceIdentifier=abc-123", "clientIpAddress=10.0.0.17");
+        repository.deleteById("UUID1");
+        repository.deleteById("UUID2");
+        repository.deleteById("UUID3");
+        var remaining = jdbcClient.sql("SELECT COUNT(*) FROM logs_metadata_index").query(Long.class).single();
+        assertThat(remaining).isZero();
+        assertThat(repository.indexedTypes()).contains("traceIdentifier", "sessionId", "clientIpAddress", "exceptionClass");
+    }
 }
@@ -67,5 +67,12 @@ public class MigrationTest {
             Assertions.assertTrue(rs.next(), "Expected 'logs_metadata' table to exist");
         }
     }
+    @Test
+    @Order(5)
+    void databaseShouldHavePackedLogsMetadataTable() throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            ResultSet rs = conn.getMetaData().getTables(null, null, "logs_metadata_packed", null);
+            Assertions.assertTrue(rs.next(), "Expected 'logs_metadata_packed' table to exist");
+        }
+    }
 }
-
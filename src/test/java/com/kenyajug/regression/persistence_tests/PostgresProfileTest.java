@@ -0,0 +1,195 @@
+package com.kenyajug.regression.persistence_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.Application;
+import com.kenyajug.regression.entities.LogsDataSource;
+import com.kenyajug.regression.entities.RetentionPolicy;
+import com.kenyajug.regression.entities.User;
+import com.kenyajug.regression.repository.AppLogRepository;
+import com.kenyajug.regression.repository.ApplicationsRepository;
+import com.kenyajug.regression.repository.LogsDataSourceRepository;
+import com.kenyajug.regression.repository.UserRepository;
+import com.kenyajug.regression.resources.LogResource;
+import com.kenyajug.regression.services.IIngestionService;
+import com.kenyajug.regression.services.IMetricsService;
+import com.kenyajug.regression.services.IRetentionService;
+import com.kenyajug.regression.services.IRetrievalService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+/*
+ * Runs the postgres profile end to end against an embedded PostgreSQL server: Liquibase migrations,
+ * ingestion of a local log file, listing, keyword search, partition creation and quota trimming.
+ * PostgreSQL refuses to initialise a cluster as root, so the test is skipped when the build runs as root; the CI
+ * runners are not root, so it runs there. Until it runs on every build the postgres profile is experimental.
+ */
+@SpringBootTest
+@ActiveProfiles("postgres")
+@TestPropertySource(properties = {"regression.cache.max-size=0", "regression.view-cache.max-size=0"})
+@DirtiesContext
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class PostgresProfileTest {
+    @TempDir
+    private static Path logsDirectory;
+    private static final String OWNER_UUID = "57e8dd9f-90de-4cd9-9696-de85caedeadc";
+    private static final String APP_UUID = "2b38887b-5afe-4d87-b34a-d2f67db5a211";
+    private static final String SOURCE_UUID = "bc8de955-a2d5-48d4-96b5-c49e7774fa01";
+    private static final LocalDate LOGS_DATE = LocalDate.of(2025,5,16);
+    @Autowired
+    private JdbcClient jdbcClient;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ApplicationsRepository applicationsRepository;
+    @Autowired
+    private LogsDataSourceRepository dataSourceRepository;
+    @Autowired
+    private AppLogRepository appLogRepository;
+    @Autowired
+    private IIngestionService ingestionService;
+    @Autowired
+    private IRetrievalService retrievalService;
+    @Autowired
+    private IMetricsService metricsService;
+    @Autowired
+    private IRetentionService retentionService;
+    @BeforeAll
+    public static void assumeNonRootUser(){
+        Assumptions.assumeFalse("root".equals(System.getProperty("user.name")), "initdb cannot be run as root");
+    }
+    @TestConfiguration
+    public static class EmbeddedPostgresConfiguration {
+        @Bean(destroyMethod = "close")
+        public EmbeddedPostgres embeddedPostgres() throws IOException {
+            return EmbeddedPostgres.start();
+        }
+        @Bean
+        public DataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+            return DataSourceBuilder.create()
+                    .url(embeddedPostgres.getJdbcUrl("postgres", "postgres") + "&stringtype=unspecified&reWriteBatchedInserts=true")
+                    .username("postgres")
+                    .password("")
+                    .build();
+        }
+    }
+    @Test
+    @Order(1)
+    public void shouldRunEveryMigrationTest(){
+        var tables = jdbcClient.sql("""
+                        SELECT table_name FROM information_schema.tables
+                        WHERE table_schema = 'public'
+                        """)
+                .query(String.class)
+                .list();
+        assertThat(tables).contains("users", "applications", "logs_data_source", "app_logs", "app_logs_default",
+                "logs_metadata", "logs_metadata_packed", "logs_metadata_index", "retention_policies", "archive_segments",
+                "log_hourly_counts", "log_minute_counts", "purge_jobs", "heavy_hitter_counters", "app_metric_counts");
+    }
+    @Test
+    @Order(2)
+    public void shouldIngestAndReadLocalLogsTest() throws Exception {
+        var logFile = logsDirectory.resolve("app.log");
+        Files.writeString(logFile, """
+                2025-05-16T09:31:14.088Z ERROR 880 --- [nio-8081-exec-2] o.l.h.api.aop.ControllersErrorHandler    : Connection refused while calling billing
+                
+                java.lang.NullPointerException: Cannot invoke "User.getEmail()" because "user" is null
+                    at com.example.api.UserController.getUser(UserController.java:45)
+                2025-05-16T09:32:01.511Z  WARN 880 --- [nio-8081-exec-3] o.l.h.api.service.BillingService         : Retrying billing request
+                2025-05-16T10:05:42.907Z  INFO 880 --- [nio-8081-exec-4] o.l.h.api.service.BillingService         : Billing request completed
+                """);
+        userRepository.save(new User(OWNER_UUID, "mokky@email.com", "pass***", "Admin", LocalDateTime.now()));
+        applicationsRepository.save(new Application(APP_UUID, "Billing", "1.4.2", "JVM", OWNER_UUID, LocalDateTime.now()));
+        dataSourceRepository.save(new LogsDataSource(SOURCE_UUID, "Billing API", "local", APP_UUID, LocalDateTime.now(), logFile.toString()));
+        assertThat(ingestionService.processLocalLogs()).isTrue();
+        assertThat(ingestionService.processLocalLogs()).isFalse();
+        var allLogs = retrievalService.listLogs(LOGS_DATE, "All", APP_UUID, SOURCE_UUID);
+        assertThat(allLogs).extracting(LogResource::severity).containsExactly("ERROR", "WARN", "INFO");
+        assertThat(retrievalService.listLogs(LOGS_DATE, "ERROR", APP_UUID, null)).hasSize(1);
+        assertThat(retrievalService.listLogs(LOGS_DATE.plusDays(1), "All", APP_UUID, null)).isEmpty();
+        var errorLog = allLogs.getFirst();
+        assertThat(retrievalService.findMetadataByLogId(errorLog.logId())).isNotEmpty();
+        var chart = retrievalService.composeChartData(LOGS_DATE, APP_UUID, SOURCE_UUID);
+        assertThat(chart).isNotEmpty();
+        assertThat(retrievalService.composeChartDataByGroup(LOGS_DATE, IRetrievalService.CHART_GROUP_SOURCE)).containsKey(SOURCE_UUID);
+        var metrics = metricsService.composeMetrics(APP_UUID);
+        assertThat(metrics.errorCountBySeverity()).containsEntry("ERROR", 1L);
+    }
+    @Test
+    @Order(3)
+    public void shouldSearchLogsWithFullTextIndexTest(){
+        var refused = retrievalService.searchLogs(LOGS_DATE, "\"connection refused\"", "All", APP_UUID, SOURCE_UUID);
+        assertThat(refused).extracting(LogResource::message).allMatch(message -> message.contains("Connection refused"));
+        assertThat(refused).hasSize(1);
+        assertThat(retrievalService.searchLogs(LOGS_DATE, "billing*", null, null, null)).hasSize(3);
+        assertThat(retrievalService.searchLogs(LOGS_DATE, "billing", "WARN", APP_UUID, null)).hasSize(1);
+        assertThat(retrievalService.searchLogs(LOGS_DATE, "billing", null, APP_UUID, "other-source")).isEmpty();
+    }
+    @Test
+    @Order(4)
+    public void shouldCreateMonthlyLogPartitionsTest(){
+        var partitions = jdbcClient.sql("""
+                        SELECT inhrelid::regclass::text FROM pg_inherits
+                        WHERE inhparent = 'app_logs'::regclass
+                        """)
+                .query(String.class)
+                .list();
+        assertThat(partitions).contains("app_logs_2025_05");
+        var inPartition = jdbcClient.sql("SELECT COUNT(*) FROM app_logs_2025_05")
+                .query(Long.class)
+                .single();
+        assertThat(inPartition).isEqualTo(3);
+    }
+    @Test
+    @Order(5)
+    public void shouldTrimRowQuotaTest(){
+        var trimmed = retentionService.enforceRetentionPolicy(new RetentionPolicy(APP_UUID, 0, 1L, null), LocalDate.now());
+        assertThat(trimmed).isEqualTo(2);
+        assertThat(appLogRepository.countByApplication(APP_UUID)).isEqualTo(1);
+        var chart = retrievalService.composeChartDataBySeverity(LOGS_DATE, "ERROR");
+        assertThat(chart.stream().mapToLong(Long::longValue).sum()).isZero();
+        assertThat(retrievalService.listLogs(LOGS_DATE, "All", APP_UUID, SOURCE_UUID)).extracting(LogResource::severity).containsExactly("INFO");
+    }
+}
@@ -0,0 +1,82 @@
+package com.kenyajug.regression.persistence_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.PurgeJob;
+import com.kenyajug.regression.repository.PurgeJobRepository;
+import com.kenyajug.regression.utils.DateTimeUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.NoSuchElementException;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+@SpringBootTest
+@Transactional
+@TestPropertySource(locations = "classpath:application-test.properties")
+public class PurgeJobRepositoryTest {
+    @Autowired
+    private PurgeJobRepository repository;
+    private final PurgeJob job = new PurgeJob(
+            "JOB_UUID1",
+            PurgeJob.TARGET_DATASOURCE,
+            "SOURCE_UUID1",
+            "Tomcat",
+            PurgeJob.STATUS_PENDING,
+            10,
+            0,
+            DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-11 11:09:22 UTC"),
+            DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-11 11:09:22 UTC"));
+    @AfterEach
+    public void cleanUp(){
+        repository.deleteAll();
+    }
+    @Test
+    public void shouldSaveAndFindJobTest(){
+        repository.save(job);
+        assertThat(repository.findById("JOB_UUID1")).contains(job);
+        assertThat(repository.existsById("JOB_UUID1")).isTrue();
+        assertThat(repository.findAll()).hasSize(1);
+        repository.deleteById("JOB_UUID1");
+        assertThat(repository.existsById("JOB_UUID1")).isFalse();
+    }
+    @Test
+    public void shouldTrackProgressUntilCompletedTest(){
+        repository.save(job);
+        repository.updateProgress("JOB_UUID1", PurgeJob.STATUS_RUNNING, 4);
+        var running = repository.findById("JOB_UUID1").orElseThrow();
+        assertThat(running.deletedLogs()).isEqualTo(4);
+        assertThat(running.progressPercent()).isEqualTo(40);
+        assertThat(repository.findUnfinished()).extracting(PurgeJob::uuid).containsExactly("JOB_UUID1");
+        repository.updateProgress("JOB_UUID1", PurgeJob.STATUS_COMPLETED, 10);
+        assertThat(repository.findUnfinished()).isEmpty();
+        assertThat(repository.findRecent(5)).extracting(PurgeJob::status).containsExactly(PurgeJob.STATUS_COMPLETED);
+    }
+    @Test
+    public void shouldFailToUpdateMissingJobTest(){
+        assertThrows(NoSuchElementException.class, () -> repository.updateById("JOB_UUID2", job));
+    }
+}
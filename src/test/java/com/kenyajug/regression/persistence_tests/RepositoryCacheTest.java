@@ -0,0 +1,105 @@
+package com.kenyajug.regression.persistence_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.Application;
+import com.kenyajug.regression.entities.LogsDataSource;
+import com.kenyajug.regression.entities.User;
+import com.kenyajug.regression.repository.ApplicationsRepository;
+import com.kenyajug.regression.repository.LogsDataSourceRepository;
+import com.kenyajug.regression.repository.UserRepository;
+import com.kenyajug.regression.utils.DateTimeUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import static org.assertj.core.api.Assertions.assertThat;
+@SpringBootTest
+@Transactional
+@TestPropertySource(locations = "classpath:application-test.properties", properties = "regression.cache.max-size=100")
+public class RepositoryCacheTest {
+    @Autowired
+    private JdbcClient jdbcClient;
+    @Autowired
+    private ApplicationsRepository applicationsRepository;
+    @Autowired
+    private LogsDataSourceRepository dataSourceRepository;
+    @Autowired
+    private UserRepository userRepository;
+    private final Application application = new Application(
+            "UUID1",
+            "Instagram",
+            "12.05.11",
+            "staging-ci",
+            "OWNER_UUID1",
+            DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-11 11:09:22 UTC"));
+    @AfterEach
+    public void cleanUp(){
+        applicationsRepository.deleteAll();
+        dataSourceRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+    @Test
+    public void shouldServeApplicationLookupsFromCacheUntilWrittenTest(){
+        applicationsRepository.save(application);
+        var before = applicationsRepository.cacheStats();
+        assertThat(applicationsRepository.findById("UUID1")).contains(application);
+        jdbcClient.sql("UPDATE applications SET name = 'Threads' WHERE uuid = 'UUID1';").update();
+        assertThat(applicationsRepository.findById("UUID1")).contains(application);
+        var after = applicationsRepository.cacheStats();
+        assertThat(after.misses() - before.misses()).isEqualTo(1);
+        assertThat(after.hits() - before.hits()).isEqualTo(1);
+        applicationsRepository.updateById("UUID1", new Application("UUID1", "Facebook", "12.05.11", "staging-ci", "OWNER_UUID1", application.createdAt()));
+        assertThat(applicationsRepository.findById("UUID1").map(Application::name)).contains("Facebook");
+        applicationsRepository.deleteById("UUID1");
+        assertThat(applicationsRepository.findById("UUID1")).isEmpty();
+    }
+    @Test
+    public void shouldInvalidateCachedMissOnSaveTest(){
+        var dataSource = new LogsDataSource(
+                "ab4f4c5e-91c0-4f8e-9c84-8c0ad2d0b3d1",
+                "Tomcat",
+                "local",
+                "UUID1",
+                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-11 11:09:22 UTC"),
+                "/var/log/tomcat.log");
+        assertThat(dataSourceRepository.findById(dataSource.uuid())).isEmpty();
+        dataSourceRepository.save(dataSource);
+        assertThat(dataSourceRepository.findById(dataSource.uuid())).contains(dataSource);
+        assertThat(dataSourceRepository.findById(dataSource.uuid())).contains(dataSource);
+        assertThat(dataSourceRepository.cacheStats().hits()).isPositive();
+    }
+    @Test
+    public void shouldReloadUserAfterPasswordChangeTest(){
+        var user = new User("CACHE_UUID1", "cache-test@regression.com", "old-hash", "[]",
+                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-11 11:09:22 UTC"));
+        userRepository.save(user);
+        assertThat(userRepository.findByUsername("cache-test@regression.com").map(User::password)).contains("old-hash");
+        userRepository.updateById("CACHE_UUID1", new User("CACHE_UUID1", "cache-test@regression.com", "new-hash", "[]", user.created_at()));
+        assertThat(userRepository.findByUsername("cache-test@regression.com").map(User::password)).contains("new-hash");
+        assertThat(userRepository.cacheStats().name()).isEqualTo("users");
+    }
+}
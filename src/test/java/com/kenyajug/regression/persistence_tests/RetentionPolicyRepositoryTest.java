@@ -0,0 +1,100 @@
+package com.kenyajug.regression.persistence_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.RetentionPolicy;
+import com.kenyajug.regression.repository.RetentionPolicyRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import static org.assertj.core.api.Assertions.assertThat;
+@SpringBootTest
+@Transactional
+@TestPropertySource(locations = "classpath:application-test.properties")
+public class RetentionPolicyRepositoryTest {
+    @Autowired
+    private JdbcClient jdbcClient;
+    @Autowired
+    private RetentionPolicyRepository repository;
+    @AfterEach
+    public void cleanUp(){
+        var clearTable = """
+                DELETE FROM retention_policies;
+                """;
+        jdbcClient.sql(clearTable).update();
+    }
+    @Test
+    public void shouldSaveObjectTest(){
+        var entity = new RetentionPolicy("APP_UUID1", 30, 1_000_000L, null);
+        repository.save(entity);
+        var optionalEntity = repository.findById(entity.applicationId());
+        assertThat(optionalEntity).isNotEmpty();
+        var persisted = optionalEntity.get();
+        assertThat(persisted.applicationId()).isEqualTo("APP_UUID1");
+        assertThat(persisted.retentionDays()).isEqualTo(30);
+        assertThat(persisted.maxRows()).isEqualTo(1_000_000L);
+        assertThat(persisted.maxBytes()).isNull();
+    }
+    @Test
+    public void shouldReplaceExistingPolicyOnSaveTest(){
+        repository.save(new RetentionPolicy("APP_UUID1", 30, null, null));
+        repository.save(new RetentionPolicy("APP_UUID1", 7, null, 52_428_800L));
+        assertThat(repository.findAll()).hasSize(1);
+        var persisted = repository.findById("APP_UUID1").orElseThrow();
+        assertThat(persisted.retentionDays()).isEqualTo(7);
+        assertThat(persisted.maxRows()).isNull();
+        assertThat(persisted.maxBytes()).isEqualTo(52_428_800L);
+    }
+    @Test
+    public void shouldFindAllObjectsTest(){
+        repository.save(new RetentionPolicy("APP_UUID1", 30, null, null));
+        repository.save(new RetentionPolicy("APP_UUID2", 90, null, null));
+        var policies = repository.findAll();
+        assertThat(policies).hasSize(2);
+        assertThat(policies).extracting(RetentionPolicy::applicationId).containsExactlyInAnyOrder("APP_UUID1","APP_UUID2");
+    }
+    @Test
+    public void shouldDeleteObjectsTest(){
+        repository.save(new RetentionPolicy("APP_UUID1", 30, null, null));
+        repository.save(new RetentionPolicy("APP_UUID2", 90, null, null));
+        assertThat(repository.existsById("APP_UUID1")).isTrue();
+        repository.deleteById("APP_UUID1");
+        assertThat(repository.existsById("APP_UUID1")).isFalse();
+        assertThat(repository.existsById("APP_UUID2")).isTrue();
+        repository.deleteAll();
+        assertThat(repository.findAll()).isEmpty();
+    }
+    @Test
+    public void shouldUpdateObjectTest(){
+        repository.save(new RetentionPolicy("APP_UUID1", 30, null, null));
+        repository.updateById("APP_UUID1", new RetentionPolicy("IGNORED", 14, 500L, 1024L));
+        var persisted = repository.findById("APP_UUID1").orElseThrow();
+        assertThat(persisted.retentionDays()).isEqualTo(14);
+        assertThat(persisted.maxRows()).isEqualTo(500L);
+        assertThat(persisted.maxBytes()).isEqualTo(1024L);
+    }
+}
@@ -0,0 +1,234 @@
+package com.kenyajug.regression.persistence_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.AppLog;
+import com.kenyajug.regression.entities.AppMetricCount;
+import com.kenyajug.regression.entities.Application;
+import com.kenyajug.regression.entities.HourlyLogCount;
+import com.kenyajug.regression.entities.LogsDataSource;
+import com.kenyajug.regression.entities.RetentionPolicy;
+import com.kenyajug.regression.entities.User;
+import com.kenyajug.regression.models.LogQuery;
+import com.kenyajug.regression.repository.AppLogRepository;
+import com.kenyajug.regression.repository.AppMetricCountRepository;
+import com.kenyajug.regression.repository.ApplicationsRepository;
+import com.kenyajug.regression.repository.LogHourlyCountRepository;
+import com.kenyajug.regression.repository.LogsDataSourceRepository;
+import com.kenyajug.regression.repository.UserRepository;
+import com.kenyajug.regression.repository.shard.ShardContext;
+import com.kenyajug.regression.resources.LogResource;
+import com.kenyajug.regression.services.IIngestionService;
+import com.kenyajug.regression.services.IPurgeService;
+import com.kenyajug.regression.services.IRetentionService;
+import com.kenyajug.regression.services.IRetrievalService;
+import com.kenyajug.regression.services.IShardService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.util.FileSystemUtils;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.assertj.core.api.Assertions.assertThat;
+/*
+ * Runs the default SQLite profile end to end with per-application shards enabled: the core database and the shards
+ * are files in a temporary directory. Covers ingestion into two shards, the move of logs written to the core
+ * database before a shard existed, reads of one shard and of every shard, quota trimming, concurrent commits of
+ * two shard writers and purging a shard.
+ */
+@SpringBootTest
+@DirtiesContext
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ShardedStorageTest {
+    private static final Path DIRECTORY = createDirectory();
+    private static final String OWNER_UUID = "57e8dd9f-90de-4cd9-9696-de85caedeadc";
+    private static final String BILLING_UUID = "2b38887b-5afe-4d87-b34a-d2f67db5a211";
+    private static final String BILLING_SOURCE_UUID = "bc8de955-a2d5-48d4-96b5-c49e7774fa01";
+    private static final String ORDERS_UUID = "7f1c2a9e-3b4d-4e5f-8a6b-1c2d3e4f5a6b";
+    private static final String ORDERS_SOURCE_UUID = "0d9e8f7a-6b5c-4d3e-9f2a-1b0c9d8e7f6a";
+    private static final String LEGACY_LOG_UUID = "e3b7a1c4-5d6e-4f70-8a91-b2c3d4e5f607";
+    private static final LocalDate LOGS_DATE = LocalDate.of(2025,5,16);
+    @Autowired
+    private JdbcClient jdbcClient;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ApplicationsRepository applicationsRepository;
+    @Autowired
+    private LogsDataSourceRepository dataSourceRepository;
+    @Autowired
+    private AppLogRepository appLogRepository;
+    @Autowired
+    private IIngestionService ingestionService;
+    @Autowired
+    private IRetrievalService retrievalService;
+    @Autowired
+    private IRetentionService retentionService;
+    @Autowired
+    private IPurgeService purgeService;
+    @Autowired
+    private IShardService shardService;
+    @Autowired
+    private LogHourlyCountRepository hourlyCountRepository;
+    @Autowired
+    private AppMetricCountRepository metricCountRepository;
+    @DynamicPropertySource
+    static void shardProperties(DynamicPropertyRegistry registry){
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + DIRECTORY.resolve("core.db") + "?journal_mode=WAL&synchronous=NORMAL&busy_timeout=5000");
+        registry.add("regression.shards.enabled", () -> "true");
+        registry.add("regression.shards.directory", () -> DIRECTORY.resolve("shards").toString());
+        registry.add("regression.cache.max-size", () -> "0");
+        registry.add("regression.view-cache.max-size", () -> "0");
+        registry.add("regression.purge.enabled", () -> "false");
+    }
+    @AfterAll
+    public static void deleteDirectory() throws IOException {
+        FileSystemUtils.deleteRecursively(DIRECTORY);
+    }
+    private static Path createDirectory(){
+        try {
+            return Files.createTempDirectory("regression-shards");
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+    @Test
+    @Order(1)
+    public void shouldIngestEachApplicationIntoItsShardTest() throws Exception {
+        var billingLog = DIRECTORY.resolve("billing.log");
+        Files.writeString(billingLog, """
+                2025-05-16T09:31:14.088Z ERROR 880 --- [nio-8081-exec-2] o.l.h.api.aop.ControllersErrorHandler    : Connection refused while calling billing
+                2025-05-16T10:05:42.907Z  INFO 880 --- [nio-8081-exec-4] o.l.h.api.service.BillingService         : Billing request completed
+                """);
+        var ordersLog = DIRECTORY.resolve("orders.log");
+        Files.writeString(ordersLog, """
+                2025-05-16T09:45:03.120Z  WARN 881 --- [nio-8082-exec-1] o.l.h.api.service.OrderService           : Retrying billing for order 42
+                """);
+        userRepository.save(new User(OWNER_UUID, "mokky@email.com", "pass***", "Admin", LocalDateTime.now()));
+        applicationsRepository.save(new Application(BILLING_UUID, "Billing", "1.4.2", "JVM", OWNER_UUID, LocalDateTime.now()));
+        applicationsRepository.save(new Application(ORDERS_UUID, "Orders", "2.0.1", "JVM", OWNER_UUID, LocalDateTime.now()));
+        dataSourceRepository.save(new LogsDataSource(BILLING_SOURCE_UUID, "Billing API", "local", BILLING_UUID, LocalDateTime.now(), billingLog.toString()));
+        dataSourceRepository.save(new LogsDataSource(ORDERS_SOURCE_UUID, "Orders API", "local", ORDERS_UUID, LocalDateTime.now(), ordersLog.toString()));
+        appLogRepository.save(new AppLog(LEGACY_LOG_UUID, LOGS_DATE.atTime(8, 0), "INFO", BILLING_UUID, BILLING_SOURCE_UUID, "Billing started"));
+        assertThat(ingestionService.processLocalLogs()).isTrue();
+        assertThat(DIRECTORY.resolve("shards").resolve(BILLING_UUID + ".db")).exists();
+        assertThat(DIRECTORY.resolve("shards").resolve(ORDERS_UUID + ".db")).exists();
+        assertThat(countLogs()).isZero();
+        assertThat(countRows("log_hourly_counts")).isZero();
+        assertThat(countRows("app_metric_counts")).isZero();
+        assertThat(ShardContext.call(BILLING_UUID, this::countLogs)).isEqualTo(3);
+        assertThat(ShardContext.call(ORDERS_UUID, this::countLogs)).isEqualTo(1);
+        assertThat(ShardContext.call(ORDERS_UUID, () -> countRows("log_minute_counts"))).isEqualTo(1);
+        assertThat(retrievalService.composeChartDataBySeverity(LOGS_DATE, "ERROR").get(9)).isEqualTo(1);
+    }
+    @Test
+    @Order(2)
+    public void shouldReadOneShardOrEveryShardTest(){
+        assertThat(retrievalService.listLogs(LOGS_DATE, "All", BILLING_UUID, null))
+                .extracting(LogResource::severity)
+                .containsExactlyInAnyOrder("INFO", "ERROR", "INFO");
+        assertThat(retrievalService.searchLogs(LOGS_DATE, "billing", null, null, null))
+                .extracting(log -> log.application().uuid())
+                .containsOnly(BILLING_UUID, ORDERS_UUID)
+                .hasSize(4);
+        assertThat(retrievalService.listLogs(LOGS_DATE, "All", null, null))
+                .extracting(LogResource::severity)
+                .containsExactly("INFO", "ERROR", "WARN", "INFO");
+        assertThat(retrievalService.findLogsById(LEGACY_LOG_UUID)).isPresent();
+        var query = new LogQuery(LOGS_DATE.atStartOfDay(), LOGS_DATE.plusDays(1).atStartOfDay(), null, null, null, null, null, 1, 2);
+        try (var logs = retrievalService.streamLogs(query)) {
+            assertThat(logs.map(LogResource::severity).toList()).containsExactly("ERROR", "WARN");
+        }
+    }
+    @Test
+    @Order(3)
+    public void shouldTrimRowQuotaOnTheShardTest(){
+        var trimmed = retentionService.enforceRetentionPolicy(new RetentionPolicy(BILLING_UUID, 0, 1L, null), LocalDate.now());
+        assertThat(trimmed).isEqualTo(2);
+        assertThat(ShardContext.call(BILLING_UUID, this::countLogs)).isEqualTo(1);
+        assertThat(ShardContext.call(ORDERS_UUID, this::countLogs)).isEqualTo(1);
+    }
+    @Test
+    @Order(4)
+    public void shouldCommitShardWritersWithoutBlockingEachOtherTest() throws Exception {
+        var billingWriting = new CountDownLatch(1);
+        var releaseBilling = new CountDownLatch(1);
+        var billingCommit = shardService.writerFor(BILLING_UUID).submit(() -> {
+            hourlyCountRepository.incrementAll(List.of(new HourlyLogCount(BILLING_UUID, BILLING_SOURCE_UUID, "INFO", LOGS_DATE.atTime(12, 0), 1)));
+            metricCountRepository.incrementAll(List.of(new AppMetricCount(BILLING_UUID, AppMetricCount.METRIC_SEVERITY, "INFO", 1)));
+            billingWriting.countDown();
+            try {
+                return releaseBilling.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        });
+        assertThat(billingWriting.await(5, TimeUnit.SECONDS)).isTrue();
+        var ordersCommit = shardService.writerFor(ORDERS_UUID).submit(() -> {
+            hourlyCountRepository.incrementAll(List.of(new HourlyLogCount(ORDERS_UUID, ORDERS_SOURCE_UUID, "INFO", LOGS_DATE.atTime(12, 0), 1)));
+            metricCountRepository.incrementAll(List.of(new AppMetricCount(ORDERS_UUID, AppMetricCount.METRIC_SEVERITY, "INFO", 1)));
+            return true;
+        });
+        // Shorter than the busy timeout: a writer waiting on another shard's write lock would time out here.
+        assertThat(ordersCommit.get(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(billingCommit).isNotDone();
+        releaseBilling.countDown();
+        assertThat(billingCommit.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+    @Test
+    @Order(5)
+    public void shouldDropTheShardOfPurgedApplicationTest(){
+        assertThat(purgeService.purgeApplication(ORDERS_UUID)).isPresent();
+        purgeService.runPendingJobs();
+        assertThat(DIRECTORY.resolve("shards").resolve(ORDERS_UUID + ".db")).doesNotExist();
+        assertThat(retrievalService.findLogsById(UUID.randomUUID().toString())).isEmpty();
+        assertThat(retrievalService.searchLogs(LOGS_DATE, "billing", null, null, null))
+                .extracting(log -> log.application().uuid())
+                .containsOnly(BILLING_UUID);
+    }
+    private long countLogs(){
+        return countRows("app_logs");
+    }
+    private long countRows(String table){
+        return jdbcClient.sql("SELECT COUNT(*) FROM main." + table)
+                .query(Long.class)
+                .single();
+    }
+}
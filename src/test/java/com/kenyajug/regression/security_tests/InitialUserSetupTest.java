@@ -25,6 +25,7 @@ package com.kenyajug.regression.security_tests;
 import com.kenyajug.regression.InitialUserSetup;
 import com.kenyajug.regression.entities.User;
 import com.kenyajug.regression.repository.UserRepository;
+import com.kenyajug.regression.services.IWriterService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -36,11 +37,17 @@ import static org.mockito.Mockito.*;
 public class InitialUserSetupTest {
     private UserRepository userRepository;
     private PasswordEncoder passwordEncoder;
+    private IWriterService writerService;
     private InitialUserSetup initialUserSetup;
     @BeforeEach
     void setUp() {
         userRepository = mock(UserRepository.class);
         passwordEncoder = mock(PasswordEncoder.class);
+        writerService = mock(IWriterService.class);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(writerService).run(any());
         initialUserSetup = new InitialUserSetup();
     }
     @DisplayName("Should create a user if one does not already exist")
@@ -49,7 +56,7 @@ public class InitialUserSetupTest {
         var username = "admin@regression.com";
         when(userRepository.existsByUsername(username)).thenReturn(false);
         when(passwordEncoder.encode("admin123")).thenReturn("hashedPassword");
-        CommandLineRunner runner = initialUserSetup.createDefaultUser(userRepository, passwordEncoder);
+        CommandLineRunner runner = initialUserSetup.createDefaultUser(userRepository, passwordEncoder, writerService);
         runner.run();
         ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
         verify(userRepository).save(userCaptor.capture());
@@ -62,7 +69,7 @@ public class InitialUserSetupTest {
     @Test
     void shouldNotCreateUserIfAlreadyExists() throws Exception {
         when(userRepository.existsByUsername("admin@regression.com")).thenReturn(true);
-        CommandLineRunner runner = initialUserSetup.createDefaultUser(userRepository, passwordEncoder);
+        CommandLineRunner runner = initialUserSetup.createDefaultUser(userRepository, passwordEncoder, writerService);
         runner.run();
         verify(userRepository, never()).save(any());
     }
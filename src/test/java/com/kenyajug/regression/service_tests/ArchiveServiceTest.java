@@ -0,0 +1,158 @@
+package com.kenyajug.regression.service_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.kenyajug.regression.entities.AppLog;
+import com.kenyajug.regression.entities.ArchiveSegment;
+import com.kenyajug.regression.entities.LogsMetadata;
+import com.kenyajug.regression.models.ArchivedLog;
+import com.kenyajug.regression.repository.AppLogRepository;
+import com.kenyajug.regression.repository.ApplicationsRepository;
+import com.kenyajug.regression.repository.ArchiveSegmentRepository;
+import com.kenyajug.regression.repository.LogsMetadataRepository;
+import com.kenyajug.regression.services.ArchiveService;
+import com.kenyajug.regression.services.IShardService;
+import com.kenyajug.regression.services.IWriterService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+@ExtendWith(MockitoExtension.class)
+public class ArchiveServiceTest {
+    @Mock
+    private ApplicationsRepository applicationsRepository;
+    @Mock
+    private AppLogRepository appLogRepository;
+    @Mock
+    private LogsMetadataRepository metadataRepository;
+    @Mock
+    private ArchiveSegmentRepository segmentRepository;
+    @Mock
+    private IShardService shardService;
+    @Mock
+    private IWriterService writerService;
+    @TempDir
+    private Path archiveDirectory;
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final String appId = "2b38887b-5afe-4d87-b34a-d2f67db5a211";
+    private final String datasourceId = "bc8de955-a2d5-48d4-96b5-c49e7774fa01";
+    private ArchiveService archiveService;
+    @BeforeEach
+    public void setUp(){
+        lenient().when(shardService.onShard(any(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        lenient().when(shardService.existingWriterFor(any())).thenReturn(writerService);
+        lenient().when(writerService.execute(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        lenient().doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(writerService).run(any());
+        archiveService = new ArchiveService(applicationsRepository, appLogRepository, metadataRepository,
+                segmentRepository, shardService, writerService, objectMapper, archiveDirectory, 30, 1);
+    }
+    @Test
+    public void shouldArchiveDaysOutsideHotWindowTest() throws Exception {
+        var today = LocalDate.of(2025,5,20);
+        var archivedDay = LocalDate.of(2025,4,1);
+        var logs = List.of(
+                new AppLog("UUID1", archivedDay.atTime(10,0), "INFO", appId, datasourceId, "Server startup in [1043] milliseconds"),
+                new AppLog("UUID2", archivedDay.atTime(11,0), "ERROR", appId, datasourceId, "Connection refused")
+        );
+        when(appLogRepository.findOldestLogDay(appId)).thenReturn(Optional.of(archivedDay))
+                .thenReturn(Optional.of(today.minusDays(30)));
+        when(appLogRepository.streamByApplicationAndDay(appId, archivedDay)).thenReturn(logs.stream());
+        when(metadataRepository.findByRootLogIds(List.of("UUID1"))).thenReturn(List.of());
+        when(metadataRepository.findByRootLogIds(List.of("UUID2")))
+                .thenReturn(List.of(new LogsMetadata("M1", "UUID2", "threadName", "main")));
+        var archived = archiveService.archiveApplication(appId, today);
+        assertThat(archived).isEqualTo(2);
+        var segmentCaptor = ArgumentCaptor.forClass(ArchiveSegment.class);
+        verify(segmentRepository).save(segmentCaptor.capture());
+        var segment = segmentCaptor.getValue();
+        assertThat(segment.segmentDay()).isEqualTo(archivedDay);
+        assertThat(segment.rowCount()).isEqualTo(2);
+        assertThat(segment.severities()).containsExactly("ERROR", "INFO");
+        assertThat(segment.firstTimestamp()).isEqualTo(archivedDay.atTime(10,0));
+        assertThat(segment.lastTimestamp()).isEqualTo(archivedDay.atTime(11,0));
+        assertThat(Files.exists(archiveDirectory.resolve(segment.filePath()))).isTrue();
+        verify(appLogRepository).deleteByIds(List.of("UUID1"));
+        verify(appLogRepository).deleteByIds(List.of("UUID2"));
+        when(segmentRepository.findByDay(archivedDay, appId)).thenReturn(List.of(segment, segment));
+        var rehydrated = archiveService.findArchivedLogs(archivedDay, "ERROR", appId);
+        assertThat(rehydrated).hasSize(1);
+        assertThat(rehydrated.getFirst().log()).isEqualTo(logs.getLast());
+        assertThat(rehydrated.getFirst().metadata()).extracting(LogsMetadata::metadataValue).containsExactly("main");
+        var filtered = archiveService.findArchivedLogs(archivedDay, "All", appId, appLog -> appLog.message().startsWith("Server"));
+        assertThat(filtered).extracting(ArchivedLog::log).containsExactly(logs.getFirst());
+    }
+    @Test
+    public void shouldSkipSegmentsThatCannotMatchSeverityTest(){
+        var day = LocalDate.of(2025,4,1);
+        var segment = new ArchiveSegment("SEGMENT1", appId, day, day.atTime(10,0), day.atTime(11,0), 2,
+                Set.of("INFO"), "missing.ndjson.gz", 10, LocalDateTime.now());
+        when(segmentRepository.findByDay(day, appId)).thenReturn(List.of(segment));
+        assertThat(archiveService.findArchivedLogs(day, "ERROR", appId)).isEmpty();
+    }
+    @Test
+    public void shouldNotArchiveWhenHotWindowIsDisabledTest(){
+        archiveService = new ArchiveService(applicationsRepository, appLogRepository, metadataRepository,
+                segmentRepository, shardService, writerService, objectMapper, archiveDirectory, 0, 1);
+        assertThat(archiveService.isArchived(LocalDate.of(1990,1,1))).isFalse();
+        assertThat(archiveService.archiveOldLogs()).isZero();
+        verify(appLogRepository, never()).findOldestLogDay(anyString());
+    }
+    @Test
+    public void shouldExpireSegmentsTest() throws Exception {
+        var day = LocalDate.of(2025,4,1);
+        var segmentFile = archiveDirectory.resolve(appId + "/2025-04-01-SEGMENT1.ndjson.gz");
+        Files.createDirectories(segmentFile.getParent());
+        Files.writeString(segmentFile, "");
+        var segment = new ArchiveSegment("SEGMENT1", appId, day, day.atTime(10,0), day.atTime(11,0), 2,
+                Set.of("INFO"), appId + "/2025-04-01-SEGMENT1.ndjson.gz", 10, LocalDateTime.now());
+        when(segmentRepository.findByApplicationBefore(appId, day.plusDays(1))).thenReturn(List.of(segment));
+        var deleted = archiveService.expireSegmentsBefore(appId, day.plusDays(1));
+        assertThat(deleted).isEqualTo(2);
+        assertThat(Files.exists(segmentFile)).isFalse();
+        verify(segmentRepository).deleteById("SEGMENT1");
+        verify(segmentRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,146 @@
+package com.kenyajug.regression.service_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.repository.ApplicationsRepository;
+import com.kenyajug.regression.repository.LogsDataSourceRepository;
+import com.kenyajug.regression.repository.UserRepository;
+import com.kenyajug.regression.services.BackupService;
+import com.kenyajug.regression.services.IHeavyHitterService;
+import com.kenyajug.regression.services.IShardService;
+import com.kenyajug.regression.services.IViewCacheService;
+import com.kenyajug.regression.services.WriterService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.sqlite.JDBC;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+@ExtendWith(MockitoExtension.class)
+public class BackupServiceTest {
+    @Mock
+    private ApplicationsRepository applicationsRepository;
+    @Mock
+    private LogsDataSourceRepository dataSourceRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private IViewCacheService viewCacheService;
+    @Mock
+    private IHeavyHitterService heavyHitterService;
+    @Mock
+    private IShardService shardService;
+    @TempDir
+    private Path workDirectory;
+    private SimpleDriverDataSource dataSource;
+    private JdbcClient jdbcClient;
+    private Path backupDirectory;
+    private WriterService writerService;
+    @BeforeEach
+    public void setUp() {
+        dataSource = new SimpleDriverDataSource(new JDBC(), "jdbc:sqlite:" + workDirectory.resolve("regression.db"));
+        jdbcClient = JdbcClient.create(dataSource);
+        backupDirectory = workDirectory.resolve("backups");
+        jdbcClient.sql("CREATE TABLE applications (uuid TEXT PRIMARY KEY, name TEXT)").update();
+        jdbcClient.sql("INSERT INTO applications (uuid, name) VALUES ('APP_UUID1', 'Gimp')").update();
+        writerService = new WriterService(new DataSourceTransactionManager(dataSource), 64, 0);
+    }
+    @AfterEach
+    public void tearDown() throws Exception {
+        writerService.stop();
+    }
+    private BackupService backupService(int keepSnapshots) {
+        return new BackupService(dataSource, applicationsRepository, dataSourceRepository, userRepository,
+                writerService, viewCacheService, heavyHitterService, shardService, backupDirectory, keepSnapshots, 1, 0);
+    }
+    @Test
+    public void shouldWriteCompressedSnapshotTest() throws Exception {
+        var service = backupService(7);
+        var snapshot = service.createSnapshot();
+        assertThat(snapshot).isPresent();
+        assertThat(snapshot.get().fileName()).matches("regression-\\d{8}-\\d{9}\\.db\\.gz");
+        var snapshotFile = backupDirectory.resolve(snapshot.get().fileName());
+        assertThat(snapshotFile).exists();
+        assertThat(snapshot.get().sizeBytes()).isEqualTo(Files.size(snapshotFile));
+        assertThat(service.listSnapshots()).containsExactly(snapshot.get());
+        try (var files = Files.list(backupDirectory)) {
+            assertThat(files).hasSize(1);
+        }
+    }
+    @Test
+    public void shouldRotateOldSnapshotsTest() throws Exception {
+        var service = backupService(2);
+        var first = service.createSnapshot().orElseThrow();
+        Thread.sleep(5);
+        var second = service.createSnapshot().orElseThrow();
+        Thread.sleep(5);
+        var third = service.createSnapshot().orElseThrow();
+        assertThat(service.listSnapshots()).containsExactly(third, second);
+        assertThat(backupDirectory.resolve(first.fileName())).doesNotExist();
+    }
+    @Test
+    public void shouldRestoreSnapshotTest() {
+        var service = backupService(7);
+        var snapshot = service.createSnapshot().orElseThrow();
+        jdbcClient.sql("DELETE FROM applications").update();
+        jdbcClient.sql("INSERT INTO applications (uuid, name) VALUES ('APP_UUID2', 'Chrome')").update();
+        assertThat(service.restoreSnapshot(snapshot.fileName())).isTrue();
+        var names = jdbcClient.sql("SELECT name FROM applications").query(String.class).list();
+        assertThat(names).containsExactly("Gimp");
+        verify(applicationsRepository).invalidateCache();
+        verify(dataSourceRepository).invalidateCache();
+        verify(userRepository).invalidateCache();
+        verify(heavyHitterService).reload();
+        verify(viewCacheService).invalidateAll();
+    }
+    @Test
+    public void shouldRefuseSnapshotsWhileLogShardsAreEnabledTest() {
+        var service = backupService(7);
+        var snapshot = service.createSnapshot().orElseThrow();
+        when(shardService.isEnabled()).thenReturn(true);
+        assertThat(service.createSnapshot()).isEmpty();
+        assertThat(service.restoreSnapshot(snapshot.fileName())).isFalse();
+        assertThat(service.listSnapshots()).containsExactly(snapshot);
+        verify(applicationsRepository, never()).invalidateCache();
+    }
+    @Test
+    public void shouldRejectUnknownSnapshotTest() {
+        var service = backupService(7);
+        assertThrows(IllegalArgumentException.class, () -> service.restoreSnapshot("../regression.db"));
+        assertThrows(IllegalArgumentException.class, () -> service.restoreSnapshot("regression-20250101-101010000.db.gz"));
+        verify(applicationsRepository, never()).invalidateCache();
+        verify(viewCacheService, never()).invalidateAll();
+    }
+}
@@ -0,0 +1,186 @@
+package com.kenyajug.regression.service_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.AppLog;
+import com.kenyajug.regression.repository.AppLogRepository;
+import com.kenyajug.regression.repository.ApplicationsRepository;
+import com.kenyajug.regression.repository.ColumnarSegmentRepository;
+import com.kenyajug.regression.repository.LogHourlyCountRepository;
+import com.kenyajug.regression.services.ColumnarService;
+import com.kenyajug.regression.services.IShardService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+@ExtendWith(MockitoExtension.class)
+public class ColumnarServiceTest {
+    @Mock
+    private ApplicationsRepository applicationsRepository;
+    @Mock
+    private AppLogRepository appLogRepository;
+    @Mock
+    private LogHourlyCountRepository hourlyCountRepository;
+    @Mock
+    private IShardService shardService;
+    @TempDir
+    private Path columnarDirectory;
+    private final String appId = "2b38887b-5afe-4d87-b34a-d2f67db5a211";
+    private final String datasourceId = "bc8de955-a2d5-48d4-96b5-c49e7774fa01";
+    private final LocalDate today = LocalDate.of(2025,5,20);
+    private final LocalDate day = LocalDate.of(2025,5,19);
+    private ColumnarSegmentRepository segmentRepository;
+    private ColumnarService columnarService;
+    @BeforeEach
+    public void setUp(){
+        segmentRepository = new ColumnarSegmentRepository(columnarDirectory);
+        lenient().when(shardService.onShard(any(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        columnarService = new ColumnarService(applicationsRepository, appLogRepository, segmentRepository, hourlyCountRepository, shardService, 7);
+    }
+    private List<AppLog> sampleLogs() {
+        List<AppLog> logs = new ArrayList<>();
+        for (int minute = 0; minute < 90; minute++) {
+            logs.add(new AppLog("INFO" + minute, day.atTime(9, 0).plusMinutes(minute), "INFO", appId, datasourceId, "Request served"));
+        }
+        logs.add(new AppLog("ERROR1", day.atTime(10, 45), "ERROR", appId, datasourceId, "Connection refused"));
+        logs.add(new AppLog("ERROR2", day.atTime(23, 59, 59), "ERROR", appId, datasourceId, null));
+        logs.sort((first, second) -> first.timestamp().compareTo(second.timestamp()));
+        return logs;
+    }
+    private Map<String, Long> severityCounts(List<AppLog> logs) {
+        return logs.stream().collect(Collectors.groupingBy(AppLog::severity, Collectors.counting()));
+    }
+    @Test
+    public void shouldSealCompletedDaysAndAggregateColumnsTest() throws Exception {
+        var logs = sampleLogs();
+        when(appLogRepository.findOldestLogDay(appId)).thenReturn(Optional.of(day));
+        when(appLogRepository.countBySeverityForApplicationAndDay(appId, day)).thenReturn(severityCounts(logs));
+        when(appLogRepository.streamByApplicationAndDay(appId, day)).thenReturn(logs.stream());
+        var sealed = columnarService.sealApplication(appId, today);
+        assertThat(sealed).isEqualTo(92);
+        assertThat(Files.exists(columnarDirectory.resolve(appId).resolve("2025-05-19.rcs"))).isTrue();
+        var segment = segmentRepository.findByApplicationAndDay(appId, day).orElseThrow();
+        assertThat(segment.rowCount()).isEqualTo(92);
+        assertThat(segment.minTimestamp()).isEqualTo(day.atTime(9, 0));
+        assertThat(segment.maxTimestamp()).isEqualTo(day.atTime(23, 59, 59));
+        assertThat(segment.severities()).containsExactly("INFO", "ERROR");
+        assertThat(segment.sources()).containsExactly(datasourceId);
+        assertThat(segmentRepository.readSources(segment).values()).containsExactly(0);
+        var bySeverity = columnarService.countBySeverity(appId, day, today);
+        assertThat(bySeverity).containsExactly(
+                entry("INFO", 90L),
+                entry("ERROR", 2L));
+        assertThat(columnarService.countBySeverity(appId, today, today.plusDays(1))).isEmpty();
+    }
+    @Test
+    public void shouldMergeUnsealedDaysFromRollupsTest() throws Exception {
+        var logs = sampleLogs();
+        when(appLogRepository.findOldestLogDay(appId)).thenReturn(Optional.of(day));
+        when(appLogRepository.countBySeverityForApplicationAndDay(appId, day)).thenReturn(severityCounts(logs));
+        when(appLogRepository.streamByApplicationAndDay(appId, day)).thenReturn(logs.stream());
+        columnarService.sealApplication(appId, today);
+        when(hourlyCountRepository.countBySeverity(day.atStartOfDay(), Duration.ofDays(1), 2, appId, null))
+                .thenReturn(Map.of(
+                        "INFO", new long[]{90, 5},
+                        "WARN", new long[]{0, 3}));
+        assertThat(columnarService.countBySeverity(appId, day, today.plusDays(1))).containsExactly(
+                entry("INFO", 95L),
+                entry("WARN", 3L),
+                entry("ERROR", 2L));
+    }
+    @Test
+    public void shouldOnlyResealDaysWithLateLogsTest() throws Exception {
+        var logs = sampleLogs();
+        when(appLogRepository.findOldestLogDay(appId)).thenReturn(Optional.of(day));
+        when(appLogRepository.countBySeverityForApplicationAndDay(appId, day)).thenReturn(severityCounts(logs));
+        when(appLogRepository.streamByApplicationAndDay(appId, day)).thenReturn(logs.stream());
+        columnarService.sealApplication(appId, today);
+        assertThat(columnarService.sealApplication(appId, today)).isZero();
+        var withLateLog = new ArrayList<>(logs);
+        withLateLog.add(new AppLog("LATE", day.atTime(23, 59, 59), "WARN", appId, datasourceId, "Late"));
+        when(appLogRepository.countBySeverityForApplicationAndDay(appId, day)).thenReturn(severityCounts(withLateLog));
+        when(appLogRepository.streamByApplicationAndDay(appId, day)).thenReturn(withLateLog.stream());
+        assertThat(columnarService.sealApplication(appId, today)).isEqualTo(93);
+        assertThat(columnarService.countBySeverity(appId, day, today)).containsKeys("INFO", "ERROR", "WARN");
+        var trimmed = withLateLog.subList(10, withLateLog.size());
+        when(appLogRepository.countBySeverityForApplicationAndDay(appId, day)).thenReturn(severityCounts(trimmed));
+        assertThat(columnarService.sealApplication(appId, today)).isZero();
+    }
+    @Test
+    public void shouldResealDaysWhoseSeveritiesChangedTest() throws Exception {
+        var logs = sampleLogs();
+        when(appLogRepository.findOldestLogDay(appId)).thenReturn(Optional.of(day));
+        when(appLogRepository.countBySeverityForApplicationAndDay(appId, day)).thenReturn(severityCounts(logs));
+        when(appLogRepository.streamByApplicationAndDay(appId, day)).thenReturn(logs.stream());
+        columnarService.sealApplication(appId, today);
+        var replaced = new ArrayList<>(logs.subList(1, logs.size()));
+        replaced.add(new AppLog("LATE", day.atTime(23, 59, 59), "WARN", appId, datasourceId, "Late"));
+        when(appLogRepository.countBySeverityForApplicationAndDay(appId, day)).thenReturn(severityCounts(replaced));
+        when(appLogRepository.streamByApplicationAndDay(appId, day)).thenReturn(replaced.stream());
+        assertThat(columnarService.sealApplication(appId, today)).isEqualTo(92);
+        assertThat(columnarService.countBySeverity(appId, day, today)).containsEntry("WARN", 1L).containsEntry("INFO", 89L);
+    }
+    @Test
+    public void shouldNotSealTodayOrDaysOutsideWindowTest() {
+        when(appLogRepository.findOldestLogDay(appId)).thenReturn(Optional.of(LocalDate.of(2024,1,1)));
+        when(appLogRepository.countBySeverityForApplicationAndDay(anyString(), any(LocalDate.class))).thenReturn(Map.of());
+        assertThat(columnarService.sealApplication(appId, today)).isZero();
+        verify(appLogRepository, never()).countBySeverityForApplicationAndDay(appId, today);
+        verify(appLogRepository, never()).countBySeverityForApplicationAndDay(appId, today.minusDays(8));
+        verify(appLogRepository).countBySeverityForApplicationAndDay(appId, today.minusDays(7));
+        verify(appLogRepository, never()).streamByApplicationAndDay(anyString(), any(LocalDate.class));
+    }
+    @Test
+    public void shouldExpireSegmentsBeforeDayTest() throws Exception {
+        var logs = sampleLogs();
+        when(appLogRepository.findOldestLogDay(appId)).thenReturn(Optional.of(day));
+        when(appLogRepository.countBySeverityForApplicationAndDay(appId, day)).thenReturn(severityCounts(logs));
+        when(appLogRepository.streamByApplicationAndDay(appId, day)).thenReturn(logs.stream());
+        columnarService.sealApplication(appId, today);
+        assertThat(columnarService.expireSegmentsBefore(appId, day)).isZero();
+        assertThat(columnarService.expireSegmentsBefore(appId, today)).isEqualTo(92);
+        assertThat(segmentRepository.findByApplicationAndDay(appId, day)).isEmpty();
+        assertThat(columnarService.countBySeverity(null, day, today)).isEqualTo(Collections.emptyMap());
+    }
+}
@@ -0,0 +1,136 @@
+package com.kenyajug.regression.service_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.AppLog;
+import com.kenyajug.regression.entities.HeavyHitterCounter;
+import com.kenyajug.regression.entities.LogsMetadata;
+import com.kenyajug.regression.models.RecurringItem;
+import com.kenyajug.regression.repository.HeavyHitterRepository;
+import com.kenyajug.regression.services.HeavyHitterService;
+import com.kenyajug.regression.services.IWriterService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+@ExtendWith(MockitoExtension.class)
+public class HeavyHitterServiceTest {
+    @Mock
+    private HeavyHitterRepository heavyHitterRepository;
+    @Mock
+    private IWriterService writerService;
+    private HeavyHitterService heavyHitterService;
+    private final LocalDateTime timestamp = LocalDateTime.of(2025, 6, 22, 10, 15, 30);
+    @BeforeEach
+    public void setUp(){
+        lenient().doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(writerService).run(any());
+        heavyHitterService = new HeavyHitterService(heavyHitterRepository, writerService, 2, List.of("exceptionClass"));
+    }
+    @Test
+    public void shouldCountMessageTemplatesAndMetadataPerApplicationAndSeverityTest(){
+        var first = log("LOG1", "APP1", "ERROR", "User 17 not found");
+        var second = log("LOG2", "APP1", "ERROR", "User 2931 not found");
+        var third = log("LOG3", "APP1", "ERROR", "Connection refused");
+        var warning = log("LOG4", "APP1", "WARN", "User 5 not found");
+        var otherApp = log("LOG5", "APP2", "ERROR", "User 8 not found");
+        heavyHitterService.observe(List.of(first, second, third, warning, otherApp), Map.of(
+                first, List.of(metadata("LOG1", "exceptionClass", "java.lang.NullPointerException"),
+                        metadata("LOG1", "threadName", "[main]")),
+                second, List.of(metadata("LOG2", "exceptionClass", "java.lang.NullPointerException"))));
+        assertThat(heavyHitterService.top("APP1", "message", "ERROR", 10)).containsExactly(
+                new RecurringItem("User <num> not found", 2, 0),
+                new RecurringItem("Connection refused", 1, 0));
+        assertThat(heavyHitterService.top("APP1", "message", "WARN", 10))
+                .containsExactly(new RecurringItem("User <num> not found", 1, 0));
+        assertThat(heavyHitterService.top("APP1", "exceptionClass", "ERROR", 10))
+                .containsExactly(new RecurringItem("java.lang.NullPointerException", 2, 0));
+        assertThat(heavyHitterService.top("APP1", "threadName", "ERROR", 10)).isEmpty();
+        assertThat(heavyHitterService.top("APP2", "message", "ERROR", 1))
+                .containsExactly(new RecurringItem("User <num> not found", 1, 0));
+        assertThat(heavyHitterService.dimensions()).containsExactly("message", "exceptionClass");
+    }
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldRestoreCheckpointAndStoreOnlyWhenChangedTest(){
+        when(heavyHitterRepository.findAll()).thenReturn(List.of(
+                new HeavyHitterCounter("APP1", "message", "ERROR", "Connection refused", 7, 1)));
+        heavyHitterService.observe(List.of(log("LOG1", "APP1", "ERROR", "Connection refused")), Map.of());
+        assertThat(heavyHitterService.top("APP1", "message", "ERROR", 10))
+                .containsExactly(new RecurringItem("Connection refused", 8, 1));
+        assertThat(heavyHitterService.checkpoint()).isEqualTo(1);
+        ArgumentCaptor<List<HeavyHitterCounter>> stored = ArgumentCaptor.forClass(List.class);
+        verify(heavyHitterRepository).replaceAll(stored.capture());
+        assertThat(stored.getValue()).containsExactly(
+                new HeavyHitterCounter("APP1", "message", "ERROR", "Connection refused", 8, 1));
+        assertThat(heavyHitterService.checkpoint()).isZero();
+        verify(heavyHitterRepository, times(1)).replaceAll(any());
+        verify(heavyHitterRepository, times(1)).findAll();
+    }
+    @Test
+    public void shouldDropCountsOfForgottenApplicationTest(){
+        heavyHitterService.observe(List.of(
+                log("LOG1", "APP1", "ERROR", "Connection refused"),
+                log("LOG2", "APP2", "ERROR", "Connection refused")), Map.of());
+        heavyHitterService.forgetApplication("APP1");
+        assertThat(heavyHitterService.top("APP1", "message", "ERROR", 10)).isEmpty();
+        assertThat(heavyHitterService.top("APP2", "message", "ERROR", 10)).hasSize(1);
+        verify(heavyHitterRepository).deleteByApplication("APP1");
+    }
+    @Test
+    public void shouldReplaceCountsWithCheckpointOnReloadTest(){
+        when(heavyHitterRepository.findAll())
+                .thenReturn(List.of())
+                .thenReturn(List.of(new HeavyHitterCounter("APP1", "message", "ERROR", "Disk full", 3, 0)));
+        heavyHitterService.observe(List.of(log("LOG1", "APP1", "ERROR", "Connection refused")), Map.of());
+        heavyHitterService.reload();
+        assertThat(heavyHitterService.top("APP1", "message", "ERROR", 10))
+                .containsExactly(new RecurringItem("Disk full", 3, 0));
+        assertThat(heavyHitterService.checkpoint()).isZero();
+        verify(heavyHitterRepository, never()).replaceAll(any());
+    }
+    @Test
+    public void shouldBoundTrackedItemsByCapacityTest(){
+        List<AppLog> logs = new ArrayList<>();
+        for (int i = 0; i < 5; i++) logs.add(log("LOG" + i, "APP1", "ERROR", "Failure kind " + (char) ('a' + i)));
+        heavyHitterService.observe(logs, Map.of());
+        assertThat(heavyHitterService.top("APP1", "message", "ERROR", 10)).hasSize(2);
+    }
+    private AppLog log(String uuid, String applicationId, String severity, String message) {
+        return new AppLog(uuid, timestamp, severity, applicationId, "SRC1", message);
+    }
+    private LogsMetadata metadata(String logId, String type, String value) {
+        return new LogsMetadata(logId + type, logId, type, value);
+    }
+}
@@ -24,12 +24,24 @@ package com.kenyajug.regression.service_tests;
  */
 import com.kenyajug.regression.TestData;
 import com.kenyajug.regression.entities.AppLog;
+import com.kenyajug.regression.entities.AppMetricCount;
+import com.kenyajug.regression.entities.HourlyLogCount;
+import com.kenyajug.regression.entities.MinuteLogCount;
 import com.kenyajug.regression.entities.LogsDataSource;
 import com.kenyajug.regression.entities.LogsMetadata;
 import com.kenyajug.regression.models.InstantTraceGroup;
 import com.kenyajug.regression.repository.AppLogRepository;
+import com.kenyajug.regression.repository.AppMetricCountRepository;
+import com.kenyajug.regression.repository.ApplicationsRepository;
+import com.kenyajug.regression.repository.LogHourlyCountRepository;
+import com.kenyajug.regression.repository.LogMinuteCountRepository;
 import com.kenyajug.regression.repository.LogsDataSourceRepository;
 import com.kenyajug.regression.repository.LogsMetadataRepository;
+import com.kenyajug.regression.services.IHeavyHitterService;
+import com.kenyajug.regression.services.ILiveTailService;
+import com.kenyajug.regression.services.IViewCacheService;
+import com.kenyajug.regression.services.IShardService;
+import com.kenyajug.regression.services.IWriterService;
 import com.kenyajug.regression.services.IngestionService;
 import com.kenyajug.regression.utils.Constants;
 import com.kenyajug.regression.utils.DateTimeUtils;
@@ -50,9 +62,13 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 @Slf4j
@@ -67,8 +83,29 @@ public class IngestionServiceTests {
     private AppLogRepository appLogRepository;
     @Mock
     private LogsMetadataRepository metadataRepository;
+    @Mock
+    private LogHourlyCountRepository hourlyCountRepository;
+    @Mock
+    private LogMinuteCountRepository minuteCountRepository;
+    @Mock
+    private AppMetricCountRepository metricCountRepository;
+    @Mock
+    private ApplicationsRepository applicationsRepository;
+    @Mock
+    private IWriterService writerService;
+    @Mock
+    private IShardService shardService;
+    @Mock
+    private IViewCacheService viewCacheService;
+    @Mock
+    private ILiveTailService liveTailService;
+    @Mock
+    private IHeavyHitterService heavyHitterService;
     @BeforeEach
     public void setUp() throws Exception {
+        lenient().when(shardService.writerFor(any())).thenReturn(writerService);
+        lenient().when(shardService.executeOnEveryShard(any())).thenAnswer(invocation -> List.of(invocation.<Supplier<?>>getArgument(0).get()));
+        lenient().when(writerService.submit(any())).thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.<Supplier<?>>getArgument(0).get()));
         Files.deleteIfExists(logsFilePath);
         Files.createFile(logsFilePath);
     }
@@ -361,8 +398,9 @@ public class IngestionServiceTests {
                     at java.base/jdk.internal.reflect.NativeMethodAccessorImpl.invoke(NativeMethodAccessorImpl.java:77)
                 """);
         var result = ingestionService.processLocalLogs();
-        verify(appLogRepository, atLeastOnce()).save(any(AppLog.class));
-        verify(metadataRepository, atLeastOnce()).save(any(LogsMetadata.class));
+        verify(appLogRepository, times(1)).saveAll(argThat(logs -> logs.size() == 1));
+        verify(metadataRepository, times(1)).saveAll(argThat(metadata -> !metadata.isEmpty()));
+        verify(hourlyCountRepository, times(1)).incrementAll(anyList());
         assertThat(result).isTrue();
     }
     @Test
@@ -404,8 +442,8 @@ public class IngestionServiceTests {
                     at java.base/jdk.internal.reflect.NativeMethodAccessorImpl.invoke(NativeMethodAccessorImpl.java:77)
                 """);
         var result = ingestionService.processLocalLogs();
-        verify(appLogRepository, times(0)).save(any(AppLog.class));
-        verify(metadataRepository, times(0)).save(any(LogsMetadata.class));
+        verify(appLogRepository, times(0)).saveAll(anyList());
+        verify(metadataRepository, times(0)).saveAll(anyList());
         assertThat(result).isFalse();
     }
     @Test
@@ -447,4 +485,96 @@ public class IngestionServiceTests {
         verify(appLogRepository, atLeastOnce()).save(any(AppLog.class));
         verify(metadataRepository, atLeastOnce()).save(any(LogsMetadata.class));
     }
+    @Test
+    public void shouldRollupHourlyCountsTest(){
+        var logs = List.of(
+                new AppLog("UUID1", DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-11 11:09:22 UTC"),
+                        "WARN", "App_UUID1", "Source_UUID1", "Object not found exception"),
+                new AppLog("UUID2", DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-11 11:59:59 UTC"),
+                        "WARN", "App_UUID1", "Source_UUID1", "Object not found exception"),
+                new AppLog("UUID3", DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-11 12:00:00 UTC"),
+                        "WARN", "App_UUID1", "Source_UUID1", "Object not found exception"),
+                new AppLog("UUID4", DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-11 11:30:00 UTC"),
+                        "ERROR", "App_UUID1", "Source_UUID1", "Connection refused")
+        );
+        var counts = ingestionService.rollupHourlyCounts(logs);
+        assertThat(counts).hasSize(3);
+        assertThat(counts).contains(
+                new HourlyLogCount("App_UUID1", "Source_UUID1", "WARN", LocalDateTime.of(2025,8,11,11,0), 2),
+                new HourlyLogCount("App_UUID1", "Source_UUID1", "WARN", LocalDateTime.of(2025,8,11,12,0), 1),
+                new HourlyLogCount("App_UUID1", "Source_UUID1", "ERROR", LocalDateTime.of(2025,8,11,11,0), 1)
+        );
+    }
+    @Test
+    public void shouldRollupMinuteCountsTest(){
+        var logs = List.of(
+                new AppLog("UUID1", DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-11 11:09:22 UTC"),
+                        "WARN", "App_UUID1", "Source_UUID1", "Object not found exception"),
+                new AppLog("UUID2", DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-11 11:09:59 UTC"),
+                        "WARN", "App_UUID1", "Source_UUID1", "Object not found exception"),
+                new AppLog("UUID3", DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-11 11:10:00 UTC"),
+                        "WARN", "App_UUID1", "Source_UUID1", "Object not found exception")
+        );
+        var counts = ingestionService.rollupMinuteCounts(logs);
+        assertThat(counts).containsExactlyInAnyOrder(
+                new MinuteLogCount("App_UUID1", "Source_UUID1", "WARN", LocalDateTime.of(2025,8,11,11,9), 2),
+                new MinuteLogCount("App_UUID1", "Source_UUID1", "WARN", LocalDateTime.of(2025,8,11,11,10), 1)
+        );
+    }
+    @Test
+    public void shouldRollupMetricCountsTest(){
+        var logs = List.of(
+                new AppLog("UUID1", DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-12 14:09:22 UTC"),
+                        "ERROR", "App_UUID1", "Source_UUID1", "Connection refused"),
+                new AppLog("UUID2", DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-12 14:51:00 UTC"),
+                        "ERROR", "App_UUID1", "Source_UUID1", "Connection refused"),
+                new AppLog("UUID3", DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-13 09:00:00 UTC"),
+                        "ERROR", "App_UUID1", "Source_UUID1", "Connection refused"),
+                new AppLog("UUID4", DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-13 09:30:00 UTC"),
+                        "WARN", "App_UUID1", "Source_UUID1", "Object not found exception")
+        );
+        var counts = ingestionService.rollupMetricCounts(logs, "2.3.1");
+        assertThat(counts).containsExactlyInAnyOrder(
+                new AppMetricCount("App_UUID1", AppMetricCount.METRIC_SEVERITY, "ERROR", 3),
+                new AppMetricCount("App_UUID1", AppMetricCount.METRIC_SEVERITY, "WARN", 1),
+                new AppMetricCount("App_UUID1", AppMetricCount.METRIC_ERROR_HOUR, "14", 2),
+                new AppMetricCount("App_UUID1", AppMetricCount.METRIC_ERROR_HOUR, "09", 1),
+                new AppMetricCount("App_UUID1", AppMetricCount.METRIC_ERROR_WEEKDAY, "TUESDAY", 2),
+                new AppMetricCount("App_UUID1", AppMetricCount.METRIC_ERROR_WEEKDAY, "WEDNESDAY", 1),
+                new AppMetricCount("App_UUID1", AppMetricCount.METRIC_ERROR_VERSION, "2.3.1", 3)
+        );
+    }
+    @Test
+    public void shouldPackLegacyMetadataUntilNoneIsLeftTest(){
+        when(metadataRepository.packLegacyRows(anyInt())).thenReturn(500, 120, 0);
+        var packed = ingestionService.packLegacyMetadata();
+        assertThat(packed).isEqualTo(620);
+        verify(metadataRepository, times(3)).packLegacyRows(500);
+    }
+    @Test
+    public void shouldParseSourcesInParallelAndWriteThemInOrderTest() throws Exception {
+        when(dataSourceRepository.findBySourceType("local"))
+                .thenReturn(List.of(
+                        new LogsDataSource("UUID1", "Tomcat", "local", "App_UUID1",
+                                LocalDateTime.of(2000, 11, 5, 21, 15, 0), logsFilePath.getFileName().toString()),
+                        new LogsDataSource("UUID2", "Tomcat", "local", "App_UUID2",
+                                LocalDateTime.of(2000, 11, 5, 21, 15, 0), logsFilePath.getFileName().toString()),
+                        new LogsDataSource("UUID3", "Nginx", "local", "App_UUID3",
+                                LocalDateTime.of(2000, 11, 5, 21, 15, 0), "invalid_path.log")));
+        when(appLogRepository.existsByTimestampApplicationAndSource(any(LocalDateTime.class),anyString(),anyString())).thenReturn(false);
+        Files.writeString(logsFilePath, """
+                2025-05-16T09:31:14.088Z ERROR 880 --- [nio-8081-exec-2] o.l.h.api.aop.ControllersErrorHandler    : Internal server error occurred
+                2025-05-16T09:31:15.102Z INFO 880 --- [nio-8081-exec-3] o.l.h.api.UserController    : Request served
+                """);
+        assertThatThrownBy(() -> ingestionService.processLocalLogs()).isInstanceOf(IOException.class);
+        var inOrder = inOrder(appLogRepository);
+        inOrder.verify(appLogRepository).saveAll(argThat(logs -> logs.size() == 2 && logs.stream().allMatch(e -> e.applicationId().equals("App_UUID1"))));
+        inOrder.verify(appLogRepository).saveAll(argThat(logs -> logs.size() == 2 && logs.stream().allMatch(e -> e.applicationId().equals("App_UUID2"))));
+        verify(hourlyCountRepository, times(2)).incrementAll(anyList());
+        verify(minuteCountRepository, times(2)).incrementAll(anyList());
+        verify(metricCountRepository, times(2)).incrementAll(anyList());
+        verify(viewCacheService, times(2)).invalidateAll();
+        verify(liveTailService, times(2)).publish(argThat(logs -> logs.size() == 2));
+        verify(heavyHitterService, times(2)).observe(argThat(logs -> logs.size() == 2), any());
+    }
 }
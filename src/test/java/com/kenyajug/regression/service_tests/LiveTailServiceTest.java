@@ -0,0 +1,165 @@
+package com.kenyajug.regression.service_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.AppLog;
+import com.kenyajug.regression.models.LogOrigin;
+import com.kenyajug.regression.repository.LogResourceRepository;
+import com.kenyajug.regression.resources.ApplicationResource;
+import com.kenyajug.regression.resources.DatasourceResource;
+import com.kenyajug.regression.resources.LogResource;
+import com.kenyajug.regression.services.LiveTailService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+public class LiveTailServiceTest {
+    private LogResourceRepository logResourceRepository;
+    @BeforeEach
+    public void setUp() {
+        logResourceRepository = mock(LogResourceRepository.class);
+        when(logResourceRepository.findOriginsByDatasourceIds(anyCollection())).thenReturn(Map.of(
+                "SRC1", new LogOrigin(new ApplicationResource("APP1", "Payments", "Java"), new DatasourceResource("Tomcat", "SRC1")),
+                "SRC2", new LogOrigin(new ApplicationResource("APP2", "Orders", "Java"), new DatasourceResource("Nginx", "SRC2"))));
+    }
+    @Test
+    public void shouldPushOnlyMatchingLogsToEachSubscriberTest() throws Exception {
+        var emitters = new LinkedBlockingQueue<RecordingEmitter>();
+        var liveTailService = service(16, false, emitters, null);
+        liveTailService.subscribe("APP1", "", "All");
+        var paymentsOnly = emitters.take();
+        liveTailService.subscribe(null, null, "ERROR");
+        var errorsOnly = emitters.take();
+        liveTailService.publish(List.of(
+                appLog("L1", "INFO", "APP1", "SRC1"),
+                appLog("L2", "ERROR", "APP2", "SRC2"),
+                appLog("L3", "ERROR", "APP1", "SRC1")));
+        assertThat(logIds(paymentsOnly, 2)).containsExactly("L1", "L3");
+        assertThat(logIds(errorsOnly, 2)).containsExactly("L2", "L3");
+        assertThat(liveTailService.subscriberCount()).isEqualTo(2);
+    }
+    @Test
+    public void shouldDropLogsForSlowSubscriberTest() throws Exception {
+        var emitters = new LinkedBlockingQueue<RecordingEmitter>();
+        var release = new CountDownLatch(1);
+        var liveTailService = service(1, false, emitters, release);
+        liveTailService.subscribe(null, null, null);
+        var emitter = emitters.take();
+        liveTailService.publish(List.of(appLog("L1", "INFO", "APP1", "SRC1")));
+        assertThat(emitter.sending.await(5, TimeUnit.SECONDS)).isTrue();
+        liveTailService.publish(List.of(
+                appLog("L2", "INFO", "APP1", "SRC1"),
+                appLog("L3", "INFO", "APP1", "SRC1"),
+                appLog("L4", "INFO", "APP1", "SRC1")));
+        release.countDown();
+        assertThat(emitter.events.poll(5, TimeUnit.SECONDS)).isInstanceOf(LogResource.class);
+        assertThat(emitter.events.poll(5, TimeUnit.SECONDS)).isEqualTo(2L);
+        assertThat(((LogResource) emitter.events.poll(5, TimeUnit.SECONDS)).logId()).isEqualTo("L2");
+        assertThat(liveTailService.subscriberCount()).isEqualTo(1);
+    }
+    @Test
+    public void shouldDisconnectSlowSubscriberWhenConfiguredTest() throws Exception {
+        var emitters = new LinkedBlockingQueue<RecordingEmitter>();
+        var release = new CountDownLatch(1);
+        var liveTailService = service(1, true, emitters, release);
+        liveTailService.subscribe(null, null, null);
+        var emitter = emitters.take();
+        liveTailService.publish(List.of(appLog("L1", "INFO", "APP1", "SRC1")));
+        assertThat(emitter.sending.await(5, TimeUnit.SECONDS)).isTrue();
+        liveTailService.publish(List.of(
+                appLog("L2", "INFO", "APP1", "SRC1"),
+                appLog("L3", "INFO", "APP1", "SRC1")));
+        assertThat(liveTailService.subscriberCount()).isZero();
+        release.countDown();
+        assertThat(emitter.completed.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+    @Test
+    public void shouldSkipLookupsWithoutSubscribersTest() {
+        var liveTailService = new LiveTailService(logResourceRepository, 16, false, 60000);
+        liveTailService.publish(List.of(appLog("L1", "INFO", "APP1", "SRC1")));
+        verifyNoInteractions(logResourceRepository);
+    }
+    private LiveTailService service(int bufferSize, boolean disconnect, BlockingQueue<RecordingEmitter> emitters, CountDownLatch release) {
+        return new LiveTailService(logResourceRepository, bufferSize, disconnect, 60000) {
+            @Override
+            protected SseEmitter createEmitter(long timeoutMillis) {
+                var emitter = new RecordingEmitter(release);
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+    private static List<String> logIds(RecordingEmitter emitter, int count) throws InterruptedException {
+        var ids = new ArrayList<String>();
+        while (ids.size() < count) {
+            var data = emitter.events.poll(5, TimeUnit.SECONDS);
+            assertThat(data).isNotNull();
+            if (data instanceof LogResource resource) ids.add(resource.logId());
+        }
+        return ids;
+    }
+    private static AppLog appLog(String id, String severity, String applicationId, String sourceId) {
+        return new AppLog(id, LocalDateTime.of(2025, 8, 11, 10, 15, 0), severity, applicationId, sourceId, "message " + id);
+    }
+    private static final class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<Object> events = new LinkedBlockingQueue<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final CountDownLatch release;
+        private RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while sending", ex);
+                }
+            }
+            for (var part : builder.build()) {
+                if (part.getData() instanceof LogResource || part.getData() instanceof Long) events.add(part.getData());
+            }
+        }
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.kenyajug.regression.service_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.AppMetricCount;
+import com.kenyajug.regression.models.ApplicationMetrics;
+import com.kenyajug.regression.models.RecurringItem;
+import com.kenyajug.regression.repository.AppMetricCountRepository;
+import com.kenyajug.regression.repository.LogHourlyCountRepository;
+import com.kenyajug.regression.repository.LogMinuteCountRepository;
+import com.kenyajug.regression.services.IHeavyHitterService;
+import com.kenyajug.regression.services.IShardService;
+import com.kenyajug.regression.services.MetricsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+@ExtendWith(MockitoExtension.class)
+public class MetricsServiceTest {
+    @Mock
+    private AppMetricCountRepository metricCountRepository;
+    @Mock
+    private LogMinuteCountRepository minuteCountRepository;
+    @Mock
+    private LogHourlyCountRepository hourlyCountRepository;
+    @Mock
+    private IHeavyHitterService heavyHitterService;
+    @Mock
+    private IShardService shardService;
+    private MetricsService metricsService;
+    @BeforeEach
+    public void setUp(){
+        lenient().when(shardService.onShard(any(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        lenient().when(shardService.onEveryShard(any())).thenAnswer(invocation -> List.of(invocation.<Supplier<?>>getArgument(0).get()));
+        metricsService = new MetricsService(metricCountRepository, minuteCountRepository, hourlyCountRepository, heavyHitterService, shardService, 15, 24);
+    }
+    @Test
+    public void shouldComposeMetricsFromCountersTest(){
+        when(metricCountRepository.findByApplication("APP1")).thenReturn(List.of(
+                new AppMetricCount("APP1", AppMetricCount.METRIC_SEVERITY, "ERROR", 120),
+                new AppMetricCount("APP1", AppMetricCount.METRIC_SEVERITY, "WARN", 45),
+                new AppMetricCount("APP1", AppMetricCount.METRIC_SEVERITY, "INFO", 300),
+                new AppMetricCount("APP1", AppMetricCount.METRIC_ERROR_HOUR, "03", 30),
+                new AppMetricCount("APP1", AppMetricCount.METRIC_ERROR_HOUR, "13", 25),
+                new AppMetricCount("APP1", AppMetricCount.METRIC_ERROR_HOUR, "16", 25),
+                new AppMetricCount("APP1", AppMetricCount.METRIC_ERROR_HOUR, "20", 40),
+                new AppMetricCount("APP1", AppMetricCount.METRIC_ERROR_WEEKDAY, "TUESDAY", 70),
+                new AppMetricCount("APP1", AppMetricCount.METRIC_ERROR_WEEKDAY, "FRIDAY", 50),
+                new AppMetricCount("APP1", AppMetricCount.METRIC_ERROR_VERSION, "2.3.0", 73),
+                new AppMetricCount("APP1", AppMetricCount.METRIC_ERROR_VERSION, "2.3.1", 47)));
+        when(minuteCountRepository.sumSince(eq("APP1"), any())).thenReturn(3000L);
+        when(hourlyCountRepository.countApplicationsSince(any())).thenReturn(5L);
+        when(heavyHitterService.top(anyString(), anyString(), anyString(), eq(1))).thenReturn(List.of());
+        when(heavyHitterService.top("APP1", "message", "ERROR", 1))
+                .thenReturn(List.of(new RecurringItem("c.k.r.UserService : NullPointerException", 80, 0)));
+        var metrics = metricsService.composeMetrics("APP1");
+        assertThat(metrics.logIngestionRate()).isEqualTo(200.0);
+        assertThat(metrics.errorCountBySeverity()).isEqualTo(Map.of("ERROR", 120L, "WARN", 45L, "INFO", 300L));
+        assertThat(metrics.activeApplications()).isEqualTo(5);
+        assertThat(metrics.highestIncidentTimeOfDay()).isEqualTo("Afternoon");
+        assertThat(metrics.highestIncidentDayOfWeek()).isEqualTo("Tuesday");
+        assertThat(metrics.mostRecurringMessages()).isEqualTo(Map.of("ERROR", "c.k.r.UserService : NullPointerException"));
+        assertThat(metrics.appVersionWithMostErrors()).isEqualTo(new ApplicationMetrics.VersionErrors("APP1", "2.3.0", 73));
+    }
+    @Test
+    public void shouldLeaveIncidentMetricsEmptyWithoutErrorsTest(){
+        when(metricCountRepository.findByApplication("APP1")).thenReturn(List.of(
+                new AppMetricCount("APP1", AppMetricCount.METRIC_SEVERITY, "INFO", 10)));
+        when(heavyHitterService.top("APP1", "message", "INFO", 1)).thenReturn(List.of());
+        var metrics = metricsService.composeMetrics("APP1");
+        assertThat(metrics.logIngestionRate()).isZero();
+        assertThat(metrics.errorCountBySeverity()).isEqualTo(Map.of("INFO", 10L));
+        assertThat(metrics.highestIncidentTimeOfDay()).isNull();
+        assertThat(metrics.highestIncidentDayOfWeek()).isNull();
+        assertThat(metrics.mostRecurringMessages()).isEmpty();
+        assertThat(metrics.appVersionWithMostErrors()).isNull();
+    }
+    @Test
+    public void shouldAddUpActiveApplicationsOfEveryShardTest(){
+        when(metricCountRepository.findByApplication("APP1")).thenReturn(List.of());
+        when(hourlyCountRepository.countApplicationsSince(any())).thenReturn(1L);
+        doAnswer(invocation -> {
+            Supplier<?> query = invocation.getArgument(0);
+            return List.of(query.get(), query.get(), query.get());
+        }).when(shardService).onEveryShard(any());
+        var metrics = metricsService.composeMetrics("APP1");
+        assertThat(metrics.activeApplications()).isEqualTo(3);
+    }
+}
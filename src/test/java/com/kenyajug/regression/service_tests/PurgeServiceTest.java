@@ -0,0 +1,182 @@
+package com.kenyajug.regression.service_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.Application;
+import com.kenyajug.regression.entities.LogsDataSource;
+import com.kenyajug.regression.entities.PurgeJob;
+import com.kenyajug.regression.repository.AppLogRepository;
+import com.kenyajug.regression.repository.AppMetricCountRepository;
+import com.kenyajug.regression.repository.ApplicationsRepository;
+import com.kenyajug.regression.repository.LogHourlyCountRepository;
+import com.kenyajug.regression.repository.LogMinuteCountRepository;
+import com.kenyajug.regression.repository.LogsDataSourceRepository;
+import com.kenyajug.regression.repository.PurgeJobRepository;
+import com.kenyajug.regression.repository.RetentionPolicyRepository;
+import com.kenyajug.regression.services.IArchiveService;
+import com.kenyajug.regression.services.IColumnarService;
+import com.kenyajug.regression.services.IHeavyHitterService;
+import com.kenyajug.regression.services.IShardService;
+import com.kenyajug.regression.services.IWriterService;
+import com.kenyajug.regression.services.PurgeService;
+import com.kenyajug.regression.services.RetentionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+@ExtendWith(MockitoExtension.class)
+public class PurgeServiceTest {
+    @Mock
+    private ApplicationsRepository applicationsRepository;
+    @Mock
+    private LogsDataSourceRepository dataSourceRepository;
+    @Mock
+    private RetentionPolicyRepository retentionPolicyRepository;
+    @Mock
+    private AppLogRepository appLogRepository;
+    @Mock
+    private LogHourlyCountRepository hourlyCountRepository;
+    @Mock
+    private LogMinuteCountRepository minuteCountRepository;
+    @Mock
+    private AppMetricCountRepository metricCountRepository;
+    @Mock
+    private PurgeJobRepository purgeJobRepository;
+    @Mock
+    private IArchiveService archiveService;
+    @Mock
+    private IColumnarService columnarService;
+    @Mock
+    private IHeavyHitterService heavyHitterService;
+    @Mock
+    private IShardService shardService;
+    @Mock
+    private IWriterService writerService;
+    private PurgeService purgeService;
+    private final String appId = "2b38887b-5afe-4d87-b34a-d2f67db5a211";
+    private final String datasourceId = "bc8de955-a2d5-48d4-96b5-c49e7774fa01";
+    private final LogsDataSource datasource = new LogsDataSource(
+            datasourceId,
+            "Apache Tomcat 10 (Linux Ubuntu 20.04.01)",
+            "local",
+            appId,
+            LocalDateTime.of(2000, 11, 5, 21, 15, 0),
+            "/var/log/tomcat/catalina.out");
+    @BeforeEach
+    public void setUp(){
+        lenient().when(shardService.onShard(any(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        lenient().when(shardService.executeOnEveryShard(any())).thenAnswer(invocation -> List.of(invocation.<Supplier<?>>getArgument(0).get()));
+        lenient().when(shardService.existingWriterFor(any())).thenReturn(writerService);
+        lenient().when(writerService.execute(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        lenient().doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(writerService).run(any());
+        purgeService = new PurgeService(applicationsRepository, dataSourceRepository, retentionPolicyRepository, appLogRepository,
+                hourlyCountRepository, minuteCountRepository, metricCountRepository, purgeJobRepository, archiveService, columnarService, heavyHitterService, shardService, writerService, 2, 0);
+    }
+    @Test
+    public void shouldDeleteDataSourceAndScheduleItsPurgeTest(){
+        when(dataSourceRepository.findById(datasourceId)).thenReturn(Optional.of(datasource));
+        when(appLogRepository.countBySource(datasourceId)).thenReturn(5L);
+        var job = purgeService.purgeDataSource(datasourceId);
+        assertThat(job).isPresent();
+        assertThat(job.get().targetType()).isEqualTo(PurgeJob.TARGET_DATASOURCE);
+        assertThat(job.get().status()).isEqualTo(PurgeJob.STATUS_PENDING);
+        assertThat(job.get().totalLogs()).isEqualTo(5);
+        verify(purgeJobRepository).save(job.get());
+        verify(dataSourceRepository).deleteById(datasourceId);
+        verify(appLogRepository, never()).deleteChunkBySource(any(), eq(2));
+        verify(heavyHitterService).forgetApplication(appId);
+        verify(metricCountRepository, never()).deleteByApplication(any());
+    }
+    @Test
+    public void shouldNotScheduleUnknownDataSourceTest(){
+        when(dataSourceRepository.findById(datasourceId)).thenReturn(Optional.empty());
+        assertThat(purgeService.purgeDataSource(datasourceId)).isEmpty();
+        verify(purgeJobRepository, never()).save(any());
+    }
+    @Test
+    public void shouldDeleteApplicationWithItsDataSourcesTest(){
+        var application = new Application(appId, "Instagram", "1.0", "JVM", "owner_uuid", LocalDateTime.now());
+        when(applicationsRepository.findById(appId)).thenReturn(Optional.of(application));
+        when(appLogRepository.countByApplication(appId)).thenReturn(7L);
+        when(dataSourceRepository.findByApplicationId(appId)).thenReturn(List.of(datasource));
+        var job = purgeService.purgeApplication(appId);
+        assertThat(job).isPresent();
+        assertThat(job.get().targetType()).isEqualTo(PurgeJob.TARGET_APPLICATION);
+        assertThat(job.get().targetName()).isEqualTo("Instagram");
+        verify(dataSourceRepository).deleteById(datasourceId);
+        verify(retentionPolicyRepository).deleteById(appId);
+        verify(applicationsRepository).deleteById(appId);
+    }
+    @Test
+    public void shouldPurgeDataSourceLogsInChunksAndReportProgressTest(){
+        var job = new PurgeJob("JOB_UUID1", PurgeJob.TARGET_DATASOURCE, datasourceId, datasource.name(),
+                PurgeJob.STATUS_PENDING, 3, 0, LocalDateTime.now(), LocalDateTime.now());
+        when(purgeJobRepository.findUnfinished()).thenReturn(List.of(job));
+        when(appLogRepository.deleteChunkBySource(datasourceId, 2)).thenReturn(2, 1, 0);
+        var deleted = purgeService.runPendingJobs();
+        assertThat(deleted).isEqualTo(3);
+        verify(purgeJobRepository).updateProgress("JOB_UUID1", PurgeJob.STATUS_RUNNING, 2);
+        verify(purgeJobRepository).updateProgress("JOB_UUID1", PurgeJob.STATUS_RUNNING, 3);
+        verify(purgeJobRepository).updateProgress("JOB_UUID1", PurgeJob.STATUS_COMPLETED, 3);
+        verify(hourlyCountRepository).deleteBySource(datasourceId);
+        verify(minuteCountRepository).deleteBySource(datasourceId);
+        verify(archiveService, never()).expireSegmentsBefore(any(), any());
+    }
+    @Test
+    public void shouldResumeApplicationPurgeAndDropDerivedDataTest(){
+        var job = new PurgeJob("JOB_UUID1", PurgeJob.TARGET_APPLICATION, appId, "Instagram",
+                PurgeJob.STATUS_RUNNING, 10, 8, LocalDateTime.now(), LocalDateTime.now());
+        when(purgeJobRepository.findUnfinished()).thenReturn(List.of(job));
+        when(appLogRepository.deleteChunkBefore(appId, RetentionService.END_OF_TIME, 2)).thenReturn(2, 0);
+        var deleted = purgeService.runPendingJobs();
+        assertThat(deleted).isEqualTo(2);
+        verify(purgeJobRepository).updateProgress("JOB_UUID1", PurgeJob.STATUS_COMPLETED, 10);
+        verify(hourlyCountRepository).deleteByApplicationBefore(appId, RetentionService.END_OF_TIME);
+        verify(minuteCountRepository).deleteByApplicationBefore(appId, RetentionService.END_OF_TIME);
+        verify(archiveService).expireSegmentsBefore(appId, RetentionService.END_OF_TIME.toLocalDate());
+        verify(columnarService).expireSegmentsBefore(appId, RetentionService.END_OF_TIME.toLocalDate());
+        verify(heavyHitterService).forgetApplication(appId);
+        verify(shardService).dropShard(appId);
+        verify(metricCountRepository).deleteByApplication(appId);
+        verify(purgeJobRepository, never()).updateProgress(eq("JOB_UUID1"), eq(PurgeJob.STATUS_PENDING), anyLong());
+        verify(writerService, times(3)).execute(any());
+        verify(shardService, never()).writerFor(any());
+    }
+}
@@ -0,0 +1,175 @@
+package com.kenyajug.regression.service_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.AppLog;
+import com.kenyajug.regression.entities.Application;
+import com.kenyajug.regression.entities.HourlyLogCount;
+import com.kenyajug.regression.entities.MinuteLogCount;
+import com.kenyajug.regression.entities.RetentionPolicy;
+import com.kenyajug.regression.repository.AppLogRepository;
+import com.kenyajug.regression.repository.ApplicationsRepository;
+import com.kenyajug.regression.repository.LogHourlyCountRepository;
+import com.kenyajug.regression.repository.LogMinuteCountRepository;
+import com.kenyajug.regression.repository.RetentionPolicyRepository;
+import com.kenyajug.regression.services.IArchiveService;
+import com.kenyajug.regression.services.IColumnarService;
+import com.kenyajug.regression.services.IShardService;
+import com.kenyajug.regression.services.IWriterService;
+import com.kenyajug.regression.services.RetentionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+@ExtendWith(MockitoExtension.class)
+public class RetentionServiceTest {
+    @Mock
+    private ApplicationsRepository applicationsRepository;
+    @Mock
+    private AppLogRepository appLogRepository;
+    @Mock
+    private RetentionPolicyRepository retentionPolicyRepository;
+    @Mock
+    private LogHourlyCountRepository hourlyCountRepository;
+    @Mock
+    private LogMinuteCountRepository minuteCountRepository;
+    @Mock
+    private IArchiveService archiveService;
+    @Mock
+    private IColumnarService columnarService;
+    @Mock
+    private IShardService shardService;
+    @Mock
+    private IWriterService writerService;
+    private RetentionService retentionService;
+    private final String appId = "2b38887b-5afe-4d87-b34a-d2f67db5a211";
+    @BeforeEach
+    public void setUp(){
+        lenient().when(shardService.onShard(any(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        lenient().when(shardService.executeOnEveryShard(any())).thenAnswer(invocation -> List.of(invocation.<Supplier<?>>getArgument(0).get()));
+        lenient().when(shardService.existingWriterFor(any())).thenReturn(writerService);
+        lenient().when(writerService.execute(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        lenient().doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(writerService).run(any());
+        retentionService = new RetentionService(applicationsRepository, appLogRepository, retentionPolicyRepository, hourlyCountRepository, minuteCountRepository, archiveService, columnarService, shardService,
+                0, 2, 0, 7);
+    }
+    @Test
+    public void shouldFallBackToDefaultPolicyTest(){
+        when(retentionPolicyRepository.findById(appId)).thenReturn(Optional.empty());
+        var policy = retentionService.findEffectivePolicy(appId);
+        assertThat(policy.applicationId()).isEqualTo(appId);
+        assertThat(policy.retentionDays()).isZero();
+        assertThat(policy.maxRows()).isNull();
+        assertThat(policy.maxBytes()).isNull();
+    }
+    @Test
+    public void shouldExpireWholeDaysOldestFirstTest(){
+        var today = LocalDate.of(2025,5,20);
+        var policy = new RetentionPolicy(appId, 3, null, null);
+        when(appLogRepository.findOldestLogDay(appId)).thenReturn(Optional.of(LocalDate.of(2025,5,15)))
+                .thenReturn(Optional.of(LocalDate.of(2025,5,16)))
+                .thenReturn(Optional.of(LocalDate.of(2025,5,17)));
+        when(appLogRepository.deleteChunkBefore(appId, LocalDate.of(2025,5,16).atStartOfDay(), 2)).thenReturn(2, 1, 0);
+        when(appLogRepository.deleteChunkBefore(appId, LocalDate.of(2025,5,17).atStartOfDay(), 2)).thenReturn(2, 0);
+        when(archiveService.expireSegmentsBefore(appId, LocalDate.of(2025,5,17))).thenReturn(4L);
+        var deleted = retentionService.enforceRetentionPolicy(policy, today);
+        assertThat(deleted).isEqualTo(9);
+        verify(appLogRepository, never()).deleteChunkBefore(appId, LocalDate.of(2025,5,18).atStartOfDay(), 2);
+        verify(hourlyCountRepository).deleteByApplicationBefore(appId, LocalDate.of(2025,5,17).atStartOfDay());
+        verify(minuteCountRepository).deleteByApplicationBefore(appId, LocalDate.of(2025,5,17).atStartOfDay());
+        verify(columnarService).expireSegmentsBefore(appId, LocalDate.of(2025,5,17));
+    }
+    @Test
+    public void shouldKeepLogsForeverWhenRetentionIsZeroTest(){
+        var policy = new RetentionPolicy(appId, 0, null, null);
+        var deleted = retentionService.enforceRetentionPolicy(policy, LocalDate.now());
+        assertThat(deleted).isZero();
+        verify(appLogRepository, never()).findOldestLogDay(anyString());
+        verify(archiveService, never()).expireSegmentsBefore(anyString(), any(LocalDate.class));
+        verify(appLogRepository, never()).deleteChunkBefore(anyString(), any(LocalDateTime.class), anyInt());
+    }
+    @Test
+    public void shouldEnforceRowQuotaTest(){
+        var policy = new RetentionPolicy(appId, 0, 10L, null);
+        var cutoff = LocalDateTime.of(2025,5,18,10,0);
+        when(appLogRepository.countByApplication(appId)).thenReturn(13L);
+        when(appLogRepository.findRowsQuotaCutoff(appId, 3)).thenReturn(Optional.of(cutoff));
+        var log1 = new AppLog("UUID1", LocalDateTime.of(2025,5,18,9,15,2), "ERROR", appId, "SOURCE_UUID1", "Connection refused");
+        var log2 = new AppLog("UUID2", LocalDateTime.of(2025,5,18,9,15,40), "ERROR", appId, "SOURCE_UUID1", "Connection refused");
+        var log3 = new AppLog("UUID3", LocalDateTime.of(2025,5,18,9,40,0), "ERROR", appId, "SOURCE_UUID1", "Disk full");
+        when(appLogRepository.findChunkBefore(appId, cutoff, 2)).thenReturn(List.of(log1, log2))
+                .thenReturn(List.of(log3))
+                .thenReturn(List.of());
+        when(appLogRepository.deleteByIds(List.of("UUID1","UUID2"))).thenReturn(2);
+        when(appLogRepository.deleteByIds(List.of("UUID3"))).thenReturn(1);
+        var deleted = retentionService.enforceRetentionPolicy(policy, LocalDate.now());
+        assertThat(deleted).isEqualTo(3);
+        var hour = LocalDateTime.of(2025,5,18,9,0);
+        verify(hourlyCountRepository).decrementAll(List.of(new HourlyLogCount(appId, "SOURCE_UUID1", "ERROR", hour, 2)));
+        verify(hourlyCountRepository).decrementAll(List.of(new HourlyLogCount(appId, "SOURCE_UUID1", "ERROR", hour, 1)));
+        verify(minuteCountRepository).decrementAll(List.of(new MinuteLogCount(appId, "SOURCE_UUID1", "ERROR", hour.plusMinutes(15), 2)));
+        verify(minuteCountRepository).decrementAll(List.of(new MinuteLogCount(appId, "SOURCE_UUID1", "ERROR", hour.plusMinutes(40), 1)));
+        verify(appLogRepository, never()).deleteChunkBefore(anyString(), any(LocalDateTime.class), anyInt());
+    }
+    @Test
+    public void shouldDeleteEverythingWhenByteQuotaIsZeroTest(){
+        var policy = new RetentionPolicy(appId, 0, null, 0L);
+        when(appLogRepository.sumMessageBytesByApplication(appId)).thenReturn(120L);
+        when(appLogRepository.findBytesQuotaCutoff(appId, 120L)).thenReturn(Optional.empty());
+        var log = new AppLog("UUID1", LocalDateTime.of(2025,5,18,9,15,2), "WARN", appId, "SOURCE_UUID1", "Retrying");
+        when(appLogRepository.findChunkBefore(appId, RetentionService.END_OF_TIME, 2)).thenReturn(List.of(log))
+                .thenReturn(List.of());
+        when(appLogRepository.deleteByIds(List.of("UUID1"))).thenReturn(1);
+        var deleted = retentionService.enforceRetentionPolicy(policy, LocalDate.now());
+        assertThat(deleted).isEqualTo(1);
+    }
+    @Test
+    public void shouldEnforceEveryApplicationPolicyTest(){
+        var application = new Application(appId, "Instagram", "1.0", "JVM", "owner_uuid", LocalDateTime.now());
+        when(applicationsRepository.findAll()).thenReturn(List.of(application));
+        when(retentionPolicyRepository.findById(appId)).thenReturn(Optional.of(new RetentionPolicy(appId, 1, null, null)));
+        when(appLogRepository.findOldestLogDay(appId)).thenReturn(Optional.of(LocalDate.now()));
+        var deleted = retentionService.enforceRetentionPolicies();
+        assertThat(deleted).isZero();
+        verify(appLogRepository, never()).deleteChunkBefore(eq(appId), any(LocalDateTime.class), anyInt());
+        verify(minuteCountRepository).deleteBefore(LocalDate.now().minusDays(7).atStartOfDay());
+    }
+}
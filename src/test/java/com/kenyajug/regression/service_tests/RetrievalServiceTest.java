@@ -26,27 +26,53 @@ import com.kenyajug.regression.entities.AppLog;
 import com.kenyajug.regression.entities.Application;
 import com.kenyajug.regression.entities.LogsDataSource;
 import com.kenyajug.regression.entities.LogsMetadata;
+import com.kenyajug.regression.models.ArchivedLog;
+import com.kenyajug.regression.models.LogCursor;
+import com.kenyajug.regression.models.LogOrigin;
+import com.kenyajug.regression.models.LogQuery;
 import com.kenyajug.regression.repository.AppLogRepository;
 import com.kenyajug.regression.repository.ApplicationsRepository;
+import com.kenyajug.regression.repository.LogHourlyCountRepository;
+import com.kenyajug.regression.repository.LogMinuteCountRepository;
+import com.kenyajug.regression.repository.LogResourceRepository;
 import com.kenyajug.regression.repository.LogsDataSourceRepository;
 import com.kenyajug.regression.repository.LogsMetadataRepository;
 import com.kenyajug.regression.resources.ApplicationResource;
 import com.kenyajug.regression.resources.DatasourceResource;
 import com.kenyajug.regression.resources.LogResource;
+import com.kenyajug.regression.services.HourlyLogStats;
+import com.kenyajug.regression.services.IArchiveService;
+import com.kenyajug.regression.services.IRetrievalService;
+import com.kenyajug.regression.services.IShardService;
 import com.kenyajug.regression.services.RetrievalService;
 import com.kenyajug.regression.utils.DateTimeUtils;
 import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 @Slf4j
 @ExtendWith(MockitoExtension.class)
@@ -61,51 +87,55 @@ public class RetrievalServiceTest {
     private AppLogRepository logRepository;
     @Mock
     private LogsMetadataRepository metadataRepository;
+    @Mock
+    private LogHourlyCountRepository hourlyCountRepository;
+    @Mock
+    private LogMinuteCountRepository minuteCountRepository;
+    @Mock
+    private LogResourceRepository logResourceRepository;
+    @Mock
+    private IArchiveService archiveService;
+    @Mock
+    private IShardService shardService;
+    private final ApplicationResource applicationResource = new ApplicationResource(
+            "2b38887b-5afe-4d87-b34a-d2f67db5a211",
+            "Instagram",
+            "staging-ci");
+    private final DatasourceResource datasourceResource = new DatasourceResource(
+            "Apache Tomcat 10 (Linux Ubuntu 20.04.01)",
+            "bc8de955-a2d5-48d4-96b5-c49e7774fa01");
+    private LogResource logResource(String logId, String severity, String message) {
+        return new LogResource("11:09:22", severity, applicationResource, datasourceResource, logId, message);
+    }
+    @BeforeEach
+    public void setUp(){
+        lenient().when(shardService.onShard(any(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        lenient().when(shardService.onEveryShard(any())).thenAnswer(invocation -> List.of(invocation.<Supplier<?>>getArgument(0).get()));
+    }
+    /*
+     * Runs every fan-out twice, as if the logs were split over two shards.
+     */
+    private void stubTwoShards(){
+        doAnswer(invocation -> {
+            Supplier<?> query = invocation.getArgument(0);
+            return List.of(query.get(), query.get());
+        }).when(shardService).onEveryShard(any());
+    }
     @Test
     public void shouldRetrieveLogsTest(){
         var filterDate = LocalDate.of(2001,11,5);
         var severity = "";
-        var appId = "2b38887b-5afe-4d87-b34a-d2f67db5a211";
-        var datasourceId = "bc8de955-a2d5-48d4-96b5-c49e7774fa01";
-        var application = new Application(
-                appId,
-                "Instagram",
-                "12.05.11.43787463Beta",
-                "staging-ci",
-                "owner_uuid",
-                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-11-05 11:09:22 UTC")
-        );
-        var datasourceList = List.of(
-                new LogsDataSource(
-                        datasourceId,
-                        "Apache Tomcat 10 (Linux Ubuntu 20.04.01)",
-                        "local",
-                        application.uuid(),
-                        LocalDateTime.of(2000, 11, 5, 21, 15, 0),
-                        "/var/log/mysql/error.log"
-                )
-        );
+        var appId = applicationResource.uuid();
         var expectedLogs = List.of(
-                new AppLog(
-                        "UUID1",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-11-05 11:09:22 UTC"),
-                        "WARN",
-                        appId, datasourceId,
-                        "Object not found exception"
-                ),
-                new AppLog(
-                        "UUID2",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-11-05 11:09:22 UTC"),
-                        "WARN",
-                        appId, datasourceId,
-                        "Object not found exception"
-                )
-        );
-        when(applicationsRepository.findById(appId)).thenReturn(Optional.of(application));
-        when(logsDataSourceRepository.findByApplicationId(appId)).thenReturn(datasourceList);
-        when(logRepository.findByApplicationAndDatasource(appId,datasourceId)).thenReturn(expectedLogs);
-        var logs = retrievalService.listLogs(filterDate,severity,appId,datasourceId);
-        assertThat(logs).isNotEmpty();
+                logResource("UUID1", "WARN", "Object not found exception"),
+                logResource("UUID2", "WARN", "Object not found exception")
+        );
+        when(logResourceRepository.streamByApplicationAndDay(appId, filterDate, severity)).thenReturn(expectedLogs.stream());
+        var logs = retrievalService.listLogs(filterDate,severity,appId,datasourceResource.uuid());
+        assertThat(logs).isEqualTo(expectedLogs);
+        assertThat(logs.getFirst().application().name()).isEqualTo("Instagram");
+        verify(applicationsRepository, times(0)).findById(any());
+        verify(logsDataSourceRepository, times(0)).findById(any());
     }
     @Test
     public void shouldRetrieveLogs_Case2_Test(){
@@ -113,104 +143,33 @@ public class RetrievalServiceTest {
         var severity = "";
         var appId = "2b38887b-5afe-4d87-b34a-d2f67db5a211";
         var datasourceId = "bc8de955-a2d5-48d4-96b5-c49e7774fa01";
-        when(applicationsRepository.findById(appId)).thenReturn(Optional.empty());
+        when(logResourceRepository.streamByApplicationAndDay(appId, filterDate, severity)).thenReturn(Stream.empty());
         var logs = retrievalService.listLogs(filterDate,severity,appId,datasourceId);
         assertThat(logs).isEmpty();
     }
     @Test
-    public void shouldFilterBySeverityIfAvailableTest(){
+    public void shouldPassSeverityFilterToProjectionQueryTest(){
         var filterDate = LocalDate.of(2001,11,5);
         var severity = "INFO";
-        var appId = "2b38887b-5afe-4d87-b34a-d2f67db5a211";
-        var datasourceId = "bc8de955-a2d5-48d4-96b5-c49e7774fa01";
-        var application = new Application(
-                appId,
-                "Instagram",
-                "12.05.11.43787463Beta",
-                "staging-ci",
-                "owner_uuid",
-                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-11-05 11:09:22 UTC")
-        );
-        var datasourceList = List.of(
-                new LogsDataSource(
-                        datasourceId,
-                        "Apache Tomcat 10 (Linux Ubuntu 20.04.01)",
-                        "local",
-                        application.uuid(),
-                        LocalDateTime.of(2001, 11, 5, 21, 15, 0),
-                        "/var/log/mysql/error.log"
-                )
-        );
-        var expectedLogs = List.of(
-                new AppLog(
-                        "UUID1",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-11-05 11:09:22 UTC"),
-                        "WARN",
-                        appId, datasourceId,
-                        "Object not found exception"
-                ),
-                new AppLog(
-                        "UUID2",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-11-05 11:09:22 UTC"),
-                        "INFO",
-                        appId, datasourceId,
-                        "Object not found exception"
-                )
-        );
-        when(applicationsRepository.findById(appId)).thenReturn(Optional.of(application));
-        when(logsDataSourceRepository.findByApplicationId(appId)).thenReturn(datasourceList);
-        when(logRepository.findByApplicationAndDatasource(appId,datasourceId)).thenReturn(expectedLogs);
-        var logs = retrievalService.listLogs(filterDate,severity,appId,datasourceId);
-        assertThat(logs).isNotEmpty();
-        var log = logs.getFirst();
-        assertThat(log).isNotNull();
-        assertThat(log.severity()).isEqualTo(severity);
-        assertThat(log.logId()).isEqualTo("UUID2");
+        var appId = applicationResource.uuid();
+        when(logResourceRepository.streamByApplicationAndDay(appId, filterDate, severity))
+                .thenReturn(Stream.of(logResource("UUID2", "INFO", "Object not found exception")));
+        var logs = retrievalService.listLogs(filterDate,severity,appId,datasourceResource.uuid());
+        assertThat(logs).hasSize(1);
+        assertThat(logs.getFirst().severity()).isEqualTo(severity);
+        assertThat(logs.getFirst().logId()).isEqualTo("UUID2");
     }
     @Test
     public void shouldReturnAllLogsIfSeverityIsEmptyTest(){
         var filterDate = LocalDate.of(2001,11,5);
         var severity = "";
-        var appId = "2b38887b-5afe-4d87-b34a-d2f67db5a211";
-        var datasourceId = "bc8de955-a2d5-48d4-96b5-c49e7774fa01";
-        var application = new Application(
-                appId,
-                "Instagram",
-                "12.05.11.43787463Beta",
-                "staging-ci",
-                "owner_uuid",
-                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-11 11:09:22 UTC")
-        );
-        var datasourceList = List.of(
-                new LogsDataSource(
-                        datasourceId,
-                        "Apache Tomcat 10 (Linux Ubuntu 20.04.01)",
-                        "local",
-                        application.uuid(),
-                        LocalDateTime.of(2001, 11, 5, 21, 15, 0),
-                        "/var/log/mysql/error.log"
-                )
-        );
+        var appId = applicationResource.uuid();
         var expectedLogs = List.of(
-                new AppLog(
-                        "UUID1",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-11-05 11:09:22 UTC"),
-                        "WARN",
-                        appId, datasourceId,
-                        "Object not found exception"
-                ),
-                new AppLog(
-                        "UUID2",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-11-05 11:09:22 UTC"),
-                        "INFO",
-                        appId, datasourceId,
-                        "Object not found exception"
-                )
+                logResource("UUID1", "WARN", "Object not found exception"),
+                logResource("UUID2", "INFO", "Object not found exception")
         );
-        when(applicationsRepository.findById(appId)).thenReturn(Optional.of(application));
-        when(logsDataSourceRepository.findByApplicationId(appId)).thenReturn(datasourceList);
-        when(logRepository.findByApplicationAndDatasource(appId,datasourceId)).thenReturn(expectedLogs);
-        var logs = retrievalService.listLogs(filterDate,severity,appId,datasourceId);
+        when(logResourceRepository.streamByApplicationAndDay(appId, filterDate, severity)).thenReturn(expectedLogs.stream());
+        var logs = retrievalService.listLogs(filterDate,severity,appId,datasourceResource.uuid());
         assertThat(logs).isNotEmpty();
         assertThat(logs.size()).isEqualTo(2);
     }
@@ -218,182 +177,56 @@ public class RetrievalServiceTest {
     public void shouldReturnAllLogsIfSeverity_IsUsing_All_Flag_Test(){
         var filterDate = LocalDate.of(2001,11,5);
         var severity = "All";
-        var appId = "2b38887b-5afe-4d87-b34a-d2f67db5a211";
-        var datasourceId = "bc8de955-a2d5-48d4-96b5-c49e7774fa01";
-        var application = new Application(
-                appId,
-                "Instagram",
-                "12.05.11.43787463Beta",
-                "staging-ci",
-                "owner_uuid",
-                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-11 11:09:22 UTC")
-        );
-        var datasourceList = List.of(
-                new LogsDataSource(
-                        datasourceId,
-                        "Apache Tomcat 10 (Linux Ubuntu 20.04.01)",
-                        "local",
-                        application.uuid(),
-                        LocalDateTime.of(2001, 11, 5, 21, 15, 0),
-                        "/var/log/mysql/error.log"
-                )
-        );
+        var appId = applicationResource.uuid();
         var expectedLogs = List.of(
-                new AppLog(
-                        "UUID1",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-11-05 11:09:22 UTC"),
-                        "WARN",
-                        appId, datasourceId,
-                        "Object not found exception"
-                ),
-                new AppLog(
-                        "UUID2",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-11-05 11:09:22 UTC"),
-                        "INFO",
-                        appId, datasourceId,
-                        "Object not found exception"
-                )
+                logResource("UUID1", "WARN", "Object not found exception"),
+                logResource("UUID2", "INFO", "Object not found exception")
         );
-        when(applicationsRepository.findById(appId)).thenReturn(Optional.of(application));
-        when(logsDataSourceRepository.findByApplicationId(appId)).thenReturn(datasourceList);
-        when(logRepository.findByApplicationAndDatasource(appId,datasourceId)).thenReturn(expectedLogs);
-        var logs = retrievalService.listLogs(filterDate,severity,appId,datasourceId);
+        when(logResourceRepository.streamByApplicationAndDay(appId, filterDate, severity)).thenReturn(expectedLogs.stream());
+        var logs = retrievalService.listLogs(filterDate,severity,appId,datasourceResource.uuid());
         assertThat(logs).isNotEmpty();
         assertThat(logs.size()).isEqualTo(2);
     }
     @Test
+    public void shouldMergeLogsOfEveryShardWithoutApplicationFilterTest(){
+        var filterDate = LocalDate.of(2001,11,5);
+        var firstShardLogs = List.of(
+                new LogResource("09:00:00", "INFO", applicationResource, datasourceResource, "UUID1", "Started"),
+                new LogResource("11:00:00", "WARN", applicationResource, datasourceResource, "UUID3", "Slow response"));
+        var secondShardLogs = List.of(
+                new LogResource("10:00:00", "ERROR", applicationResource, datasourceResource, "UUID2", "Connection refused"));
+        stubTwoShards();
+        when(logResourceRepository.streamByApplicationAndDay(null, filterDate, "All"))
+                .thenReturn(firstShardLogs.stream())
+                .thenReturn(secondShardLogs.stream());
+        var logs = retrievalService.listLogs(filterDate, "All", null, null);
+        assertThat(logs).extracting(LogResource::logId).containsExactly("UUID1", "UUID2", "UUID3");
+        verify(shardService, times(0)).onShard(any(), any());
+    }
+    @Test
     public void shouldListAllTodayLogsTest(){
-        var todayDateTime = LocalDateTime.now();
-        var appId = "2b38887b-5afe-4d87-b34a-d2f67db5a211";
-        var datasourceId = "bc8de955-a2d5-48d4-96b5-c49e7774fa01";
-        var application = new Application(
-                appId,
-                "Instagram",
-                "12.05.11.43787463Beta",
-                "staging-ci",
-                "owner_uuid",
-                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-11 11:09:22 UTC")
-        );
-        var datasource = new LogsDataSource(
-                datasourceId,
-                "Apache Tomcat 10 (Linux Ubuntu 20.04.01)",
-                "local",
-                application.uuid(),
-                LocalDateTime.of(2000, 11, 5, 21, 15, 0),
-                "/var/log/mysql/error.log"
-        );
         var expectedLogs = List.of(
-                new AppLog(
-                        "UUID1",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-11 11:09:22 UTC"),
-                        "WARN",
-                        appId, datasourceId,
-                        "Object not found exception"
-                ),
-                new AppLog(
-                        "UUID2",
-                        todayDateTime,
-                        "INFO",
-                        appId, datasourceId,
-                        "Object not found exception"
-                ),
-                new AppLog(
-                        "UUID3",
-                        todayDateTime,
-                        "INFO",
-                        appId, datasourceId,
-                        "Object not found exception"
-                )
+                logResource("UUID2", "INFO", "Object not found exception"),
+                logResource("UUID3", "INFO", "Object not found exception")
         );
-        when(applicationsRepository.findById(appId)).thenReturn(Optional.of(application));
-        when(logsDataSourceRepository.findById(datasourceId)).thenReturn(Optional.of(datasource));
-        when(logRepository.findAll()).thenReturn(expectedLogs);
+        when(logResourceRepository.streamByDay(LocalDate.now())).thenReturn(expectedLogs.stream());
         var logs = retrievalService.listAllTodayLogs();
-        assertThat(logs).isNotEmpty();
-        assertThat(logs.size()).isEqualTo(2);
+        assertThat(logs).isEqualTo(expectedLogs);
+        verify(logRepository, times(0)).streamByDay(any());
     }
     @Test
     public void shouldListAllTodayLogs_Case1_Test(){
-        var todayDateTime = LocalDateTime.now();
-        var appId = "2b38887b-5afe-4d87-b34a-d2f67db5a211";
-        var datasourceId = "bc8de955-a2d5-48d4-96b5-c49e7774fa01";
-        var expectedLogs = List.of(
-                new AppLog(
-                        "UUID1",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-11 11:09:22 UTC"),
-                        "WARN",
-                        appId, datasourceId,
-                        "Object not found exception"
-                ),
-                new AppLog(
-                        "UUID2",
-                        todayDateTime,
-                        "INFO",
-                        appId, datasourceId,
-                        "Object not found exception"
-                ),
-                new AppLog(
-                        "UUID3",
-                        todayDateTime,
-                        "INFO",
-                        appId, datasourceId,
-                        "Object not found exception"
-                )
-        );
-        when(logsDataSourceRepository.findById(datasourceId)).thenReturn(Optional.empty());
-        when(logRepository.findAll()).thenReturn(expectedLogs);
+        when(logResourceRepository.streamByDay(LocalDate.now())).thenReturn(Stream.empty());
         var logs = retrievalService.listAllTodayLogs();
         assertThat(logs).isEmpty();
     }
     @Test
     public void shouldListAllTodayLogs_Case3_Test(){
-        var todayDateTime = LocalDateTime.now();
-        var appId = "2b38887b-5afe-4d87-b34a-d2f67db5a211";
-        var datasourceId = "bc8de955-a2d5-48d4-96b5-c49e7774fa01";
-        var application = new Application(
-                appId,
-                "Instagram",
-                "12.05.11.43787463Beta",
-                "staging-ci",
-                "owner_uuid",
-                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-11 11:09:22 UTC")
-        );
-        var datasource = new LogsDataSource(
-                datasourceId,
-                "Apache Tomcat 10 (Linux Ubuntu 20.04.01)",
-                "local",
-                application.uuid(),
-                LocalDateTime.of(2000, 11, 5, 21, 15, 0),
-                "/var/log/mysql/error.log"
-        );
-        var expectedLogs = List.of(
-                new AppLog(
-                        "UUID1",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-11 11:09:22 UTC"),
-                        "WARN",
-                        appId, datasourceId,
-                        "Object not found exception"
-                ),
-                new AppLog(
-                        "UUID2",
-                        todayDateTime,
-                        "INFO",
-                        appId, datasourceId,
-                        "Object not found exception"
-                ),
-                new AppLog(
-                        "UUID3",
-                        todayDateTime,
-                        "INFO",
-                        appId, datasourceId,
-                        "Object not found exception"
-                )
-        );
-        when(applicationsRepository.findById(appId)).thenReturn(Optional.empty());
-        when(logsDataSourceRepository.findById(datasourceId)).thenReturn(Optional.of(datasource));
-        when(logRepository.findAll()).thenReturn(expectedLogs);
+        when(logResourceRepository.streamByDay(LocalDate.now())).thenReturn(Stream.empty());
         var logs = retrievalService.listAllTodayLogs();
         assertThat(logs).isEmpty();
+        verify(applicationsRepository, times(0)).findById(any());
+        verify(logsDataSourceRepository, times(0)).findById(any());
     }
     @Test
     public void shouldListAllApplicationsTest(){
@@ -459,233 +292,140 @@ public class RetrievalServiceTest {
                 0,  // 22:00
                 2   // 23:00
         );
-        var logs = List.of(
-                // 03:00 — 1 log
-                new AppLog("UUID-0300-1",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-10-18 03:15:00 UTC"),
-                        severity, "", "Chrome LTS version 132.0.6834.223", "Sample error at 03:00"),
-
-                // 06:00 — 2 logs
-                new AppLog("UUID-0600-1",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-10-18 06:05:00 UTC"),
-                        severity, "", "Chrome LTS version 132.0.6834.223", "Sample error at 06:00"),
-                new AppLog("UUID-0600-2",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-10-18 06:45:00 UTC"),
-                        severity, "", "Chrome LTS version 132.0.6834.223", "Sample error at 06:00"),
-
-                // 09:00 — 3 logs
-                new AppLog("UUID-0900-1",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-10-18 09:10:00 UTC"),
-                        severity, "", "Chrome LTS version 132.0.6834.223", "Sample error at 09:00"),
-                new AppLog("UUID-0900-2",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-10-18 09:20:00 UTC"),
-                        severity, "", "Chrome LTS version 132.0.6834.223", "Sample error at 09:00"),
-                new AppLog("UUID-0900-3",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-10-18 09:50:00 UTC"),
-                        severity, "", "Chrome LTS version 132.0.6834.223", "Sample error at 09:00"),
-
-                // 12:00 — 5 logs
-                new AppLog("UUID-1200-1",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-10-18 12:01:00 UTC"),
-                        severity, "", "Chrome LTS version 132.0.6834.223", "Sample error at 12:00"),
-                new AppLog("UUID-1200-2",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-10-18 12:15:00 UTC"),
-                        severity, "", "Chrome LTS version 132.0.6834.223", "Sample error at 12:00"),
-                new AppLog("UUID-1200-3",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-10-18 12:30:00 UTC"),
-                        severity, "", "Chrome LTS version 132.0.6834.223", "Sample error at 12:00"),
-                new AppLog("UUID-1200-4",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-10-18 12:45:00 UTC"),
-                        severity, "", "Chrome LTS version 132.0.6834.223", "Sample error at 12:00"),
-                new AppLog("UUID-1200-5",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-10-18 12:55:00 UTC"),
-                        severity, "", "Chrome LTS version 132.0.6834.223", "Sample error at 12:00"),
-
-                // 13:00 — 4 logs
-                new AppLog("UUID-1300-1",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-10-18 13:00:00 UTC"),
-                        severity, "", "Chrome LTS version 132.0.6834.223", "Sample error at 13:00"),
-                new AppLog("UUID-1300-2",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-10-18 13:20:00 UTC"),
-                        severity, "", "Chrome LTS version 132.0.6834.223", "Sample error at 13:00"),
-                new AppLog("UUID-1300-3",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-10-18 13:40:00 UTC"),
-                        severity, "", "Chrome LTS version 132.0.6834.223", "Sample error at 13:00"),
-                new AppLog("UUID-1300-4",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-10-18 13:50:00 UTC"),
-                        severity, "", "Chrome LTS version 132.0.6834.223", "Sample error at 13:00"),
-
-                // 16:00 — 6 logs
-                new AppLog("UUID-1600-1",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-10-18 16:05:00 UTC"),
-                        severity, "", "Chrome LTS version 132.0.6834.223", "Sample error at 16:00"),
-                new AppLog("UUID-1600-2",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-10-18 16:10:00 UTC"),
-                        severity, "", "Chrome LTS version 132.0.6834.223", "Sample error at 16:00"),
-                new AppLog("UUID-1600-3",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-10-18 16:15:00 UTC"),
-                        severity, "", "Chrome LTS version 132.0.6834.223", "Sample error at 16:00"),
-                new AppLog("UUID-1600-4",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-10-18 16:25:00 UTC"),
-                        severity, "", "Chrome LTS version 132.0.6834.223", "Sample error at 16:00"),
-                new AppLog("UUID-1600-5",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-10-18 16:35:00 UTC"),
-                        severity, "", "Chrome LTS version 132.0.6834.223", "Sample error at 16:00"),
-                new AppLog("UUID-1600-6",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-10-18 16:45:00 UTC"),
-                        severity, "", "Chrome LTS version 132.0.6834.223", "Sample error at 16:00"),
-
-                // 19:00 — 1 log
-                new AppLog("UUID-1900-1",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-10-18 19:15:00 UTC"),
-                        severity, "", "Chrome LTS version 132.0.6834.223", "Sample error at 19:00"),
-
-                // 23:00 — 2 logs
-                new AppLog("UUID-2300-1",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-10-18 23:05:00 UTC"),
-                        severity, "", "Chrome LTS version 132.0.6834.223", "Sample error at 23:00"),
-                new AppLog("UUID-2300-2",
-                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-10-18 23:30:00 UTC"),
-                        severity, "", "Chrome LTS version 132.0.6834.223", "Sample error at 23:00")
-        );
-
-        when(logRepository.findBySeverityAndDate(severity,logsDate))
-                .thenReturn(logs);
+        Map<Integer, Long> rollup = new HashMap<>();
+        for (int hour = 0; hour < expectedHourlyData.size(); hour++) {
+            if (expectedHourlyData.get(hour) > 0) rollup.put(hour, expectedHourlyData.get(hour).longValue());
+        }
+        when(hourlyCountRepository.countByHour(severity,logsDate))
+                .thenReturn(rollup);
         var actualHourlyData = retrievalService.composeChartDataBySeverity(logsDate,severity);
         assertThat(actualHourlyData).isNotEmpty();
         assertThat(actualHourlyData.size()).isEqualTo(expectedHourlyData.size());
+        assertThat(actualHourlyData).isEqualTo(expectedHourlyData.stream().map(Integer::longValue).toList());
+        verify(logRepository, times(0)).findBySeverityAndDate(any(), any());
         log.info("{}",actualHourlyData);
     }
     @Test
+    public void shouldComposeChartDataForAllSeveritiesTest(){
+        var logsDate = LocalDate.of(2025,8,11);
+        var errorCounts = new long[24];
+        errorCounts[11] = 7;
+        errorCounts[23] = 2;
+        var infoCounts = new long[24];
+        infoCounts[9] = 4;
+        when(hourlyCountRepository.countBySeverityAndHour(logsDate, "APP_UUID1", null))
+                .thenReturn(Map.of("ERROR", errorCounts, "INFO", infoCounts));
+        var stats = retrievalService.composeChartData(logsDate, "APP_UUID1", null);
+        assertThat(stats).extracting(HourlyLogStats::severity).containsExactly("INFO", "WARN", "ERROR");
+        assertThat(stats).allSatisfy(e -> assertThat(e.hourlyCounts()).hasSize(24));
+        assertThat(stats.get(0).hourlyCounts().get(9)).isEqualTo(4L);
+        assertThat(stats.get(1).hourlyCounts()).containsOnly(0L);
+        assertThat(stats.get(2).hourlyCounts().get(11)).isEqualTo(7L);
+        assertThat(stats.get(2).hourlyCounts().get(23)).isEqualTo(2L);
+        verify(hourlyCountRepository, times(0)).countByHour(any(), any());
+    }
+    @Test
+    public void shouldComposeChartDataPerApplicationTest(){
+        var logsDate = LocalDate.of(2025,8,11);
+        var errorCounts = new long[24];
+        errorCounts[11] = 7;
+        var infoCounts = new long[24];
+        infoCounts[9] = 4;
+        when(hourlyCountRepository.countByGroupSeverityAndHour(logsDate, LogHourlyCountRepository.GROUP_BY_APPLICATION))
+                .thenReturn(Map.of("APP_UUID2", Map.of("ERROR", errorCounts), "APP_UUID1", Map.of("INFO", infoCounts)));
+        var stats = retrievalService.composeChartDataByGroup(logsDate, IRetrievalService.CHART_GROUP_APPLICATION);
+        assertThat(stats.keySet()).containsExactly("APP_UUID1", "APP_UUID2");
+        assertThat(stats.get("APP_UUID1")).extracting(HourlyLogStats::severity).containsExactly("INFO", "WARN", "ERROR");
+        assertThat(stats.get("APP_UUID1").get(0).hourlyCounts().get(9)).isEqualTo(4L);
+        assertThat(stats.get("APP_UUID2").get(2).hourlyCounts().get(11)).isEqualTo(7L);
+        assertThat(stats.get("APP_UUID2").get(0).hourlyCounts()).containsOnly(0L);
+        assertThatThrownBy(() -> retrievalService.composeChartDataByGroup(logsDate, "severity"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    @Test
+    public void shouldComposeMinuteHistogramForShortRangeTest(){
+        var start = LocalDateTime.of(2025,8,11,10,2);
+        var end = LocalDateTime.of(2025,8,11,10,12);
+        var errorCounts = new long[10];
+        errorCounts[3] = 5;
+        when(minuteCountRepository.findOldestMinute()).thenReturn(Optional.of(LocalDateTime.of(2025,8,4,0,0)));
+        when(minuteCountRepository.countBySeverity(start, Duration.ofMinutes(1), 10, "APP_UUID1", null))
+                .thenReturn(Map.of("ERROR", errorCounts));
+        var histogram = retrievalService.composeHistogram(start, end, 60, "APP_UUID1", null);
+        assertThat(histogram.resolution()).isEqualTo("MINUTE");
+        assertThat(histogram.bucketSeconds()).isEqualTo(60);
+        assertThat(histogram.bucketStarts()).hasSize(10).startsWith("2025-08-11T10:02:00Z", "2025-08-11T10:03:00Z");
+        assertThat(histogram.counts().keySet()).containsExactly("INFO", "WARN", "ERROR");
+        assertThat(histogram.counts().get("ERROR").get(3)).isEqualTo(5L);
+        assertThat(histogram.counts().get("INFO")).hasSize(10).containsOnly(0L);
+        verify(hourlyCountRepository, times(0)).countBySeverity(any(), any(), anyInt(), any(), any());
+    }
+    @Test
+    public void shouldComposeDailyHistogramForMonthFromHourlyCountsTest(){
+        var start = LocalDateTime.of(2025,8,1,0,0);
+        var end = LocalDateTime.of(2025,9,1,0,0);
+        when(minuteCountRepository.findOldestMinute()).thenReturn(Optional.of(LocalDateTime.of(2025,8,25,0,0)));
+        when(hourlyCountRepository.countBySeverity(start, Duration.ofDays(1), 31, null, null)).thenReturn(Map.of());
+        var histogram = retrievalService.composeHistogram(start, end, 60, null, null);
+        assertThat(histogram.resolution()).isEqualTo("DAY");
+        assertThat(histogram.bucketStarts()).hasSize(31).endsWith("2025-08-31T00:00:00Z");
+        verify(minuteCountRepository, times(0)).countBySeverity(any(), any(), anyInt(), any(), any());
+    }
+    @Test
+    public void shouldFallBackToHourlyCountsBeforeMinuteRollupTest(){
+        var start = LocalDateTime.of(2025,8,11,10,2);
+        var end = LocalDateTime.of(2025,8,11,10,12);
+        var origin = LocalDateTime.of(2025,8,11,10,0);
+        when(minuteCountRepository.findOldestMinute()).thenReturn(Optional.empty());
+        when(hourlyCountRepository.countBySeverity(origin, Duration.ofHours(1), 1, null, "SOURCE_UUID1"))
+                .thenReturn(Map.of("WARN", new long[]{9}));
+        var histogram = retrievalService.composeHistogram(start, end, 60, null, "SOURCE_UUID1");
+        assertThat(histogram.resolution()).isEqualTo("HOUR");
+        assertThat(histogram.bucketStarts()).containsExactly("2025-08-11T10:00:00Z");
+        assertThat(histogram.counts().get("WARN")).containsExactly(9L);
+        assertThatThrownBy(() -> retrievalService.composeHistogram(end, start, 60, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    @Test
     public void shouldFindLogsByIdTest(){
         var logId = "97a0d9d6-434b-4ad1-9a4a-e7dd7beb8fab";
-        var appId = "6d9bfbad-f591-4a13-95ec-8f584381b7eb";
-        var datasourceId = "a3604879-6a0a-4747-9292-02857ba1a06f";
-        var application = new Application(
-                appId,
-                "Instagram",
-                "12.05.11.43787463Beta",
-                "staging-ci",
-                "owner_uuid",
-                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-11 11:09:22 UTC")
-        );
-        var applicationResource = new ApplicationResource(
-                "ae548aea-8493-40dc-9427-ff104a528f53",
-                "3o10",
-                "JVM");
-        var datasource = new LogsDataSource(
-                datasourceId,
-                "Apache Tomcat 10 (Linux Ubuntu 20.04.01)",
-                "local",
-                application.uuid(),
-                LocalDateTime.of(2000, 11, 5, 21, 15, 0),
-                "/var/log/mysql/error.log"
-        );
-        var datasourceResource = new DatasourceResource(
-                "Local MySQL Logs",
-                "4791111d-354b-4c19-86b2-a066e8cca138");
-        var expectedLog = new AppLog(
-                logId,
-                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-11-05 11:09:22 UTC"),
-                "WARN",
-                application.uuid(),
-                datasource.uuid(),
-                "Object not found exception"
-        );
         var expectedLogResource = new LogResource(
-                DateTimeUtils.convertDateToString(LocalDate.now()),
+                "2001-11-05 11:09:22",
                 "WARN",
                 applicationResource,
                 datasourceResource,
                 logId,
-                expectedLog.message());
-        when(applicationsRepository.findById(application.uuid())).thenReturn(Optional.of(application));
-        when(logsDataSourceRepository.findById(datasourceId)).thenReturn(Optional.of(datasource));
-        when(logRepository.findById(logId)).thenReturn(Optional.of(expectedLog));
+                "Object not found exception");
+        when(logResourceRepository.findById(logId)).thenReturn(Optional.of(expectedLogResource));
         var optionalActualLog = retrievalService.findLogsById(logId);
-        assertThat(optionalActualLog).isNotEmpty();
-        var actualLog = optionalActualLog.get();
-        assertThat(actualLog).isNotNull();
-        assertThat(actualLog.application().name()).isEqualTo(application.name());
-        assertThat(actualLog.source().name()).isEqualTo(datasource.name());
-        assertThat(actualLog.severity()).isEqualTo(expectedLogResource.severity());
-        assertThat(actualLog.logId()).isEqualTo(expectedLogResource.logId());
+        assertThat(optionalActualLog).contains(expectedLogResource);
+        verify(logRepository, times(0)).findById(any());
     }
     @Test
     public void shouldFindLogsById_Case1_Test(){
         var logId = "97a0d9d6-434b-4ad1-9a4a-e7dd7beb8fab";
-        when(logRepository.findById(logId)).thenReturn(Optional.empty());
+        when(logResourceRepository.findById(logId)).thenReturn(Optional.empty());
         var optionalActualLog = retrievalService.findLogsById(logId);
         assertThat(optionalActualLog).isEmpty();
     }
     @Test
     public void shouldFindLogsById_Case3_Test(){
         var logId = "97a0d9d6-434b-4ad1-9a4a-e7dd7beb8fab";
-        var appId = "6d9bfbad-f591-4a13-95ec-8f584381b7eb";
-        var datasourceId = "a3604879-6a0a-4747-9292-02857ba1a06f";
-        var application = new Application(
-                appId,
-                "Instagram",
-                "12.05.11.43787463Beta",
-                "staging-ci",
-                "owner_uuid",
-                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-11 11:09:22 UTC")
-        );
-        var datasource = new LogsDataSource(
-                datasourceId,
-                "Apache Tomcat 10 (Linux Ubuntu 20.04.01)",
-                "local",
-                application.uuid(),
-                LocalDateTime.of(2000, 11, 5, 21, 15, 0),
-                "/var/log/mysql/error.log"
-        );
-        var expectedLog = new AppLog(
-                logId,
-                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-11-05 11:09:22 UTC"),
-                "WARN",
-                application.uuid(),
-                datasource.uuid(),
-                "Object not found exception"
-        );
-        when(logsDataSourceRepository.findById(datasourceId)).thenReturn(Optional.empty());
-        when(logRepository.findById(logId)).thenReturn(Optional.of(expectedLog));
+        when(logResourceRepository.findById(logId)).thenReturn(Optional.empty());
         var optionalActualLog = retrievalService.findLogsById(logId);
         assertThat(optionalActualLog).isEmpty();
+        verify(logsDataSourceRepository, times(0)).findById(any());
+        verify(logRepository, times(0)).findById(any());
     }
     @Test
     public void shouldFindLogsById_Case4_Test(){
         var logId = "97a0d9d6-434b-4ad1-9a4a-e7dd7beb8fab";
-        var appId = "6d9bfbad-f591-4a13-95ec-8f584381b7eb";
-        var datasourceId = "a3604879-6a0a-4747-9292-02857ba1a06f";
-        var application = new Application(
-                appId,
-                "Instagram",
-                "12.05.11.43787463Beta",
-                "staging-ci",
-                "owner_uuid",
-                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2025-08-11 11:09:22 UTC")
-        );
-        var datasource = new LogsDataSource(
-                datasourceId,
-                "Apache Tomcat 10 (Linux Ubuntu 20.04.01)",
-                "local",
-                application.uuid(),
-                LocalDateTime.of(2000, 11, 5, 21, 15, 0),
-                "/var/log/mysql/error.log"
-        );
-        var expectedLog = new AppLog(
-                logId,
-                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-11-05 11:09:22 UTC"),
-                "WARN",
-                application.uuid(),
-                datasource.uuid(),
-                "Object not found exception"
-        );
-        when(applicationsRepository.findById(application.uuid())).thenReturn(Optional.empty());
-        when(logsDataSourceRepository.findById(datasourceId)).thenReturn(Optional.of(datasource));
-        when(logRepository.findById(logId)).thenReturn(Optional.of(expectedLog));
+        stubTwoShards();
+        when(logResourceRepository.findById(logId)).thenReturn(Optional.empty(), Optional.empty());
         var optionalActualLog = retrievalService.findLogsById(logId);
         assertThat(optionalActualLog).isEmpty();
+        verify(logResourceRepository, times(2)).findById(logId);
+        verify(applicationsRepository, times(0)).findById(any());
     }
     @Test
     public void shouldFindMetadataByLogIdTest(){
@@ -709,4 +449,191 @@ public class RetrievalServiceTest {
         var actualMetadataList = retrievalService.findMetadataByLogId(logId);
         assertThat(actualMetadataList).isNotEmpty();
     }
+    @Test
+    public void shouldSearchLogsByKeywordTest(){
+        var filterDate = LocalDate.of(2001,11,5);
+        var appId = applicationResource.uuid();
+        var datasourceId = datasourceResource.uuid();
+        var expectedLogs = List.of(
+                new AppLog(
+                        "UUID1",
+                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-11-05 11:09:22 UTC"),
+                        "ERROR",
+                        appId, datasourceId,
+                        "Connection refused"
+                ),
+                new AppLog(
+                        "UUID2",
+                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-11-05 10:09:22 UTC"),
+                        "ERROR",
+                        appId, datasourceId,
+                        "Connection refused again"
+                )
+        );
+        when(logRepository.searchByKeyword("refused", filterDate, "ERROR", appId, null, RetrievalService.SEARCH_RESULTS_LIMIT))
+                .thenReturn(expectedLogs);
+        when(logResourceRepository.findOriginsByDatasourceIds(Set.of(datasourceId)))
+                .thenReturn(Map.of(datasourceId, new LogOrigin(applicationResource, datasourceResource)));
+        var logs = retrievalService.searchLogs(filterDate, "refused", "ERROR", appId, null);
+        assertThat(logs).hasSize(2);
+        assertThat(logs.getFirst().logId()).isEqualTo("UUID1");
+        assertThat(logs.getFirst().application().name()).isEqualTo("Instagram");
+        assertThat(logs.getFirst().source().name()).isEqualTo(datasourceResource.name());
+        verify(logResourceRepository, times(1)).findOriginsByDatasourceIds(any());
+        verify(logsDataSourceRepository, times(0)).findById(any());
+    }
+    @Test
+    public void shouldSkipSearchResultsWithoutOriginTest(){
+        var filterDate = LocalDate.of(2001,11,5);
+        var appId = applicationResource.uuid();
+        var orphan = new AppLog(
+                "UUID1",
+                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-11-05 11:09:22 UTC"),
+                "ERROR",
+                appId, "deleted-source",
+                "Connection refused");
+        when(logRepository.searchByKeyword("refused", filterDate, "ERROR", appId, null, RetrievalService.SEARCH_RESULTS_LIMIT))
+                .thenReturn(List.of(orphan));
+        when(logResourceRepository.findOriginsByDatasourceIds(Set.of("deleted-source"))).thenReturn(Map.of());
+        var logs = retrievalService.searchLogs(filterDate, "refused", "ERROR", appId, null);
+        assertThat(logs).isEmpty();
+    }
+    @Test
+    public void shouldSearchArchivedLogsOutsideHotWindowTest(){
+        var filterDate = LocalDate.of(2001,11,5);
+        var appId = applicationResource.uuid();
+        var datasourceId = datasourceResource.uuid();
+        var archivedLogs = List.of(
+                new ArchivedLog(new AppLog(
+                        "UUID1",
+                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-11-05 10:09:22 UTC"),
+                        "ERROR",
+                        appId, datasourceId,
+                        "Connection refused"
+                ), List.of()),
+                new ArchivedLog(new AppLog(
+                        "UUID2",
+                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-11-05 11:09:22 UTC"),
+                        "ERROR",
+                        appId, datasourceId,
+                        "Disk full"
+                ), List.of()),
+                new ArchivedLog(new AppLog(
+                        "UUID3",
+                        DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-11-05 12:09:22 UTC"),
+                        "ERROR",
+                        appId, datasourceId,
+                        "connection REFUSED by peer"
+                ), List.of())
+        );
+        when(logRepository.searchByKeyword("refused", filterDate, "ERROR", appId, null, RetrievalService.SEARCH_RESULTS_LIMIT))
+                .thenReturn(List.of());
+        when(archiveService.isArchived(filterDate)).thenReturn(true);
+        when(archiveService.findArchivedLogs(eq(filterDate), eq("ERROR"), eq(appId), any())).thenAnswer(invocation -> {
+            Predicate<AppLog> filter = invocation.getArgument(3);
+            return archivedLogs.stream().filter(e -> filter.test(e.log())).toList();
+        });
+        when(logResourceRepository.findOriginsByDatasourceIds(Set.of(datasourceId)))
+                .thenReturn(Map.of(datasourceId, new LogOrigin(applicationResource, datasourceResource)));
+        var logs = retrievalService.searchLogs(filterDate, "refused", "ERROR", appId, null);
+        assertThat(logs).hasSize(2);
+        assertThat(logs.getFirst().logId()).isEqualTo("UUID3");
+        assertThat(logs.getLast().logId()).isEqualTo("UUID1");
+    }
+    @Test
+    public void shouldListArchivedLogsOutsideHotWindowTest(){
+        var filterDate = LocalDate.of(2001,11,5);
+        var appId = applicationResource.uuid();
+        var datasourceId = datasourceResource.uuid();
+        var archivedLog = new ArchivedLog(new AppLog(
+                "UUID1",
+                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-11-05 10:09:22 UTC"),
+                "INFO",
+                appId, datasourceId,
+                "Server startup in [1043] milliseconds"
+        ), List.of());
+        when(logResourceRepository.streamByApplicationAndDay(appId, filterDate, "All")).thenReturn(Stream.empty());
+        when(archiveService.isArchived(filterDate)).thenReturn(true);
+        when(archiveService.findArchivedLogs(filterDate, "All", appId)).thenReturn(List.of(archivedLog));
+        when(logResourceRepository.findOriginsByDatasourceIds(Set.of(datasourceId)))
+                .thenReturn(Map.of(datasourceId, new LogOrigin(applicationResource, datasourceResource)));
+        var logs = retrievalService.listLogs(filterDate, "All", appId, "");
+        assertThat(logs).hasSize(1);
+        assertThat(logs.getFirst().logId()).isEqualTo("UUID1");
+        assertThat(logs.getFirst().source().name()).isEqualTo(datasourceResource.name());
+    }
+    @Test
+    public void shouldFindLogsByIndexedMetadataValueTest(){
+        var logs = List.of(new LogResource("2025-08-11 09:15:00", "ERROR", applicationResource,
+                new DatasourceResource("Tomcat", "SOURCE_UUID1"), "LOG_UUID1", "Connection refused traceId=abc-123"));
+        when(metadataRepository.indexedTypes()).thenReturn(List.of("traceIdentifier", "sessionId"));
+        when(logResourceRepository.findByMetadataValue("traceIdentifier", "abc-123", RetrievalService.SEARCH_RESULTS_LIMIT))
+                .thenReturn(logs);
+        assertThat(retrievalService.findLogsByMetadata("traceIdentifier", "traceId=abc-123")).isEqualTo(logs);
+        assertThat(retrievalService.findLogsByMetadata("traceIdentifier", "abc-123")).isEqualTo(logs);
+        assertThat(retrievalService.findLogsByMetadata("traceIdentifier", " ")).isEmpty();
+    }
+    @Test
+    public void shouldRejectLookupByUnindexedMetadataTypeTest(){
+        when(metadataRepository.indexedTypes()).thenReturn(List.of("traceIdentifier"));
+        assertThatThrownBy(() -> retrievalService.findLogsByMetadata("threadName", "main"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    @Test
+    public void shouldMergeSearchResultsOfEveryShardTest(){
+        var filterDate = LocalDate.of(2001,11,5);
+        var appId = applicationResource.uuid();
+        var datasourceId = datasourceResource.uuid();
+        var firstShardLogs = List.of(new AppLog(
+                "UUID1",
+                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-11-05 10:09:22 UTC"),
+                "ERROR",
+                appId, datasourceId,
+                "Connection refused"));
+        var secondShardLogs = List.of(new AppLog(
+                "UUID2",
+                DateTimeUtils.convertZonedUTCTimeStringToLocalDateTime("2001-11-05 11:09:22 UTC"),
+                "ERROR",
+                "APP_UUID2", datasourceId,
+                "Connection refused again"));
+        stubTwoShards();
+        when(logRepository.searchByKeyword("refused", filterDate, "ERROR", null, null, RetrievalService.SEARCH_RESULTS_LIMIT))
+                .thenReturn(firstShardLogs)
+                .thenReturn(secondShardLogs);
+        when(logResourceRepository.findOriginsByDatasourceIds(Set.of(datasourceId)))
+                .thenReturn(Map.of(datasourceId, new LogOrigin(applicationResource, datasourceResource)));
+        var logs = retrievalService.searchLogs(filterDate, "refused", "ERROR", null, null);
+        assertThat(logs).extracting(LogResource::logId).containsExactly("UUID2", "UUID1");
+    }
+    @Test
+    public void shouldMergeStreamedLogsOfEveryShardInOrderTest(){
+        var query = new LogQuery(null, null, "ERROR", null, null, null, null, 1, 2);
+        var shardQuery = new LogQuery(null, null, "ERROR", null, null, null, null, 0, 3);
+        var firstShardLogs = List.of(
+                new LogResource("2025-08-11T09:00:00Z", "ERROR", applicationResource, datasourceResource, "UUID1", "Connection refused"),
+                new LogResource("2025-08-11T09:02:00Z", "ERROR", applicationResource, datasourceResource, "UUID3", "Connection refused"));
+        var secondShardLogs = List.of(
+                new LogResource("2025-08-11T09:01:00Z", "ERROR", applicationResource, datasourceResource, "UUID2", "Disk full"),
+                new LogResource("2025-08-11T09:03:00Z", "ERROR", applicationResource, datasourceResource, "UUID4", "Disk full"));
+        when(shardService.isEnabled()).thenReturn(true);
+        stubTwoShards();
+        when(logResourceRepository.streamByQuery(shardQuery))
+                .thenReturn(firstShardLogs.stream())
+                .thenReturn(secondShardLogs.stream());
+        try (var logs = retrievalService.streamLogs(query)) {
+            assertThat(logs).extracting(LogResource::logId).containsExactly("UUID2", "UUID3");
+        }
+    }
+    @Test
+    public void shouldStreamOneApplicationFromItsShardTest(){
+        var appId = applicationResource.uuid();
+        var query = new LogQuery(null, null, null, appId, null, null, new LogCursor(LocalDateTime.of(2025,8,11,9,0), "UUID1"), 0, 10);
+        when(shardService.isEnabled()).thenReturn(true);
+        when(logResourceRepository.streamByQuery(query)).thenReturn(Stream.of(logResource("UUID2", "INFO", "Started")));
+        try (var logs = retrievalService.streamLogs(query)) {
+            assertThat(logs).extracting(LogResource::logId).containsExactly("UUID2");
+        }
+        verify(shardService).onShard(eq(appId), any());
+        verify(shardService, times(0)).onEveryShard(any());
+    }
 }
@@ -0,0 +1,96 @@
+package com.kenyajug.regression.service_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.resources.LogsFilterResource;
+import com.kenyajug.regression.services.ViewCacheService;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.assertj.core.api.Assertions.assertThat;
+public class ViewCacheServiceTest {
+    @Test
+    public void shouldServeRepeatedViewsFromMemoryTest() {
+        var viewCacheService = new ViewCacheService(8, 30);
+        var loads = new AtomicInteger();
+        var key = List.of("admin@regression.com", LocalDate.of(2025,8,11));
+        var first = viewCacheService.get("dashboard", key, () -> "view-" + loads.incrementAndGet());
+        var second = viewCacheService.get("dashboard", List.of("admin@regression.com", LocalDate.of(2025,8,11)), () -> "view-" + loads.incrementAndGet());
+        assertThat(first).isEqualTo("view-1");
+        assertThat(second).isEqualTo("view-1");
+        assertThat(viewCacheService.stats().hits()).isEqualTo(1);
+        var otherUser = viewCacheService.get("dashboard", List.of("gina", LocalDate.of(2025,8,11)), () -> "view-" + loads.incrementAndGet());
+        var otherView = viewCacheService.get("logs-today", key, () -> "view-" + loads.incrementAndGet());
+        assertThat(otherUser).isEqualTo("view-2");
+        assertThat(otherView).isEqualTo("view-3");
+    }
+    @Test
+    public void shouldReloadViewsAfterInvalidationTest() {
+        var viewCacheService = new ViewCacheService(8, 30);
+        var loads = new AtomicInteger();
+        viewCacheService.get("logs-today", LocalDate.of(2025,8,11), loads::incrementAndGet);
+        viewCacheService.invalidateAll();
+        var reloaded = viewCacheService.get("logs-today", LocalDate.of(2025,8,11), loads::incrementAndGet);
+        assertThat(reloaded).isEqualTo(2);
+        assertThat(viewCacheService.stats().size()).isEqualTo(1);
+    }
+    @Test
+    public void shouldNotCacheWhenDisabledTest() {
+        var viewCacheService = new ViewCacheService(0, 30);
+        var loads = new AtomicInteger();
+        viewCacheService.get("logs-today", LocalDate.of(2025,8,11), loads::incrementAndGet);
+        viewCacheService.get("logs-today", LocalDate.of(2025,8,11), loads::incrementAndGet);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+    @Test
+    public void shouldShareConcurrentLoadsOfTheSameViewTest() throws Exception {
+        var viewCacheService = new ViewCacheService(0, 30);
+        var loads = new AtomicInteger();
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var filter = new LogsFilterResource(LocalDate.of(2025,8,11), null, null, "", " timeout ").normalized();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var first = executor.submit(() -> viewCacheService.get("logs-filtered", filter, () -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return loads.incrementAndGet();
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            var sameFilter = new LogsFilterResource(LocalDate.of(2025,8,11), "All", "", null, "timeout").normalized();
+            var second = executor.submit(() -> viewCacheService.get("logs-filtered", sameFilter, loads::incrementAndGet));
+            while (viewCacheService.sharedLoads() < 1) Thread.sleep(1);
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        }
+        assertThat(loads.get()).isEqualTo(1);
+    }
+}
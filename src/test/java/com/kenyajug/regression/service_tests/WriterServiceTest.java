@@ -0,0 +1,145 @@
+package com.kenyajug.regression.service_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.services.WriterService;
+import com.kenyajug.regression.utils.LookupCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.sqlite.JDBC;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+public class WriterServiceTest {
+    @TempDir
+    private Path workDirectory;
+    private SimpleDriverDataSource dataSource;
+    private JdbcClient jdbcClient;
+    private WriterService writerService;
+    @BeforeEach
+    public void setUp() {
+        dataSource = new SimpleDriverDataSource(new JDBC(), "jdbc:sqlite:" + workDirectory.resolve("regression.db"));
+        jdbcClient = JdbcClient.create(dataSource);
+        jdbcClient.sql("CREATE TABLE applications (uuid TEXT PRIMARY KEY, name TEXT)").update();
+        writerService = new WriterService(new DataSourceTransactionManager(dataSource), 3, 500);
+    }
+    @AfterEach
+    public void tearDown() throws Exception {
+        writerService.stop();
+    }
+    private CompletableFuture<Object> insert(String uuid) {
+        return writerService.submit(() -> {
+            jdbcClient.sql("INSERT INTO applications (uuid, name) VALUES (?, 'Gimp')").param(uuid).update();
+            return TransactionSynchronizationManager.getResource(dataSource);
+        });
+    }
+    private List<String> savedApplications() {
+        return jdbcClient.sql("SELECT uuid FROM applications ORDER BY uuid").query(String.class).list();
+    }
+    @Test
+    public void shouldCommitQueuedCommandsInOneTransactionTest() throws Exception {
+        var first = insert("APP_UUID1");
+        var second = insert("APP_UUID2");
+        var third = insert("APP_UUID3");
+        var connection = first.get(5, TimeUnit.SECONDS);
+        assertThat(connection).isNotNull();
+        assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(connection);
+        assertThat(third.get(5, TimeUnit.SECONDS)).isSameAs(connection);
+        assertThat(savedApplications()).containsExactly("APP_UUID1", "APP_UUID2", "APP_UUID3");
+    }
+    @Test
+    public void shouldRollBackFailingCommandAloneTest() throws Exception {
+        var first = insert("APP_UUID1");
+        var failing = writerService.submit(() -> {
+            jdbcClient.sql("INSERT INTO applications (uuid, name) VALUES ('APP_UUID2', 'Gimp')").update();
+            throw new IllegalStateException("Invalid application");
+        });
+        var third = insert("APP_UUID3");
+        third.get(5, TimeUnit.SECONDS);
+        first.get(5, TimeUnit.SECONDS);
+        assertThatThrownBy(failing::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(savedApplications()).containsExactly("APP_UUID1", "APP_UUID3");
+    }
+    @Test
+    public void shouldRethrowCommandExceptionFromExecuteTest() {
+        assertThatThrownBy(() -> writerService.execute(() -> {
+            throw new IllegalArgumentException("Invalid application");
+        })).isInstanceOf(IllegalArgumentException.class).hasMessage("Invalid application");
+        writerService.run(() -> jdbcClient.sql("INSERT INTO applications (uuid, name) VALUES ('APP_UUID1', 'Gimp')").update());
+        assertThat(savedApplications()).containsExactly("APP_UUID1");
+    }
+    @Test
+    public void shouldRunCommandsSubmittedFromWriterThreadInlineTest() {
+        var saved = writerService.execute(() -> writerService.execute(() ->
+                jdbcClient.sql("INSERT INTO applications (uuid, name) VALUES ('APP_UUID1', 'Gimp')").update()));
+        assertThat(saved).isEqualTo(1);
+        assertThat(savedApplications()).containsExactly("APP_UUID1");
+    }
+    @Test
+    public void shouldRunExclusiveCommandBetweenGroupsTest() throws Exception {
+        var first = insert("APP_UUID1");
+        var second = insert("APP_UUID2");
+        var exclusive = CompletableFuture.supplyAsync(() -> writerService.executeExclusive(() ->
+                TransactionSynchronizationManager.isActualTransactionActive() ? List.<String>of() : savedApplications()));
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertThat(exclusive.get(5, TimeUnit.SECONDS)).containsExactly("APP_UUID1", "APP_UUID2");
+        insert("APP_UUID3").get(5, TimeUnit.SECONDS);
+        assertThat(savedApplications()).containsExactly("APP_UUID1", "APP_UUID2", "APP_UUID3");
+        assertThatThrownBy(() -> writerService.execute(() -> writerService.executeExclusive(() -> 1)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+    @Test
+    public void shouldDropLookupsCachedBeforeCommitTest() throws Exception {
+        var cache = new LookupCache<String, Optional<String>>("applications", 10, Duration.ofSeconds(60));
+        Function<String, Optional<String>> loader = uuid -> jdbcClient
+                .sql("SELECT name FROM applications WHERE uuid = ?").param(uuid).query(String.class).optional();
+        var cachedBeforeCommit = writerService.execute(() -> {
+            jdbcClient.sql("INSERT INTO applications (uuid, name) VALUES ('APP_UUID1', 'Gimp')").update();
+            cache.invalidate("APP_UUID1");
+            return CompletableFuture.supplyAsync(() -> cache.get("APP_UUID1", loader)).join();
+        });
+        assertThat(cachedBeforeCommit).isEmpty();
+        assertThat(cache.get("APP_UUID1", loader)).contains("Gimp");
+    }
+    @Test
+    public void shouldRejectCommandsAfterStopTest() throws Exception {
+        writerService.stop();
+        assertThatThrownBy(() -> writerService.execute(() -> 1)).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,72 @@
+package com.kenyajug.regression.utility_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.utils.ColumnarEncoding;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.Arrays;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+public class ColumnarEncodingTest {
+    @Test
+    public void shouldRoundTripDeltaEncodingTest() {
+        var values = new long[]{1747387874L, 1747387874L, 1747387880L, 1747391474L};
+        var deltas = ColumnarEncoding.deltaEncode(values);
+        assertThat(deltas).containsExactly(1747387874L, 0L, 6L, 3594L);
+        assertThat(ColumnarEncoding.deltaDecode(deltas)).containsExactly(values);
+    }
+    @Test
+    public void shouldDictionaryEncodeInOrderOfFirstAppearanceTest() {
+        var dictionary = ColumnarEncoding.dictionaryEncode(Arrays.asList("INFO", "ERROR", "INFO", null));
+        assertThat(dictionary.values()).containsExactly("INFO", "ERROR", "");
+        assertThat(dictionary.codes()).containsExactly(0, 1, 0, 2);
+    }
+    @Test
+    public void shouldRoundTripRunLengthEncodingTest() {
+        var codes = new int[]{0, 0, 0, 1, 1, 0};
+        var runLengths = ColumnarEncoding.runLengthEncode(codes);
+        assertThat(runLengths.values()).containsExactly(0, 1, 0);
+        assertThat(runLengths.lengths()).containsExactly(3, 2, 1);
+        assertThat(runLengths.rowCount()).isEqualTo(6);
+        assertThat(ColumnarEncoding.runLengthDecode(runLengths)).containsExactly(codes);
+        assertThat(ColumnarEncoding.runLengthEncode(new int[0]).rowCount()).isZero();
+    }
+    @Test
+    public void shouldRoundTripVarintsTest() throws Exception {
+        var bytes = new ByteArrayOutputStream();
+        var output = new DataOutputStream(bytes);
+        for (long value : new long[]{0, 127, 128, 1747387874L, Long.MAX_VALUE}) ColumnarEncoding.writeVarLong(output, value);
+        assertThat(bytes.size()).isEqualTo(1 + 1 + 2 + 5 + 9);
+        var input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        assertThat(ColumnarEncoding.readVarLong(input)).isZero();
+        assertThat(ColumnarEncoding.readVarLong(input)).isEqualTo(127);
+        assertThat(ColumnarEncoding.readVarLong(input)).isEqualTo(128);
+        assertThat(ColumnarEncoding.readVarLong(input)).isEqualTo(1747387874L);
+        assertThat(ColumnarEncoding.readVarLong(input)).isEqualTo(Long.MAX_VALUE);
+        assertThatThrownBy(() -> ColumnarEncoding.writeVarLong(output, -1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
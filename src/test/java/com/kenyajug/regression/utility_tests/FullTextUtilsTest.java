@@ -0,0 +1,79 @@
+package com.kenyajug.regression.utility_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.utils.FullTextUtils;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+public class FullTextUtilsTest {
+    @Test
+    public void shouldQuotePlainTermsTest() {
+        var expression = FullTextUtils.toMatchExpression("connection refused");
+        assertThat(expression).isNotEmpty();
+        assertThat(expression.get()).isEqualTo("\"connection\" \"refused\"");
+    }
+    @Test
+    public void shouldKeepQuotedPhraseTogetherTest() {
+        var expression = FullTextUtils.toMatchExpression("\"connection refused\" timeout");
+        assertThat(expression).isNotEmpty();
+        assertThat(expression.get()).isEqualTo("\"connection refused\" \"timeout\"");
+    }
+    @Test
+    public void shouldTranslatePrefixTermsTest() {
+        var expression = FullTextUtils.toMatchExpression("NullPointer*");
+        assertThat(expression).isNotEmpty();
+        assertThat(expression.get()).isEqualTo("\"NullPointer\"*");
+    }
+    @Test
+    public void shouldEscapeQuerySyntaxTest() {
+        var expression = FullTextUtils.toMatchExpression("org.hibernate.Version AND -x");
+        assertThat(expression).isNotEmpty();
+        assertThat(expression.get()).isEqualTo("\"org.hibernate.Version\" \"AND\" \"-x\"");
+    }
+    @Test
+    public void shouldCloseUnterminatedPhraseTest() {
+        var expression = FullTextUtils.toMatchExpression("\"Bad credentials");
+        assertThat(expression).isNotEmpty();
+        assertThat(expression.get()).isEqualTo("\"Bad credentials\"");
+    }
+    @Test
+    public void shouldIgnoreBlankKeywordTest() {
+        assertThat(FullTextUtils.toMatchExpression(null)).isEmpty();
+        assertThat(FullTextUtils.toMatchExpression("   ")).isEmpty();
+        assertThat(FullTextUtils.toMatchExpression("\"\" *")).isEmpty();
+    }
+    @Test
+    public void shouldMatchMessagesWithoutIndexTest() {
+        assertThat(FullTextUtils.matches("\"connection refused\" Null*", "NullPointerException: Connection refused by peer")).isTrue();
+        assertThat(FullTextUtils.matches("timeout refused", "Connection refused")).isFalse();
+        assertThat(FullTextUtils.matches("   ", "Connection refused")).isFalse();
+        assertThat(FullTextUtils.matches("refused", null)).isFalse();
+    }
+    @Test
+    public void shouldTranslateKeywordToTsQueryTest() {
+        var expression = FullTextUtils.toTsQuery("\"connection refused\" Null* it's");
+        assertThat(expression).isNotEmpty();
+        assertThat(expression.get()).isEqualTo("'connection' <-> 'refused' & 'Null':* & 'it''s'");
+        assertThat(FullTextUtils.toTsQuery("   ")).isEmpty();
+    }
+}
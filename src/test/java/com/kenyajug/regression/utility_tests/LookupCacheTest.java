@@ -0,0 +1,112 @@
+package com.kenyajug.regression.utility_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.utils.LookupCache;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.assertj.core.api.Assertions.assertThat;
+public class LookupCacheTest {
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private Optional<String> load(String key) {
+        loads.incrementAndGet();
+        return key.startsWith("missing") ? Optional.empty() : Optional.of(key.toUpperCase());
+    }
+    @Test
+    public void shouldServeRepeatedLookupsFromCacheTest() {
+        var cache = new LookupCache<String, Optional<String>>("test", 10, Duration.ofSeconds(60), clock::get);
+        assertThat(cache.get("gimp", this::load)).contains("GIMP");
+        assertThat(cache.get("gimp", this::load)).contains("GIMP");
+        assertThat(cache.get("missing", this::load)).isEmpty();
+        assertThat(cache.get("missing", this::load)).isEmpty();
+        assertThat(loads.get()).isEqualTo(2);
+        var stats = cache.stats();
+        assertThat(stats.name()).isEqualTo("test");
+        assertThat(stats.hits()).isEqualTo(2);
+        assertThat(stats.misses()).isEqualTo(2);
+        assertThat(stats.size()).isEqualTo(2);
+        assertThat(stats.hitRatio()).isEqualTo(0.5);
+    }
+    @Test
+    public void shouldExpireEntriesAfterTtlTest() {
+        var cache = new LookupCache<String, Optional<String>>("test", 10, Duration.ofSeconds(60), clock::get);
+        cache.get("gimp", this::load);
+        clock.addAndGet(Duration.ofSeconds(59).toNanos());
+        cache.get("gimp", this::load);
+        assertThat(loads.get()).isEqualTo(1);
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        cache.get("gimp", this::load);
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+    }
+    @Test
+    public void shouldEvictLeastRecentlyUsedEntriesTest() {
+        var cache = new LookupCache<String, Optional<String>>("test", 2, Duration.ofSeconds(60), clock::get);
+        cache.get("a", this::load);
+        cache.get("b", this::load);
+        cache.get("a", this::load);
+        cache.get("c", this::load);
+        assertThat(cache.stats().size()).isEqualTo(2);
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+        cache.get("a", this::load);
+        assertThat(loads.get()).isEqualTo(3);
+        cache.get("b", this::load);
+        assertThat(loads.get()).isEqualTo(4);
+    }
+    @Test
+    public void shouldReloadInvalidatedEntriesTest() {
+        var cache = new LookupCache<String, Optional<String>>("test", 10, Duration.ofSeconds(60), clock::get);
+        cache.get("a", this::load);
+        cache.get("b", this::load);
+        cache.invalidate("a");
+        cache.get("a", this::load);
+        cache.get("b", this::load);
+        assertThat(loads.get()).isEqualTo(3);
+        cache.invalidateAll();
+        assertThat(cache.stats().size()).isZero();
+        cache.get("b", this::load);
+        assertThat(loads.get()).isEqualTo(4);
+    }
+    @Test
+    public void shouldNotCacheValueLoadedDuringInvalidationTest() {
+        var cache = new LookupCache<String, Optional<String>>("test", 10, Duration.ofSeconds(60), clock::get);
+        cache.get("a", key -> {
+            cache.invalidate(key);
+            return load(key);
+        });
+        cache.get("a", this::load);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+    @Test
+    public void shouldBypassCacheWhenDisabledTest() {
+        var cache = new LookupCache<String, Optional<String>>("test", 0, Duration.ofSeconds(60), clock::get);
+        cache.get("a", this::load);
+        cache.get("a", this::load);
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.stats().misses()).isZero();
+    }
+}
@@ -0,0 +1,63 @@
+package com.kenyajug.regression.utility_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.utils.MergedStreams;
+import org.junit.jupiter.api.Test;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import static org.assertj.core.api.Assertions.assertThat;
+public class MergedStreamsTest {
+    @Test
+    public void shouldMergeSortedStreamsInOrderTest() {
+        var merged = MergedStreams.mergeSorted(List.of(
+                Stream.of("09:00", "09:04", "09:05"),
+                Stream.<String>empty(),
+                Stream.of("09:01", "09:02"),
+                Stream.of("09:03", "09:06")), Comparator.naturalOrder());
+        assertThat(merged.toList()).containsExactly("09:00", "09:01", "09:02", "09:03", "09:04", "09:05", "09:06");
+    }
+    @Test
+    public void shouldPullOnlyTheElementsConsumedTest() {
+        var pulled = new AtomicInteger();
+        var merged = MergedStreams.mergeSorted(List.of(
+                Stream.iterate(0, i -> i + 2).peek(i -> pulled.incrementAndGet()),
+                Stream.iterate(1, i -> i + 2).peek(i -> pulled.incrementAndGet())), Comparator.<Integer>naturalOrder());
+        assertThat(merged.skip(2).limit(3).toList()).containsExactly(2, 3, 4);
+        // the five elements consumed plus the next head of each stream
+        assertThat(pulled.get()).isEqualTo(7);
+    }
+    @Test
+    public void shouldCloseEverySourceStreamTest() {
+        var closed = new AtomicInteger();
+        var merged = MergedStreams.mergeSorted(List.of(
+                Stream.of(1).onClose(closed::incrementAndGet),
+                Stream.of(2).onClose(closed::incrementAndGet)), Comparator.<Integer>naturalOrder());
+        try (merged) {
+            assertThat(merged.findFirst()).contains(1);
+        }
+        assertThat(closed.get()).isEqualTo(2);
+    }
+}
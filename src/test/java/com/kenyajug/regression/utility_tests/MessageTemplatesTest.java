@@ -0,0 +1,47 @@
+package com.kenyajug.regression.utility_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.utils.MessageTemplates;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+public class MessageTemplatesTest {
+    @Test
+    public void shouldReduceSpringBootLineToLoggerAndTemplateTest(){
+        var first = "2025-06-22T10:15:30.123+03:00 ERROR 4821 --- [nio-8080-exec-1] c.k.r.UserService : User 17 not found\n\tat com.kenyajug.UserService.find(UserService.java:42)";
+        var second = "2025-06-22T11:02:11.001+03:00 ERROR 4821 --- [nio-8080-exec-7] c.k.r.UserService : User 2931 not found";
+        assertThat(MessageTemplates.normalize(first)).isEqualTo("c.k.r.UserService : User <num> not found");
+        assertThat(MessageTemplates.normalize(second)).isEqualTo(MessageTemplates.normalize(first));
+    }
+    @Test
+    public void shouldReplaceVariablePartsWithPlaceholdersTest(){
+        var message = "2025-06-22 10:15:30 WARN Session 3f2a9c1e-8b7d-4e6f-9a0b-1c2d3e4f5a6b from 192.168.1.20:5432 rejected 'admin' at 0x7ffe12";
+        assertThat(MessageTemplates.normalize(message)).isEqualTo("Session <uuid> from <ip> rejected <str> at <hex>");
+    }
+    @Test
+    public void shouldHandleBlankAndLongMessagesTest(){
+        assertThat(MessageTemplates.normalize(null)).isEmpty();
+        assertThat(MessageTemplates.normalize("  \n ")).isEmpty();
+        assertThat(MessageTemplates.normalize("x".repeat(500))).hasSize(MessageTemplates.MAX_TEMPLATE_LENGTH);
+    }
+}
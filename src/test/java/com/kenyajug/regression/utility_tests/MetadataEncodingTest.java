@@ -0,0 +1,72 @@
+package com.kenyajug.regression.utility_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.LogsMetadata;
+import com.kenyajug.regression.utils.MetadataEncoding;
+import org.junit.jupiter.api.Test;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+public class MetadataEncodingTest {
+    private final String logId = "8d3c1f0e-52a4-4f6b-9b1e-7a2d5c4e3f10";
+    @Test
+    public void shouldRoundTripEntriesTest() {
+        var entries = List.of(
+                new LogsMetadata("2f1d8c1e-8a47-4b8e-9d0a-0e5c4b7f6a11", logId, "threadName", "http-nio-8080-exec-1"),
+                new LogsMetadata("UUID2", logId, "customerTier", "gold"),
+                new LogsMetadata("6c0e4a55-3b8f-4a2c-a1e4-5d7b9c2f0e32", logId, "exceptionClassAndMessage", null),
+                new LogsMetadata("UUID4", logId, "userAgentHeader", "Mozilla/5.0 (X11; Linux x86_64) ✓"));
+        var packed = MetadataEncoding.encode(entries);
+        assertThat(MetadataEncoding.decode(logId, packed)).containsExactlyElementsOf(entries);
+        assertThat(MetadataEncoding.decode(logId, MetadataEncoding.encode(List.of()))).isEmpty();
+    }
+    @Test
+    public void shouldStoreKnownTypesAndCanonicalUuidsCompactlyTest() {
+        var entry = new LogsMetadata("2f1d8c1e-8a47-4b8e-9d0a-0e5c4b7f6a11", logId, "threadName", "main");
+        var packed = MetadataEncoding.encode(List.of(entry));
+        var rowValues = entry.uuid() + entry.logId() + entry.metadataType() + entry.metadataValue();
+        assertThat(packed).hasSize(1 + 1 + 1 + 16 + 1 + 4);
+        assertThat(packed.length).isLessThan(rowValues.getBytes(StandardCharsets.UTF_8).length / 3);
+    }
+    @Test
+    public void shouldRejectMalformedEntriesTest() {
+        var packed = MetadataEncoding.encode(List.of(new LogsMetadata("UUID1", logId, "threadName", "main")));
+        var truncated = Arrays.copyOf(packed, packed.length - 2);
+        assertThatThrownBy(() -> MetadataEncoding.decode(logId, truncated)).isInstanceOf(UncheckedIOException.class);
+        assertThatThrownBy(() -> MetadataEncoding.decode(logId, new byte[]{9, 0})).isInstanceOf(UncheckedIOException.class);
+    }
+    @Test
+    public void shouldReduceValuesToTheirIndexNeedleTest() {
+        assertThat(MetadataEncoding.indexValue("traceIdentifier", "traceId=abc-123")).isEqualTo("abc-123");
+        assertThat(MetadataEncoding.indexValue("traceIdentifier", " abc-123 ")).isEqualTo("abc-123");
+        assertThat(MetadataEncoding.indexValue("sessionId", "JSESSIONID=9F3A")).isEqualTo("9F3A");
+        assertThat(MetadataEncoding.indexValue("clientIpAddress", "10.0.0.17")).isEqualTo("10.0.0.17");
+        assertThat(MetadataEncoding.indexValue("exceptionClass", "java.io.IOException")).isEqualTo("java.io.IOException");
+        assertThat(MetadataEncoding.indexValue("customerTier", "gold")).isEqualTo("gold");
+        assertThat(MetadataEncoding.indexValue("traceIdentifier", null)).isNull();
+    }
+}
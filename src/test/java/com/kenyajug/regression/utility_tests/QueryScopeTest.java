@@ -0,0 +1,100 @@
+package com.kenyajug.regression.utility_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.utils.QueryScope;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+public class QueryScopeTest {
+    @Test
+    public void shouldRunQueriesConcurrentlyTest() {
+        var started = new CountDownLatch(3);
+        try (var scope = new QueryScope(Duration.ofSeconds(5))) {
+            var first = scope.fork(() -> awaitAll(started, "apps"));
+            var second = scope.fork(() -> awaitAll(started, "logs"));
+            var third = scope.fork(() -> awaitAll(started, "sources"));
+            scope.join();
+            assertThat(first.get()).isEqualTo("apps");
+            assertThat(second.get()).isEqualTo("logs");
+            assertThat(third.get()).isEqualTo("sources");
+        }
+    }
+    @Test
+    public void shouldRethrowFirstFailureAndCancelOthersTest() {
+        var interrupted = new CountDownLatch(1);
+        try (var scope = new QueryScope(Duration.ofSeconds(5))) {
+            scope.fork(() -> sleepUntilInterrupted(interrupted));
+            scope.fork(() -> {
+                throw new SecurityException("Invalid session, current user is not authenticated");
+            });
+            assertThatThrownBy(scope::join)
+                    .isInstanceOf(SecurityException.class)
+                    .hasMessageContaining("Invalid session");
+        }
+        assertThat(await(interrupted)).isTrue();
+    }
+    @Test
+    public void shouldFailWhenDeadlineIsExceededTest() {
+        var interrupted = new CountDownLatch(1);
+        var slow = new AtomicBoolean();
+        try (var scope = new QueryScope(Duration.ofMillis(50))) {
+            var result = scope.fork(() -> {
+                slow.set(true);
+                return sleepUntilInterrupted(interrupted);
+            });
+            assertThatThrownBy(scope::join)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("deadline");
+            assertThatThrownBy(result::get).isInstanceOf(IllegalStateException.class);
+        }
+        assertThat(slow.get()).isTrue();
+        assertThat(await(interrupted)).isTrue();
+    }
+    private static String awaitAll(CountDownLatch started, String result) {
+        started.countDown();
+        if (!await(started)) throw new IllegalStateException("Queries did not run concurrently");
+        return result;
+    }
+    private static String sleepUntilInterrupted(CountDownLatch interrupted) {
+        try {
+            Thread.sleep(Duration.ofSeconds(30));
+            return "finished";
+        } catch (InterruptedException ex) {
+            interrupted.countDown();
+            return "interrupted";
+        }
+    }
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
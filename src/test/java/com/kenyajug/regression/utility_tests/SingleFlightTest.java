@@ -0,0 +1,112 @@
+package com.kenyajug.regression.utility_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.utils.SingleFlight;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+public class SingleFlightTest {
+    @Test
+    public void shouldShareOneComputationBetweenConcurrentCallersTest() throws Exception {
+        var singleFlight = new SingleFlight<String>();
+        var runs = new AtomicInteger();
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var leader = executor.submit(() -> singleFlight.run("logs-filtered", () -> {
+                started.countDown();
+                await(release);
+                return "view-" + runs.incrementAndGet();
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            List<Future<String>> followers = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                followers.add(executor.submit(() -> singleFlight.run("logs-filtered", () -> "view-" + runs.incrementAndGet())));
+            }
+            while (singleFlight.sharedCount() < 10) Thread.sleep(1);
+            release.countDown();
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("view-1");
+            for (var follower : followers) assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("view-1");
+        }
+        assertThat(runs.get()).isEqualTo(1);
+        assertThat(singleFlight.run("logs-filtered", () -> "view-" + runs.incrementAndGet())).isEqualTo("view-2");
+    }
+    @Test
+    public void shouldShareFailureWithWaitingCallersTest() throws Exception {
+        var singleFlight = new SingleFlight<String>();
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var leader = executor.submit(() -> singleFlight.<String>run("dashboard", () -> {
+                started.countDown();
+                await(release);
+                throw new IllegalStateException("Queries did not finish before the deadline");
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            var follower = executor.submit(() -> singleFlight.run("dashboard", () -> "unused"));
+            while (singleFlight.sharedCount() < 1) Thread.sleep(1);
+            release.countDown();
+            assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IllegalStateException.class);
+        }
+        assertThat(singleFlight.run("dashboard", () -> "recovered")).isEqualTo("recovered");
+    }
+    @Test
+    public void shouldStartAfreshAfterForgettingTest() throws Exception {
+        var singleFlight = new SingleFlight<String>();
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var stale = executor.submit(() -> singleFlight.run("logs-today", () -> {
+                started.countDown();
+                await(release);
+                return "before ingestion";
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            singleFlight.forgetAll();
+            assertThat(singleFlight.run("logs-today", () -> "after ingestion")).isEqualTo("after ingestion");
+            release.countDown();
+            assertThat(stale.get(5, TimeUnit.SECONDS)).isEqualTo("before ingestion");
+        }
+        assertThat(singleFlight.sharedCount()).isZero();
+    }
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
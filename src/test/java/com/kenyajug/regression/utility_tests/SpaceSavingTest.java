@@ -0,0 +1,83 @@
+package com.kenyajug.regression.utility_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.utils.SpaceSaving;
+import org.junit.jupiter.api.Test;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import static org.assertj.core.api.Assertions.assertThat;
+public class SpaceSavingTest {
+    @Test
+    public void shouldCountExactlyWhileUnderCapacityTest(){
+        var sketch = new SpaceSaving<String>(3);
+        sketch.offer("timeout", 1);
+        sketch.offer("refused", 2);
+        sketch.offer("timeout", 4);
+        assertThat(sketch.top(5)).containsExactly(
+                new SpaceSaving.Entry<>("timeout", 5, 0),
+                new SpaceSaving.Entry<>("refused", 2, 0));
+        assertThat(sketch.total()).isEqualTo(7);
+    }
+    @Test
+    public void shouldReplaceLeastFrequentItemAndRecordErrorTest(){
+        var sketch = new SpaceSaving<String>(2);
+        sketch.offer("a", 5);
+        sketch.offer("b", 2);
+        sketch.offer("c", 1);
+        assertThat(sketch.size()).isEqualTo(2);
+        assertThat(sketch.top(2)).containsExactly(
+                new SpaceSaving.Entry<>("a", 5, 0),
+                new SpaceSaving.Entry<>("c", 3, 2));
+    }
+    @Test
+    public void shouldKeepFrequentItemsOfSkewedStreamTest(){
+        var sketch = new SpaceSaving<String>(20);
+        var random = new Random(42);
+        Map<String, Long> exact = new HashMap<>();
+        for (int i = 0; i < 20000; i++) {
+            var item = i % 4 == 0 ? "hot-" + (i % 3) : "noise-" + random.nextInt(5000);
+            exact.merge(item, 1L, Long::sum);
+            sketch.offer(item, 1);
+        }
+        var top = sketch.top(3);
+        assertThat(top).extracting(SpaceSaving.Entry::item).containsExactlyInAnyOrder("hot-0", "hot-1", "hot-2");
+        for (var entry : top) {
+            assertThat(entry.count()).isGreaterThanOrEqualTo(exact.get(entry.item()));
+            assertThat(entry.count() - entry.error()).isLessThanOrEqualTo(exact.get(entry.item()));
+        }
+    }
+    @Test
+    public void shouldRestoreSnapshotWithinCapacityTest(){
+        var sketch = new SpaceSaving<String>(2);
+        sketch.restore("a", 10, 1);
+        sketch.restore("b", 4, 0);
+        sketch.restore("c", 7, 2);
+        assertThat(sketch.top(2)).containsExactly(
+                new SpaceSaving.Entry<>("a", 10, 1),
+                new SpaceSaving.Entry<>("c", 7, 2));
+        sketch.offer("c", 5);
+        assertThat(sketch.top(1)).containsExactly(new SpaceSaving.Entry<>("c", 12, 2));
+    }
+}
@@ -24,12 +24,16 @@ package com.kenyajug.regression.web_mvc_tests;
  */
 import com.kenyajug.regression.controllers.ApplicationController;
 import com.kenyajug.regression.entities.Application;
+import com.kenyajug.regression.entities.PurgeJob;
 import com.kenyajug.regression.entities.User;
 import com.kenyajug.regression.repository.ApplicationsRepository;
 import com.kenyajug.regression.repository.UserRepository;
 import com.kenyajug.regression.resources.ApplicationResource;
 import com.kenyajug.regression.security.SecurityHelper;
 import com.kenyajug.regression.security.SecurityUser;
+import com.kenyajug.regression.services.IColumnarService;
+import com.kenyajug.regression.services.IPurgeService;
+import com.kenyajug.regression.services.IViewCacheService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -41,9 +45,12 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.BindingResult;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -62,6 +69,12 @@ public class ApplicationUITest {
     private SecurityHelper securityHelper;
     @MockitoBean
     private UserRepository userRepository;
+    @MockitoBean
+    private IColumnarService columnarService;
+    @MockitoBean
+    private IPurgeService purgeService;
+    @MockitoBean
+    private IViewCacheService viewCacheService;
     @Autowired
     private ApplicationController applicationController;
     @Autowired
@@ -169,6 +182,8 @@ public class ApplicationUITest {
         when(securityHelper.findAuthenticatedUser()).thenReturn(securityUser);
         when(userRepository.findByUsername(securityUser.getUsername())).thenReturn(Optional.of(user));
         when(applicationsRepository.findByOwner(any())).thenReturn(apps);
+        when(columnarService.countBySeverity(anyString(), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(Map.of("ERROR", 3L));
         mockMvc.perform(get("/applications")
                 .with(user("vladimir@ru.com"))
                 .with(csrf()))
@@ -176,7 +191,9 @@ public class ApplicationUITest {
                 .andExpect(status().isOk())
                 .andExpect(view().name("applications-list"))
                 .andExpect(model().attributeExists("apps"))
-                .andExpect(model().attribute("apps", apps));
+                .andExpect(model().attribute("apps", apps))
+                .andExpect(model().attribute("severityTotals", Map.of("2097f3c8-e08d-4499-b536-753e9f4aded3", Map.of("ERROR", 3L))))
+                .andExpect(content().string(containsString("ERROR 3")));
     }
     @Test
     @DisplayName("Throw security exception if principle user is not persisted")
@@ -196,4 +213,44 @@ public class ApplicationUITest {
         when(userRepository.findByUsername(anyString())).thenReturn(Optional.empty());
         assertThrows(SecurityException.class, () -> applicationController.listApplications(null));
     }
+    @Test
+    @DisplayName("Should delete an application and schedule the purge of its logs")
+    public void shouldDeleteApplicationTest() throws Exception {
+        var appId = "2097f3c8-e08d-4499-b536-753e9f4aded3";
+        var securityUser = new SecurityUser("vladimir@ru.com","$2a$10$D1r0ghp70r...aC7pS3Ozi3IM", List.of());
+        var user = new User("2ae29319-c7cb-4964-a7ab-4905715f5105", "vladimir@ru.com", "$2a$10$D1r0ghp70r...aC7pS3Ozi3IM", "", LocalDateTime.now());
+        var apps = List.of(new Application(appId,"Gimp","1.0","JVM","",LocalDateTime.now()));
+        var job = new PurgeJob("JOB_UUID1", PurgeJob.TARGET_APPLICATION, appId, "Gimp",
+                PurgeJob.STATUS_PENDING, 10, 0, LocalDateTime.now(), LocalDateTime.now());
+        when(securityHelper.findAuthenticatedUser()).thenReturn(securityUser);
+        when(userRepository.findByUsername(securityUser.getUsername())).thenReturn(Optional.of(user));
+        when(applicationsRepository.findByOwner(user)).thenReturn(apps);
+        when(purgeService.purgeApplication(appId)).thenReturn(Optional.of(job));
+        mockMvc.perform(post("/applications/{id}/delete", appId)
+                .with(user("vladimir@ru.com"))
+                .with(csrf()))
+                .andDo(print())
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/applications"));
+        verify(purgeService, times(1)).purgeApplication(appId);
+        verify(viewCacheService, times(1)).invalidateAll();
+    }
+    @Test
+    @DisplayName("Should not delete an application owned by another user")
+    public void shouldNotDeleteApplicationOfAnotherOwnerTest() throws Exception {
+        var appId = "2097f3c8-e08d-4499-b536-753e9f4aded3";
+        var securityUser = new SecurityUser("vladimir@ru.com","$2a$10$D1r0ghp70r...aC7pS3Ozi3IM", List.of());
+        var user = new User("2ae29319-c7cb-4964-a7ab-4905715f5105", "vladimir@ru.com", "$2a$10$D1r0ghp70r...aC7pS3Ozi3IM", "", LocalDateTime.now());
+        var apps = List.of(new Application("UUID2","Chrome","1.0","V8","",LocalDateTime.now()));
+        when(securityHelper.findAuthenticatedUser()).thenReturn(securityUser);
+        when(userRepository.findByUsername(securityUser.getUsername())).thenReturn(Optional.of(user));
+        when(applicationsRepository.findByOwner(user)).thenReturn(apps);
+        mockMvc.perform(post("/applications/{id}/delete", appId)
+                .with(user("vladimir@ru.com"))
+                .with(csrf()))
+                .andDo(print())
+                .andExpect(status().isNotFound());
+        verify(purgeService, times(0)).purgeApplication(appId);
+        verify(viewCacheService, times(0)).invalidateAll();
+    }
 }
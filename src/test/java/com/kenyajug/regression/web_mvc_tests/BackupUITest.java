@@ -0,0 +1,90 @@
+package com.kenyajug.regression.web_mvc_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.models.BackupSnapshot;
+import com.kenyajug.regression.services.IBackupService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+@AutoConfigureMockMvc
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-noliquibase-test.properties")
+public class BackupUITest {
+    @MockitoBean
+    private IBackupService backupService;
+    @Autowired
+    private MockMvc mockMvc;
+    private final BackupSnapshot snapshot = new BackupSnapshot(
+            "regression-20250101-020000000.db.gz",
+            LocalDateTime.of(2025, 1, 1, 2, 0, 0),
+            4096);
+    @Test
+    @DisplayName("Should list the database snapshots")
+    public void shouldListSnapshotsTest() throws Exception {
+        when(backupService.listSnapshots()).thenReturn(List.of(snapshot));
+        mockMvc.perform(get("/admin/backups")
+                        .with(user("maxbracker@regression.com").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(view().name("backups-list"))
+                .andExpect(model().attribute("snapshots", List.of(snapshot)))
+                .andExpect(content().string(containsString(snapshot.fileName())));
+    }
+    @Test
+    @DisplayName("Should take a database snapshot on demand")
+    public void shouldCreateSnapshotTest() throws Exception {
+        when(backupService.createSnapshot()).thenReturn(Optional.of(snapshot));
+        mockMvc.perform(post("/admin/backups")
+                        .with(user("maxbracker@regression.com").roles("ADMIN"))
+                        .with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/admin/backups"));
+        verify(backupService, times(1)).createSnapshot();
+    }
+    @Test
+    @DisplayName("Should restore the database from a snapshot")
+    public void shouldRestoreSnapshotTest() throws Exception {
+        when(backupService.restoreSnapshot(snapshot.fileName())).thenReturn(true);
+        mockMvc.perform(post("/admin/backups/{name}/restore", snapshot.fileName())
+                        .with(user("maxbracker@regression.com").roles("ADMIN"))
+                        .with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/"));
+        verify(backupService, times(1)).restoreSnapshot(snapshot.fileName());
+    }
+}
@@ -26,11 +26,13 @@ import com.kenyajug.regression.controllers.DashboardController;
 import com.kenyajug.regression.entities.Application;
 import com.kenyajug.regression.entities.LogsDataSource;
 import com.kenyajug.regression.entities.User;
+import com.kenyajug.regression.models.RecurringItem;
 import com.kenyajug.regression.repository.ApplicationsRepository;
 import com.kenyajug.regression.repository.LogsDataSourceRepository;
 import com.kenyajug.regression.repository.UserRepository;
 import com.kenyajug.regression.security.SecurityHelper;
 import com.kenyajug.regression.security.SecurityUser;
+import com.kenyajug.regression.services.IHeavyHitterService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -41,7 +43,9 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -67,6 +71,8 @@ public class DashboardPageTests {
     private ApplicationsRepository applicationsRepository;
     @MockitoBean
     private LogsDataSourceRepository logsDataSourceRepository;
+    @MockitoBean
+    private IHeavyHitterService heavyHitterService;
     @Test
     @DisplayName("Home page should not be publicly accessible")
     public void shouldLoadHomePage_UnauthorizedTest() throws Exception{
@@ -171,4 +177,32 @@ public class DashboardPageTests {
                 .andExpect(model().attribute("logsDatasourceList",datasourceList))
                 .andExpect(view().name("dashboard"));
     }
+    @Test
+    @DisplayName("Should list the most recurring errors of each application")
+    public void shouldListRecurringErrorsTest() throws Exception {
+        var timestamp = LocalDateTime.of(2000,11,8,17,34,50);
+        var apps = List.of(
+                new Application("APP_UUID1","Gimp","1.0","JVM","",timestamp),
+                new Application("APP_UUID2","Chrome","1.0","V8","",timestamp)
+        );
+        var recurring = List.of(new RecurringItem("c.k.r.UserService : User <num> not found", 42, 0));
+        var securityUser = new SecurityUser("vladimir@ru.com","$2a$10$D1r0ghp70r...aC7pS3Ozi3IM", List.of());
+        var user = new User("2ae29319-c7cb-4964-a7ab-4905715f5105",
+                "vladimir@ru.com",
+                "$2a$10$D1r0ghp70r...aC7pS3Ozi3IM",
+                "",
+                LocalDateTime.now());
+        when(securityHelper.findAuthenticatedUser()).thenReturn(securityUser);
+        when(userRepository.findByUsername(securityUser.getUsername())).thenReturn(Optional.of(user));
+        when(applicationsRepository.findByOwner(any())).thenReturn(apps);
+        when(heavyHitterService.top("APP_UUID1", "message", "ERROR", 5)).thenReturn(recurring);
+        when(heavyHitterService.top("APP_UUID2", "message", "ERROR", 5)).thenReturn(List.of());
+        mockMvc.perform(get("/")
+                        .with(user("jetLee@regress").roles("ADMIN"))
+                        .with(csrf())
+                )
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("recurringErrors", Map.of("Gimp", recurring)))
+                .andExpect(content().string(containsString("c.k.r.UserService : User &lt;num&gt; not found")));
+    }
 }
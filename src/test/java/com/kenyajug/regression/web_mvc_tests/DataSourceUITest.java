@@ -25,12 +25,15 @@ package com.kenyajug.regression.web_mvc_tests;
 import com.kenyajug.regression.controllers.DatasourceController;
 import com.kenyajug.regression.entities.Application;
 import com.kenyajug.regression.entities.LogsDataSource;
+import com.kenyajug.regression.entities.PurgeJob;
 import com.kenyajug.regression.entities.User;
 import com.kenyajug.regression.repository.ApplicationsRepository;
 import com.kenyajug.regression.repository.LogsDataSourceRepository;
 import com.kenyajug.regression.repository.UserRepository;
 import com.kenyajug.regression.security.SecurityHelper;
 import com.kenyajug.regression.security.SecurityUser;
+import com.kenyajug.regression.services.IPurgeService;
+import com.kenyajug.regression.services.IViewCacheService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -43,6 +46,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -65,6 +69,10 @@ public class DataSourceUITest {
     private ApplicationsRepository applicationsRepository;
     @MockitoBean
     private LogsDataSourceRepository dataSourceRepository;
+    @MockitoBean
+    private IPurgeService purgeService;
+    @MockitoBean
+    private IViewCacheService viewCacheService;
     @Autowired
     private DatasourceController datasourceController;
     @Test
@@ -176,7 +184,10 @@ public class DataSourceUITest {
                         "/var/log/tomcat/catalina.out"
                 )
         );
+        var purgeJobs = List.of(new PurgeJob("JOB_UUID1", PurgeJob.TARGET_DATASOURCE, "UUID3", "Nginx Access Logs",
+                PurgeJob.STATUS_RUNNING, 1000, 400, LocalDateTime.now(), LocalDateTime.now()));
         when(dataSourceRepository.findAll()).thenReturn(datasourceList);
+        when(purgeService.findRecentJobs()).thenReturn(purgeJobs);
         mockMvc.perform(get("/data/sources")
                 .with(user("maxwell").roles("USER"))
                 .with(csrf()))
@@ -184,6 +195,53 @@ public class DataSourceUITest {
                 .andExpect(status().isOk())
                 .andExpect(view().name("datasource-list"))
                 .andExpect(model().attributeExists("logsDatasourceList"))
-                .andExpect(model().attribute("logsDatasourceList",datasourceList));
+                .andExpect(model().attribute("logsDatasourceList",datasourceList))
+                .andExpect(model().attribute("purgeJobs",purgeJobs))
+                .andExpect(content().string(containsString("400 / 1000 logs")));
+    }
+    @Test
+    @DisplayName("Should delete a data source and schedule the purge of its logs")
+    public void shouldDeleteDataSourceTest() throws Exception {
+        var datasourceId = "b6ac8cf2-5497-47c4-93b9-c8090737d410";
+        var appId = "996233d5-1df5-409f-942e-05feb417f90e";
+        var securityUser = new SecurityUser("vladimir@ru.com","$2a$10$D1r0ghp70r...aC7pS3Ozi3IM", List.of());
+        var user = new User("2ae29319-c7cb-4964-a7ab-4905715f5105", "vladimir@ru.com", "$2a$10$D1r0ghp70r...aC7pS3Ozi3IM", "", LocalDateTime.now());
+        var datasource = new LogsDataSource(datasourceId, "Chrome Memory Dump Logs", "V8 Runtime", appId, LocalDateTime.now(), "/var/app/v8/logs/v8_logs.log");
+        var apps = List.of(new Application(appId,"Chrome","1.0","V8","",LocalDateTime.now()));
+        var job = new PurgeJob("JOB_UUID1", PurgeJob.TARGET_DATASOURCE, datasourceId, "Chrome Memory Dump Logs",
+                PurgeJob.STATUS_PENDING, 10, 0, LocalDateTime.now(), LocalDateTime.now());
+        when(securityHelper.findAuthenticatedUser()).thenReturn(securityUser);
+        when(userRepository.findByUsername(securityUser.getUsername())).thenReturn(Optional.of(user));
+        when(dataSourceRepository.findById(datasourceId)).thenReturn(Optional.of(datasource));
+        when(applicationsRepository.findByOwner(user)).thenReturn(apps);
+        when(purgeService.purgeDataSource(datasourceId)).thenReturn(Optional.of(job));
+        mockMvc.perform(post("/data/sources/{id}/delete", datasourceId)
+                .with(user("dan").roles("ADMIN"))
+                .with(csrf()))
+                .andDo(print())
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/data/sources"));
+        verify(purgeService, times(1)).purgeDataSource(datasourceId);
+        verify(viewCacheService, times(1)).invalidateAll();
+    }
+    @Test
+    @DisplayName("Should not delete a data source of an application owned by another user")
+    public void shouldNotDeleteDataSourceOfAnotherOwnerTest() throws Exception {
+        var datasourceId = "b6ac8cf2-5497-47c4-93b9-c8090737d410";
+        var securityUser = new SecurityUser("vladimir@ru.com","$2a$10$D1r0ghp70r...aC7pS3Ozi3IM", List.of());
+        var user = new User("2ae29319-c7cb-4964-a7ab-4905715f5105", "vladimir@ru.com", "$2a$10$D1r0ghp70r...aC7pS3Ozi3IM", "", LocalDateTime.now());
+        var datasource = new LogsDataSource(datasourceId, "Chrome Memory Dump Logs", "V8 Runtime", "996233d5-1df5-409f-942e-05feb417f90e", LocalDateTime.now(), "/var/app/v8/logs/v8_logs.log");
+        var apps = List.of(new Application("2097f3c8-e08d-4499-b536-753e9f4aded3","Gimp","1.0","JVM","",LocalDateTime.now()));
+        when(securityHelper.findAuthenticatedUser()).thenReturn(securityUser);
+        when(userRepository.findByUsername(securityUser.getUsername())).thenReturn(Optional.of(user));
+        when(dataSourceRepository.findById(datasourceId)).thenReturn(Optional.of(datasource));
+        when(applicationsRepository.findByOwner(user)).thenReturn(apps);
+        mockMvc.perform(post("/data/sources/{id}/delete", datasourceId)
+                .with(user("dan").roles("ADMIN"))
+                .with(csrf()))
+                .andDo(print())
+                .andExpect(status().isNotFound());
+        verify(purgeService, times(0)).purgeDataSource(datasourceId);
+        verify(viewCacheService, times(0)).invalidateAll();
     }
 }
@@ -0,0 +1,197 @@
+package com.kenyajug.regression.web_mvc_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.models.LogCursor;
+import com.kenyajug.regression.models.LogHistogram;
+import com.kenyajug.regression.models.LogQuery;
+import com.kenyajug.regression.resources.ApplicationResource;
+import com.kenyajug.regression.resources.DatasourceResource;
+import com.kenyajug.regression.resources.LogResource;
+import com.kenyajug.regression.services.HourlyLogStats;
+import com.kenyajug.regression.services.RetrievalService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+@AutoConfigureMockMvc
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-noliquibase-test.properties")
+public class LogsApiControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @MockitoBean
+    private RetrievalService retrievalService;
+    private final ApplicationResource application = new ApplicationResource("2b38887b-5afe-4d87-b34a-d2f67db5a211","Chromium","V8");
+    private final DatasourceResource datasource = new DatasourceResource("Tomcat Logs","bc8de955-a2d5-48d4-96b5-c49e7774fa01");
+    @Test
+    public void shouldStreamLogsWithNextCursorTest() throws Exception {
+        when(retrievalService.streamLogs(any())).thenReturn(Stream.of(
+                new LogResource("2025-05-08T12:00:00Z","ERROR",application,datasource,"LOG_UUID1","NullPointerException in UserService"),
+                new LogResource("2025-05-08T12:00:05Z","ERROR",application,datasource,"LOG_UUID2","SecurityException in UserService")));
+        var result = mockMvc.perform(get("/api/logs")
+                        .param("severity","ERROR")
+                        .param("startTime","2025-05-01T00:00:00Z")
+                        .param("keyword","Exception")
+                        .param("limit","2")
+                        .with(user("gina").roles("USER")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.logs", hasSize(2)))
+                .andExpect(jsonPath("$.logs[0].id").value("LOG_UUID1"))
+                .andExpect(jsonPath("$.logs[0].timestamp").value("2025-05-08T12:00:00Z"))
+                .andExpect(jsonPath("$.logs[0].applicationId").value(application.uuid()))
+                .andExpect(jsonPath("$.logs[0].source").value(datasource.uuid()))
+                .andExpect(jsonPath("$.logs[1].message").value("SecurityException in UserService"))
+                .andExpect(jsonPath("$.nextCursor").value(new LogCursor(LocalDateTime.of(2025,5,8,12,0,5),"LOG_UUID2").encode()));
+        var queryCaptor = ArgumentCaptor.forClass(LogQuery.class);
+        verify(retrievalService).streamLogs(queryCaptor.capture());
+        var query = queryCaptor.getValue();
+        assertThat(query.startTime()).isEqualTo(LocalDateTime.of(2025,5,1,0,0));
+        assertThat(query.endTime()).isNull();
+        assertThat(query.severity()).isEqualTo("ERROR");
+        assertThat(query.keyword()).isEqualTo("Exception");
+        assertThat(query.after()).isNull();
+        assertThat(query.limit()).isEqualTo(2);
+    }
+    @Test
+    public void shouldEndPagingWhenPageIsNotFullTest() throws Exception {
+        var cursor = new LogCursor(LocalDateTime.of(2025,5,8,12,0,5),"LOG_UUID2");
+        when(retrievalService.streamLogs(any())).thenReturn(Stream.of(
+                new LogResource("2025-05-08T12:01:00Z","WARN",application,datasource,"LOG_UUID3","Slow query")));
+        var result = mockMvc.perform(get("/api/logs")
+                        .param("cursor",cursor.encode())
+                        .with(user("gina").roles("USER")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.logs", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+        var queryCaptor = ArgumentCaptor.forClass(LogQuery.class);
+        verify(retrievalService).streamLogs(queryCaptor.capture());
+        assertThat(queryCaptor.getValue().after()).isEqualTo(cursor);
+        assertThat(queryCaptor.getValue().limit()).isEqualTo(100);
+    }
+    @Test
+    public void shouldReturnHistogramTest() throws Exception {
+        when(retrievalService.composeHistogram(LocalDateTime.of(2025,5,8,12,0), LocalDateTime.of(2025,5,8,12,10), 10, null, null))
+                .thenReturn(new LogHistogram("MINUTE", 60, List.of("2025-05-08T12:00:00Z"), Map.of("ERROR", List.of(3L))));
+        mockMvc.perform(get("/api/logs/histogram")
+                        .param("startTime","2025-05-08T12:00:00Z")
+                        .param("endTime","2025-05-08T12:10:00Z")
+                        .param("buckets","10")
+                        .with(user("gina").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resolution").value("MINUTE"))
+                .andExpect(jsonPath("$.bucketSeconds").value(60))
+                .andExpect(jsonPath("$.bucketStarts[0]").value("2025-05-08T12:00:00Z"))
+                .andExpect(jsonPath("$.counts.ERROR[0]").value(3));
+        mockMvc.perform(get("/api/logs/histogram")
+                        .param("startTime","2025-05-08T12:10:00Z")
+                        .param("endTime","2025-05-08T12:00:00Z")
+                        .with(user("gina").roles("USER")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/logs/histogram")
+                        .param("startTime","2025-05-08T12:00:00Z")
+                        .param("endTime","2025-05-08T12:10:00Z")
+                        .param("buckets","0")
+                        .with(user("gina").roles("USER")))
+                .andExpect(status().isBadRequest());
+    }
+    @Test
+    public void shouldReturnChartDataPerApplicationTest() throws Exception {
+        List<Long> hourlyCounts = new ArrayList<>(Collections.nCopies(24, 0L));
+        hourlyCounts.set(11, 7L);
+        when(retrievalService.composeChartDataByGroup(LocalDate.of(2025,5,8), "application"))
+                .thenReturn(Map.of("APP_UUID1", List.of(new HourlyLogStats("ERROR", hourlyCounts))));
+        mockMvc.perform(get("/api/logs/chart")
+                        .param("date","2025-05-08")
+                        .param("groupBy","application")
+                        .with(user("gina").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.APP_UUID1[0].severity").value("ERROR"))
+                .andExpect(jsonPath("$.APP_UUID1[0].hourlyCounts", hasSize(24)))
+                .andExpect(jsonPath("$.APP_UUID1[0].hourlyCounts[11]").value(7));
+        mockMvc.perform(get("/api/logs/chart")
+                        .param("date","2025-05-08")
+                        .param("groupBy","severity")
+                        .with(user("gina").roles("USER")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/logs/chart")
+                        .param("date","yesterday")
+                        .param("groupBy","source")
+                        .with(user("gina").roles("USER")))
+                .andExpect(status().isBadRequest());
+    }
+    @Test
+    public void shouldRejectInvalidQueryTest() throws Exception {
+        mockMvc.perform(get("/api/logs")
+                        .param("severity","FATAL")
+                        .with(user("gina").roles("USER")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/logs")
+                        .param("startTime","yesterday")
+                        .with(user("gina").roles("USER")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/logs")
+                        .param("cursor","not-a-cursor")
+                        .with(user("gina").roles("USER")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/logs")
+                        .param("limit","0")
+                        .with(user("gina").roles("USER")))
+                .andExpect(status().isBadRequest());
+        verify(retrievalService, never()).streamLogs(any());
+    }
+    @Test
+    public void shouldChallengeUnauthenticatedApiClientsTest() throws Exception {
+        mockMvc.perform(get("/api/logs"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().exists("WWW-Authenticate"));
+    }
+}
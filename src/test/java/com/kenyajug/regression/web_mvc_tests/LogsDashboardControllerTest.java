@@ -37,11 +37,15 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.hamcrest.Matchers.containsString;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 @AutoConfigureMockMvc
 @SpringBootTest
@@ -105,9 +109,18 @@ public class LogsDashboardControllerTest {
                 .andExpect(model().attributeExists("dataSources"))
                 .andExpect(model().attributeExists("logsFilter"))
                 .andExpect(model().attributeExists("logChartData"))
+                .andExpect(model().attribute("liveTail", true))
                 .andExpect(model().attribute("logs",expectedLogs));
     }
     @Test
+    public void shouldOpenLiveTailStreamTest() throws Exception {
+        mockMvc.perform(get("/logs/tail")
+                .param("applicationId", "2b38887b-5afe-4d87-b34a-d2f67db5a211")
+                .param("severity", "ERROR")
+                .with(user("gina").roles("USER")))
+                .andExpect(request().asyncStarted());
+    }
+    @Test
     public void shouldListFilteredLogsTest() throws Exception {
         var applicationId = "2b38887b-5afe-4d87-b34a-d2f67db5a211";
         var datasourceId = "bc8de955-a2d5-48d4-96b5-c49e7774fa01";
@@ -347,4 +360,68 @@ public class LogsDashboardControllerTest {
                 .andExpect(model().attributeExists("dataSources"))
                 .andExpect(model().attributeExists("logChartData"));
     }
+    @Test
+    public void shouldSearchFilteredLogsByKeywordTest() throws Exception {
+        var applicationId = "af3b3361-2735-4d63-b273-7d6d02e0dcb8";
+        var datasourceId = "ae548aea-8493-40dc-9427-ff104a528f53";
+        var application = new ApplicationResource(applicationId,"Chromium","V8");
+        var datasource = new DatasourceResource("local",datasourceId);
+        var expectedLogs = List.of(
+                new LogResource(
+                        DateTimeUtils.localTimeString(LocalDateTime.now().toLocalTime()),
+                        "ERROR",
+                        application,
+                        datasource,
+                        "8e4f1ffe-f22b-4687-9e3e-7a6555e5d6b4","Connection refused")
+        );
+        when(retrievalService.listAllApplications()).thenReturn(List.of(application));
+        when(retrievalService.listAllDataSources()).thenReturn(List.of(datasource));
+        var filterDate = LocalDate.of(2025,11,20);
+        when(retrievalService.searchLogs(filterDate,"\"connection refused\"","ERROR",applicationId,datasourceId))
+                .thenReturn(expectedLogs);
+        mockMvc.perform(get("/logs/filtered")
+                        .with(user("gina").roles("USER"))
+                        .with(csrf())
+                        .param("selectedDate","2025-11-20")
+                        .param("selectedSeverity","ERROR")
+                        .param("selectedAppId",applicationId)
+                        .param("selectedSourceId",datasourceId)
+                        .param("keyword","\"connection refused\""))
+                .andExpect(status().isOk())
+                .andExpect(view().name("logs-list"))
+                .andExpect(model().attribute("logs",expectedLogs));
+        verify(retrievalService).searchLogs(filterDate,"\"connection refused\"","ERROR",applicationId,datasourceId);
+    }
+    @Test
+    public void shouldLookupLogsByMetadataValueTest() throws Exception {
+        var application = new ApplicationResource("af3b3361-2735-4d63-b273-7d6d02e0dcb8","Chromium","V8");
+        var datasource = new DatasourceResource("local","ae548aea-8493-40dc-9427-ff104a528f53");
+        var expectedLogs = List.of(
+                new LogResource("2025-11-20 10:15:00", "ERROR", application, datasource,
+                        "8e4f1ffe-f22b-4687-9e3e-7a6555e5d6b4","Connection refused traceId=abc-123"),
+                new LogResource("2025-11-20 10:15:01", "WARN", application, datasource,
+                        "0c1d9a58-2f2e-4b8e-8d8d-5c7a3f6e2b11","Retrying traceId=abc-123")
+        );
+        when(retrievalService.listIndexedMetadataTypes()).thenReturn(List.of("traceIdentifier", "sessionId"));
+        when(retrievalService.findLogsByMetadata("traceIdentifier","abc-123")).thenReturn(expectedLogs);
+        mockMvc.perform(get("/logs/lookup")
+                        .with(user("gina").roles("USER"))
+                        .param("metadataType","traceIdentifier")
+                        .param("metadataValue","abc-123"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("logs-list"))
+                .andExpect(model().attribute("logs",expectedLogs))
+                .andExpect(model().attribute("selectedMetadataType","traceIdentifier"))
+                .andExpect(content().string(containsString("2025-11-20 10:15:01")));
+    }
+    @Test
+    public void shouldRejectLookupByUnindexedMetadataTypeTest() throws Exception {
+        when(retrievalService.listIndexedMetadataTypes()).thenReturn(List.of("traceIdentifier", "sessionId"));
+        mockMvc.perform(get("/logs/lookup")
+                        .with(user("gina").roles("USER"))
+                        .param("metadataType","threadName")
+                        .param("metadataValue","main"))
+                .andExpect(status().isBadRequest());
+        verify(retrievalService, never()).findLogsByMetadata(anyString(), anyString());
+    }
 }
@@ -0,0 +1,163 @@
+package com.kenyajug.regression.web_mvc_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kenyajug.regression.entities.LogsMetadata;
+import com.kenyajug.regression.models.LogQuery;
+import com.kenyajug.regression.resources.ApplicationResource;
+import com.kenyajug.regression.resources.DatasourceResource;
+import com.kenyajug.regression.resources.LogResource;
+import com.kenyajug.regression.services.RetrievalService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+@AutoConfigureMockMvc
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-noliquibase-test.properties")
+public class LogsExportControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @MockitoBean
+    private RetrievalService retrievalService;
+    private final ApplicationResource application = new ApplicationResource("2b38887b-5afe-4d87-b34a-d2f67db5a211","Chromium","V8");
+    private final DatasourceResource datasource = new DatasourceResource("Tomcat Logs","bc8de955-a2d5-48d4-96b5-c49e7774fa01");
+    @Test
+    public void shouldExportFilteredDayAsCsvTest() throws Exception {
+        when(retrievalService.streamLogs(any())).thenReturn(Stream.of(
+                new LogResource("2025-05-08T12:00:00Z","ERROR",application,datasource,"LOG_UUID1","Failed to save user, \"admin\"\nretrying"),
+                new LogResource("2025-05-08T12:00:05Z","ERROR",application,datasource,"LOG_UUID2","SecurityException in UserService")));
+        var result = mockMvc.perform(get("/logs/export")
+                        .param("selectedDate","2025-05-08")
+                        .param("selectedSeverity","ERROR")
+                        .param("selectedAppId","")
+                        .param("selectedSourceId",datasource.uuid())
+                        .param("keyword","")
+                        .with(user("gina").roles("USER")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        var content = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", containsString("text/csv")))
+                .andExpect(header().string("Content-Disposition", containsString("logs-2025-05-08.csv")))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertThat(content).isEqualTo("""
+                timestamp,severity,application_id,application,source_id,source,log_id,message\r
+                2025-05-08T12:00:00Z,ERROR,2b38887b-5afe-4d87-b34a-d2f67db5a211,Chromium,bc8de955-a2d5-48d4-96b5-c49e7774fa01,Tomcat Logs,LOG_UUID1,"Failed to save user, ""admin""
+                retrying"\r
+                2025-05-08T12:00:05Z,ERROR,2b38887b-5afe-4d87-b34a-d2f67db5a211,Chromium,bc8de955-a2d5-48d4-96b5-c49e7774fa01,Tomcat Logs,LOG_UUID2,SecurityException in UserService\r
+                """);
+        var queryCaptor = ArgumentCaptor.forClass(LogQuery.class);
+        verify(retrievalService).streamLogs(queryCaptor.capture());
+        var query = queryCaptor.getValue();
+        assertThat(query.startTime()).isEqualTo(LocalDateTime.of(2025,5,8,0,0));
+        assertThat(query.endTime()).isEqualTo(LocalDateTime.of(2025,5,9,0,0));
+        assertThat(query.severity()).isEqualTo("ERROR");
+        assertThat(query.datasourceId()).isEqualTo(datasource.uuid());
+        assertThat(query.limit()).isEqualTo(Integer.MAX_VALUE);
+        verify(retrievalService, never()).findMetadataByLogIds(anyList());
+    }
+    @Test
+    public void shouldExportGzippedNdjsonWithMetadataTest() throws Exception {
+        when(retrievalService.streamLogs(any())).thenReturn(Stream.of(
+                new LogResource("2025-05-08T12:00:00Z","INFO",application,datasource,"LOG_UUID1","Request served"),
+                new LogResource("2025-05-08T12:00:05Z","WARN",application,datasource,"LOG_UUID2","Slow query")));
+        when(retrievalService.listIndexedMetadataTypes()).thenReturn(List.of("traceIdentifier"));
+        when(retrievalService.findMetadataByLogIds(List.of("LOG_UUID1","LOG_UUID2"))).thenReturn(Map.of(
+                "LOG_UUID1", List.of(new LogsMetadata("META1","LOG_UUID1","traceIdentifier","traceId=abc-123"))));
+        var result = mockMvc.perform(get("/logs/export")
+                        .param("selectedDate","2025-05-08")
+                        .param("selectedSeverity","All")
+                        .param("startTime","2025-05-08T12:00:00Z")
+                        .param("endTime","2025-05-08T13:00:00Z")
+                        .param("format","ndjson")
+                        .param("metadata","true")
+                        .param("gzip","true")
+                        .with(user("gina").roles("USER")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        var bytes = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", containsString("application/gzip")))
+                .andExpect(header().string("Content-Disposition", containsString("logs-2025-05-08.ndjson.gz")))
+                .andReturn().getResponse().getContentAsByteArray();
+        String content;
+        try (var input = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            content = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        var lines = content.split("\n");
+        assertThat(lines).hasSize(2);
+        var objectMapper = new ObjectMapper();
+        var first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("id").asText()).isEqualTo("LOG_UUID1");
+        assertThat(first.get("metadata").get("traceIdentifier").asText()).isEqualTo("traceId=abc-123");
+        var second = objectMapper.readTree(lines[1]);
+        assertThat(second.get("severity").asText()).isEqualTo("WARN");
+        assertThat(second.get("metadata").isEmpty()).isTrue();
+        var queryCaptor = ArgumentCaptor.forClass(LogQuery.class);
+        verify(retrievalService).streamLogs(queryCaptor.capture());
+        assertThat(queryCaptor.getValue().startTime()).isEqualTo(LocalDateTime.of(2025,5,8,12,0));
+        assertThat(queryCaptor.getValue().endTime()).isEqualTo(LocalDateTime.of(2025,5,8,13,0));
+        assertThat(queryCaptor.getValue().severity()).isNull();
+    }
+    @Test
+    public void shouldRejectInvalidExportTest() throws Exception {
+        mockMvc.perform(get("/logs/export")
+                        .param("selectedDate","2025-05-08")
+                        .param("format","xml")
+                        .with(user("gina").roles("USER")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/logs/export")
+                        .param("selectedDate","2025-05-08")
+                        .param("selectedSeverity","FATAL")
+                        .with(user("gina").roles("USER")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/logs/export")
+                        .with(user("gina").roles("USER")))
+                .andExpect(status().isBadRequest());
+        verify(retrievalService, never()).streamLogs(any());
+    }
+}
@@ -0,0 +1,124 @@
+package com.kenyajug.regression.web_mvc_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.Application;
+import com.kenyajug.regression.models.ApplicationMetrics;
+import com.kenyajug.regression.models.RecurringItem;
+import com.kenyajug.regression.repository.ApplicationsRepository;
+import com.kenyajug.regression.services.IHeavyHitterService;
+import com.kenyajug.regression.services.IMetricsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+@AutoConfigureMockMvc
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-noliquibase-test.properties")
+public class MetricsApiControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @MockitoBean
+    private IHeavyHitterService heavyHitterService;
+    @MockitoBean
+    private ApplicationsRepository applicationsRepository;
+    @MockitoBean
+    private IMetricsService metricsService;
+    private final String appId = "2b38887b-5afe-4d87-b34a-d2f67db5a211";
+    @BeforeEach
+    public void setUp(){
+        when(heavyHitterService.dimensions()).thenReturn(List.of("message", "exceptionClass"));
+        when(applicationsRepository.findById(appId)).thenReturn(Optional.of(
+                new Application(appId, "Chromium", "1.0", "V8", "", LocalDateTime.of(2025, 5, 1, 8, 0))));
+    }
+    @Test
+    public void shouldReturnApplicationMetricsTest() throws Exception {
+        when(metricsService.composeMetrics(appId)).thenReturn(new ApplicationMetrics(
+                appId,
+                200.0,
+                Map.of("ERROR", 120L, "WARN", 45L),
+                5,
+                "Afternoon",
+                "Tuesday",
+                Map.of("ERROR", "c.k.r.UserService : NullPointerException"),
+                new ApplicationMetrics.VersionErrors(appId, "v2.3.1", 47)));
+        mockMvc.perform(get("/api/metrics/{appId}", appId)
+                        .with(user("gina").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.logIngestionRate").value(200.0))
+                .andExpect(jsonPath("$.errorCountBySeverity.ERROR").value(120))
+                .andExpect(jsonPath("$.activeApplications").value(5))
+                .andExpect(jsonPath("$.highestIncidentTimeOfDay").value("Afternoon"))
+                .andExpect(jsonPath("$.highestIncidentDayOfWeek").value("Tuesday"))
+                .andExpect(jsonPath("$.mostRecurringMessages.ERROR").value("c.k.r.UserService : NullPointerException"))
+                .andExpect(jsonPath("$.appVersionWithMostErrors.version").value("v2.3.1"))
+                .andExpect(jsonPath("$.appVersionWithMostErrors.errorCount").value(47));
+        mockMvc.perform(get("/api/metrics/{appId}", "UNKNOWN_APP")
+                        .with(user("gina").roles("USER")))
+                .andExpect(status().isNotFound());
+    }
+    @Test
+    public void shouldReturnRecurringItemsOfApplicationTest() throws Exception {
+        when(heavyHitterService.top(appId, "exceptionClass", "WARN", 2)).thenReturn(List.of(
+                new RecurringItem("java.net.SocketTimeoutException", 40, 3),
+                new RecurringItem("java.lang.IllegalStateException", 12, 0)));
+        mockMvc.perform(get("/api/metrics/{appId}/recurring", appId)
+                        .param("dimension", "exceptionClass")
+                        .param("severity", "warn")
+                        .param("limit", "2")
+                        .with(user("gina").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].item").value("java.net.SocketTimeoutException"))
+                .andExpect(jsonPath("$[0].count").value(40))
+                .andExpect(jsonPath("$[0].error").value(3));
+    }
+    @Test
+    public void shouldRejectUnknownDimensionAndApplicationTest() throws Exception {
+        mockMvc.perform(get("/api/metrics/{appId}/recurring", appId)
+                        .param("dimension", "userAgentHeader")
+                        .with(user("gina").roles("USER")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/metrics/{appId}/recurring", "UNKNOWN_APP")
+                        .with(user("gina").roles("USER")))
+                .andExpect(status().isNotFound());
+        verify(heavyHitterService, never()).top(any(), any(), any(), anyInt());
+    }
+}
@@ -0,0 +1,108 @@
+package com.kenyajug.regression.web_mvc_tests;
+/*
+ * MIT License
+ *
+ * Copyright (c) 2025 Kenya JUG
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.kenyajug.regression.entities.Application;
+import com.kenyajug.regression.entities.RetentionPolicy;
+import com.kenyajug.regression.repository.ApplicationsRepository;
+import com.kenyajug.regression.repository.RetentionPolicyRepository;
+import com.kenyajug.regression.services.RetentionService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+@AutoConfigureMockMvc
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-noliquibase-test.properties")
+public class RetentionUITest {
+    @MockitoBean
+    private ApplicationsRepository applicationsRepository;
+    @MockitoBean
+    private RetentionPolicyRepository retentionPolicyRepository;
+    @MockitoBean
+    private RetentionService retentionService;
+    @Autowired
+    private MockMvc mockMvc;
+    private final Application application = new Application(
+            "a2f39251-d821-4dc0-93eb-5b582d54535e",
+            "Instagram",
+            "1.0",
+            "JVM",
+            "2ae29319-c7cb-4964-a7ab-4905715f5105",
+            LocalDateTime.now());
+    @Test
+    @DisplayName("Should launch the retention form with the effective policy")
+    public void shouldLaunchRetentionFormTest() throws Exception {
+        when(applicationsRepository.findById(application.uuid())).thenReturn(Optional.of(application));
+        when(retentionService.findEffectivePolicy(application.uuid())).thenReturn(new RetentionPolicy(application.uuid(), 30, null, null));
+        mockMvc.perform(get("/applications/{id}/retention", application.uuid())
+                        .with(user("maxbracker@regression.com").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(view().name("retention-form"))
+                .andExpect(model().attributeExists("application"))
+                .andExpect(model().attributeExists("retention"));
+    }
+    @Test
+    @DisplayName("Should save the retention policy of an application")
+    public void shouldSaveRetentionPolicyTest() throws Exception {
+        when(applicationsRepository.findById(application.uuid())).thenReturn(Optional.of(application));
+        mockMvc.perform(post("/applications/{id}/retention", application.uuid())
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+                        .param("retentionDays","14")
+                        .param("maxRows","1000000")
+                        .param("maxBytes","")
+                        .with(user("maxbracker@regression.com").roles("ADMIN"))
+                        .with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/applications"));
+        verify(retentionPolicyRepository, times(1)).save(new RetentionPolicy(application.uuid(), 14, 1_000_000L, null));
+    }
+    @Test
+    @DisplayName("Should reject negative retention values")
+    public void shouldValidateRetentionPolicyTest() throws Exception {
+        when(applicationsRepository.findById(application.uuid())).thenReturn(Optional.of(application));
+        mockMvc.perform(post("/applications/{id}/retention", application.uuid())
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+                        .param("retentionDays","-1")
+                        .with(user("maxbracker@regression.com").roles("ADMIN"))
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(view().name("retention-form"))
+                .andExpect(model().attributeHasFieldErrors("retention","retentionDays"));
+        verify(retentionPolicyRepository, never()).save(any());
+    }
+}